@@ -33,6 +33,9 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -59,9 +62,12 @@ public class JMeterTestResultParser extends ResultParser {
     private static final String FAILURE_MESSAGE_ELEMENT = "failureMessage";
     private static final String TEST_NAME_ATTRIBUTE = "lb";
     private static final String TEST_SUCCESS_ATTRIBUTE = "s";
+    private static final QName ELAPSED_TIME_ATTRIBUTE = new QName("t");
 
     private static final String[] ARCHIVABLE_FILES = new String[]{"*.{jtl,log}"};
 
+    private final ParseMode parseMode;
+
     /**
      * This constructor creates a {@link JMeterTestResultParser} object with the
      * test scenario and test location.
@@ -69,7 +75,20 @@ public class JMeterTestResultParser extends ResultParser {
      * @param testResultsLocation The location of the test artifacts
      */
     public JMeterTestResultParser(TestScenario testScenario, Path testResultsLocation) {
+        this(testScenario, testResultsLocation, ParseMode.PER_SAMPLE);
+    }
+
+    /**
+     * This constructor creates a {@link JMeterTestResultParser} object with the
+     * test scenario, test location and the mode in which the samples are turned into test cases.
+     *
+     * @param testScenario The TestScenario to be parsed
+     * @param testResultsLocation The location of the test artifacts
+     * @param parseMode whether to build a test case per sample or per sample label
+     */
+    public JMeterTestResultParser(TestScenario testScenario, Path testResultsLocation, ParseMode parseMode) {
         super(testScenario, testResultsLocation, ARCHIVABLE_FILES);
+        this.parseMode = parseMode;
     }
 
     /**
@@ -85,6 +104,9 @@ public class JMeterTestResultParser extends ResultParser {
      * </li><li>
      *  3. Add the test case into the test scenario.
      * </li></ul>
+     *
+     * In {@link ParseMode#AGGREGATE} mode, step 3 folds the sample into the statistics of its label instead, and
+     * one summary test case per label is added into the test scenario once all the files are parsed.
      * @throws JTLResultParserException result parser error
      */
     @Override
@@ -93,6 +115,7 @@ public class JMeterTestResultParser extends ResultParser {
         XMLInputFactory factory = XMLInputFactory.newInstance();
         String[] scenarioResultFiles = ResultParserUtil.getJTLFiles(this.testResultsLocation);
         String testScenarioName = testScenario.getName();
+        Map<String, JTLSampleStatistics> labelStatistics = new LinkedHashMap<>();
 
         if (scenarioResultFiles.length == 0) {
             logger.warn(StringUtil.concatStrings("Unable to locate jtl files for the scenario : '",
@@ -109,6 +132,7 @@ public class JMeterTestResultParser extends ResultParser {
 
                 XMLEventReader eventReader = factory.createXMLEventReader(inputStream);
                 TestCase testCase = null;
+                long elapsedTime = -1;
                 boolean isValidJTL = false;
                 while (eventReader.hasNext()) {
                     XMLEvent event = eventReader.nextEvent();
@@ -126,6 +150,7 @@ public class JMeterTestResultParser extends ResultParser {
                             if (HTTP_SAMPLE_ELEMENT.equalsIgnoreCase(elementName) ||
                                     SAMPLE_ELEMENT.equalsIgnoreCase(elementName)) {
                                 testCase = this.buildTestCase(startElement);
+                                elapsedTime = getElapsedTime(startElement);
                             } else if (FAILURE_MESSAGE_ELEMENT.equalsIgnoreCase(elementName)) {
                                 failureMsgElement = true;
                             }
@@ -142,7 +167,14 @@ public class JMeterTestResultParser extends ResultParser {
                             String nodeName = endElement.getName().getLocalPart();
                             if (HTTP_SAMPLE_ELEMENT.equalsIgnoreCase(nodeName) ||
                                     SAMPLE_ELEMENT.equalsIgnoreCase(nodeName)) {
-                                this.testScenario.addTestCase(testCase);
+                                if (parseMode == ParseMode.AGGREGATE) {
+                                    String label = testCase.getName() == null ? "" : testCase.getName();
+                                    labelStatistics.computeIfAbsent(label, JTLSampleStatistics::new)
+                                            .addSample(testCase.getStatus(), elapsedTime,
+                                                    testCase.getFailureMessage());
+                                } else {
+                                    this.testScenario.addTestCase(testCase);
+                                }
                             }
                             break;
                         default:
@@ -167,6 +199,10 @@ public class JMeterTestResultParser extends ResultParser {
                         "?. Error: " + e.getMessage());
             }
         }
+
+        for (JTLSampleStatistics statistics : labelStatistics.values()) {
+            this.testScenario.addTestCase(statistics.toTestCase(this.testScenario));
+        }
     }
 
     @Override
@@ -195,5 +231,34 @@ public class JMeterTestResultParser extends ResultParser {
         }
         return testCase;
     }
+
+    private static long getElapsedTime(StartElement sampleElement) {
+        Attribute elapsedTime = sampleElement.getAttributeByName(ELAPSED_TIME_ATTRIBUTE);
+        if (elapsedTime == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(elapsedTime.getValue());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Defines how the samples of a JTL file are turned into test cases.
+     */
+    public enum ParseMode {
+
+        /**
+         * One test case per sample. Suitable for functional tests.
+         */
+        PER_SAMPLE,
+
+        /**
+         * One summary test case per sample label, built in constant memory regardless of the number of samples.
+         * Suitable for load tests.
+         */
+        AGGREGATE
+    }
 }
 
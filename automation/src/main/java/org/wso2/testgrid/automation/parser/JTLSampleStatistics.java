@@ -0,0 +1,130 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.testgrid.automation.parser;
+
+import org.wso2.testgrid.common.Status;
+import org.wso2.testgrid.common.TestCase;
+import org.wso2.testgrid.common.TestScenario;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Aggregated statistics of the JMeter samples that share the same label.
+ * <p>
+ * The memory used by an instance does not depend on the number of samples folded into it.
+ *
+ * @since 1.0.0
+ */
+class JTLSampleStatistics {
+
+    private static final int MAX_FAILURE_MESSAGES = 5;
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 1000;
+    private static final int MAX_SUMMARY_LENGTH = 20000;
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private final String label;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final Set<String> failureMessages = new LinkedHashSet<>();
+    private long sampleCount;
+    private long errorCount;
+    private long minElapsedTime = Long.MAX_VALUE;
+    private long maxElapsedTime = Long.MIN_VALUE;
+    private long totalElapsedTime;
+
+    /**
+     * Creates an empty statistics instance for the samples of the given label.
+     *
+     * @param label label of the samples
+     */
+    JTLSampleStatistics(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Folds a sample into the statistics.
+     *
+     * @param status         status of the sample
+     * @param elapsedTime    elapsed time of the sample in milliseconds, or a negative value if not available
+     * @param failureMessage failure message of the sample, or {@code null} if there is none
+     */
+    void addSample(Status status, long elapsedTime, String failureMessage) {
+        sampleCount++;
+        if (Status.FAIL.equals(status)) {
+            errorCount++;
+        }
+        if (elapsedTime >= 0) {
+            histogram.record(elapsedTime);
+            minElapsedTime = Math.min(minElapsedTime, elapsedTime);
+            maxElapsedTime = Math.max(maxElapsedTime, elapsedTime);
+            totalElapsedTime += elapsedTime;
+        }
+        if (failureMessage != null && failureMessages.size() < MAX_FAILURE_MESSAGES) {
+            failureMessages.add(failureMessage.length() > MAX_FAILURE_MESSAGE_LENGTH ?
+                    failureMessage.substring(0, MAX_FAILURE_MESSAGE_LENGTH) + "..." : failureMessage);
+        }
+    }
+
+    /**
+     * Builds the summary test case of the samples of this label.
+     * <p>
+     * The test case fails if any of the samples failed. Its failure message carries the sample and error counts,
+     * the elapsed time statistics and the first distinct failure messages.
+     *
+     * @param testScenario test scenario the test case belongs to
+     * @return summary test case
+     */
+    TestCase toTestCase(TestScenario testScenario) {
+        TestCase testCase = new TestCase();
+        testCase.setTestScenario(testScenario);
+        testCase.setName(label);
+        testCase.setSuccess(errorCount > 0 ? Status.FAIL : Status.SUCCESS);
+        String summary = getSummary();
+        testCase.setFailureMessage(summary.length() > MAX_SUMMARY_LENGTH ?
+                summary.substring(0, MAX_SUMMARY_LENGTH - 3) + "..." : summary);
+        return testCase;
+    }
+
+    private String getSummary() {
+        StringBuilder summary = new StringBuilder()
+                .append("samples: ").append(sampleCount)
+                .append(", errors: ").append(errorCount);
+        long timedSamples = histogram.getTotalCount();
+        if (timedSamples > 0) {
+            summary.append(", min: ").append(minElapsedTime).append(" ms")
+                    .append(", max: ").append(maxElapsedTime).append(" ms")
+                    .append(", mean: ")
+                    .append(String.format(Locale.ENGLISH, "%.2f", (double) totalElapsedTime / timedSamples))
+                    .append(" ms");
+            for (double percentile : PERCENTILES) {
+                summary.append(", p").append((int) percentile).append(": ")
+                        .append(Math.min(histogram.getValueAtPercentile(percentile), maxElapsedTime))
+                        .append(" ms");
+            }
+        }
+        if (!failureMessages.isEmpty()) {
+            summary.append(System.lineSeparator()).append("failures:");
+            for (String failureMessage : failureMessages) {
+                summary.append(System.lineSeparator()).append(failureMessage);
+            }
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.testgrid.automation.parser;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative latency values with a bounded memory footprint.
+ * <p>
+ * Values are recorded into log-linear buckets: values below {@value #LINEAR_LIMIT} have a bucket of their own and
+ * every larger power-of-two range is split into {@value #SUB_BUCKETS} equal buckets. Percentiles are therefore
+ * accurate to within about 3% of the value, while the number of buckets never exceeds a couple of thousands,
+ * regardless of the number of recorded values.
+ *
+ * @since 1.0.0
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+
+    private long[] counts = new long[LINEAR_LIMIT];
+    private long totalCount;
+
+    /**
+     * Records the given value. Negative values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    void record(long value) {
+        int index = indexOf(Math.max(0, value));
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + SUB_BUCKETS);
+        }
+        counts[index]++;
+        totalCount++;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return number of recorded values
+     */
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values fall.
+     *
+     * @param percentile percentile to compute, between 0 and 100
+     * @return value at the given percentile, or 0 if no values are recorded
+     */
+    long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulativeCount = 0;
+        for (int index = 0; index < counts.length; index++) {
+            cumulativeCount += counts[index];
+            if (cumulativeCount >= target) {
+                return highestValueOf(index);
+            }
+        }
+        return highestValueOf(counts.length - 1);
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
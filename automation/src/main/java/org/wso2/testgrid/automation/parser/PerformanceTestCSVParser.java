@@ -17,9 +17,18 @@
 */
 package org.wso2.testgrid.automation.parser;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.automation.exception.CSVResultParserException;
-import org.wso2.testgrid.automation.exception.ResultParserException;
+import org.wso2.testgrid.common.Column;
+import org.wso2.testgrid.common.PerformanceMetric;
+import org.wso2.testgrid.common.PerformanceResultTable;
+import org.wso2.testgrid.common.ResultFormat;
+import org.wso2.testgrid.common.TestPlan;
 import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.uow.PerformanceMetricUOW;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -31,8 +40,10 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * CSV Result parser implementation related to parsing Performance testing results.
@@ -41,6 +52,7 @@ import java.util.List;
  */
 public class PerformanceTestCSVParser extends ResultParser {
 
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceTestCSVParser.class);
     private static final String RESULT_FILE = "summary.csv";
     private static final String CSV_EXTENTION = ".csv";
     private static final String PNG_EXTENTION = ".png";
@@ -61,13 +73,9 @@ public class PerformanceTestCSVParser extends ResultParser {
         //this parser reads the csv file and then set the data to the scenario
         Path workspace = this.testResultsLocation.resolve(RESULT_LOCATION);
         File file = workspace.resolve(RESULT_FILE).toFile();
-        List<List<String>> data = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)
                 , StandardCharsets.UTF_8));) {
-            String line = "";
-            while (null != (line = reader.readLine())) {
-                data.add(Arrays.asList(line.split(",")));
-            }
+            PerformanceResultTable data = PerformanceResultTable.read(reader);
             //read graphs
             ArrayList<String> imageFiles = new ArrayList<>();
             Files.newDirectoryStream(workspace, entry -> entry.toString().endsWith(PNG_EXTENTION))
@@ -81,9 +89,139 @@ public class PerformanceTestCSVParser extends ResultParser {
         }
     }
 
+    /**
+     * Persists the parsed results as {@link PerformanceMetric}s of the test plan, so that the metrics can be
+     * compared across builds without the result files. An error on persisting the metrics is logged only, since the
+     * test results themselves are already recorded.
+     */
     @Override
-    public void archiveResults() throws ResultParserException {
-        //TODO implement performance test artifact persisting
+    public void archiveResults() {
+        PerformanceResultTable results = this.testScenario.getPerformanceTestResults();
+        if (results == null) {
+            return;
+        }
+        TestPlan testPlan = this.testScenario.getTestPlan();
+        List<PerformanceMetric> metrics = createPerformanceMetrics(this.testScenario.getName(), results,
+                testPlan.getResultFormat());
+        try {
+            new PerformanceMetricUOW().persistPerformanceMetrics(testPlan, this.testScenario.getName(), metrics);
+            logger.info(StringUtil.concatStrings("Persisted ", metrics.size(), " performance metrics of scenario ",
+                    this.testScenario.getName()));
+        } catch (TestGridDAOException e) {
+            logger.error("Error occurred while persisting the performance metrics of scenario "
+                    + this.testScenario.getName(), e);
+        }
     }
-}
 
+    /**
+     * Creates a metric for each value of the metric columns of the results, keyed by the values of the dimension
+     * columns of its row.
+     * <p>
+     * When the result format defines a table, the primary divider, the dividers and the columns at the top level of
+     * the table are the dimensions, and only the columns inside the column groups of the table are metrics; other
+     * columns are left out. Otherwise the dividers and the columns which are not numeric are the dimensions, and the
+     * other numeric columns are metrics. Values whose scenario, dimensions and metric name repeat an earlier value
+     * are skipped, since they cannot be told apart across builds.
+     *
+     * @param scenarioName name of the test scenario of the results
+     * @param results      parsed results
+     * @param resultFormat format of the results, or {@code null} if the results have no format
+     * @return metrics of the results
+     */
+    static List<PerformanceMetric> createPerformanceMetrics(String scenarioName, PerformanceResultTable results,
+                                                            ResultFormat resultFormat) {
+        if (scenarioName.length() > PerformanceMetric.MAX_NAME_LENGTH) {
+            logger.warn(StringUtil.concatStrings("Performance metrics of scenario ", scenarioName, " are not "
+                    + "persisted since the scenario name is longer than ", PerformanceMetric.MAX_NAME_LENGTH,
+                    " characters"));
+            return Collections.emptyList();
+        }
+        Set<String> dividers = new HashSet<>();
+        Set<String> tableColumns = new HashSet<>();
+        Set<String> resultColumns = new HashSet<>();
+        if (resultFormat != null) {
+            if (resultFormat.getPrimaryDivider() != null) {
+                dividers.add(resultFormat.getPrimaryDivider());
+            }
+            if (resultFormat.getDividers() != null) {
+                dividers.addAll(resultFormat.getDividers());
+            }
+            for (Column column : resultFormat.getTable()) {
+                if (Column.COLUMN.equals(column.getType())) {
+                    tableColumns.add(column.getName());
+                } else if (Column.COMMON_COLUMN.equals(column.getType())) {
+                    addResultColumns(column, resultColumns);
+                }
+            }
+        }
+        boolean formatDefinesMetrics = !resultColumns.isEmpty();
+
+        List<String> headers = results.getHeaders();
+        List<Integer> dimensionColumns = new ArrayList<>();
+        List<Integer> metricColumns = new ArrayList<>();
+        for (int column = 0; column < headers.size(); column++) {
+            String header = headers.get(column);
+            boolean metric = formatDefinesMetrics ? resultColumns.contains(header)
+                    : !dividers.contains(header) && results.isNumeric(column);
+            if (metric) {
+                if (!results.isNumeric(column)) {
+                    logger.warn(StringUtil.concatStrings("Column ", header, " of scenario ", scenarioName,
+                            " is not persisted as a performance metric since it does not hold numbers"));
+                } else if (header.length() > PerformanceMetric.MAX_NAME_LENGTH) {
+                    logger.warn(StringUtil.concatStrings("Column ", header, " of scenario ", scenarioName,
+                            " is not persisted as a performance metric since its name is longer than ",
+                            PerformanceMetric.MAX_NAME_LENGTH, " characters"));
+                } else {
+                    metricColumns.add(column);
+                }
+            } else if (!formatDefinesMetrics || dividers.contains(header) || tableColumns.contains(header)) {
+                dimensionColumns.add(column);
+            }
+        }
+
+        List<PerformanceMetric> metrics = new ArrayList<>(results.getRowCount() * metricColumns.size());
+        Set<String> keys = new HashSet<>();
+        int duplicateCount = 0;
+        StringBuilder dimensions = new StringBuilder();
+        for (int row = 0; row < results.getRowCount(); row++) {
+            dimensions.setLength(0);
+            for (int column : dimensionColumns) {
+                if (dimensions.length() > 0) {
+                    dimensions.append(',');
+                }
+                dimensions.append(headers.get(column)).append('=').append(results.getValue(row, column));
+            }
+            for (int column : metricColumns) {
+                if (!keys.add(StringUtil.concatStrings(headers.get(column), "\n", dimensions))) {
+                    duplicateCount++;
+                    continue;
+                }
+                PerformanceMetric metric = new PerformanceMetric();
+                metric.setScenarioName(scenarioName);
+                metric.setDimensions(dimensions.toString());
+                metric.setMetricName(headers.get(column));
+                metric.setValue(results.getNumber(row, column));
+                metrics.add(metric);
+            }
+        }
+        if (duplicateCount > 0) {
+            logger.warn(StringUtil.concatStrings("Skipped ", duplicateCount, " performance metrics of scenario ",
+                    scenarioName, " whose dimensions repeat an earlier row. The result format may be missing a "
+                            + "divider or a table column."));
+        }
+        return metrics;
+    }
+
+    private static void addResultColumns(Column commonColumn, Set<String> resultColumns) {
+        if (commonColumn.getColumns() == null) {
+            return;
+        }
+        for (Column column : commonColumn.getColumns()) {
+            if (Column.COLUMN.equals(column.getType())) {
+                resultColumns.add(column.getName());
+            } else if (Column.COMMON_COLUMN.equals(column.getType())) {
+                addResultColumns(column, resultColumns);
+            }
+        }
+    }
+}
@@ -24,8 +24,13 @@ import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.automation.exception.ResultParserException;
 import org.wso2.testgrid.common.TestGridConstants;
 import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.common.config.ConfigurationContext;
+import org.wso2.testgrid.common.plugins.ArtifactReaderException;
+import org.wso2.testgrid.common.plugins.S3ClientRegistry;
 import org.wso2.testgrid.common.util.DataBucketsHelper;
 import org.wso2.testgrid.common.util.FileUtil;
+import org.wso2.testgrid.common.util.S3StorageUtil;
+import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.common.util.TestGridUtil;
 
 import java.io.File;
@@ -73,7 +78,8 @@ public abstract class ResultParser {
      * TODO: This per-scenario test-result archival logic is no longer needed. Need to remove this.
      *
      * Archive the results file for dashboard and reporting purposes.
-     * In here, the results file should be copied to the data-buckets folder.
+     * In here, the results file should be copied to the data-buckets folder. The archive of the results is streamed
+     * straight into the TestGrid bucket when the bucket is configured, and written next to the results otherwise.
      *
      * @throws ResultParserException failure during persisting.
      * @see org.wso2.testgrid.common.util.DataBucketsHelper
@@ -106,13 +112,22 @@ public abstract class ResultParser {
                 Path zipFilePath = artifactPath.resolve(testScenario.getName() + TestGridConstants
                         .TESTGRID_COMPRESSED_FILE_EXT);
                 Files.deleteIfExists(zipFilePath);
-                FileUtil.compress(artifactPath.toString(), zipFilePath.toString());
-                logger.info("Created the results archive: " + zipFilePath);
+                String s3bucket = ConfigurationContext
+                        .getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME);
+                if (StringUtil.isStringNullOrEmpty(s3bucket)) {
+                    FileUtil.compress(artifactPath.toString(), zipFilePath.toString());
+                    logger.info("Created the results archive: " + zipFilePath);
+                } else {
+                    String archiveKey = S3StorageUtil.deriveS3ScenarioArchiveFileDir(testScenario.getTestPlan(),
+                            testScenario.getName(), S3ClientRegistry.getInstance().getArtifactReader());
+                    S3StorageUtil.uploadArchive(artifactPath, "", archiveKey);
+                    logger.info("Uploaded the results archive to " + s3bucket + "/" + archiveKey);
+                }
             } else {
                 logger.info("Could not create results archive. No archived files with names: " + Arrays.toString
                         (archivableFiles) + " were found at " + outputLocation + ".");
             }
-        } catch (IOException e) {
+        } catch (IOException | ArtifactReaderException e) {
             throw new ResultParserException("Error occurred while persisting scenario test-results." +
                     "Scenario ID: " + testScenario.getId(), e);
         }
@@ -58,7 +58,9 @@ public class ResultParserFactory {
                 Optional.ofNullable(scenarioConfig.getTestType()).orElse(TestEngine.TESTNG.toString());
         if (TestEngine.JMETER.toString().equalsIgnoreCase(testType) ||
                 TEST_TYPE_FUNCTIONAL.equalsIgnoreCase(testType)) {
-            resultParser = new JMeterTestResultParser(testScenario, testResultsLocation);
+            resultParser = new JMeterTestResultParser(testScenario, testResultsLocation,
+                    scenarioConfig.isAggregateResults() ? JMeterTestResultParser.ParseMode.AGGREGATE :
+                            JMeterTestResultParser.ParseMode.PER_SAMPLE);
         } else if (TEST_TYPE_PERFORMANCE.equalsIgnoreCase(testType)) {
             resultParser = new PerformanceTestCSVParser(testScenario, testResultsLocation);
         } else if (TestEngine.TESTNG.toString().equalsIgnoreCase(testType)) {
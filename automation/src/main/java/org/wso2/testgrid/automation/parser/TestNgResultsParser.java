@@ -25,30 +25,32 @@ import org.wso2.testgrid.common.TestCase;
 import org.wso2.testgrid.common.TestScenario;
 import org.wso2.testgrid.common.util.StringUtil;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * Surefire reports parser implementation related to parsing testng integration
@@ -70,6 +72,13 @@ public class TestNgResultsParser extends ResultParser {
     private static final String FAILED = "failure";
     private static final String SKIPPED = "skipped";
     private static final int ERROR_LINE_LIMIT = 2;
+    private static final String JUNIT_REPORTS_DIR = "junitreports";
+    // StAX factories are not guaranteed to be thread-safe; keep one per parser thread
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY =
+            ThreadLocal.withInitial(XMLInputFactory::newInstance);
+    private static final long PARSER_THREAD_KEEP_ALIVE_SECONDS = 60;
+    // Shared by all the parsers so that the pool threads, and hence their StAX factories, are reused
+    private static final ExecutorService parserExecutor = createParserExecutor();
 
     /**
      * This constructor is used to create a {@link TestNgResultsParser} object with the
@@ -112,9 +121,9 @@ public class TestNgResultsParser extends ResultParser {
      */
     @Override
     public void parseResults() {
-        Set<Path> inputFiles = getResultInputFiles(testResultsLocation);
-        final Set<Path> testSuiteXmlPaths = inputFiles.stream().map
-                (testResultsLocation::relativize).collect(Collectors.toSet());
+        List<Path> inputFiles = getResultInputFiles(testResultsLocation);
+        final List<Path> testSuiteXmlPaths = inputFiles.stream().map
+                (testResultsLocation::relativize).collect(Collectors.toList());
         if (testSuiteXmlPaths.isEmpty()) {
             final Path workspace = Paths.get(testScenario.getTestPlan().getWorkspace());
             logger.error("ERROR while processing scenario '" + testScenario.getName()
@@ -122,139 +131,173 @@ public class TestNgResultsParser extends ResultParser {
                     workspace.relativize(testResultsLocation) + ".\n"
                     + " Check whether you copied the output files correctly?\n"
                     + " Also check whether the test type is TESTNG as defined in testgrid.yaml.");
-        } else {
-            logger.info("Found TEST-TestSuite.xml result files at: " + testSuiteXmlPaths);
+            return;
         }
+        logger.info("Found TEST-TestSuite.xml result files at: " + testSuiteXmlPaths);
+
+        List<Future<List<TestCase>>> results = new ArrayList<>(inputFiles.size());
         for (Path resultsFile : inputFiles) {
-            try (final InputStream stream = Files.newInputStream(resultsFile, StandardOpenOption.READ)) {
-                logger.info("Processing results file: " + testResultsLocation.relativize(resultsFile));
-                if (logger.isDebugEnabled()) {
-                    logger.debug(
-                            "File content: " + new String(Files.readAllBytes(resultsFile), StandardCharsets.UTF_8));
+            results.add(parserExecutor.submit(() -> parseResultsFile(resultsFile)));
+        }
+        try {
+            // Merge in the order of the result files so that the test case order does not depend on scheduling
+            for (int i = 0; i < inputFiles.size(); i++) {
+                Path resultsFile = inputFiles.get(i);
+                try {
+                    results.get(i).get().forEach(testScenario::addTestCase);
+                } catch (ExecutionException e) {
+                    logger.error("Error while parsing testng-results.xml at " + resultsFile + " for " +
+                            testScenario.getName(), e.getCause());
                 }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            results.forEach(result -> result.cancel(true));
+            logger.error("Interrupted while parsing test results of " + testScenario.getName(), e);
+        }
 
-                final XMLEventReader eventReader = XMLInputFactory.newInstance().createXMLEventReader(stream);
-                while (eventReader.hasNext()) {
-                    XMLEvent event = eventReader.nextEvent();
-                    if (event.getEventType() == XMLStreamConstants.START_ELEMENT) {
-                        StartElement startElement = event.asStartElement();
-                        if (startElement.getName().getLocalPart().equals("testcase")) {
-                            final String classNameStr = getClassName(startElement);
-                            List<TestCase> testCases = getTestCasesFor(classNameStr, eventReader);
-                            if (logger.isDebugEnabled()) {
-                                logger.debug(String.format("Found %s test cases in class '%s'", testCases.size(),
-                                        classNameStr));
-                            }
-                            testCases.stream().forEachOrdered(tc -> testScenario.addTestCase(tc));
-                        }
-                    }
-                }
-                //start processing duplicate testcase names
-                List<TestCase> testCases = testScenario.getTestCases();
-                Map<String, TestCase> finalTestCases = new HashMap<>();
-                for (TestCase testCase : testCases) {
-                    int suffix = 1;
-                    String testCaseName = testCase.getName();
-                    while (finalTestCases.containsKey(testCase.getName())) {
-                        testCase.setName(StringUtil
-                                .concatStrings(testCaseName, "#data_provider_", suffix));
-                        suffix++;
+        //start processing duplicate testcase names
+        Set<String> testCaseNames = new HashSet<>();
+        for (TestCase testCase : testScenario.getTestCases()) {
+            int suffix = 1;
+            String testCaseName = testCase.getName();
+            while (testCaseNames.contains(testCase.getName())) {
+                testCase.setName(StringUtil
+                        .concatStrings(testCaseName, "#data_provider_", suffix));
+                suffix++;
+            }
+            testCaseNames.add(testCase.getName());
+        }
+        logger.info(String.format("Found total of %s test cases. %s test cases has failed.", testScenario
+                        .getTestCases().size(),
+                testScenario.getTestCases().stream().filter(tc -> Status.FAIL.equals(tc.getStatus())).count()));
+    }
+
+    /**
+     * Parses the given TEST-*.xml file and returns the test cases found in it, in document order.
+     * <p>
+     * A testcase element that cannot be processed is skipped. If the file is not well-formed, the test cases read
+     * before the malformed part are returned.
+     *
+     * @param resultsFile results file to parse
+     * @return test cases of the results file
+     * @throws IOException when the file cannot be read
+     */
+    private List<TestCase> parseResultsFile(Path resultsFile) throws IOException {
+        logger.info("Processing results file: " + testResultsLocation.relativize(resultsFile));
+        List<TestCase> testCases = new ArrayList<>();
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(resultsFile,
+                StandardOpenOption.READ))) {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(stream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && TEST_CASE.equals(reader.getLocalName())) {
+                        addTestCase(testCases, reader, resultsFile);
                     }
-                    finalTestCases.put(testCase.getName(), testCase);
                 }
-                logger.info(String.format("Found total of %s test cases. %s test cases has failed.", testScenario
-                                .getTestCases().size(),
-                        testScenario.getTestCases().stream().filter(tc -> Status.FAIL.equals(tc.getStatus())).count()));
-            } catch (IOException | XMLStreamException e) {
-                logger.error("Error while parsing testng-results.xml at " + resultsFile + " for " +
-                        testScenario.getName(), e);
+            } finally {
+                reader.close();
             }
+        } catch (XMLStreamException e) {
+            logger.error("Error while parsing testng-results.xml at " + resultsFile + " for " +
+                    testScenario.getName() + ". Skipped the test cases after the first " + testCases.size() +
+                    " test cases of the file.", e);
         }
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Found %s test cases in '%s'", testCases.size(),
+                    testResultsLocation.relativize(resultsFile)));
+        }
+        return testCases;
     }
 
     /**
-     * Read the name attribute from the classElement input.
+     * Reads the testcase element the reader is positioned at and adds the test case to the given list.
      *
-     * @param classElement the class element
+     * @param testCases   list to add the test case to
+     * @param reader      reader positioned at the testcase start element
+     * @param resultsFile results file being parsed
+     * @throws XMLStreamException when the file is not a well-formed XML document
+     */
+    private void addTestCase(List<TestCase> testCases, XMLStreamReader reader, Path resultsFile)
+            throws XMLStreamException {
+        try {
+            final String classNameStr = getClassName(reader);
+            TestCase testCase = getTestCaseFor(classNameStr, reader);
+            if (testCase != null) {
+                testCases.add(testCase);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error while reading a test case of " + resultsFile + " for " + testScenario.getName()
+                    + ". Skipped the test case.", e);
+        }
+    }
+
+    /**
+     * Read the name attribute from the testcase element the reader is positioned at.
+     *
+     * @param reader reader positioned at the testcase start element
      * @return the name attribute
      */
-    private String getClassName(StartElement classElement) {
+    private String getClassName(XMLStreamReader reader) {
         String classNameStr = "unknown";
-        final Iterator attributes = classElement.getAttributes();
-        while (attributes.hasNext()) {
-            Attribute att = (Attribute) attributes.next();
-            if (att.getName().getLocalPart().equals("classname")) {
-                String[] split = att.getValue().split("\\.");
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attributeName = reader.getAttributeLocalName(i);
+            if (attributeName.equals("classname")) {
+                String[] split = reader.getAttributeValue(i).split("\\.");
                 //get the class name from fully qualified class name
                 classNameStr = split[split.length - 1];
             }
-            if (att.getName().getLocalPart().equals("name")) {
+            if (attributeName.equals("name")) {
                 classNameStr = StringUtil
-                        .concatStrings(classNameStr, "#", att.getValue());
+                        .concatStrings(classNameStr, "#", reader.getAttributeValue(i));
             }
         }
         return classNameStr;
     }
 
     /**
-     * Searches the child elements of class element for test-methods where
-     * status == !PASS.
+     * Searches the child elements of the testcase element for its status.
      *
      * @param classNameStr class name
-     * @param eventReader  XMLEventReader
-     * @return true if all test-methods has PASS status, false otherwise.
+     * @param reader       reader positioned at the testcase start element
+     * @return the test case, or {@code null} if the document ends before the testcase element ends
      * @throws XMLStreamException {@link XMLStreamException}
      */
-    private List<TestCase> getTestCasesFor(String classNameStr, XMLEventReader eventReader) throws XMLStreamException {
-        List<TestCase> testCases = new ArrayList<>();
-        while (eventReader.hasNext()) {
-            XMLEvent event = eventReader.nextEvent();
-            if (event.getEventType() == XMLStreamConstants.END_ELEMENT && TEST_CASE
-                    .equals(event.asEndElement().getName().getLocalPart())) {
-                TestCase testCase = buildTestCase(classNameStr, Status.SUCCESS, "");
-                testCases.add(testCase);
-                break;
+    private TestCase getTestCaseFor(String classNameStr, XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int eventType = reader.next();
+            if (eventType == XMLStreamConstants.END_ELEMENT && TEST_CASE.equals(reader.getLocalName())) {
+                return buildTestCase(classNameStr, Status.SUCCESS, "");
             }
-            if (event.getEventType() == XMLStreamConstants.START_ELEMENT && SKIPPED
-                    .equals(event.asStartElement().getName().getLocalPart())) {
-                TestCase testCase = buildTestCase(classNameStr, Status.SKIP, "Test Skipped");
-                testCases.add(testCase);
-                break;
+            if (eventType == XMLStreamConstants.START_ELEMENT && SKIPPED.equals(reader.getLocalName())) {
+                return buildTestCase(classNameStr, Status.SKIP, "Test Skipped");
             }
-            if (event.getEventType() == XMLStreamConstants.START_ELEMENT && FAILED
-                    .equals(event.asStartElement().getName().getLocalPart())) {
-                String failureMessage = "unknown";
-                Iterator attributes = event.asStartElement().getAttributes();
-                failureMessage = readFailureMessage(eventReader);
-                while (attributes.hasNext()) {
-                    Attribute attribute = (Attribute) attributes.next();
-                    if (MESSAGE.equals(attribute.getName().getLocalPart())) {
-                        failureMessage = attribute.getValue();
-                        break;
-                    }
+            if (eventType == XMLStreamConstants.START_ELEMENT && FAILED.equals(reader.getLocalName())) {
+                String failureMessage = reader.getAttributeValue(null, MESSAGE);
+                if (failureMessage == null) {
+                    failureMessage = readFailureMessage(reader);
                 }
-                TestCase testCase = buildTestCase(classNameStr, Status.FAIL, failureMessage);
-                testCases.add(testCase);
-                break;
+                return buildTestCase(classNameStr, Status.FAIL, failureMessage);
             }
         }
-        return testCases;
+        return null;
     }
 
     /**
      * Reads the text content data inside the <failure></failure> element and builds the
      * error message.
      *
-     * @param eventReader XMLEventReader
+     * @param reader reader positioned at the failure start element
      * @return error message
      * @throws XMLStreamException when theres an error reading the XML events
      */
-    private String readFailureMessage(XMLEventReader eventReader) throws XMLStreamException {
+    private String readFailureMessage(XMLStreamReader reader) throws XMLStreamException {
         StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < ERROR_LINE_LIMIT; i++) {
-            XMLEvent xmlEvent = eventReader.nextEvent();
-            if (xmlEvent.isCharacters()) {
-                builder.append(xmlEvent.asCharacters().getData());
+        for (int i = 0; i < ERROR_LINE_LIMIT && reader.hasNext(); i++) {
+            int eventType = reader.next();
+            if (eventType == XMLStreamConstants.CHARACTERS || eventType == XMLStreamConstants.CDATA
+                    || eventType == XMLStreamConstants.SPACE) {
+                builder.append(reader.getText());
             } else {
                 break;
             }
@@ -271,34 +314,49 @@ public class TestNgResultsParser extends ResultParser {
         return testCase;
     }
 
+    private static ExecutorService createParserExecutor() {
+
+        int parserThreads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parserThreads, parserThreads,
+                PARSER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "testng-results-parser-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
-     * Searches the provided path for files named "TEST-.*.xml",
-     * and returns the list of paths.
+     * Searches the provided path for files named "TEST-.*.xml", skipping the 'junitreports' directories,
+     * and returns the sorted list of paths.
      *
      * @param dataBucket the data bucket folder where build artifacts are located.
-     * @return list of paths of TEST-TestSuite.xml.
+     * @return sorted list of paths of TEST-TestSuite.xml.
      */
-    private Set<Path> getResultInputFiles(Path dataBucket) {
-        try {
-            final Stream<Path> ls = Files.list(dataBucket);
-            final Set<Path> files = ls.collect(Collectors.toSet());
-            final Set<Path> inputFiles = new HashSet<>();
-            for (Path file : files) {
-                final Path fileName = file.getFileName();
-                if (fileName == null) {
-                    continue;
-                } else if (Files.isDirectory(file) && !"junitreports".equalsIgnoreCase(fileName.toString())) {
-                    final Set<Path> anInputFilesList = getResultInputFiles(file);
-                    inputFiles.addAll(anInputFilesList);
-                } else if (fileName.toString().matches(RESULTS_TEST_SUITE_FILES_REGEX)) {
-                    inputFiles.add(file);
-                }
-            }
-            return inputFiles;
-        } catch (IOException e) {
+    private List<Path> getResultInputFiles(Path dataBucket) {
+        try (Stream<Path> paths = Files.walk(dataBucket)) {
+            return paths
+                    .filter(file -> file.getFileName() != null
+                            && file.getFileName().toString().matches(RESULTS_TEST_SUITE_FILES_REGEX)
+                            && !isInJUnitReportsDir(dataBucket.relativize(file))
+                            && !Files.isDirectory(file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Error while reading " + RESULTS_TEST_SUITE_FILES_REGEX + " files in " + dataBucket, e);
-            return Collections.emptySet();
+            return Collections.emptyList();
+        }
+    }
+
+    private static boolean isInJUnitReportsDir(Path relativePath) {
+        for (int i = 0; i < relativePath.getNameCount() - 1; i++) {
+            if (JUNIT_REPORTS_DIR.equalsIgnoreCase(relativePath.getName(i).toString())) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
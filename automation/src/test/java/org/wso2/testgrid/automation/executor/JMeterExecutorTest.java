@@ -30,6 +30,7 @@ import org.wso2.testgrid.automation.parser.ResultParser;
 import org.wso2.testgrid.automation.parser.ResultParserFactory;
 import org.wso2.testgrid.common.DeploymentPattern;
 import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.common.Status;
 import org.wso2.testgrid.common.TestGridConstants;
 import org.wso2.testgrid.common.TestPlan;
 import org.wso2.testgrid.common.TestScenario;
@@ -136,6 +137,56 @@ public class JMeterExecutorTest {
         Assert.assertEquals(testScenario.getTestCases().size(), 34);
     }
 
+    @Test(description = "Test for testing the aggregation of samples per label")
+    public void testJMeterAggregatedResultParser()
+            throws ResultParserException, ParserInitializationException, IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        URL resource = classLoader.getResource("test-grid-is-resources");
+        Assert.assertNotNull(resource);
+
+        String testLocation = Paths
+                .get(resource.getPath(), "SolutionPattern22", "Tests")
+                .toAbsolutePath().toString();
+        TestScenario testScenario = new TestScenario();
+        testScenario.setName("aggregated-scenario");
+        testScenario.setDir("");
+        Product product = new Product();
+        product.setName("sample-job");
+        DeploymentPattern deploymentPatternDBEntry = new DeploymentPattern();
+        deploymentPatternDBEntry.setName("deployment-pattern");
+        deploymentPatternDBEntry.setProduct(product);
+
+        TestPlan testPlan = new TestPlan();
+        List<ScenarioConfig> scenarioConfigs = new ArrayList<>();
+        ScenarioConfig scenarioConfig = new ScenarioConfig();
+        scenarioConfig.setTestType(TestEngine.JMETER.toString());
+        scenarioConfig.setAggregateResults(true);
+        scenarioConfig.setFile("");
+        scenarioConfigs.add(scenarioConfig);
+        testPlan.setScenarioConfigs(scenarioConfigs);
+        testPlan.setScenarioTestsRepository(testLocation);
+        testPlan.setWorkspace(
+                Paths.get(TESTGRID_HOME, TestGridConstants.TESTGRID_JOB_DIR, product.getName()).toString());
+        testPlan.setDeploymentPattern(deploymentPatternDBEntry);
+        testScenario.setTestPlan(testPlan);
+        testScenario.setOutputDir("");
+
+        Path outputPath = DataBucketsHelper.getTestOutputsLocation(testPlan)
+                .resolve("scenarios").resolve(testScenario.getName());
+        FileUtils.copyFile(testArtifactPath.resolve("scenario-results.jtl").toFile(),
+                outputPath.resolve("scenario-results.jtl").toFile());
+
+        Optional<ResultParser> jMeterResultParser = ResultParserFactory
+                .getParser(testPlan, testScenario, scenarioConfig);
+        Assert.assertTrue(jMeterResultParser.isPresent());
+        jMeterResultParser.get().parseResults();
+        Assert.assertEquals(testScenario.getTestCases().size(), 25);
+        long failedTestCases = testScenario.getTestCases().stream()
+                .filter(testCase -> Status.FAIL.equals(testCase.getStatus()))
+                .count();
+        Assert.assertEquals(failedTestCases, 1);
+    }
+
     @Test(description = "Test for testing the functional test", expectedExceptions = JTLResultParserException.class,
           expectedExceptionsMessageRegExp = ".*Expected 'testResults' as the JTL root element.*")
     public void testBrokenJTLParse()
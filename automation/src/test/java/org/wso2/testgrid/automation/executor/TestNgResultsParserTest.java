@@ -39,6 +39,7 @@ import org.wso2.testgrid.common.util.DataBucketsHelper;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -57,12 +58,22 @@ public class TestNgResultsParserTest {
     private static final String SUREFIRE_REPORTS_DIR = "surefire-reports";
     private static final Path SUREFIRE_REPORTS_DIR_OUT = Paths.get("scenarios", "SolutionPattern22");
     private static final Path SUREFIRE_REPORTS_DIR_OUT_NEGATIVE = Paths.get("scenarios", "SolutionPattern33");
+    private static final Path SUREFIRE_REPORTS_DIR_OUT_MALFORMED = Paths.get("scenarios", "SolutionPattern44");
+    private static final String MALFORMED_TEST_SUITE_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testsuite name=\"TestSuite\" tests=\"3\">\n"
+            + "  <testcase name=\"testOne\" classname=\"org.wso2.MalformedTest\" time=\"0.1\"/>\n"
+            + "  <testcase name=\"testTwo\" classname=\"org.wso2.MalformedTest\" time=\"0.1\">\n"
+            + "    <failure message=\"failed\"/>\n"
+            + "  </testcase>\n"
+            + "  <testcase name=\"testThree\" classname=\"org.wso2.MalformedTest\" time=\"0.1\">\n"
+            + "    <system-out>truncated";
 
     private TestPlan testPlan;
     private TestScenario testScenario;
     private ScenarioConfig scenarioConfig;
     private Path testArtifactPath = Paths.get("src", "test", "resources", "artifacts");
     private TestScenario testScenarioNegative;
+    private TestScenario testScenarioMalformed;
 
     @BeforeMethod
     public void init() throws IOException {
@@ -92,6 +103,12 @@ public class TestNgResultsParserTest {
         testScenarioNegative.setName("SolutionPattern33");
         testScenarioNegative.setTestPlan(testPlan);
 
+        testScenarioMalformed = new TestScenario();
+        testScenarioMalformed.setDir("scenarioDir3");
+        testScenarioMalformed.setOutputDir("");
+        testScenarioMalformed.setName("SolutionPattern44");
+        testScenarioMalformed.setTestPlan(testPlan);
+
         Product product = new Product();
         product.setName("wso2");
         DeploymentPattern deploymentPatternDBEntry = new DeploymentPattern();
@@ -107,6 +124,12 @@ public class TestNgResultsParserTest {
         Files.createDirectories(
                 DataBucketsHelper.getTestOutputsLocation(testPlan).resolve(SUREFIRE_REPORTS_DIR_OUT_NEGATIVE));
 
+        final Path malformedOutputLocation = DataBucketsHelper.getTestOutputsLocation(testPlan)
+                .resolve(SUREFIRE_REPORTS_DIR_OUT_MALFORMED).resolve(SUREFIRE_REPORTS_DIR);
+        Files.createDirectories(malformedOutputLocation);
+        Files.write(malformedOutputLocation.resolve("TEST-TestSuite.xml"),
+                MALFORMED_TEST_SUITE_XML.getBytes(StandardCharsets.UTF_8));
+
         MockitoAnnotations.initMocks(this);
     }
 
@@ -145,6 +168,18 @@ public class TestNgResultsParserTest {
         Assert.assertEquals(testScenarioNegative.getTestCases().size(), 0, "generated test cases does not match.");
     }
 
+    @Test(description = "Test cases read before the malformed part of a result file must be kept")
+    public void testMalformedTestSuiteXml() throws ResultParserException {
+        Optional<ResultParser> parser = ResultParserFactory.getParser(testPlan, testScenarioMalformed,
+                scenarioConfig);
+        Assert.assertTrue(parser.isPresent());
+
+        parser.get().parseResults();
+        Assert.assertEquals(testScenarioMalformed.getTestCases().size(), 2, "generated test cases does not match.");
+        Assert.assertEquals(testScenarioMalformed.getTestCases().get(0).getStatus(), Status.SUCCESS);
+        Assert.assertEquals(testScenarioMalformed.getTestCases().get(1).getStatus(), Status.FAIL);
+    }
+
     @Test
     public void testArchiveResults() throws Exception {
         Optional<ResultParser> parser = ResultParserFactory.getParser(testPlan, testScenario, scenarioConfig);
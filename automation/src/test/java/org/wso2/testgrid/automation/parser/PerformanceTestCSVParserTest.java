@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.automation.parser;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Column;
+import org.wso2.testgrid.common.PerformanceMetric;
+import org.wso2.testgrid.common.PerformanceResultTable;
+import org.wso2.testgrid.common.ResultFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class will test the performance metrics created from the results parsed by
+ * {@link PerformanceTestCSVParser}.
+ *
+ * @since 1.0.0
+ */
+public class PerformanceTestCSVParserTest {
+
+    private static final String CSV = "Scenario Name,Heap Size,Concurrent Users,Throughput,Error %\n"
+            + "Passthrough,1G,100,1203.5,0\n"
+            + "Passthrough,2G,200,1450,0.01\n";
+    private static final String TABLE_CSV = "Scenario Name,Heap Size,Concurrent Users,Throughput,Error %,GC Time\n"
+            + "Passthrough,2G,100,1203.5,0,12\n"
+            + "Passthrough,2G,200,1450,0.01,15\n";
+
+    @Test(description = "Creates a metric per numeric value, keyed by the dividers and the text columns")
+    public void testCreatePerformanceMetrics() throws IOException {
+        ResultFormat resultFormat = new ResultFormat();
+        resultFormat.setPrimaryDivider("Scenario Name");
+        resultFormat.setDividers(Collections.singletonList("Concurrent Users"));
+
+        List<PerformanceMetric> metrics = PerformanceTestCSVParser
+                .createPerformanceMetrics("passthrough", readResults(), resultFormat);
+
+        Assert.assertEquals(metrics.size(), 4);
+        PerformanceMetric metric = metrics.get(0);
+        Assert.assertEquals(metric.getScenarioName(), "passthrough");
+        Assert.assertEquals(metric.getDimensions(), "Scenario Name=Passthrough,Heap Size=1G,Concurrent Users=100");
+        Assert.assertEquals(metric.getMetricName(), "Throughput");
+        Assert.assertEquals(metric.getValue(), 1203.5);
+        metric = metrics.get(3);
+        Assert.assertEquals(metric.getDimensions(), "Scenario Name=Passthrough,Heap Size=2G,Concurrent Users=200");
+        Assert.assertEquals(metric.getMetricName(), "Error %");
+        Assert.assertEquals(metric.getValue(), 0.01);
+    }
+
+    @Test(description = "Treats only the text columns as dimensions when the results have no format")
+    public void testCreatePerformanceMetricsWithoutFormat() throws IOException {
+        List<PerformanceMetric> metrics = PerformanceTestCSVParser
+                .createPerformanceMetrics("passthrough", readResults(), null);
+
+        Assert.assertEquals(metrics.size(), 6);
+        Assert.assertEquals(metrics.get(0).getDimensions(), "Scenario Name=Passthrough,Heap Size=1G");
+        Assert.assertEquals(metrics.get(0).getMetricName(), "Concurrent Users");
+        Assert.assertEquals(metrics.get(0).getValue(), 100.0);
+    }
+
+    @Test(description = "Keys the metrics by the numeric table columns and stores only the result columns")
+    public void testCreatePerformanceMetricsWithTable() throws IOException {
+        ResultFormat resultFormat = new ResultFormat();
+        resultFormat.setPrimaryDivider("Scenario Name");
+        resultFormat.setDividers(Collections.singletonList("Heap Size"));
+        resultFormat.setTable(Arrays.asList(createColumn(Column.COLUMN, "Concurrent Users"),
+                createColumn(Column.COMMON_COLUMN, "Results", createColumn(Column.COLUMN, "Throughput"),
+                        createColumn(Column.COLUMN, "Error %"))));
+
+        List<PerformanceMetric> metrics = PerformanceTestCSVParser
+                .createPerformanceMetrics("passthrough", readResults(TABLE_CSV), resultFormat);
+
+        Assert.assertEquals(metrics.size(), 4);
+        Assert.assertEquals(metrics.get(0).getDimensions(),
+                "Scenario Name=Passthrough,Heap Size=2G,Concurrent Users=100");
+        Assert.assertEquals(metrics.get(0).getMetricName(), "Throughput");
+        Assert.assertEquals(metrics.get(1).getMetricName(), "Error %");
+        Assert.assertEquals(metrics.get(2).getDimensions(),
+                "Scenario Name=Passthrough,Heap Size=2G,Concurrent Users=200");
+        Assert.assertEquals(metrics.get(2).getMetricName(), "Throughput");
+        Assert.assertEquals(metrics.get(2).getValue(), 1450.0);
+    }
+
+    @Test(description = "Skips the values whose dimensions and metric name repeat an earlier row")
+    public void testCreatePerformanceMetricsWithDuplicateKeys() throws IOException {
+        ResultFormat resultFormat = new ResultFormat();
+        resultFormat.setPrimaryDivider("Scenario Name");
+        resultFormat.setDividers(Collections.singletonList("Heap Size"));
+        resultFormat.setTable(Collections.singletonList(createColumn(Column.COMMON_COLUMN, "Results",
+                createColumn(Column.COLUMN, "Throughput"), createColumn(Column.COLUMN, "Error %"))));
+
+        List<PerformanceMetric> metrics = PerformanceTestCSVParser
+                .createPerformanceMetrics("passthrough", readResults(TABLE_CSV), resultFormat);
+
+        Assert.assertEquals(metrics.size(), 2);
+        Assert.assertEquals(metrics.get(0).getDimensions(), "Scenario Name=Passthrough,Heap Size=2G");
+        Assert.assertEquals(metrics.get(0).getValue(), 1203.5);
+        Assert.assertEquals(metrics.get(1).getValue(), 0.0);
+    }
+
+    private static Column createColumn(String type, String name, Column... columns) {
+        Column column = new Column();
+        column.setType(type);
+        column.setName(name);
+        if (columns.length > 0) {
+            column.setColumns(Arrays.asList(columns));
+        }
+        return column;
+    }
+
+    private static PerformanceResultTable readResults() throws IOException {
+        return readResults(CSV);
+    }
+
+    private static PerformanceResultTable readResults(String csv) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            return PerformanceResultTable.read(reader);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.wso2.testgrid.common.util.StringUtil;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.ColumnResult;
@@ -48,6 +49,7 @@ import javax.persistence.UniqueConstraint;
                              )}
 )
 @Entity
+@Cacheable
 @Table(
         name = DeploymentPattern.DEPLOYMENT_PATTERN_TABLE,
         uniqueConstraints = {
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common;
+
+import org.wso2.testgrid.common.util.StringUtil;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
+import javax.persistence.ManyToOne;
+import javax.persistence.PrimaryKeyJoinColumn;
+import javax.persistence.Table;
+
+/**
+ * Defines a model object of a single performance metric value of a test scenario, such as the throughput of one
+ * row of the scenario's summary CSV file.
+ * <p>
+ * A metric is identified across builds by the scenario name, the metric name and the dimensions of its row, so the
+ * values of a metric over the builds of an infrastructure combination form a time series. The dimensions may be
+ * longer than an index allows, so the series are indexed by a SHA-256 hash of the dimensions instead.
+ *
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = PerformanceMetric.PERFORMANCE_METRIC_TABLE, indexes = {
+        @Index(name = "idx_performance_metric_series", columnList = "scenario_name,metric_name,dimensions_hash"),
+        @Index(name = "idx_performance_metric_test_plan", columnList = "TESTPLAN_id")})
+public class PerformanceMetric extends AbstractUUIDEntity implements Serializable {
+
+    /**
+     * Performance metric table name.
+     */
+    public static final String PERFORMANCE_METRIC_TABLE = "performance_metric";
+
+    /**
+     * Column names of the table.
+     */
+    public static final String SCENARIO_NAME_COLUMN = "scenarioName";
+    public static final String DIMENSIONS_COLUMN = "dimensions";
+    public static final String METRIC_NAME_COLUMN = "metricName";
+    public static final String TEST_PLAN_COLUMN = "testPlan";
+
+    /**
+     * Maximum length of the scenario name and the metric name.
+     */
+    public static final int MAX_NAME_LENGTH = 255;
+
+    private static final long serialVersionUID = -2466925378016421135L;
+
+    @Column(name = "scenario_name", nullable = false, length = MAX_NAME_LENGTH)
+    private String scenarioName;
+
+    @Column(name = "dimensions", nullable = false, length = 20000)
+    private String dimensions;
+
+    @Column(name = "dimensions_hash", nullable = false, length = 64)
+    private String dimensionsHash;
+
+    @Column(name = "metric_name", nullable = false)
+    private String metricName;
+
+    @Column(name = "metric_value", nullable = false)
+    private double value;
+
+    @ManyToOne(optional = false, targetEntity = TestPlan.class, fetch = FetchType.LAZY)
+    @PrimaryKeyJoinColumn(name = "TESTPLAN_id", referencedColumnName = ID_COLUMN)
+    private TestPlan testPlan;
+
+    /**
+     * Returns the name of the test scenario the metric belongs to.
+     *
+     * @return test scenario name
+     */
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    /**
+     * Sets the name of the test scenario the metric belongs to.
+     *
+     * @param scenarioName test scenario name
+     */
+    public void setScenarioName(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    /**
+     * Returns the dimensions of the metric, as comma separated {@code name=value} pairs of the dimension columns of
+     * its row, for example {@code Heap Size=2G,Message Size (Bytes)=50}.
+     *
+     * @return dimensions of the metric
+     */
+    public String getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Sets the dimensions of the metric, along with their hash.
+     *
+     * @param dimensions comma separated {@code name=value} pairs of the dimension columns
+     */
+    public void setDimensions(String dimensions) {
+        this.dimensions = dimensions;
+        this.dimensionsHash = hashDimensions(dimensions);
+    }
+
+    /**
+     * Returns the SHA-256 hash of the dimensions of the metric, which indexes the series of the metric.
+     *
+     * @return hex encoded hash of the dimensions
+     */
+    public String getDimensionsHash() {
+        return dimensionsHash;
+    }
+
+    /**
+     * Returns the name of the metric, which is the header of its column.
+     *
+     * @return metric name
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+    /**
+     * Sets the name of the metric.
+     *
+     * @param metricName metric name
+     */
+    public void setMetricName(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Returns the value of the metric.
+     *
+     * @return metric value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of the metric.
+     *
+     * @param value metric value
+     */
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the test plan (build) the metric was measured in.
+     *
+     * @return test plan of the metric
+     */
+    public TestPlan getTestPlan() {
+        return testPlan;
+    }
+
+    /**
+     * Sets the test plan (build) the metric was measured in.
+     *
+     * @param testPlan test plan of the metric
+     */
+    public void setTestPlan(TestPlan testPlan) {
+        this.testPlan = testPlan;
+    }
+
+    /**
+     * Returns the SHA-256 hash of the given dimensions, as stored in the dimensions hash column.
+     *
+     * @param dimensions comma separated {@code name=value} pairs of the dimension columns
+     * @return hex encoded hash of the dimensions, or {@code null} if the dimensions are {@code null}
+     */
+    public static String hashDimensions(String dimensions) {
+        if (dimensions == null) {
+            return null;
+        }
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(dimensions.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+        StringBuilder hash = new StringBuilder(digest.length * 2);
+        for (byte value : digest) {
+            hash.append(Integer.toString((value & 0xff) + 0x100, 16).substring(1));
+        }
+        return hash.toString();
+    }
+
+    @Override
+    public String toString() {
+        String id = this.getId() != null ? this.getId() : "";
+        return StringUtil.concatStrings("PerformanceMetric{",
+                "id='", id, "\'",
+                ", scenarioName='", scenarioName, "\'",
+                ", dimensions='", dimensions, "\'",
+                ", metricName='", metricName, "\'",
+                ", value='", value, "\'",
+                '}');
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model class representing the performance results of a test scenario, as read from its summary CSV file.
+ * <p>
+ * Results are held column by column. Columns whose values are all numbers are held as primitive numbers, and the
+ * other columns are dictionary encoded, so that each row refers to the distinct values of the column by code.
+ *
+ * @since 1.0.0
+ */
+public final class PerformanceResultTable implements Serializable {
+
+    private static final long serialVersionUID = -3186227430851284417L;
+
+    private static final char SEPARATOR = ',';
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<String> headers;
+    private final int rowCount;
+    private final double[][] numbers;
+    private final EncodedColumn[] encodedColumns;
+
+    private PerformanceResultTable(List<String> headers, int rowCount, double[][] numbers,
+                                   EncodedColumn[] encodedColumns) {
+        this.headers = Collections.unmodifiableList(headers);
+        this.rowCount = rowCount;
+        this.numbers = numbers;
+        this.encodedColumns = encodedColumns;
+    }
+
+    /**
+     * Reads the results from the given CSV content, whose first line holds the column headers.
+     *
+     * @param reader reader of the CSV content
+     * @return table of the results
+     * @throws IOException thrown when error on reading the content
+     */
+    public static PerformanceResultTable read(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        List<String> headers = new ArrayList<>();
+        if (headerLine != null) {
+            splitLine(headerLine, headers);
+        }
+        ColumnBuilder[] builders = new ColumnBuilder[headers.size()];
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = new ColumnBuilder();
+        }
+
+        List<String> cells = new ArrayList<>(headers.size());
+        int rowCount = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            cells.clear();
+            splitLine(line, cells);
+            for (int i = 0; i < builders.length; i++) {
+                builders[i].add(rowCount, i < cells.size() ? cells.get(i) : "");
+            }
+            rowCount++;
+        }
+
+        double[][] numbers = new double[builders.length][];
+        EncodedColumn[] encodedColumns = new EncodedColumn[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            numbers[i] = builders[i].getNumbers(rowCount);
+            encodedColumns[i] = builders[i].getEncodedColumn(rowCount);
+        }
+        return new PerformanceResultTable(headers, rowCount, numbers, encodedColumns);
+    }
+
+    /**
+     * Returns the column headers of the table.
+     *
+     * @return column headers
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the index of the column with the given header.
+     *
+     * @param header header of the column
+     * @return index of the column, or -1 if there is no such column
+     */
+    public int indexOf(String header) {
+        return headers.indexOf(header);
+    }
+
+    /**
+     * Returns the number of result rows, excluding the header row.
+     *
+     * @return number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns whether all the values of the given column are numbers.
+     *
+     * @param column index of the column
+     * @return true if the column is held as numbers
+     */
+    public boolean isNumeric(int column) {
+        return numbers[column] != null;
+    }
+
+    /**
+     * Returns the value of the given cell as a number.
+     *
+     * @param row    index of the row
+     * @param column index of a numeric column
+     * @return value of the cell
+     * @throws IllegalStateException thrown when the column is not numeric
+     */
+    public double getNumber(int row, int column) {
+        if (numbers[column] == null) {
+            throw new IllegalStateException("Column " + headers.get(column) + " does not hold numbers");
+        }
+        return numbers[column][row];
+    }
+
+    /**
+     * Returns the value of the given cell as it appears in the CSV file.
+     *
+     * @param row    index of the row
+     * @param column index of the column
+     * @return value of the cell
+     */
+    public String getValue(int row, int column) {
+        if (numbers[column] != null) {
+            return formatNumber(numbers[column][row]);
+        }
+        EncodedColumn encodedColumn = encodedColumns[column];
+        return encodedColumn.values.get(encodedColumn.codes[row]);
+    }
+
+    /**
+     * Returns the dictionary encoded form of the given column.
+     * <p>
+     * Numeric columns are encoded on each call, so callers grouping by a column should hold on to the result.
+     *
+     * @param column index of the column
+     * @return encoded column
+     */
+    public EncodedColumn encode(int column) {
+        if (encodedColumns[column] != null) {
+            return encodedColumns[column];
+        }
+        int[] codes = new int[rowCount];
+        List<String> values = new ArrayList<>();
+        Map<Double, Integer> codesByNumber = new HashMap<>();
+        for (int row = 0; row < rowCount; row++) {
+            double number = numbers[column][row];
+            Integer code = codesByNumber.get(number);
+            if (code == null) {
+                code = values.size();
+                codesByNumber.put(number, code);
+                values.add(formatNumber(number));
+            }
+            codes[row] = code;
+        }
+        return new EncodedColumn(codes, values);
+    }
+
+    /**
+     * Splits a CSV line at its separators. Quoting is not supported, as the summary files do not quote values.
+     */
+    private static void splitLine(String line, List<String> cells) {
+        int start = 0;
+        int end;
+        while ((end = line.indexOf(SEPARATOR, start)) >= 0) {
+            cells.add(line.substring(start, end));
+            start = end + 1;
+        }
+        cells.add(line.substring(start));
+    }
+
+    /**
+     * Parses the given value as a number if it is written the way {@link #formatNumber(double)} writes it back, so
+     * that numeric columns keep the exact text of the CSV file.
+     *
+     * @return the number, or null if the value should be kept as text
+     */
+    private static Double parseNumber(String value) {
+        if (value.isEmpty() || value.length() > 24) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != 'E') {
+                return null;
+            }
+        }
+        try {
+            double number = Double.parseDouble(value);
+            return formatNumber(number).equals(value) ? number : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String formatNumber(double number) {
+        if (number == Math.rint(number) && Math.abs(number) < 1e15 && !(number == 0 && 1 / number < 0)) {
+            return Long.toString((long) number);
+        }
+        return Double.toString(number);
+    }
+
+    /**
+     * Dictionary encoded column, which holds the distinct values of a column in the order they first appear and
+     * the code of the value of each row.
+     */
+    public static final class EncodedColumn implements Serializable {
+
+        private static final long serialVersionUID = 6403538107932461571L;
+
+        private final int[] codes;
+        private final List<String> values;
+
+        private EncodedColumn(int[] codes, List<String> values) {
+            this.codes = codes;
+            this.values = Collections.unmodifiableList(values);
+        }
+
+        /**
+         * Returns the code of the value of the given row.
+         *
+         * @param row index of the row
+         * @return index of the value in {@link #getValues()}
+         */
+        public int getCode(int row) {
+            return codes[row];
+        }
+
+        /**
+         * Returns the distinct values of the column in the order they first appear.
+         *
+         * @return distinct values
+         */
+        public List<String> getValues() {
+            return values;
+        }
+    }
+
+    /**
+     * Accumulates the values of a column as numbers until a value which is not a number is added, and from then
+     * on as dictionary codes.
+     */
+    private static final class ColumnBuilder {
+
+        private double[] numbers = new double[INITIAL_CAPACITY];
+        private int[] codes;
+        private List<String> values;
+        private Map<String, Integer> codesByValue;
+
+        private void add(int row, String value) {
+            if (numbers != null) {
+                Double number = parseNumber(value);
+                if (number != null) {
+                    if (row == numbers.length) {
+                        numbers = Arrays.copyOf(numbers, row * 2);
+                    }
+                    numbers[row] = number;
+                    return;
+                }
+                encodeNumbers(row);
+            }
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, row * 2);
+            }
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                code = values.size();
+                codesByValue.put(value, code);
+                values.add(value);
+            }
+            codes[row] = code;
+        }
+
+        /**
+         * Switches the column to dictionary codes, encoding the numbers added so far.
+         */
+        private void encodeNumbers(int rowCount) {
+            double[] addedNumbers = numbers;
+            numbers = null;
+            codes = new int[Math.max(addedNumbers.length, INITIAL_CAPACITY)];
+            values = new ArrayList<>();
+            codesByValue = new HashMap<>();
+            for (int row = 0; row < rowCount; row++) {
+                add(row, formatNumber(addedNumbers[row]));
+            }
+        }
+
+        private double[] getNumbers(int rowCount) {
+            return numbers == null ? null : Arrays.copyOf(numbers, rowCount);
+        }
+
+        private EncodedColumn getEncodedColumn(int rowCount) {
+            return codes == null ? null : new EncodedColumn(Arrays.copyOf(codes, rowCount), values);
+        }
+    }
+}
@@ -55,7 +55,7 @@ public class ResultFormat implements Serializable {
 
 
     public List<Column> getTable() {
-        return new ArrayList<>(this.table);
+        return this.table == null ? new ArrayList<>() : new ArrayList<>(this.table);
     }
 
     public void setPrimaryDivider(String primaryDivider) {
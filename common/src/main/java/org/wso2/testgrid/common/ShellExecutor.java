@@ -31,19 +31,42 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.function.Consumer;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Responsible in executing given shell scripts
+ * <p>
+ * Output of the scripts is drained by gobblers running on a shared pool of daemon threads, which log each line as
+ * it is read.
  *
  * @since 1.0
  */
 public class ShellExecutor {
 
     private static Logger logger = LoggerFactory.getLogger("Shell");
+    private static final Pattern SERVER_LOG_READER_PATTERN = Pattern.compile(
+            "INFO\\s*.org.wso2.carbon.automation.extensions.servers.utils.ServerLogReader. - ");
+    private static final String SERVER_LOG_READER = "ServerLogReader";
+    // Lines traced by 'set -o xtrace' are written to the error stream
+    private static final Pattern XTRACE_PATTERN = Pattern.compile("\\++ ");
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_GOBBLER_THREADS = 16;
+    private static final long GOBBLER_KEEP_ALIVE_SECONDS = 60;
+    private static final long OUTPUT_DRAIN_TIMEOUT_MILLIS = 1000;
+    private static final long OUTPUT_POLL_INTERVAL_MILLIS = 10;
+
+    private static final ExecutorService gobblerExecutor = createGobblerExecutor();
+
     private Path workingDirectory;
     private String logPrefix;
 
@@ -65,26 +88,61 @@ public class ShellExecutor {
     }
 
     /**
-     * StreamGobbler to handle process builder output.
+     * StreamGobbler which logs the lines of a process output. The gobbler is idle while it waits for more output,
+     * having logged all the lines read so far.
      *
      * @since 1.0
      */
     private static class StreamGobbler implements Runnable {
 
         private InputStream inputStream;
-        private Consumer<String> consumer;
+        private String logPrefix;
+        private boolean errorStream;
+        private volatile boolean idle;
+        private volatile boolean done;
+        private volatile long loggedLines;
 
-        public StreamGobbler(InputStream inputStream, Consumer<String> consumer) {
+        public StreamGobbler(InputStream inputStream, String logPrefix, boolean errorStream) {
 
             this.inputStream = inputStream;
-            this.consumer = consumer;
+            this.logPrefix = logPrefix;
+            this.errorStream = errorStream;
         }
 
         @Override
         public void run() {
 
-            new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)).lines()
-                    .forEach(consumer);
+            Matcher xtraceMatcher = XTRACE_PATTERN.matcher("");
+            Matcher serverLogReaderMatcher = SERVER_LOG_READER_PATTERN.matcher("");
+            long lines = 0;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(inputStream, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+                while (true) {
+                    idle = !reader.ready();
+                    String line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    idle = false;
+                    boolean error = errorStream && !xtraceMatcher.reset(line).lookingAt();
+                    if (line.contains(SERVER_LOG_READER)) {
+                        line = serverLogReaderMatcher.reset(line).replaceAll("[Server] - ");
+                    }
+                    if (logPrefix != null) {
+                        line = logPrefix + ": " + line;
+                    }
+                    if (error) {
+                        logger.error(line);
+                    } else {
+                        logger.info(line);
+                    }
+                    loggedLines = ++lines;
+                }
+            } catch (IOException e) {
+                logger.debug("Error occurred while reading the command output", e);
+            } finally {
+                done = true;
+            }
         }
     }
 
@@ -108,60 +166,7 @@ public class ShellExecutor {
     public int executeCommand(String command) throws CommandExecutionException {
 
         logger.info("Running shell command : " + command + ", from working directory : " + workingDirectory);
-
-        ProcessBuilder processBuilder = new ProcessBuilder("/bin/bash", "-c", command);
-        ExecutorService executor = Executors.newFixedThreadPool(2);
-
-        try {
-            if (workingDirectory != null) {
-                File workDirectory = workingDirectory.toFile();
-                if (workDirectory.exists()) {
-                    processBuilder.directory(workDirectory);
-                }
-            }
-            Process process = processBuilder.start();
-
-            StreamGobbler outputStreamGobbler = new StreamGobbler(process.getInputStream(), msg -> {
-                msg = reduceLogVerbosity(msg);
-                if (hasLogPrefix()) {
-                    logger.info(logPrefix + ": " + msg);
-                } else {
-                    logger.info(msg);
-                }
-            });
-            StreamGobbler errorStreamGobbler = new StreamGobbler(process.getErrorStream(), msg -> {
-                Consumer<String> c = !msg.matches("^\\++ .*") ? logger::error : logger::info; // handle 'set -o xtrace'
-                msg = reduceLogVerbosity(msg);
-                c.accept(msg);
-                if (hasLogPrefix()) {
-                    c.accept(logPrefix + ": " + msg);
-                } else {
-                    c.accept(msg);
-                }
-            });
-
-            executor.execute(outputStreamGobbler);
-            executor.execute(errorStreamGobbler);
-
-            return process.waitFor();
-
-        } catch (IOException e) {
-            throw new CommandExecutionException(
-                    "Error occurred while executing the command '" + command + "', " + "from directory '"
-                            + workingDirectory.toString(), e);
-        } catch (InterruptedException e) {
-            throw new CommandExecutionException(
-                    "InterruptedException occurred while executing the command '" + command + "', " + "from directory '"
-                            + workingDirectory.toString(), e);
-        } finally {
-            executor.shutdownNow();
-        }
-    }
-
-    private String reduceLogVerbosity(String msg) {
-
-        return msg.replaceAll("INFO\\s*.org.wso2.carbon.automation.extensions.servers.utils.ServerLogReader. - ",
-                "[Server] - ");
+        return execute(command, Collections.emptyMap());
     }
 
     /**
@@ -175,10 +180,14 @@ public class ShellExecutor {
     public int executeCommand(String command, Map<String, String> environment) throws CommandExecutionException {
 
         if (logger.isDebugEnabled()) {
-            logger.debug("Running shell command : " + command + ", from directory : " + workingDirectory.toString());
+            logger.debug("Running shell command : " + command + ", from directory : " + workingDirectory);
         }
+        return execute(command, environment);
+    }
+
+    private int execute(String command, Map<String, String> environment) throws CommandExecutionException {
+
         ProcessBuilder processBuilder = new ProcessBuilder("/bin/bash", "-c", command);
-        ExecutorService executor = Executors.newFixedThreadPool(2);
 
         try {
             if (workingDirectory != null) {
@@ -192,39 +201,78 @@ public class ShellExecutor {
             }
             Process process = processBuilder.start();
 
-            Consumer<String> infoLogConsumer = null, errorLogConsumer = null;
-            if (!hasLogPrefix()) {
-                infoLogConsumer = logger::info;
-                errorLogConsumer = logger::error;
-            } else {
-                infoLogConsumer = msg -> {
-                    logger.info(logPrefix + ": " + msg);
-                };
-                errorLogConsumer = msg -> {
-                    logger.error(logPrefix + ": " + msg);
-                };
+            StreamGobbler[] gobblers = {
+                    new StreamGobbler(process.getInputStream(), logPrefix, false),
+                    new StreamGobbler(process.getErrorStream(), logPrefix, true)
+            };
+            for (StreamGobbler gobbler : gobblers) {
+                gobblerExecutor.execute(gobbler);
             }
-            StreamGobbler outputStreamGobbler = new StreamGobbler(process.getInputStream(), infoLogConsumer);
-            StreamGobbler errorStreamGobbler = new StreamGobbler(process.getErrorStream(), errorLogConsumer);
-
-            executor.execute(outputStreamGobbler);
-            executor.execute(errorStreamGobbler);
 
-            return process.waitFor();
+            int exitValue = process.waitFor();
+            awaitOutput(gobblers);
+            return exitValue;
 
         } catch (IOException e) {
             throw new CommandExecutionException(
                     "Error occurred while executing the command '" + command + "', " + "from directory '"
-                            + workingDirectory.toString(), e);
+                            + workingDirectory, e);
         } catch (InterruptedException e) {
             throw new CommandExecutionException(
                     "InterruptedException occurred while executing the command '" + command + "', " + "from directory '"
-                            + workingDirectory.toString(), e);
-        } finally {
-            executor.shutdownNow();
+                            + workingDirectory, e);
         }
     }
 
+    /**
+     * Waits until the output of the exited process is drained, that is until each gobbler reaches the end of the
+     * output or stays idle between two polls. Background processes started by the command may keep the output open
+     * and keep writing to it, so the wait is limited; gobblers still reading then keep running until the output is
+     * closed.
+     */
+    private static void awaitOutput(StreamGobbler[] gobblers) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(OUTPUT_DRAIN_TIMEOUT_MILLIS);
+        long[] loggedLines = new long[gobblers.length];
+        Arrays.fill(loggedLines, -1);
+        while (true) {
+            boolean drained = true;
+            for (int i = 0; i < gobblers.length; i++) {
+                long lines = gobblers[i].loggedLines;
+                if (!gobblers[i].done && !(gobblers[i].idle && lines == loggedLines[i])) {
+                    drained = false;
+                }
+                loggedLines[i] = lines;
+            }
+            if (drained) {
+                return;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                logger.debug("Output of the command is still being written after the command exited");
+                return;
+            }
+            Thread.sleep(OUTPUT_POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * Creates the pool of gobbler threads. Up to {@link #MAX_GOBBLER_THREADS} threads are kept for reuse by the next
+     * commands, and expire once idle for a minute. Gobblers beyond those run on threads of their own, since a
+     * gobbler waiting for a queued one could block the process writing to an undrained output.
+     */
+    private static ExecutorService createGobblerExecutor() {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "shell-output-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(0, MAX_GOBBLER_THREADS, GOBBLER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory,
+                (runnable, executor) -> threadFactory.newThread(runnable).start());
+    }
+
     /**
      * Create a {@link ShellExecutor} instance with log prefix.
      *
@@ -261,9 +309,4 @@ public class ShellExecutor {
         }
         return executor;
     }
-
-    private boolean hasLogPrefix() {
-
-        return logPrefix != null;
-    }
 }
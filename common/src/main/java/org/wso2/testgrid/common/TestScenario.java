@@ -95,7 +95,7 @@ public class TestScenario extends AbstractUUIDEntity implements Serializable {
     private String dir;
 
     @Transient
-    private List<List<String>> performanceTestResults;
+    private PerformanceResultTable performanceTestResults;
 
     @Transient
     private List<String> summaryGraphs;
@@ -309,18 +309,18 @@ public class TestScenario extends AbstractUUIDEntity implements Serializable {
     /**
      *Returns the performance results data section
      *
-     * @return List of List of Strings containing the CSV data
+     * @return table containing the CSV data
      */
-    public List<List<String>> getPerformanceTestResults() {
+    public PerformanceResultTable getPerformanceTestResults() {
         return performanceTestResults;
     }
 
     /**
      *Set the PerformanceTest results data
      *
-     * @param performanceTestResults List of List of string containing the performance data
+     * @param performanceTestResults table containing the performance data
      */
-    public void setPerformanceTestResults(List<List<String>> performanceTestResults) {
+    public void setPerformanceTestResults(PerformanceResultTable performanceTestResults) {
         this.performanceTestResults = performanceTestResults;
     }
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.agentoperation;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary frame carrying a part of the output of an operation from an agent to the Tinkerer.
+ * <p>
+ * Frames of an operation are numbered from zero, so that the receiver can detect missing frames. The last frame
+ * of an operation is marked as completed and carries the exit value. A frame is encoded as
+ * <pre>
+ * version (1 byte) | flags (1 byte) | sequence (8 bytes) | exit value (4 bytes) |
+ * operation id length (2 bytes) | operation id (UTF-8) | payload length (4 bytes) | payload
+ * </pre>
+ */
+@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"},
+        justification = "Payload is handed over between the stream reader and the socket without copying.")
+public class OperationFrame {
+
+    /**
+     * Maximum payload size, so that a frame fits in the default 8 KB binary message buffer of web socket
+     * containers.
+     */
+    public static final int MAX_PAYLOAD_SIZE = 7 * 1024;
+
+    private static final byte VERSION = 1;
+    private static final byte COMPLETED_FLAG = 1;
+    private static final int HEADER_SIZE = 1 + 1 + 8 + 4 + 2 + 4;
+
+    private final String operationId;
+    private final long sequence;
+    private final boolean completed;
+    private final int exitValue;
+    private final byte[] payload;
+
+    /**
+     * Creates a frame of the output of an operation.
+     *
+     * @param operationId   The operation id
+     * @param sequence      Sequence number of the frame within the operation
+     * @param completed     Whether this is the last frame of the operation
+     * @param exitValue     Exit value of the operation, if completed
+     * @param payload       Output bytes carried by the frame
+     */
+    public OperationFrame(String operationId, long sequence, boolean completed, int exitValue, byte[] payload) {
+        this.operationId = operationId;
+        this.sequence = sequence;
+        this.completed = completed;
+        this.exitValue = exitValue;
+        this.payload = payload;
+    }
+
+    /**
+     * Encode the frame as a binary message.
+     *
+     * @return      The encoded frame
+     */
+    public ByteBuffer encode() {
+        byte[] operationIdBytes = operationId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + operationIdBytes.length + payload.length);
+        buffer.put(VERSION)
+                .put(completed ? COMPLETED_FLAG : 0)
+                .putLong(sequence)
+                .putInt(exitValue)
+                .putShort((short) operationIdBytes.length)
+                .put(operationIdBytes)
+                .putInt(payload.length)
+                .put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decode a frame from a binary message.
+     *
+     * @param message       The binary message
+     * @return              The decoded frame
+     * @throws IllegalArgumentException thrown when the message is not a valid frame
+     */
+    public static OperationFrame decode(ByteBuffer message) {
+        byte version = message.hasRemaining() ? message.get() : 0;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported operation frame version " + version);
+        }
+        try {
+            boolean completed = (message.get() & COMPLETED_FLAG) != 0;
+            long sequence = message.getLong();
+            int exitValue = message.getInt();
+            byte[] operationIdBytes = new byte[message.getShort() & 0xFFFF];
+            message.get(operationIdBytes);
+            int payloadLength = message.getInt();
+            if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_SIZE || payloadLength > message.remaining()) {
+                throw new IllegalArgumentException("Invalid operation frame payload length " + payloadLength);
+            }
+            byte[] payload = new byte[payloadLength];
+            message.get(payload);
+            return new OperationFrame(new String(operationIdBytes, StandardCharsets.UTF_8), sequence, completed,
+                    exitValue, payload);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Malformed operation frame", e);
+        }
+    }
+
+    /**
+     * Get operation id of the frame
+     *
+     * @return      The operation id
+     */
+    public String getOperationId() {
+        return operationId;
+    }
+
+    /**
+     * Get sequence number of the frame within the operation
+     *
+     * @return      The sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Check if this is the last frame of the operation
+     *
+     * @return      Completed state
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Get exit value of the operation
+     *
+     * @return      The exit value
+     */
+    public int getExitValue() {
+        return exitValue;
+    }
+
+    /**
+     * Get output bytes carried by the frame
+     *
+     * @return      The payload
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+}
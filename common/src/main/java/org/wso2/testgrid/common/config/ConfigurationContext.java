@@ -89,6 +89,36 @@ public class ConfigurationContext {
          */
         DB_USER_PASS("DB_USER_PASS"),
 
+        /**
+         * Minimum number of connections kept in the database connection pool
+         */
+        DB_POOL_MIN_CONNECTIONS("DB_POOL_MIN_CONNECTIONS"),
+
+        /**
+         * Maximum number of connections allowed in the database connection pool
+         */
+        DB_POOL_MAX_CONNECTIONS("DB_POOL_MAX_CONNECTIONS"),
+
+        /**
+         * Time to live (in seconds) of cached reference data such as products and deployment patterns
+         */
+        REFERENCE_DATA_CACHE_TTL_SECONDS("REFERENCE_DATA_CACHE_TTL_SECONDS"),
+
+        /**
+         * Maximum number of entries of a reference data cache
+         */
+        REFERENCE_DATA_CACHE_MAX_SIZE("REFERENCE_DATA_CACHE_MAX_SIZE"),
+
+        /**
+         * Number of rows written to the database per JDBC batch
+         */
+        DB_BATCH_SIZE("DB_BATCH_SIZE"),
+
+        /**
+         * Maximum size (in megabytes) of the local disk cache of test run logs of the web app
+         */
+        LOG_CACHE_MAX_SIZE_MB("LOG_CACHE_MAX_SIZE_MB"),
+
         /**
          * Jenkins host propertyName
          */
@@ -124,6 +154,11 @@ public class ConfigurationContext {
          */
         AWS_S3_ARTIFACTS_DIR("AWS_S3_ARTIFACTS_DIR"),
 
+        /**
+         * Endpoint of a S3 compatible storage used instead of AWS S3, such as a local stand-in
+         */
+        AWS_S3_ENDPOINT("AWS_S3_ENDPOINT"),
+
         /**
          * WUM Username of TestGrid deployment
          */
@@ -53,6 +53,7 @@ public class ScenarioConfig implements Serializable {
     private Status status;
     private TestPlan testPlan;
     private String outputDir;
+    private boolean aggregateResults;
 
     /**
      * This method returns the list of scenarios.
@@ -205,5 +206,21 @@ public class ScenarioConfig implements Serializable {
         this.outputDir = outputDir;
     }
 
+    /**
+     * Returns whether the samples of a JMeter result file are aggregated into one test case per sample label
+     * instead of persisting one test case per sample.
+     * <p>
+     * This should be enabled for load tests that produce a large number of samples.
+     *
+     * @return {@code true} if the samples are aggregated per label, {@code false} otherwise
+     */
+    public boolean isAggregateResults() {
+        return aggregateResults;
+    }
+
+    public void setAggregateResults(boolean aggregateResults) {
+        this.aggregateResults = aggregateResults;
+    }
+
 }
 
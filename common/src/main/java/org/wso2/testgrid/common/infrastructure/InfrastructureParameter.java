@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
@@ -47,6 +48,7 @@ import javax.persistence.UniqueConstraint;
  * @since 1.0
  */
 @Entity
+@Cacheable
 @Table(
         name = InfrastructureParameter.INFRASTRUCTURE_PARAMETER_TABLE,
         uniqueConstraints = {
@@ -17,21 +17,19 @@
  */
 package org.wso2.testgrid.common.plugins;
 
-import com.amazonaws.AmazonServiceException;
 import com.amazonaws.SdkClientException;
-import com.amazonaws.auth.PropertiesFileCredentialsProvider;
-import com.amazonaws.services.applicationdiscovery.model.ResourceNotFoundException;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
+import org.apache.http.HttpStatus;
 import org.wso2.testgrid.common.TruncatedInputStreamData;
 import org.wso2.testgrid.common.exception.TestGridRuntimeException;
 import org.wso2.testgrid.common.util.StringUtil;
-import org.wso2.testgrid.common.util.TestGridUtil;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Path;
 
 /**
  * This class is responsible for downloading artifacts from AWS.
@@ -44,7 +42,8 @@ public class AWSArtifactReader implements ArtifactReadable {
     private final String bucketName;
 
     /**
-     * Creates an instance of {@link AWSArtifactReader} for the given region and bucket name.
+     * Creates an instance of {@link AWSArtifactReader} for the given region and bucket name. The S3 client of
+     * the region is shared through {@link S3ClientRegistry}.
      * <p>
      * Please do note that accessKey and secretKey values should be set in a properties file
      * in order to authenticate to the AWS.
@@ -60,14 +59,21 @@ public class AWSArtifactReader implements ArtifactReadable {
         if (StringUtil.isStringNullOrEmpty(bucket)) {
             throw new ArtifactReaderException("AWS S3 bucket name is null or empty");
         }
-        Path configFilePath = TestGridUtil.getConfigFilePath();
-        amazonS3 = AmazonS3ClientBuilder.standard()
-                .withCredentials(new PropertiesFileCredentialsProvider(configFilePath.toString()))
-                .withRegion(region)
-                .build();
+        amazonS3 = S3ClientRegistry.getInstance().getClient(region);
         bucketName = bucket;
     }
 
+    /**
+     * Creates an instance of {@link AWSArtifactReader} for the given bucket, which reads through the given client.
+     *
+     * @param amazonS3 client of the region where the S3 bucket is located
+     * @param bucket   name of the bucket
+     */
+    AWSArtifactReader(AmazonS3 amazonS3, String bucket) {
+        this.amazonS3 = amazonS3;
+        this.bucketName = bucket;
+    }
+
     @Override
     public TruncatedInputStreamData readArtifact(String key) throws ArtifactReaderException {
         return readArtifact(key, 0);
@@ -89,16 +95,58 @@ public class AWSArtifactReader implements ArtifactReadable {
 
     @Override
     public InputStream getArtifactStream(String key) {
+        InputStream inputStream;
         try {
-            if (!amazonS3.doesObjectExist(bucketName, key)) {
-                throw new ResourceNotFoundException("File: " + key + " not found in the remote storage: " + bucketName);
-            }
-            S3Object s3Object = amazonS3.getObject(bucketName, key);
-            return s3Object.getObjectContent();
-        } catch (AmazonServiceException e) {
+            inputStream = findArtifactStream(key);
+        } catch (ArtifactReaderException e) {
             throw new TestGridRuntimeException("Error occurred in Amazon service", e);
+        }
+        if (inputStream == null) {
+            throw new TestGridRuntimeException("File: " + key + " not found in the remote storage: " + bucketName);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public InputStream findArtifactStream(String key) throws ArtifactReaderException {
+        try {
+            return amazonS3.getObject(bucketName, key).getObjectContent();
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+                return null;
+            }
+            throw new ArtifactReaderException(StringUtil.concatStrings("Error on reading artifact ", key,
+                    " from AWS S3."), e);
+        } catch (SdkClientException e) {
+            throw new ArtifactReaderException(StringUtil.concatStrings("Error on reading artifact ", key,
+                    " from AWS S3."), e);
+        }
+    }
+
+    @Override
+    public InputStream getArtifactStream(String key, long start, long end) throws ArtifactReaderException {
+        try {
+            GetObjectRequest request = new GetObjectRequest(bucketName, key).withRange(start, end);
+            return amazonS3.getObject(request).getObjectContent();
         } catch (SdkClientException e) {
-            throw new TestGridRuntimeException("Error occurred in SDK client", e);
+            throw new ArtifactReaderException(StringUtil.concatStrings("Error on reading bytes ", start, "-", end,
+                    " of artifact ", key, " from AWS S3."), e);
+        }
+    }
+
+    @Override
+    public ArtifactMetadata getArtifactMetadata(String key) throws ArtifactReaderException {
+        try {
+            ObjectMetadata metadata = amazonS3.getObjectMetadata(bucketName, key);
+            return new ArtifactMetadata(metadata.getETag(), metadata.getContentLength(),
+                    metadata.getContentEncoding());
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+                return null;
+            }
+            throw new ArtifactReaderException("Error on reading artifact metadata from AWS S3.", e);
+        } catch (SdkClientException e) {
+            throw new ArtifactReaderException("Error on reading artifact metadata from AWS S3.", e);
         }
     }
 
@@ -107,4 +155,9 @@ public class AWSArtifactReader implements ArtifactReadable {
         return amazonS3.doesObjectExist(bucketName, key) ||
                 amazonS3.listObjectsV2(bucketName, key).getKeyCount() > 0;
     }
+
+    @Override
+    public String getBucketName() {
+        return bucketName;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.testgrid.common.plugins;
+
+/**
+ * Metadata of an artifact in the remote storage.
+ *
+ * @since 1.0.0
+ */
+public class ArtifactMetadata {
+
+    private final String eTag;
+    private final long contentLength;
+    private final String contentEncoding;
+
+    /**
+     * Constructs an instance of {@link ArtifactMetadata}.
+     *
+     * @param eTag            entity tag of the artifact, which changes whenever the artifact content changes
+     * @param contentLength   size of the stored artifact in bytes
+     * @param contentEncoding encoding of the stored artifact (ex. gzip), or {@code null} if it is not encoded
+     */
+    public ArtifactMetadata(String eTag, long contentLength, String contentEncoding) {
+        this.eTag = eTag;
+        this.contentLength = contentLength;
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * Returns the entity tag of the artifact.
+     *
+     * @return entity tag of the artifact
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Returns the size of the stored artifact in bytes.
+     *
+     * @return size of the stored artifact
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Returns the encoding of the stored artifact.
+     *
+     * @return encoding of the stored artifact, or {@code null} if it is not encoded
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+}
@@ -57,6 +57,37 @@ public interface ArtifactReadable {
      */
     InputStream getArtifactStream(String key);
 
+    /**
+     * Read the artifact for the given key and return an input stream without truncating, with a single request to
+     * the remote storage.
+     *
+     * @param key key of the artifact to download
+     * @return {@link InputStream} containing input stream of the artifact, or {@code null} if the artifact does
+     * not exist
+     * @throws ArtifactReaderException thrown when error on downloading the artifact
+     */
+    InputStream findArtifactStream(String key) throws ArtifactReaderException;
+
+    /**
+     * Read the given byte range of the artifact for the given key and return an input stream.
+     *
+     * @param key   key of the artifact to download
+     * @param start position of the first byte to read
+     * @param end   position of the last byte to read (inclusive)
+     * @return {@link InputStream} containing the requested bytes of the artifact
+     * @throws ArtifactReaderException thrown when error on downloading the artifact
+     */
+    InputStream getArtifactStream(String key, long start, long end) throws ArtifactReaderException;
+
+    /**
+     * Returns the metadata of the artifact for the given key.
+     *
+     * @param key key of the artifact
+     * @return {@link ArtifactMetadata} of the artifact, or {@code null} if the artifact does not exist
+     * @throws ArtifactReaderException thrown when error on reading the artifact metadata
+     */
+    ArtifactMetadata getArtifactMetadata(String key) throws ArtifactReaderException;
+
     /**
      * Verify the existence of the artifact for the given key.
      *
@@ -64,4 +95,11 @@ public interface ArtifactReadable {
      * @return {@link Boolean} If artifact exist in the remote storage return True otherwise return False
      */
     Boolean isArtifactExist(String key);
+
+    /**
+     * Returns the name of the bucket the artifacts are read from.
+     *
+     * @return bucket name
+     */
+    String getBucketName();
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.plugins;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.PropertiesFileCredentialsProvider;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import com.amazonaws.util.TimingInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.config.ConfigurationContext;
+import org.wso2.testgrid.common.config.ConfigurationContext.ConfigurationProperties;
+import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.common.util.TestGridUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the AWS S3 clients used to access the artifact storage.
+ * <p>
+ * An {@link AmazonS3} client owns a HTTP connection pool and a {@link TransferManager} owns a thread pool, so
+ * they are created once per region and credentials and shared by all the callers. Artifact readers are shared per
+ * region and bucket. The requests sent by the clients are counted and timed per request type.
+ * {@link #shutdown()} should be called when the application stops.
+ *
+ * @since 1.0.0
+ */
+public final class S3ClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3ClientRegistry.class);
+    private static final S3ClientRegistry INSTANCE = new S3ClientRegistry();
+    private static final int TRANSFER_THREAD_COUNT = 10;
+
+    private final ConcurrentMap<String, AmazonS3> clients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TransferManager> transferManagers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AWSArtifactReader> artifactReaders = new ConcurrentHashMap<>();
+    private final S3RequestMetricCollector metricCollector = new S3RequestMetricCollector();
+
+    private S3ClientRegistry() {
+    }
+
+    /**
+     * Returns the registry instance.
+     *
+     * @return S3 client registry
+     */
+    public static S3ClientRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the S3 client of the given region, authenticated with the keys in the TestGrid config file.
+     *
+     * @param region AWS region
+     * @return shared S3 client
+     */
+    public AmazonS3 getClient(String region) {
+        return getClient(region, CredentialsSource.CONFIG_FILE);
+    }
+
+    /**
+     * Returns the S3 client of the given region, authenticated with the given credentials. If
+     * {@link ConfigurationProperties#AWS_S3_ENDPOINT} is configured, the client connects to that endpoint instead.
+     *
+     * @param region            AWS region
+     * @param credentialsSource where to read the credentials from
+     * @return shared S3 client
+     */
+    public AmazonS3 getClient(String region, CredentialsSource credentialsSource) {
+        return clients.computeIfAbsent(getClientKey(region, credentialsSource), key -> {
+            logger.info(StringUtil.concatStrings("Creating S3 client for region ", region, " with ",
+                    credentialsSource, " credentials"));
+            AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                    .withCredentials(credentialsSource.getCredentialsProvider());
+            String endpoint = ConfigurationContext.getProperty(ConfigurationProperties.AWS_S3_ENDPOINT);
+            if (StringUtil.isStringNullOrEmpty(endpoint)) {
+                builder = builder.withRegion(region);
+            } else {
+                // S3 compatible storages are addressed by path, since they do not resolve bucket sub domains
+                builder.setEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region));
+                builder.setPathStyleAccessEnabled(true);
+            }
+            builder.setMetricsCollector(metricCollector);
+            return builder.build();
+        });
+    }
+
+    /**
+     * Returns the transfer manager of the given region, authenticated with the given credentials. The transfer
+     * manager runs on a fixed pool of daemon threads and shares the S3 client of the region.
+     *
+     * @param region            AWS region
+     * @param credentialsSource where to read the credentials from
+     * @return shared transfer manager
+     */
+    public TransferManager getTransferManager(String region, CredentialsSource credentialsSource) {
+        return transferManagers.computeIfAbsent(getClientKey(region, credentialsSource), key -> {
+            AtomicInteger threadCount = new AtomicInteger();
+            return TransferManagerBuilder.standard()
+                    .withS3Client(getClient(region, credentialsSource))
+                    .withExecutorFactory(() -> Executors.newFixedThreadPool(TRANSFER_THREAD_COUNT, runnable -> {
+                        Thread thread = new Thread(runnable,
+                                StringUtil.concatStrings("s3-transfer-", key, "-", threadCount.incrementAndGet()));
+                        thread.setDaemon(true);
+                        return thread;
+                    }))
+                    .build();
+        });
+    }
+
+    /**
+     * Returns the artifact reader of the given bucket, authenticated with the keys in the TestGrid config file.
+     *
+     * @param region region where the S3 bucket is located
+     * @param bucket name of the bucket
+     * @return shared artifact reader
+     * @throws ArtifactReaderException thrown if the given parameters are null or empty
+     */
+    public AWSArtifactReader getArtifactReader(String region, String bucket) throws ArtifactReaderException {
+        if (StringUtil.isStringNullOrEmpty(region)) {
+            throw new ArtifactReaderException("AWS S3 bucket region is null or empty");
+        }
+        if (StringUtil.isStringNullOrEmpty(bucket)) {
+            throw new ArtifactReaderException("AWS S3 bucket name is null or empty");
+        }
+        return artifactReaders.computeIfAbsent(StringUtil.concatStrings(region, "/", bucket),
+                key -> new AWSArtifactReader(getClient(region), bucket));
+    }
+
+    /**
+     * Returns the artifact reader of the bucket configured in the TestGrid config file.
+     *
+     * @return shared artifact reader
+     * @throws ArtifactReaderException thrown if the region or the bucket is not configured
+     */
+    public AWSArtifactReader getArtifactReader() throws ArtifactReaderException {
+        return getArtifactReader(ConfigurationContext.getProperty(ConfigurationProperties.AWS_REGION_NAME),
+                ConfigurationContext.getProperty(ConfigurationProperties.AWS_S3_BUCKET_NAME));
+    }
+
+    /**
+     * Returns the number of requests sent to S3 and their latencies, per request type.
+     *
+     * @return request statistics
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("clients", clients.size());
+        statistics.put("transferManagers", transferManagers.size());
+        metricCollector.requestStatistics.forEach((requestType, requestStatistics) -> {
+            String prefix = StringUtil.concatStrings(requestType, ".");
+            long requests = requestStatistics.requests.sum();
+            statistics.put(prefix + "requests", requests);
+            statistics.put(prefix + "errors", requestStatistics.errors.sum());
+            statistics.put(prefix + "averageMillis",
+                    requests == 0 ? 0 : requestStatistics.totalMillis.sum() / requests);
+            statistics.put(prefix + "maxMillis", requestStatistics.maxMillis.get());
+        });
+        return statistics;
+    }
+
+    /**
+     * Shuts down all the transfer managers and clients, releasing their thread pools and connections.
+     * Clients requested afterwards are created again.
+     */
+    public void shutdown() {
+        logger.info("Shutting down S3 clients. Request statistics: " + getStatistics());
+        transferManagers.values().forEach(transferManager -> transferManager.shutdownNow(false));
+        transferManagers.clear();
+        artifactReaders.clear();
+        clients.values().forEach(AmazonS3::shutdown);
+        clients.clear();
+    }
+
+    private static String getClientKey(String region, CredentialsSource credentialsSource) {
+        return StringUtil.concatStrings(credentialsSource.name().toLowerCase(Locale.ENGLISH), "/", region);
+    }
+
+    /**
+     * Defines where the credentials of a S3 client are read from.
+     */
+    public enum CredentialsSource {
+
+        /**
+         * Access keys in the TestGrid config file.
+         */
+        CONFIG_FILE {
+            @Override
+            AWSCredentialsProvider getCredentialsProvider() {
+                return new PropertiesFileCredentialsProvider(TestGridUtil.getConfigFilePath().toString());
+            }
+        },
+
+        /**
+         * Access keys of the TestGrid bot configured in the TestGrid config file.
+         */
+        TESTGRID_BOT {
+            @Override
+            AWSCredentialsProvider getCredentialsProvider() {
+                return new AWSStaticCredentialsProvider(new BasicAWSCredentials(
+                        ConfigurationContext.getProperty(ConfigurationProperties.AWS_ACCESS_KEY_ID_TG_BOT),
+                        ConfigurationContext.getProperty(ConfigurationProperties.AWS_ACCESS_KEY_SECRET_TG_BOT)));
+            }
+        };
+
+        abstract AWSCredentialsProvider getCredentialsProvider();
+    }
+
+    /**
+     * Collects the number of requests, errors and the latencies of the requests sent by the clients.
+     */
+    private static class S3RequestMetricCollector extends RequestMetricCollector {
+
+        private final ConcurrentMap<String, RequestStatistics> requestStatistics = new ConcurrentHashMap<>();
+
+        @Override
+        public void collectMetrics(Request<?> request, Response<?> response) {
+            String requestType = request.getOriginalRequest().getClass().getSimpleName();
+            RequestStatistics statistics = requestStatistics.computeIfAbsent(requestType,
+                    key -> new RequestStatistics());
+            statistics.requests.increment();
+            if (response == null) {
+                statistics.errors.increment();
+            }
+            TimingInfo timingInfo = request.getAWSRequestMetrics().getTimingInfo();
+            Double timeTakenMillis = timingInfo.getTimeTakenMillisIfKnown();
+            if (timeTakenMillis != null) {
+                long millis = timeTakenMillis.longValue();
+                statistics.totalMillis.add(millis);
+                statistics.maxMillis.accumulate(millis);
+            }
+        }
+    }
+
+    /**
+     * Statistics of a type of requests.
+     */
+    private static class RequestStatistics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+    }
+}
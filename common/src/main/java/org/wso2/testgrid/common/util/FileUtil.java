@@ -34,25 +34,17 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
-import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import static org.wso2.testgrid.common.TestGridConstants.PRODUCT_TEST_PLANS_DIR;
 
@@ -188,54 +180,30 @@ public class FileUtil {
     }
 
     /**
-     * Creates a archive file of the list of files passing in the given destination.
-     *
-     * @param files       list of files to be archive
-     * @param destination path of the archive file
-     */
-    public static void compressFiles(List<String> files, String destination) throws TestGridException {
-        Map<String, String> env = new HashMap<>();
-        env.put("create", "true");
-
-        URI uri = URI.create("jar:file:" + destination);
-
-        try (FileSystem zipFileSystem = FileSystems.newFileSystem(uri, env)) {
-            for (String filePath : files) {
-                File file = new File(filePath);
-                Path destinationPath = zipFileSystem.getPath(file.getName());
-                Files.copy(file.toPath(), destinationPath, StandardCopyOption.REPLACE_EXISTING);
-            }
-        } catch (IOException e) {
-            throw new TestGridException("Error occurred while making the archive: " + destination, e);
-        }
-    }
-
-    /**
-     * Compress the files at sourceDir into the destination zip file.
+     * Compress the files at sourceDir into the destination zip file. Files are compressed in parallel by
+     * {@link ZipArchiver}; files which cannot be read are skipped, and a partially written zip file is deleted on
+     * failure.
      *
      * @param sourceDir   the source dir that has contents to archive
      * @param destination the zip file location
      */
     public static void compress(String sourceDir, String destination) throws IOException {
         Path destPath = Files.createFile(Paths.get(destination));
-        try (ZipOutputStream zs = new ZipOutputStream(Files.newOutputStream(destPath))) {
-            Path sourcePath = Paths.get(sourceDir);
-            Files.walk(sourcePath)
-                    .filter(path -> !Files.isDirectory(path))
-                    .forEach(path -> {
-                        try {
-                            if (Files.isSameFile(path, destPath)) {
-                                return;
-                            }
-                            ZipEntry zipEntry = new ZipEntry(sourcePath.relativize(path).toString());
-                            zs.putNextEntry(zipEntry);
-                            Files.copy(path, zs);
-                            zs.closeEntry();
-                        } catch (IOException e) {
-                            logger.debug(e.getMessage(), e);
-                            //ignore the exception and continue
-                        }
-                    });
+        Path absoluteDestPath = destPath.toAbsolutePath().normalize();
+        try (ZipArchiver archiver = new ZipArchiver(Files.newOutputStream(destPath))) {
+            archiver.addDirectory(Paths.get(sourceDir), "",
+                    path -> !path.toAbsolutePath().normalize().equals(absoluteDestPath));
+        } catch (IOException | RuntimeException e) {
+            deletePartialArchive(destPath);
+            throw e;
+        }
+    }
+
+    private static void deletePartialArchive(Path archive) {
+        try {
+            Files.deleteIfExists(archive);
+        } catch (IOException e) {
+            logger.warn("Error occurred while deleting the partially written archive " + archive, e);
         }
     }
 
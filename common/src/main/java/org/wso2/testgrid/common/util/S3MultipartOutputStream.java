@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Output stream which uploads the written bytes to a S3 object as they are written.
+ * <p>
+ * Bytes are buffered into parts which are uploaded in the background as a multipart upload, while the next part is
+ * being written. Content smaller than a part is uploaded as a single object. The upload is completed when the
+ * stream is closed; {@link #abort()} discards it instead.
+ *
+ * @since 1.0.0
+ */
+public final class S3MultipartOutputStream extends OutputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+    static final int PART_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_PENDING_PARTS = 2;
+    private static final int UPLOAD_THREAD_COUNT = 4;
+
+    private static final ExecutorService uploadExecutor = createExecutor();
+
+    private final AmazonS3 s3Client;
+    private final String bucketName;
+    private final String key;
+    private final Deque<Future<PartETag>> pendingParts = new ArrayDeque<>();
+    private final List<PartETag> partETags = new ArrayList<>();
+    private byte[] buffer = new byte[PART_SIZE];
+    private int bufferSize;
+    private String uploadId;
+    private boolean closed;
+
+    /**
+     * Creates a stream which uploads to the given S3 object.
+     *
+     * @param s3Client   S3 client to upload with
+     * @param bucketName name of the bucket
+     * @param key        key of the object
+     */
+    public S3MultipartOutputStream(AmazonS3 s3Client, String bucketName, String key) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.key = key;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (bufferSize == buffer.length) {
+            uploadPart();
+        }
+        buffer[bufferSize++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (bufferSize == buffer.length) {
+                uploadPart();
+            }
+            int length = Math.min(len, buffer.length - bufferSize);
+            System.arraycopy(b, off, buffer, bufferSize, length);
+            bufferSize += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Uploads the remaining bytes and completes the upload.
+     *
+     * @throws IOException thrown when error on uploading to S3; the upload is aborted
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (uploadId == null) {
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(bufferSize);
+                s3Client.putObject(bucketName, key, new ByteArrayInputStream(buffer, 0, bufferSize), metadata);
+            } else {
+                uploadPart();
+                while (!pendingParts.isEmpty()) {
+                    partETags.add(await(pendingParts.poll()));
+                }
+                s3Client.completeMultipartUpload(
+                        new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags));
+            }
+            closed = true;
+            buffer = null;
+        } catch (IOException | AmazonClientException e) {
+            abort();
+            throw e instanceof IOException ? (IOException) e :
+                    new IOException("Error occurred while uploading to " + bucketName + "/" + key, e);
+        }
+    }
+
+    /**
+     * Discards the bytes written so far and aborts the upload.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        pendingParts.forEach(pendingPart -> pendingPart.cancel(true));
+        pendingParts.clear();
+        if (uploadId != null) {
+            try {
+                s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+            } catch (AmazonClientException e) {
+                logger.warn(StringUtil.concatStrings("Could not abort the upload of ", bucketName, "/", key,
+                        ". Its parts remain until the bucket lifecycle removes them."), e);
+            }
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        try {
+            if (uploadId == null) {
+                uploadId = s3Client.initiateMultipartUpload(
+                        new InitiateMultipartUploadRequest(bucketName, key)).getUploadId();
+            }
+            if (pendingParts.size() == MAX_PENDING_PARTS) {
+                partETags.add(await(pendingParts.poll()));
+            }
+            UploadPartRequest request = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partETags.size() + pendingParts.size() + 1)
+                    .withInputStream(new ByteArrayInputStream(buffer, 0, bufferSize))
+                    .withPartSize(bufferSize);
+            pendingParts.add(uploadExecutor.submit(() -> s3Client.uploadPart(request).getPartETag()));
+            buffer = new byte[PART_SIZE];
+            bufferSize = 0;
+        } catch (IOException | AmazonClientException e) {
+            abort();
+            throw e instanceof IOException ? (IOException) e :
+                    new IOException("Error occurred while uploading to " + bucketName + "/" + key, e);
+        }
+    }
+
+    private static PartETag await(Future<PartETag> pendingPart) throws IOException {
+        try {
+            return pendingPart.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading to S3");
+        } catch (ExecutionException e) {
+            throw new IOException("Error occurred while uploading a part to S3", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Upload to " + bucketName + "/" + key + " is already closed");
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(UPLOAD_THREAD_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
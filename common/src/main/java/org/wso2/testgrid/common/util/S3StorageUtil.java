@@ -2,26 +2,22 @@ package org.wso2.testgrid.common.util;
 
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.SdkClientException;
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.auth.PropertiesFileCredentialsProvider;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-import com.amazonaws.services.s3.model.DeleteObjectRequest;
-import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.MultipleFileDownload;
 import com.amazonaws.services.s3.transfer.TransferManager;
-import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
-import com.amazonaws.services.s3.transfer.Upload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.TestGridConstants;
 import org.wso2.testgrid.common.TestPlan;
 import org.wso2.testgrid.common.config.ConfigurationContext;
-import org.wso2.testgrid.common.plugins.AWSArtifactReader;
+import org.wso2.testgrid.common.exception.TestGridException;
 import org.wso2.testgrid.common.plugins.ArtifactReadable;
 import org.wso2.testgrid.common.plugins.ArtifactReaderException;
+import org.wso2.testgrid.common.plugins.S3ClientRegistry;
 
 import static org.wso2.testgrid.common.TestGridConstants.TESTGRID_COMPRESSED_FILE_EXT;
 import static org.wso2.testgrid.common.TestGridConstants.TEST_RESULTS_DIR;
@@ -29,12 +25,13 @@ import static org.wso2.testgrid.common.TestGridConstants.TEST_RESULTS_DIR_OLD;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.Map;
 
 /**
  * This Util class holds the utility methods used to manage TestGrid S3 storage.
@@ -47,6 +44,16 @@ public final class S3StorageUtil {
 
     private static final String TESTGRID_BUILDS_DIR = "builds";
     private static final String TESTPLAN_DEPLOYMENT_OUTPUTS_DIR = "deployment-outputs";
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+    private static final int MAX_RESOLVED_PATHS = 10000;
+
+    /**
+     * Key layouts resolved by probing the storage. Only layouts found in the storage are cached, since the
+     * artifacts of a test plan are never moved once uploaded.
+     */
+    private static final Map<String, String> resolvedTestPlanDirPaths = createPathCache();
+    private static final Map<String, String> resolvedTestResultsArchivePaths = createPathCache();
+
     /**
      * Returns the path of the test-run log file in S3 bucket.
      * <p>
@@ -84,16 +91,29 @@ public final class S3StorageUtil {
      * @param testPlan Test plan which the data need to be deleted
      */
     public static boolean deleteTestPlan(TestPlan testPlan) {
+        try {
+            deleteTestPlan(testPlan, false);
+            return true;
+        } catch (TestGridException e) {
+            logger.error(e.getMessage(), e.getCause());
+            return false;
+        }
+    }
 
-        Path configFilePath = Paths.get(TestGridUtil.getTestGridHomePath(),
-                TestGridConstants.TESTGRID_CONFIG_FILE);
+    /**
+     * Deletes the artifacts of a given test plan in S3. On a dry run, the artifacts are only listed.
+     *
+     * @param testPlan test plan of which the artifacts need to be deleted
+     * @param dryRun   whether to only count the artifacts without deleting them
+     * @return number of artifacts deleted, or which would be deleted on a dry run
+     * @throws TestGridException thrown when error on listing or deleting the artifacts
+     */
+    public static long deleteTestPlan(TestPlan testPlan, boolean dryRun) throws TestGridException {
         String testPlanId = testPlan.getId();
         String s3KeyName = "";
 
         try {
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(ConfigurationContext.
-                    getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
 
             s3KeyName = deriveS3TestPlanDirPath(testPlan, artifactDownloadable);
             logger.info("Started to clean artifacts of test-plan: " + testPlan.getId() + ", s3 bucket: " + s3KeyName);
@@ -102,41 +122,82 @@ public final class S3StorageUtil {
             String bucketName = ConfigurationContext.getProperty
                     (ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME);
 
-            AmazonS3 s3Client = AmazonS3ClientBuilder.standard()
-                    .withCredentials(new PropertiesFileCredentialsProvider(configFilePath.toString()))
-                    .withRegion(clientRegion)
-                    .build();
-
-            ObjectListing objectListing = s3Client.listObjects(bucketName, s3KeyName);
-            List<S3ObjectSummary> objectSummaries = objectListing.getObjectSummaries();
-
-            for (S3ObjectSummary os : objectSummaries) {
-                logger.debug(StringUtil.concatStrings("deleting file", os.getKey(), "of test plan ",
-                        testPlan.getId()));
-                s3Client.deleteObject(new DeleteObjectRequest(bucketName, os.getKey()));
-            }
-
-            s3Client.deleteObject(new DeleteObjectRequest(bucketName, s3KeyName));
-            return true;
+            AmazonS3 s3Client = S3ClientRegistry.getInstance().getClient(clientRegion);
+            return deleteDirectory(s3Client, bucketName, s3KeyName, dryRun);
         } catch (AmazonServiceException e) {
-            logger.error(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
-                    "of test plan: ", testPlanId, "\nAmazon S3 couldn't process request ", e));
-            return false;
+            throw new TestGridException(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
+                    " of test plan: ", testPlanId, "\nAmazon S3 couldn't process request"), e);
         } catch (SdkClientException e) {
-            logger.error(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
-                    "of test plan: ", testPlanId, "\nAmazon S3 couldn't be contacted for a response ", e));
-            return false;
+            throw new TestGridException(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
+                    " of test plan: ", testPlanId, "\nAmazon S3 couldn't be contacted for a response"), e);
         } catch (ArtifactReaderException e) {
-            logger.error(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
-                    "of test plan: ", testPlanId, "\nError occurred when reading the artifact ", e));
-            return false;
-        } catch (IOException e) {
-            logger.error(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
-                    "of test plan: ", testPlanId, "\n", e.getMessage(), e));
-            return false;
+            throw new TestGridException(StringUtil.concatStrings("Error while deleting file: ", s3KeyName,
+                    " of test plan: ", testPlanId, "\nError occurred when reading the artifact"), e);
         }
     }
 
+    /**
+     * Deletes all the objects under a directory of a S3 bucket. Objects are listed page by page and deleted in
+     * batches of up to {@link #MAX_KEYS_PER_REQUEST} keys per request. On a dry run, the objects are only listed.
+     *
+     * @param s3Client   S3 client, or a S3 compatible stand-in
+     * @param bucketName name of the bucket
+     * @param dirPath    directory path in the bucket
+     * @param dryRun     whether to only count the objects without deleting them
+     * @return number of objects deleted, or which would be deleted on a dry run
+     */
+    public static long deleteDirectory(AmazonS3 s3Client, String bucketName, String dirPath, boolean dryRun) {
+        ListObjectsV2Request listObjectsRequest = new ListObjectsV2Request()
+                .withBucketName(bucketName)
+                .withPrefix(StringUtil.concatStrings(dirPath, "/"))
+                .withMaxKeys(MAX_KEYS_PER_REQUEST);
+        List<DeleteObjectsRequest.KeyVersion> keys = new ArrayList<>(MAX_KEYS_PER_REQUEST);
+        long objectCount = 0;
+        ListObjectsV2Result objectListing;
+        do {
+            objectListing = s3Client.listObjectsV2(listObjectsRequest);
+            for (S3ObjectSummary objectSummary : objectListing.getObjectSummaries()) {
+                keys.add(new DeleteObjectsRequest.KeyVersion(objectSummary.getKey()));
+                objectCount++;
+                if (keys.size() == MAX_KEYS_PER_REQUEST) {
+                    deleteObjects(s3Client, bucketName, keys, dryRun);
+                }
+            }
+            listObjectsRequest.setContinuationToken(objectListing.getNextContinuationToken());
+        } while (objectListing.isTruncated());
+
+        // The directory itself is stored as an object without the trailing slash by some clients
+        if (!dryRun) {
+            keys.add(new DeleteObjectsRequest.KeyVersion(dirPath));
+        }
+        deleteObjects(s3Client, bucketName, keys, dryRun);
+        if (dryRun) {
+            logger.info(StringUtil.concatStrings("Dry run: ", objectCount, " objects would be deleted from ",
+                    bucketName, "/", dirPath));
+        }
+        return objectCount;
+    }
+
+    /**
+     * Deletes the given keys with a single request and clears the list of keys.
+     */
+    private static void deleteObjects(AmazonS3 s3Client, String bucketName,
+                                      List<DeleteObjectsRequest.KeyVersion> keys, boolean dryRun) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(StringUtil.concatStrings(dryRun ? "Dry run: skipped deleting " : "Deleting ",
+                    keys.size(), " objects from ", bucketName, " starting from ", keys.get(0).getKey()));
+        }
+        if (!dryRun) {
+            s3Client.deleteObjects(new DeleteObjectsRequest(bucketName)
+                    .withKeys(new ArrayList<>(keys))
+                    .withQuiet(true));
+        }
+        keys.clear();
+    }
+
     /**
      * Returns the test-plan directory path in S3 for the test-plan.
      *
@@ -149,12 +210,20 @@ public final class S3StorageUtil {
                 getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_ARTIFACTS_DIR);
         String testPlanDirPath =  Paths.get(artifactsDir, TestGridConstants.TESTGRID_JOB_DIR, productName,
                 TESTGRID_BUILDS_DIR, testPlan.getId()).toString();
-        if (!awsArtifactReader.isArtifactExist(testPlanDirPath)) {
+        String cacheKey = deriveCacheKey(awsArtifactReader, testPlanDirPath);
+        String resolvedPath = resolvedTestPlanDirPaths.get(cacheKey);
+        if (resolvedPath != null) {
+            return resolvedPath;
+        }
+        if (awsArtifactReader.isArtifactExist(testPlanDirPath)) {
+            resolvedTestPlanDirPaths.put(cacheKey, testPlanDirPath);
+        } else {
             String testPlanDirNameOldStructure = TestGridUtil.deriveTestPlanDirName(testPlan);
             String testPlanDirPathOldStructure = Paths.get(artifactsDir, TestGridConstants.TESTGRID_JOB_DIR,
                     productName, TESTGRID_BUILDS_DIR, testPlanDirNameOldStructure).toString();
             //If the old path exists, then only return old-path.
             if (awsArtifactReader.isArtifactExist(testPlanDirPathOldStructure)) {
+                resolvedTestPlanDirPaths.put(cacheKey, testPlanDirPathOldStructure);
                 return testPlanDirPathOldStructure;
             }
         }
@@ -216,43 +285,56 @@ public final class S3StorageUtil {
      */
     public static String deriveS3TestsResultsArchivePath(
             TestPlan testPlan, ArtifactReadable awsArtifactReader) {
-        String oldPath = Paths.get(deriveS3DatabucketDir(testPlan, awsArtifactReader),
-                TEST_RESULTS_DIR_OLD + TESTGRID_COMPRESSED_FILE_EXT).toString();
-        String path = Paths.get(deriveS3DatabucketDir(testPlan, awsArtifactReader),
-                TEST_RESULTS_DIR + TESTGRID_COMPRESSED_FILE_EXT).toString();
+        String dataBucketDir = deriveS3DatabucketDir(testPlan, awsArtifactReader);
+        String cacheKey = deriveCacheKey(awsArtifactReader, dataBucketDir);
+        String resolvedPath = resolvedTestResultsArchivePaths.get(cacheKey);
+        if (resolvedPath != null) {
+            return resolvedPath;
+        }
+        String oldPath = Paths.get(dataBucketDir, TEST_RESULTS_DIR_OLD + TESTGRID_COMPRESSED_FILE_EXT).toString();
+        String path = Paths.get(dataBucketDir, TEST_RESULTS_DIR + TESTGRID_COMPRESSED_FILE_EXT).toString();
         if (awsArtifactReader.isArtifactExist(path)) {
+            resolvedTestResultsArchivePaths.put(cacheKey, path);
             return path;
         } else if (awsArtifactReader.isArtifactExist(oldPath)) {
+            resolvedTestResultsArchivePaths.put(cacheKey, oldPath);
             return oldPath;
         } else {
             return path;
         }
     }
 
+    /**
+     * Returns the key of a resolved path in the caches, since the same path may resolve differently in each bucket.
+     */
+    private static String deriveCacheKey(ArtifactReadable artifactReadable, String path) {
+        return artifactReadable.getBucketName() + ":" + path;
+    }
+
+    /**
+     * Creates a bounded cache of resolved paths, which evicts the least recently used paths.
+     */
+    private static Map<String, String> createPathCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > MAX_RESOLVED_PATHS;
+            }
+        });
+    }
+
     public static void downloadArchiveandReupload(String s3artifactDir, Path dataBucketLocation) {
 
         String s3region = ConfigurationContext
                 .getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME);
-        String s3accessKey = ConfigurationContext
-                .getProperty(ConfigurationContext.ConfigurationProperties.AWS_ACCESS_KEY_ID_TG_BOT);
-        String s3secretKey = ConfigurationContext
-                .getProperty(ConfigurationContext.ConfigurationProperties.AWS_ACCESS_KEY_SECRET_TG_BOT);
         String s3bucket = ConfigurationContext
                 .getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME);
 
-        BasicAWSCredentials awsCreds = new BasicAWSCredentials(s3accessKey, s3secretKey);
-
-        AmazonS3 s3client = AmazonS3ClientBuilder.standard()
-                .withCredentials(new AWSStaticCredentialsProvider(awsCreds))
-                .withRegion(s3region).build();
         logger.info(s3bucket + " " + s3artifactDir);
-        /*if (!s3client.doesObjectExist(s3bucket, s3artifactDir)) {
-            logger.error("Could not find logs", s3artifactDir + " " + s3bucket);
-            return;
-        }
-        logger.info("Found logs");*/
-        TransferManager transferManager = TransferManagerBuilder.standard()
-                .withS3Client(s3client).build();
+        TransferManager transferManager = S3ClientRegistry.getInstance()
+                .getTransferManager(s3region, S3ClientRegistry.CredentialsSource.TESTGRID_BOT);
 
         Path clientLogsPath = dataBucketLocation.resolve("clientLogs");
 
@@ -275,36 +357,39 @@ public final class S3StorageUtil {
         }
         logger.info("Downloaded logs");
 
-        Path clientLogszipPath = dataBucketLocation.resolve("clientLogs.zip");
-        try (ZipOutputStream clientLogszipOutputstream =
-                     new ZipOutputStream(Files.newOutputStream(clientLogszipPath))) {
-            Files.walk(clientLogsPath)
-                    .filter(path -> !Files.isDirectory(path))
-                    .forEach(path -> {
-                        ZipEntry zipEntry = new ZipEntry(clientLogszipPath.relativize(path).toString());
-                        try {
-                            clientLogszipOutputstream.putNextEntry(zipEntry);
-                            Files.copy(path, clientLogszipOutputstream);
-                            clientLogszipOutputstream.closeEntry();
-                        } catch (IOException e) {
-                            logger.error("Could not Zip client logs", e);
-                        }
-                    });
+        try {
+            uploadArchive(clientLogsPath, "clientLogs/", s3artifactDir.concat("/clientLogs.zip"));
         } catch (IOException e) {
-            logger.error("Could not Zip client logs", e);
+            logger.error("Could not Zip and Upload client logs", e);
+            return;
         }
-        logger.info("Zipped logs");
-        File clientLogszipFile = new File(clientLogszipPath.toString());
+        logger.info("Uploaded logs");
 
-        Upload clientLogsZipupload = transferManager.upload(s3bucket,
-                s3artifactDir.concat("/clientLogs.zip"), clientLogszipFile);
+    }
 
+    /**
+     * Archives the given directory straight into a multipart upload to the TestGrid bucket, without writing the
+     * archive to the disk. The upload is aborted if the archiving fails.
+     *
+     * @param sourceDir   directory to archive
+     * @param entryPrefix prefix of the entry names, followed by the paths of the files relative to the directory
+     * @param key         key of the archive in the bucket
+     * @throws IOException thrown when error on reading the files or uploading the archive
+     */
+    public static void uploadArchive(Path sourceDir, String entryPrefix, String key) throws IOException {
+        String s3region = ConfigurationContext
+                .getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME);
+        String s3bucket = ConfigurationContext
+                .getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME);
+        S3MultipartOutputStream archiveOutputStream = new S3MultipartOutputStream(S3ClientRegistry.getInstance()
+                .getClient(s3region, S3ClientRegistry.CredentialsSource.TESTGRID_BOT), s3bucket, key);
         try {
-            clientLogsZipupload.waitForUploadResult();
-        } catch (InterruptedException e) {
-            logger.error("Could not Upload client logs", e);
+            ZipArchiver archiver = new ZipArchiver(archiveOutputStream);
+            archiver.addDirectory(sourceDir, entryPrefix, path -> true);
+            archiver.close();
+        } catch (IOException | RuntimeException e) {
+            archiveOutputStream.abort();
+            throw e;
         }
-        logger.info("Uploaded logs");
-
     }
 }
@@ -0,0 +1,626 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes zip archives to a stream, compressing the entries in parallel.
+ * <p>
+ * Files are split into blocks which are deflated concurrently on a shared pool of daemon threads, and written to
+ * the output in order, so that an archive can be streamed to its destination without a temporary file. A block is
+ * deflated with the preceding 32 KB of the file as the dictionary, and all but the last block of an entry end with a
+ * sync flush, so that the blocks of an entry join into a single deflate stream. Already compressed files are not
+ * compressed again; those of up to a block are stored as they are, and larger ones are written as uncompressed
+ * deflate blocks. Large files are deflated at the fastest level. Zip64 records are written for entries and archives
+ * beyond the 4 GB and 65535 entry limits.
+ * <p>
+ * A file which cannot be read is skipped, and a file which is truncated while it is deflated is archived up to the
+ * last block read, so that a log file rotated or deleted during archiving does not fail the whole archive.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 1.0.0
+ */
+public final class ZipArchiver implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipArchiver.class);
+
+    static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final long LARGE_FILE_SIZE = 64L * 1024 * 1024;
+    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_PENDING_BLOCKS = THREAD_COUNT * 2;
+    private static final Set<String> COMPRESSED_FILE_EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("zip", "gz", "tgz", "bz2", "xz", "7z", "jar", "war", "ear", "car", "png", "jpg", "jpeg",
+                    "gif")));
+
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final short ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+    // Deflated entries which may exceed the 4 GB limit once compressed are written in zip64 format upfront
+    private static final long ZIP64_THRESHOLD = ZIP64_MAGIC - 16 * 1024 * 1024;
+    private static final short VERSION_DEFAULT = 20;
+    private static final short VERSION_ZIP64 = 45;
+    private static final short FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final short FLAG_UTF8 = 0x0800;
+    private static final short METHOD_STORED = 0;
+    private static final short METHOD_DEFLATED = 8;
+    // Final, empty fixed Huffman block which ends a deflate stream after a sync flush
+    private static final byte[] EMPTY_FINAL_BLOCK = {0x03, 0x00};
+
+    private static final ExecutorService compressionExecutor = createExecutor();
+
+    private final CountingOutputStream output;
+    private final List<Entry> writtenEntries = new ArrayList<>();
+    private boolean failed;
+    private boolean closed;
+
+    /**
+     * Creates an archiver which writes the archive to the given stream. The stream is closed along with the
+     * archiver.
+     *
+     * @param outputStream stream to write the archive to
+     */
+    public ZipArchiver(OutputStream outputStream) {
+        this.output = new CountingOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+    }
+
+    /**
+     * Adds the regular files in the given directory, and its sub directories, to the archive. Files which cannot be
+     * read are skipped.
+     *
+     * @param sourceDir   directory to archive
+     * @param entryPrefix prefix of the entry names, followed by the paths of the files relative to the directory
+     * @param filter      selects the files to archive
+     * @throws IOException thrown when error on reading the files or writing the archive
+     */
+    public void addDirectory(Path sourceDir, String entryPrefix, Predicate<Path> filter) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(sourceDir)) {
+            files = paths.filter(Files::isRegularFile).filter(filter).collect(Collectors.toList());
+        }
+        List<Entry> entries = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String relativePath = sourceDir.relativize(file).toString().replace(File.separatorChar, '/');
+            try {
+                addEntry(entries, file, entryPrefix + relativePath);
+            } catch (IOException e) {
+                logger.warn("Skipping file " + file + " which could not be read to archive: " + e.getMessage());
+            }
+        }
+        writeEntries(entries);
+    }
+
+    /**
+     * Adds a file to the archive as if it was of the given size when it was listed, so that a file truncated after
+     * it is listed can be archived.
+     *
+     * @param file file to archive
+     * @param name name of the entry
+     * @param size size of the file when it was listed
+     * @throws IOException thrown when error on writing the archive
+     */
+    void addFile(Path file, String name, long size) throws IOException {
+        writeEntries(Collections.singletonList(
+                new Entry(file, name, size, Files.getLastModifiedTime(file).toMillis())));
+    }
+
+    /**
+     * Writes the central directory of the archive, if all the entries were written successfully, and closes the
+     * output stream.
+     *
+     * @throws IOException thrown when error on writing the archive
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (OutputStream outputStream = output) {
+            if (!failed) {
+                writeCentralDirectory();
+            }
+        }
+    }
+
+    private static void addEntry(List<Entry> entries, Path file, String name) throws IOException {
+        if (!Files.isReadable(file)) {
+            logger.debug("Skipping unreadable file " + file);
+            return;
+        }
+        entries.add(new Entry(file, name, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+    }
+
+    /**
+     * Writes the given entries, keeping up to {@link #MAX_PENDING_BLOCKS} blocks in compression ahead of the
+     * block being written.
+     */
+    private void writeEntries(List<Entry> entries) throws IOException {
+        if (closed) {
+            throw new IOException("Archive is already closed");
+        }
+        Deque<Future<Block>> pendingBlocks = new ArrayDeque<>();
+        boolean written = false;
+        try {
+            for (Entry entry : entries) {
+                for (int index = 0; index < entry.blockCount; index++) {
+                    if (pendingBlocks.size() == MAX_PENDING_BLOCKS) {
+                        writeBlock(await(pendingBlocks.poll()));
+                    }
+                    int blockIndex = index;
+                    pendingBlocks.add(compressionExecutor.submit(() -> readBlock(entry, blockIndex)));
+                }
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writeBlock(await(pendingBlocks.poll()));
+            }
+            written = true;
+        } finally {
+            if (!written) {
+                failed = true;
+                pendingBlocks.forEach(pendingBlock -> pendingBlock.cancel(true));
+            }
+        }
+    }
+
+    private static Block await(Future<Block> pendingBlock) throws IOException {
+        try {
+            return pendingBlock.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the archive entries");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error occurred while compressing the archive entries", e.getCause());
+        }
+    }
+
+    private void writeBlock(Block block) throws IOException {
+        Entry entry = block.entry;
+        if (entry.unreadable) {
+            return;
+        }
+        if (block.readError != null) {
+            endUnreadableEntry(block);
+            return;
+        }
+        if (block.index == 0) {
+            entry.offset = output.getCount();
+            entry.crc = block.crc;
+            writeLocalFileHeader(entry);
+        }
+        if (entry.method == METHOD_STORED) {
+            output.write(block.data, 0, block.dataLength);
+            entry.compressedSize = entry.size;
+        } else {
+            output.write(block.data, 0, block.dataLength);
+            entry.compressedSize += block.dataLength;
+            entry.readSize += block.inputLength;
+            entry.checksum.update(block.input, block.inputOffset, block.inputLength);
+        }
+        if (block.index == entry.blockCount - 1) {
+            if (entry.method == METHOD_DEFLATED) {
+                entry.crc = entry.checksum.getValue();
+                writeDataDescriptor(entry);
+            }
+            writtenEntries.add(entry);
+        }
+    }
+
+    /**
+     * Skips the rest of an entry whose file could not be read. A deflated entry of which blocks are already written
+     * is ended after those blocks, otherwise the entry is left out of the archive.
+     */
+    private void endUnreadableEntry(Block block) throws IOException {
+        Entry entry = block.entry;
+        entry.unreadable = true;
+        if (block.index == 0) {
+            logger.warn("Skipping file " + entry.file + " which could not be read to archive: "
+                    + block.readError.getMessage());
+            return;
+        }
+        logger.warn(StringUtil.concatStrings("Archiving the first ", entry.readSize, " bytes of file ", entry.file,
+                " since the rest could not be read: ", block.readError.getMessage()));
+        output.write(EMPTY_FINAL_BLOCK);
+        entry.compressedSize += EMPTY_FINAL_BLOCK.length;
+        entry.archivedSize = entry.readSize;
+        entry.crc = entry.checksum.getValue();
+        writeDataDescriptor(entry);
+        writtenEntries.add(entry);
+    }
+
+    /**
+     * Reads and compresses a block of an entry. Errors on reading the file are kept in the block, so that the entry
+     * can be skipped without failing the archive.
+     */
+    private static Block readBlock(Entry entry, int index) {
+        try {
+            return entry.method == METHOD_STORED ? readStoredFile(entry) : deflateBlock(entry, index);
+        } catch (IOException e) {
+            Block block = new Block(entry, index);
+            block.readError = e;
+            return block;
+        }
+    }
+
+    /**
+     * Reads a stored file into a single block, so that the file is read once and its checksum, which precedes the
+     * data, matches the data written even if the file changes while it is archived.
+     */
+    private static Block readStoredFile(Entry entry) throws IOException {
+        byte[] data = new byte[(int) entry.size];
+        readFully(entry.file, 0, data);
+        CRC32 checksum = new CRC32();
+        checksum.update(data, 0, data.length);
+        Block block = new Block(entry, 0);
+        block.crc = checksum.getValue();
+        block.data = data;
+        block.dataLength = data.length;
+        return block;
+    }
+
+    private static Block deflateBlock(Entry entry, int index) throws IOException {
+        long start = (long) index * BLOCK_SIZE;
+        int length = (int) Math.min(BLOCK_SIZE, entry.size - start);
+        // Uncompressed blocks do not refer to the preceding data
+        int dictionaryLength = entry.level == Deflater.NO_COMPRESSION ? 0 : (int) Math.min(DICTIONARY_SIZE, start);
+        byte[] input = new byte[dictionaryLength + length];
+        readFully(entry.file, start - dictionaryLength, input);
+
+        boolean last = index == entry.blockCount - 1;
+        byte[] data = new byte[length + length / 8 + 64];
+        int dataLength = 0;
+        Deflater deflater = new Deflater(entry.level, true);
+        try {
+            if (dictionaryLength > 0) {
+                deflater.setDictionary(input, 0, dictionaryLength);
+            }
+            deflater.setInput(input, dictionaryLength, length);
+            if (last) {
+                deflater.finish();
+            }
+            while (true) {
+                if (dataLength == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                dataLength += deflater.deflate(data, dataLength, data.length - dataLength,
+                        last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                // A sync flush is complete once it leaves space in the output buffer
+                if (last ? deflater.finished() : dataLength < data.length) {
+                    break;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        Block block = new Block(entry, index);
+        block.data = data;
+        block.dataLength = dataLength;
+        block.input = input;
+        block.inputOffset = dictionaryLength;
+        block.inputLength = length;
+        return block;
+    }
+
+    private static void readFully(Path file, long position, byte[] destination) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(destination);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("File " + file + " was truncated while archiving");
+                }
+            }
+        }
+    }
+
+    private void writeLocalFileHeader(Entry entry) throws IOException {
+        boolean deflated = entry.method == METHOD_DEFLATED;
+        int extraLength = entry.zip64 ? 20 : 0;
+        ByteBuffer header = allocate(30 + entry.nameBytes.length + extraLength);
+        header.putInt(LOCAL_FILE_HEADER_SIGNATURE)
+                .putShort(entry.zip64 ? VERSION_ZIP64 : VERSION_DEFAULT)
+                .putShort(entry.getFlags())
+                .putShort(entry.method)
+                .putInt(entry.dosTime)
+                .putInt(deflated ? 0 : (int) entry.crc);
+        if (entry.zip64) {
+            header.putInt((int) ZIP64_MAGIC).putInt((int) ZIP64_MAGIC);
+        } else {
+            // Sizes of deflated entries follow the data in the data descriptor
+            header.putInt(deflated ? 0 : (int) entry.size).putInt(deflated ? 0 : (int) entry.size);
+        }
+        header.putShort((short) entry.nameBytes.length)
+                .putShort((short) extraLength)
+                .put(entry.nameBytes);
+        if (entry.zip64) {
+            header.putShort(ZIP64_EXTRA_FIELD_ID)
+                    .putShort((short) 16)
+                    .putLong(deflated ? 0 : entry.size)
+                    .putLong(deflated ? 0 : entry.size);
+        }
+        output.write(header.array());
+    }
+
+    private void writeDataDescriptor(Entry entry) throws IOException {
+        ByteBuffer descriptor = allocate(entry.zip64 ? 24 : 16);
+        descriptor.putInt(DATA_DESCRIPTOR_SIGNATURE).putInt((int) entry.crc);
+        if (entry.zip64) {
+            descriptor.putLong(entry.compressedSize).putLong(entry.archivedSize);
+        } else {
+            if (entry.compressedSize >= ZIP64_MAGIC) {
+                throw new IOException("Entry " + entry.name + " exceeds the 4 GB limit of a zip entry");
+            }
+            descriptor.putInt((int) entry.compressedSize).putInt((int) entry.archivedSize);
+        }
+        output.write(descriptor.array());
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long centralDirectoryOffset = output.getCount();
+        for (Entry entry : writtenEntries) {
+            writeCentralDirectoryHeader(entry);
+        }
+        long centralDirectorySize = output.getCount() - centralDirectoryOffset;
+        int entryCount = writtenEntries.size();
+
+        if (entryCount >= ZIP64_MAGIC_COUNT || centralDirectoryOffset >= ZIP64_MAGIC
+                || centralDirectorySize >= ZIP64_MAGIC) {
+            long zip64EndOffset = output.getCount();
+            ByteBuffer zip64End = allocate(56 + 20);
+            zip64End.putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                    .putLong(44)
+                    .putShort(VERSION_ZIP64)
+                    .putShort(VERSION_ZIP64)
+                    .putInt(0)
+                    .putInt(0)
+                    .putLong(entryCount)
+                    .putLong(entryCount)
+                    .putLong(centralDirectorySize)
+                    .putLong(centralDirectoryOffset)
+                    .putInt(ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE)
+                    .putInt(0)
+                    .putLong(zip64EndOffset)
+                    .putInt(1);
+            output.write(zip64End.array());
+        }
+        ByteBuffer end = allocate(22);
+        end.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) Math.min(entryCount, ZIP64_MAGIC_COUNT))
+                .putShort((short) Math.min(entryCount, ZIP64_MAGIC_COUNT))
+                .putInt((int) Math.min(centralDirectorySize, ZIP64_MAGIC))
+                .putInt((int) Math.min(centralDirectoryOffset, ZIP64_MAGIC))
+                .putShort((short) 0);
+        output.write(end.array());
+    }
+
+    private void writeCentralDirectoryHeader(Entry entry) throws IOException {
+        boolean zip64Size = entry.archivedSize >= ZIP64_MAGIC;
+        boolean zip64CompressedSize = entry.compressedSize >= ZIP64_MAGIC;
+        boolean zip64Offset = entry.offset >= ZIP64_MAGIC;
+        int zip64DataLength = (zip64Size ? 8 : 0) + (zip64CompressedSize ? 8 : 0) + (zip64Offset ? 8 : 0);
+        int extraLength = zip64DataLength > 0 ? 4 + zip64DataLength : 0;
+        short version = entry.zip64 || extraLength > 0 ? VERSION_ZIP64 : VERSION_DEFAULT;
+
+        ByteBuffer header = allocate(46 + entry.nameBytes.length + extraLength);
+        header.putInt(CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort(version)
+                .putShort(version)
+                .putShort(entry.getFlags())
+                .putShort(entry.method)
+                .putInt(entry.dosTime)
+                .putInt((int) entry.crc)
+                .putInt((int) Math.min(entry.compressedSize, ZIP64_MAGIC))
+                .putInt((int) Math.min(entry.archivedSize, ZIP64_MAGIC))
+                .putShort((short) entry.nameBytes.length)
+                .putShort((short) extraLength)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt((int) Math.min(entry.offset, ZIP64_MAGIC))
+                .put(entry.nameBytes);
+        if (extraLength > 0) {
+            header.putShort(ZIP64_EXTRA_FIELD_ID).putShort((short) zip64DataLength);
+            if (zip64Size) {
+                header.putLong(entry.archivedSize);
+            }
+            if (zip64CompressedSize) {
+                header.putLong(entry.compressedSize);
+            }
+            if (zip64Offset) {
+                header.putLong(entry.offset);
+            }
+        }
+        output.write(header.array());
+    }
+
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(THREAD_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "zip-compressor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A file to be written as an entry of the archive.
+     */
+    private static final class Entry {
+        private final Path file;
+        private final String name;
+        private final byte[] nameBytes;
+        private final long size;
+        private final int dosTime;
+        private final short method;
+        private final int level;
+        private final boolean zip64;
+        private final int blockCount;
+        private final CRC32 checksum = new CRC32();
+        private long offset;
+        private long crc;
+        private long compressedSize;
+        private long readSize;
+        // Size of the entry in the archive, which is less than the size of the file if it is truncated
+        private long archivedSize;
+        private boolean unreadable;
+
+        private Entry(Path file, String name, long size, long lastModifiedTime) {
+            this.file = file;
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.size = size;
+            this.archivedSize = size;
+            this.dosTime = toDosTime(lastModifiedTime);
+            String fileName = file.getFileName().toString().toLowerCase(Locale.ENGLISH);
+            String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+            boolean compressed = COMPRESSED_FILE_EXTENSIONS.contains(extension);
+            if (size == 0 || compressed && size <= BLOCK_SIZE) {
+                this.method = METHOD_STORED;
+                this.level = Deflater.NO_COMPRESSION;
+                this.zip64 = false;
+                this.blockCount = 1;
+            } else {
+                this.method = METHOD_DEFLATED;
+                if (compressed) {
+                    this.level = Deflater.NO_COMPRESSION;
+                } else {
+                    this.level = size >= LARGE_FILE_SIZE ? Deflater.BEST_SPEED : Deflater.DEFAULT_COMPRESSION;
+                }
+                this.zip64 = size >= ZIP64_THRESHOLD;
+                this.blockCount = (int) ((size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            }
+        }
+
+        private short getFlags() {
+            return method == METHOD_DEFLATED ? (short) (FLAG_UTF8 | FLAG_DATA_DESCRIPTOR) : FLAG_UTF8;
+        }
+
+        private static int toDosTime(long millis) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                    | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+        }
+    }
+
+    /**
+     * A compressed block of an entry, or the data of a stored entry.
+     */
+    private static final class Block {
+        private final Entry entry;
+        private final int index;
+        private long crc;
+        private byte[] data;
+        private int dataLength;
+        private byte[] input;
+        private int inputOffset;
+        private int inputLength;
+        private IOException readError;
+
+        private Block(Entry entry, int index) {
+            this.entry = entry;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Output stream which counts the bytes written, to record the offsets of the entries.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
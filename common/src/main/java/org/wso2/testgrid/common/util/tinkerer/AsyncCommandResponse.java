@@ -20,13 +20,11 @@ package org.wso2.testgrid.common.util.tinkerer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.wso2.testgrid.common.exception.TestGridException;
-import org.wso2.testgrid.common.util.FileUtil;
-import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.common.util.tinkerer.exception.TinkererOperationException;
 
+import java.io.IOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Maintain details of the execution result of async command request.
@@ -67,38 +65,29 @@ public class AsyncCommandResponse extends CommandResponse {
     }
 
     /**
-     * Read next section of result log from the file
+     * Read next section of result log from the stream file, waiting until it is available.
      *
      * @return      Result segment
      */
     public String readLines() {
-        String fileName = StringUtil.concatStrings(this.operationId, "_",
-                Integer.toString(this.contentCount + 1), ".txt");
-        String fileToRead = Paths.get(this.filePath, fileName).toString();
+        OperationStreamFile streamFile = this.scriptExecutorThread.getStreamFile();
         String result = "";
-        while (true) {
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                logger.error("Error while waiting to read logs", e);
-            }
-            if (FileUtil.isFileExist(fileToRead)) {
-                break;
-            }
-            if (!hasMoreContent()) {
+        try {
+            if (!streamFile.awaitSegment(this.contentCount)) {
                 return "";
             }
-        }
-        try {
-            result = FileUtil.readFile(filePath, fileName);
-        } catch (TestGridException e) {
+            result = streamFile.readSegment(this.contentCount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Error while waiting to read logs", e);
+            return "";
+        } catch (IOException e) {
             logger.error("Error while reading file", e);
         }
         this.contentCount++;
         return result;
     }
 
-
     /**
      * Check if execution completed
      *
@@ -108,6 +97,15 @@ public class AsyncCommandResponse extends CommandResponse {
         return scriptExecutorThread.isCompleted();
     }
 
+    /**
+     * Get the future which is completed with the exit value once the execution has completed.
+     *
+     * @return  completion of the operation
+     */
+    public CompletableFuture<Integer> getCompletion() {
+        return scriptExecutorThread.getCompletion();
+    }
+
     /**
      * Get exit value of the operation
      *
@@ -123,18 +121,24 @@ public class AsyncCommandResponse extends CommandResponse {
      * Remove persisted stream result from file.
      */
     public void endReadStream() throws TinkererOperationException {
-        for (int fileCount = 1; fileCount <= this.contentCount; fileCount++) {
-            String fileName = StringUtil.concatStrings(this.operationId, "_",
-                    Integer.toString(fileCount), ".txt");
-            String fileToDelete = Paths.get(this.filePath, fileName).toString();
-            try {
-                FileUtil.removeFile(fileToDelete);
-            } catch (TestGridException e) {
-                logger.error("Error while deleting file ", e);
-            }
+        OperationStreamFile streamFile = this.scriptExecutorThread.getStreamFile();
+        try {
+            streamFile.delete();
+        } catch (IOException e) {
+            logger.error("Error while deleting file " + streamFile.getFile(), e);
         }
     }
 
+    /**
+     * Get the stream file which the result of the operation is appended to. The stream can be read from any
+     * byte offset, so that a consumer can resume from where it stopped.
+     *
+     * @return  The stream file
+     */
+    public OperationStreamFile getStreamFile() {
+        return this.scriptExecutorThread.getStreamFile();
+    }
+
     /**
      * Get file path of persisted logs
      *
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util.tinkerer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only file holding the streamed result of a single tinkerer operation.
+ * <p>
+ * Segments of the stream are appended to one file through a write buffer, and the end offset of each segment is
+ * kept in an index. Readers can read a segment by its index, or read the raw stream from any byte offset so that
+ * they can resume where they stopped. The write buffer is flushed whenever a reader needs bytes which are still
+ * buffered.
+ * <p>
+ * The file is kept open for writing only until the stream is completed; reads of a completed stream open the file
+ * read-only for the duration of the read, so a completed stream does not hold a file descriptor.
+ */
+public class OperationStreamFile implements Closeable {
+
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    private static final int INITIAL_INDEX_SIZE = 64;
+
+    private final Path file;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private FileChannel channel;
+    private long[] segmentEnds = new long[INITIAL_INDEX_SIZE];
+    private int segmentCount;
+    private long size;
+    private long flushedSize;
+    private boolean completed;
+
+    /**
+     * Creates a stream file at the given path. The file is created when the first segment is appended.
+     *
+     * @param file path of the stream file
+     */
+    public OperationStreamFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends a segment to the stream.
+     *
+     * @param content content of the segment
+     * @throws IOException thrown when error on writing to the stream file
+     */
+    public synchronized void append(String content) throws IOException {
+        if (completed) {
+            throw new IOException("Stream file " + file + " is already completed");
+        }
+        byte[] bytes = content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8);
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        if (bytes.length > writeBuffer.remaining()) {
+            flushBuffer();
+        }
+        if (bytes.length > writeBuffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes), size);
+            flushedSize += bytes.length;
+        } else {
+            writeBuffer.put(bytes);
+        }
+        size += bytes.length;
+        if (segmentCount == segmentEnds.length) {
+            segmentEnds = Arrays.copyOf(segmentEnds, segmentCount * 2);
+        }
+        segmentEnds[segmentCount++] = size;
+        notifyAll();
+    }
+
+    /**
+     * Marks the stream as completed, flushing the buffered bytes and closing the file. No more segments can be
+     * appended afterwards.
+     *
+     * @throws IOException thrown when error on writing to the stream file
+     */
+    public synchronized void complete() throws IOException {
+        close();
+    }
+
+    /**
+     * Waits until the segment with the given index is appended or the stream is completed.
+     *
+     * @param segment index of the segment, starting from zero
+     * @return {@code true} if the segment is available, {@code false} if the stream completed without it
+     * @throws InterruptedException thrown when interrupted while waiting
+     */
+    public synchronized boolean awaitSegment(int segment) throws InterruptedException {
+        while (segment >= segmentCount && !completed) {
+            wait();
+        }
+        return segment < segmentCount;
+    }
+
+    /**
+     * Reads the segment with the given index.
+     *
+     * @param segment index of the segment, starting from zero
+     * @return content of the segment
+     * @throws IOException thrown when error on reading the stream file
+     */
+    public String readSegment(int segment) throws IOException {
+        long start;
+        long end;
+        synchronized (this) {
+            if (segment < 0 || segment >= segmentCount) {
+                throw new IOException("Segment " + segment + " is not available in stream file " + file);
+            }
+            start = getSegmentOffset(segment);
+            end = segmentEnds[segment];
+            flushUpTo(end);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        readFully(buffer, start);
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the stream from the given byte offset into the given buffer.
+     *
+     * @param offset byte offset of the stream to read from
+     * @param buffer buffer to read into
+     * @return number of bytes read, or {@code -1} if the stream is completed and there are no bytes to read
+     * @throws IOException thrown when error on reading the stream file
+     */
+    public int read(long offset, ByteBuffer buffer) throws IOException {
+        int length;
+        synchronized (this) {
+            if (offset >= size) {
+                return completed ? -1 : 0;
+            }
+            length = (int) Math.min(buffer.remaining(), size - offset);
+            flushUpTo(offset + length);
+        }
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        readFully(slice, offset);
+        buffer.position(buffer.position() + length);
+        return length;
+    }
+
+    /**
+     * Returns the byte offset at which the segment with the given index starts.
+     *
+     * @param segment index of the segment, starting from zero
+     * @return byte offset of the segment
+     */
+    public synchronized long getSegmentOffset(int segment) {
+        return segment == 0 ? 0 : segmentEnds[segment - 1];
+    }
+
+    /**
+     * Returns the number of segments appended to the stream.
+     *
+     * @return number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Returns the number of bytes appended to the stream.
+     *
+     * @return size of the stream in bytes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the stream is completed.
+     *
+     * @return {@code true} if no more segments will be appended, {@code false} otherwise
+     */
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Returns the path of the stream file.
+     *
+     * @return path of the stream file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Closes and deletes the stream file.
+     *
+     * @throws IOException thrown when error on deleting the stream file
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (channel != null && channel.isOpen()) {
+                try {
+                    flushBuffer();
+                } finally {
+                    channel.close();
+                }
+            }
+        } finally {
+            completed = true;
+            notifyAll();
+        }
+    }
+
+    private void flushUpTo(long end) throws IOException {
+        if (end > flushedSize) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        int length = writeBuffer.remaining();
+        writeFully(writeBuffer, flushedSize);
+        writeBuffer.clear();
+        flushedSize += length;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long writePosition = position;
+        while (buffer.hasRemaining()) {
+            writePosition += channel.write(buffer, writePosition);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        FileChannel writeChannel;
+        synchronized (this) {
+            writeChannel = completed ? null : channel;
+        }
+        if (writeChannel != null) {
+            try {
+                readFully(writeChannel, buffer, position);
+                return;
+            } catch (ClosedChannelException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                // The stream was completed while reading; read the rest from the completed file
+            }
+        }
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            readFully(readChannel, buffer, position + buffer.position() - start);
+        }
+    }
+
+    private void readFully(FileChannel readChannel, ByteBuffer buffer, long position) throws IOException {
+        long readPosition = position;
+        while (buffer.hasRemaining()) {
+            int read = readChannel.read(buffer, readPosition);
+            if (read < 0) {
+                throw new IOException("Unexpected end of stream file " + file);
+            }
+            readPosition += read;
+        }
+    }
+}
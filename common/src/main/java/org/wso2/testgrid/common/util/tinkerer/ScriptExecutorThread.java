@@ -23,31 +23,31 @@ import org.glassfish.jersey.client.ChunkedInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
-import org.wso2.testgrid.common.util.FileUtil;
 import org.wso2.testgrid.common.util.StringUtil;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Calendar;
+import java.util.concurrent.CompletableFuture;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 
 /**
- * Thread to stream data from tinkerer and dump result into a file.
+ * Thread to stream data from tinkerer and append the result into a single stream file of the operation.
  */
 public class ScriptExecutorThread implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(ScriptExecutorThread.class);
+    private static final Gson GSON = new Gson();
+    private static final String STREAM_FILE_EXTENSION = ".stream";
 
     public static final int MAX_BUFFER_IDLE_TIME_MS = 900000;  // Maximum waiting time to update message queue
 
     private Response response;
-    private Path testgridShellStreamPath;
+    private OperationStreamFile streamFile;
     private String operationId;
     private volatile boolean isCompleted;
     private volatile int exitValue;
-    private int segmentCount;
+    private final CompletableFuture<Integer> completion = new CompletableFuture<>();
 
     /**
      * Initialize streaming thread with operation details.
@@ -59,10 +59,10 @@ public class ScriptExecutorThread implements Runnable {
     public ScriptExecutorThread(String operationId, Response response, Path filePath) {
         this.operationId = operationId;
         this.response = response;
-        this.testgridShellStreamPath = filePath;
+        this.streamFile = new OperationStreamFile(filePath.resolve(
+                StringUtil.concatStrings(operationId, STREAM_FILE_EXTENSION)));
         this.isCompleted = false;
         this.exitValue = -1;
-        this.segmentCount = 0;
     }
 
     /**
@@ -70,43 +70,54 @@ public class ScriptExecutorThread implements Runnable {
      */
     @Override
     public void run() {
-        Gson gson = new Gson();
-        ChunkedInput<String> input = this.response.readEntity(new ChunkObject());
-        String chunk;
         OperationSegment operationSegment = new OperationSegment();
-        long initTime = Calendar.getInstance().getTimeInMillis();
-        long currentTime;
-        while ((chunk = input.read()) != null) {
-            synchronized (this) {
-                currentTime = Calendar.getInstance().getTimeInMillis();
-                if (initTime + MAX_BUFFER_IDLE_TIME_MS < currentTime) {
+        RuntimeException failure = null;
+        try {
+            ChunkedInput<String> input = this.response.readEntity(new ChunkObject());
+            String chunk;
+            long deadline = System.currentTimeMillis() + MAX_BUFFER_IDLE_TIME_MS;
+            while ((chunk = input.read()) != null) {
+                if (System.currentTimeMillis() > deadline) {
                     logger.warn("Execution time out for operation " + this.operationId);
                     break;
                 }
-                operationSegment = gson.fromJson(chunk, OperationSegment.class);
-                writeDataToFile(operationSegment, this.segmentCount + 1);
-                this.segmentCount++;
+                OperationSegment segment = GSON.fromJson(chunk, OperationSegment.class);
+                if (segment != null) {
+                    operationSegment = segment;
+                    writeDataToFile(operationSegment);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error while streaming the result of operation " + this.operationId, e);
+            failure = e;
+        } finally {
+            try {
+                streamFile.complete();
+            } catch (IOException e) {
+                logger.error("Unable write data into a file for operation id " + this.operationId, e);
+            }
+            synchronized (this) {
+                this.isCompleted = true;
+                this.exitValue = operationSegment.getExitValue();
+            }
+            if (failure == null) {
+                logger.info("Streaming success with exit value " + operationSegment.getExitValue() +
+                        " for operation " + this.operationId);
+                completion.complete(operationSegment.getExitValue());
+            } else {
+                completion.completeExceptionally(failure);
             }
-        }
-        synchronized (this) {
-            this.isCompleted = true;
-            this.exitValue = operationSegment.getExitValue();
-            logger.info("Streaming success with exit value " + operationSegment.getExitValue() + " for operation " +
-                    this.operationId);
         }
     }
 
     /**
-     * Write command execution result into a file.
+     * Append command execution result into the stream file.
      *
      * @param operationSegment      The response to write
-     * @param segmentId             Segment id to write
      */
-    private void writeDataToFile(OperationSegment operationSegment, int segmentId) {
-        String fileToWrite = Paths.get(this.testgridShellStreamPath.toString(), StringUtil.
-                concatStrings(this.operationId, "_", Integer.toString(segmentId), ".txt")).toString();
+    private void writeDataToFile(OperationSegment operationSegment) {
         try {
-            FileUtil.saveFile(operationSegment.getResponse(), fileToWrite, false);
+            streamFile.append(operationSegment.getResponse());
         } catch (IOException e) {
             logger.error("Unable write data into a file for operation id " + operationSegment.getOperationId(), e);
         }
@@ -130,6 +141,16 @@ public class ScriptExecutorThread implements Runnable {
         return isCompleted;
     }
 
+    /**
+     * Get the future which is completed with the exit value once the operation has completed, or exceptionally if
+     * streaming the result of the operation failed.
+     *
+     * @return      The completion of the operation
+     */
+    public CompletableFuture<Integer> getCompletion() {
+        return completion;
+    }
+
     /**
      * Inner class to generate jersey client with GenericType.
      */
@@ -140,7 +161,16 @@ public class ScriptExecutorThread implements Runnable {
      *
      * @return  Current segment count
      */
-    public synchronized int getSegmentCount() {
-        return segmentCount;
+    public int getSegmentCount() {
+        return streamFile.getSegmentCount();
+    }
+
+    /**
+     * Get the stream file which the result of the operation is appended to.
+     *
+     * @return  The stream file
+     */
+    public OperationStreamFile getStreamFile() {
+        return streamFile;
     }
 }
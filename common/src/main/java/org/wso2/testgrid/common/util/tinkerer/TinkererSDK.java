@@ -28,6 +28,7 @@ import org.wso2.testgrid.common.Agent;
 import org.wso2.testgrid.common.agentoperation.OperationRequest;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
 import org.wso2.testgrid.common.config.ConfigurationContext;
+import org.wso2.testgrid.common.util.tinkerer.exception.TinkererOperationException;
 
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
@@ -35,8 +36,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
@@ -49,6 +61,10 @@ import javax.ws.rs.core.Response;
 public class TinkererSDK {
 
     private static final Logger logger = LoggerFactory.getLogger(TinkererSDK.class);
+    private static final long BROADCAST_SHELL_COMMAND_TIMEOUT_MS = 600000;  // Time-out for waiting: 10 minutes.
+    private static final int MAX_BROADCAST_THREADS = 16;
+    private static final ExecutorService streamExecutor = createStreamExecutor();
+    private static final ExecutorService broadcastExecutor = createBroadcastExecutor();
 
     private String tinkererHost;
     private String authenticationToken;
@@ -97,8 +113,7 @@ public class TinkererSDK {
         ScriptExecutorThread scriptExecutorThread = new ScriptExecutorThread(operationRequest.getOperationId()
                 , response, filePath);
 
-        Thread scriptExecutor = new Thread(scriptExecutorThread);
-        scriptExecutor.start();
+        streamExecutor.execute(scriptExecutorThread);
         AsyncCommandResponse asyncCommandResponse = new AsyncCommandResponse(operationId,
                 filePath, scriptExecutorThread);
         asyncCommandResponse.setOperationId(operationRequest.getOperationId());
@@ -233,39 +248,127 @@ public class TinkererSDK {
     }
 
     /**
-     * Send a command to all the tinkerer agents belongs to a given test-plan.
+     * Send a command to all the tinkerer agents belongs to a given test-plan, and wait until the command completes
+     * on all of them or the time-out of 10 minutes is hit.
      *
      * @param testPlanId test-plan-id
      * @param shellCommand shell command wants to be executed
      */
     public void broadcastShellCommand(String testPlanId, String shellCommand) {
-        long broadcastShellCommandTimeoutInMills = 600000;  //Time-out for waiting: 10 minutes.
-        List<String> activeTestPlans = this.getAllTestPlanIds();
-        if (activeTestPlans != null && activeTestPlans.contains(testPlanId)) {
-            List<Agent> agentList = this.getAgentListByTestPlanId(testPlanId);
-            List<AsyncCommandResponse> asyncCommandResponses = new ArrayList<>();
-            agentList.forEach(agent -> asyncCommandResponses
-                    .add(this.executeCommandAsync(agent.getAgentId(), shellCommand)));
-            logger.info("Waiting till shell commands sent via tinkerer are executed in the nodes.");
-            boolean finishShellCommands = false;
-            long endTime = System.currentTimeMillis() + broadcastShellCommandTimeoutInMills;
-            while (!finishShellCommands) {
-                finishShellCommands = true;
-                for (AsyncCommandResponse asyncCommandResponse : asyncCommandResponses) {
-                    if (!asyncCommandResponse.isCompleted()) {
-                        finishShellCommands = false;
-                        break;
-                    }
-                }
-                if (System.currentTimeMillis() > endTime) {
-                    logger.error("Time-out hit! Continuing without waiting further for tinkerer commands to complete.");
-                    finishShellCommands = true;
-                }
+        broadcastShellCommand(testPlanId, shellCommand, BROADCAST_SHELL_COMMAND_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send a command to all the tinkerer agents belongs to a given test-plan, and wait until the command completes
+     * on all of them or the given time-out is hit.
+     *
+     * @param testPlanId   test-plan-id
+     * @param shellCommand shell command wants to be executed
+     * @param timeout      maximum time to wait for all the agents
+     * @param unit         time unit of the time-out
+     * @return exit values of the command keyed by agent id, only for the agents on which the command completed
+     */
+    public Map<String, Integer> broadcastShellCommand(String testPlanId, String shellCommand, long timeout,
+                                                      TimeUnit unit) {
+        Map<String, CompletableFuture<Integer>> completions = broadcastShellCommandAsync(testPlanId, shellCommand);
+        Map<String, Integer> exitValues = new LinkedHashMap<>();
+        if (completions.isEmpty()) {
+            return exitValues;
+        }
+        logger.info("Waiting till shell commands sent via tinkerer are executed in the nodes.");
+        try {
+            CompletableFuture.allOf(completions.values().toArray(new CompletableFuture[0])).get(timeout, unit);
+        } catch (TimeoutException e) {
+            logger.error("Time-out hit! Continuing without waiting further for tinkerer commands to complete.");
+        } catch (ExecutionException e) {
+            logger.error("Error while executing tinkerer commands of test-plan " + testPlanId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for tinkerer commands of test-plan " + testPlanId, e);
+        }
+        completions.forEach((agentId, completion) -> {
+            if (completion.isDone() && !completion.isCompletedExceptionally()) {
+                exitValues.put(agentId, completion.join());
+            } else {
+                logger.warn("Shell command did not complete on agent " + agentId + " of test-plan " + testPlanId);
             }
-        } else {
-        logger.error("No registered tinkerer agents found for test-plan: " + testPlanId + ". Hence tinkerer" +
-                "command is not executed.");
+        });
+        return exitValues;
+    }
+
+    /**
+     * Send a command to all the tinkerer agents belongs to a given test-plan without waiting for it to complete.
+     * <p>
+     * The command is sent to the agents in parallel on a shared, bounded pool of threads, and the result of each
+     * agent is streamed on a thread of its own. The stream file of each agent is deleted once its command
+     * completes, since only the exit values are returned.
+     *
+     * @param testPlanId   test-plan-id
+     * @param shellCommand shell command wants to be executed
+     * @return futures completed with the exit value of the command, keyed by agent id
+     */
+    public Map<String, CompletableFuture<Integer>> broadcastShellCommandAsync(String testPlanId,
+                                                                              String shellCommand) {
+        Map<String, CompletableFuture<Integer>> completions = new LinkedHashMap<>();
+        List<String> activeTestPlans = this.getAllTestPlanIds();
+        if (activeTestPlans == null || !activeTestPlans.contains(testPlanId)) {
+            logger.error("No registered tinkerer agents found for test-plan: " + testPlanId + ". Hence tinkerer " +
+                    "command is not executed.");
+            return completions;
+        }
+        for (Agent agent : this.getAgentListByTestPlanId(testPlanId)) {
+            CompletableFuture<Integer> completion = CompletableFuture
+                    .supplyAsync(() -> this.executeCommandAsync(agent.getAgentId(), shellCommand), broadcastExecutor)
+                    .thenCompose(response -> response.getCompletion()
+                            .whenComplete((exitValue, error) -> deleteStream(response)));
+            completions.put(agent.getAgentId(), completion);
         }
+        return completions;
     }
-}
 
+    /**
+     * Deletes the stream file of a completed async command.
+     *
+     * @param response response of the async command
+     */
+    private static void deleteStream(AsyncCommandResponse response) {
+        try {
+            response.endReadStream();
+        } catch (TinkererOperationException e) {
+            logger.warn("Error while deleting the result stream of operation " + response.getOperationId(), e);
+        }
+    }
+
+    /**
+     * Creates the pool of daemon threads which stream the results of async commands. A stream holds its thread until
+     * the command completes, so the pool grows with the number of running commands and idle threads are released.
+     *
+     * @return executor of the async command streams
+     */
+    private static ExecutorService createStreamExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "tinkerer-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the bounded pool of daemon threads which send broadcast commands to the agents. Idle threads are
+     * released.
+     *
+     * @return executor of the broadcast requests
+     */
+    private static ExecutorService createBroadcastExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_BROADCAST_THREADS, MAX_BROADCAST_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "tinkerer-broadcast-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class will test the command execution of {@link ShellExecutor}.
+ *
+ * @since 1.0.0
+ */
+public class ShellExecutorTest {
+
+    @Test(description = "Returns the exit value of a command after draining its output")
+    public void testExecuteCommand() throws Exception {
+        Path workingDirectory = Files.createTempDirectory("shell");
+        ShellExecutor shellExecutor = new ShellExecutor(workingDirectory, "test.sh");
+
+        Assert.assertEquals(shellExecutor.executeCommand("set -x; seq 1 5000; echo failed >&2; exit 3"), 3);
+        Assert.assertEquals(shellExecutor.executeCommand("exit 0", Collections.emptyMap()), 0);
+        Files.delete(workingDirectory);
+    }
+
+    @Test(description = "Returns once the command exits, while a background process keeps the output open")
+    public void testBackgroundProcessOutput() throws Exception {
+        Path workingDirectory = Files.createTempDirectory("shell");
+        ShellExecutor shellExecutor = new ShellExecutor(workingDirectory);
+
+        long start = System.nanoTime();
+        Assert.assertEquals(shellExecutor.executeCommand("seq 1 1000; (sleep 5; echo done) & exit 2"), 2);
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2),
+                "The command must not wait for the output of its background process.");
+        Files.delete(workingDirectory);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.agentoperation;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class will test the binary encoding of {@link OperationFrame}.
+ *
+ * @since 1.0.0
+ */
+public class OperationFrameTest {
+
+    @Test(description = "A decoded frame equals the frame it was encoded from")
+    public void testEncodeDecode() {
+        byte[] payload = new byte[OperationFrame.MAX_PAYLOAD_SIZE];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        OperationFrame frame = new OperationFrame("operation-\u00e9", Long.MAX_VALUE, true, -3, payload);
+
+        OperationFrame decoded = OperationFrame.decode(frame.encode());
+
+        Assert.assertEquals(decoded.getOperationId(), "operation-\u00e9");
+        Assert.assertEquals(decoded.getSequence(), Long.MAX_VALUE);
+        Assert.assertTrue(decoded.isCompleted());
+        Assert.assertEquals(decoded.getExitValue(), -3);
+        Assert.assertEquals(decoded.getPayload(), payload);
+    }
+
+    @Test(description = "A frame without output keeps its header fields")
+    public void testEncodeDecodeEmptyPayload() {
+        OperationFrame decoded = OperationFrame.decode(
+                new OperationFrame("operation", 0, false, 0, new byte[0]).encode());
+
+        Assert.assertEquals(decoded.getOperationId(), "operation");
+        Assert.assertEquals(decoded.getSequence(), 0);
+        Assert.assertFalse(decoded.isCompleted());
+        Assert.assertEquals(decoded.getPayload().length, 0);
+    }
+
+    @Test(description = "Messages of another version are rejected",
+          expectedExceptions = IllegalArgumentException.class)
+    public void testDecodeUnsupportedVersion() {
+        ByteBuffer message = new OperationFrame("operation", 1, false, 0, new byte[1]).encode();
+        message.put(0, (byte) 2);
+        OperationFrame.decode(message);
+    }
+
+    @Test(description = "Truncated messages are rejected", expectedExceptions = IllegalArgumentException.class)
+    public void testDecodeTruncatedMessage() {
+        ByteBuffer message = new OperationFrame("operation", 1, false, 0,
+                "output".getBytes(StandardCharsets.UTF_8)).encode();
+        message.limit(message.limit() - 1);
+        OperationFrame.decode(message);
+    }
+
+    @Test(description = "Messages whose payload length is negative are rejected",
+          expectedExceptions = IllegalArgumentException.class)
+    public void testDecodeNegativePayloadLength() {
+        ByteBuffer message = new OperationFrame("operation", 1, false, 0, new byte[1]).encode();
+        message.putInt(message.limit() - 1 - 4, -1);
+        OperationFrame.decode(message);
+    }
+
+    @Test(description = "Messages whose payload length exceeds the maximum payload size are rejected",
+          expectedExceptions = IllegalArgumentException.class)
+    public void testDecodeOversizedPayloadLength() {
+        ByteBuffer message = new OperationFrame("operation", 1, false, 0, new byte[1]).encode();
+        message.putInt(message.limit() - 1 - 4, Integer.MAX_VALUE);
+        OperationFrame.decode(message);
+    }
+}
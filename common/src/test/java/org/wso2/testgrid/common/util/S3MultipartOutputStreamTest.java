@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import org.apache.commons.io.IOUtils;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * This class will test the uploads of {@link S3MultipartOutputStream} against a mocked S3 client.
+ *
+ * @since 1.0.0
+ */
+public class S3MultipartOutputStreamTest {
+
+    private static final String BUCKET_NAME = "testgrid-artifacts";
+    private static final String KEY = "artifacts/jobs/wso2is/builds/TP1/clientLogs.zip";
+    private static final String UPLOAD_ID = "upload-1";
+
+    private AmazonS3 s3Client;
+    private Map<Integer, byte[]> uploadedParts;
+
+    @BeforeMethod
+    public void setUp() {
+        s3Client = Mockito.mock(AmazonS3.class);
+        uploadedParts = new ConcurrentHashMap<>();
+        InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId(UPLOAD_ID);
+        Mockito.when(s3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+                .thenReturn(initiateResult);
+        Mockito.when(s3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            byte[] content = IOUtils.toByteArray(request.getInputStream());
+            Assert.assertEquals(content.length, request.getPartSize());
+            uploadedParts.put(request.getPartNumber(), content);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag-" + request.getPartNumber());
+            return result;
+        });
+    }
+
+    @Test(description = "Content smaller than a part is uploaded as a single object")
+    public void testSmallContent() throws IOException {
+        try (S3MultipartOutputStream outputStream = new S3MultipartOutputStream(s3Client, BUCKET_NAME, KEY)) {
+            outputStream.write(new byte[] {1, 2, 3});
+            outputStream.write(4);
+        }
+
+        ArgumentCaptor<InputStream> content = ArgumentCaptor.forClass(InputStream.class);
+        ArgumentCaptor<ObjectMetadata> metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(s3Client, times(1)).putObject(eq(BUCKET_NAME), eq(KEY), content.capture(), metadata.capture());
+        Assert.assertEquals(IOUtils.toByteArray(content.getValue()), new byte[] {1, 2, 3, 4});
+        Assert.assertEquals(metadata.getValue().getContentLength(), 4);
+        verify(s3Client, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
+    @Test(description = "Writes across part boundaries are split into full parts, in order")
+    public void testPartBoundaries() throws IOException {
+        int partSize = S3MultipartOutputStream.PART_SIZE;
+        byte[] content = new byte[partSize * 2 + 10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        try (S3MultipartOutputStream outputStream = new S3MultipartOutputStream(s3Client, BUCKET_NAME, KEY)) {
+            // A write ending just before a boundary, a single byte on the boundary and a write across the next one
+            outputStream.write(content, 0, partSize - 1);
+            outputStream.write(content[partSize - 1]);
+            outputStream.write(content, partSize, content.length - partSize);
+        }
+
+        verify(s3Client, times(1)).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(anyString(), anyString(), any(InputStream.class),
+                any(ObjectMetadata.class));
+        Assert.assertEquals(uploadedParts.keySet().stream().sorted().collect(Collectors.toList()),
+                Arrays.asList(1, 2, 3));
+        Assert.assertEquals(uploadedParts.get(1).length, partSize);
+        Assert.assertEquals(uploadedParts.get(2).length, partSize);
+        Assert.assertEquals(uploadedParts.get(3).length, 10);
+        byte[] uploaded = new byte[content.length];
+        System.arraycopy(uploadedParts.get(1), 0, uploaded, 0, partSize);
+        System.arraycopy(uploadedParts.get(2), 0, uploaded, partSize, partSize);
+        System.arraycopy(uploadedParts.get(3), 0, uploaded, partSize * 2, 10);
+        Assert.assertEquals(uploaded, content);
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client, times(1)).completeMultipartUpload(complete.capture());
+        Assert.assertEquals(complete.getValue().getUploadId(), UPLOAD_ID);
+        List<Integer> partNumbers = complete.getValue().getPartETags().stream().map(PartETag::getPartNumber)
+                .collect(Collectors.toList());
+        Assert.assertEquals(partNumbers, Arrays.asList(1, 2, 3));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test(description = "A failed part aborts the upload instead of completing it")
+    public void testAbortOnFailedPart() throws IOException {
+        Mockito.doThrow(new AmazonClientException("Part upload failed")).when(s3Client)
+                .uploadPart(Mockito.argThat(new ArgumentMatcher<UploadPartRequest>() {
+                    @Override
+                    public boolean matches(Object request) {
+                        return request != null && ((UploadPartRequest) request).getPartNumber() == 2;
+                    }
+                }));
+
+        S3MultipartOutputStream outputStream = new S3MultipartOutputStream(s3Client, BUCKET_NAME, KEY);
+        try {
+            outputStream.write(new byte[S3MultipartOutputStream.PART_SIZE * 3 + 1]);
+            outputStream.close();
+            Assert.fail("The upload must fail when a part fails to upload.");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof AmazonClientException);
+        }
+
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        try {
+            outputStream.write(1);
+            Assert.fail("An aborted upload must not accept more bytes.");
+        } catch (IOException e) {
+            // Expected, the upload is already aborted
+        }
+    }
+}
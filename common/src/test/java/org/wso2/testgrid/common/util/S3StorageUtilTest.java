@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.DeploymentPattern;
+import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.config.ConfigurationContext;
+import org.wso2.testgrid.common.plugins.ArtifactReadable;
+
+import java.util.ArrayList;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * This class will test the S3 path resolution of {@link S3StorageUtil}, and the artifact cleanup against an
+ * in-memory S3 stand-in.
+ *
+ * @since 1.0.0
+ */
+@PowerMockIgnore({"javax.net.ssl.*", "javax.security.*", "javax.management.*"})
+@PrepareForTest({ConfigurationContext.class})
+public class S3StorageUtilTest extends PowerMockTestCase {
+
+    private static final String BUCKET_NAME = "testgrid-artifacts";
+    private static final String TEST_PLAN_DIR = "artifacts/jobs/wso2is/builds/TP1";
+
+    private NavigableSet<String> keys;
+    private AmazonS3 s3Client;
+
+    @BeforeMethod
+    public void setUp() {
+        keys = new TreeSet<>();
+        for (int i = 0; i < 2500; i++) {
+            keys.add(String.format("%s/scenario-%04d/output.log", TEST_PLAN_DIR, i));
+        }
+        keys.add(TEST_PLAN_DIR);
+        keys.add("artifacts/jobs/wso2is/builds/TP10/test-run.log");
+        s3Client = createS3StandIn(keys);
+    }
+
+    @Test(description = "Deletes all the objects of a test plan in batches across listing pages")
+    public void testDeleteDirectory() {
+        long deletedCount = S3StorageUtil.deleteDirectory(s3Client, BUCKET_NAME, TEST_PLAN_DIR, false);
+
+        Assert.assertEquals(deletedCount, 2500);
+        Assert.assertEquals(keys.size(), 1);
+        Assert.assertEquals(keys.first(), "artifacts/jobs/wso2is/builds/TP10/test-run.log");
+        verify(s3Client, times(3)).listObjectsV2(any(ListObjectsV2Request.class));
+        verify(s3Client, times(3)).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test(description = "Counts the objects of a test plan without deleting them on a dry run")
+    public void testDeleteDirectoryDryRun() {
+        long deletedCount = S3StorageUtil.deleteDirectory(s3Client, BUCKET_NAME, TEST_PLAN_DIR, true);
+
+        Assert.assertEquals(deletedCount, 2500);
+        Assert.assertEquals(keys.size(), 2502);
+        verify(s3Client, Mockito.never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test(description = "Resolves the key layout of a test plan once and serves later calls from the cache")
+    public void testResolvedTestPlanDirPathIsCached() {
+        mockArtifactsDir();
+        TestPlan testPlan = createTestPlan("TP-cached");
+        String testPlanDirPath = "artifacts/jobs/wso2is/builds/TP-cached";
+        ArtifactReadable artifactReadable = Mockito.mock(ArtifactReadable.class);
+        Mockito.when(artifactReadable.isArtifactExist(testPlanDirPath)).thenReturn(true);
+
+        Assert.assertEquals(S3StorageUtil.deriveS3TestPlanDirPath(testPlan, artifactReadable), testPlanDirPath);
+        Assert.assertEquals(S3StorageUtil.deriveS3ScenarioArchiveFileDir(testPlan, "scenario-1", artifactReadable),
+                testPlanDirPath + "/scenario-1/scenario-1.zip");
+        Assert.assertEquals(S3StorageUtil.getS3LocationForTestRunLogFile(testPlan, false, artifactReadable),
+                testPlanDirPath + "/test-run.log");
+        verify(artifactReadable, times(1)).isArtifactExist(anyString());
+    }
+
+    @Test(description = "Does not cache the key layout of a test plan which has no artifacts yet")
+    public void testMissingTestPlanDirPathIsNotCached() {
+        mockArtifactsDir();
+        TestPlan testPlan = createTestPlan("TP-missing");
+        ArtifactReadable artifactReadable = Mockito.mock(ArtifactReadable.class);
+
+        S3StorageUtil.deriveS3TestPlanDirPath(testPlan, artifactReadable);
+        Mockito.when(artifactReadable.isArtifactExist("artifacts/jobs/wso2is/builds/TP-missing")).thenReturn(true);
+
+        Assert.assertEquals(S3StorageUtil.deriveS3TestPlanDirPath(testPlan, artifactReadable),
+                "artifacts/jobs/wso2is/builds/TP-missing");
+        verify(artifactReadable, times(3)).isArtifactExist(anyString());
+    }
+
+    @Test(description = "Resolves the key layout of a test plan separately for each bucket")
+    public void testResolvedTestPlanDirPathIsCachedPerBucket() {
+        mockArtifactsDir();
+        TestPlan testPlan = createTestPlan("TP-bucket");
+        String testPlanDirPath = "artifacts/jobs/wso2is/builds/TP-bucket";
+        ArtifactReadable artifactReadable = Mockito.mock(ArtifactReadable.class);
+        Mockito.when(artifactReadable.getBucketName()).thenReturn("bucket-1");
+        Mockito.when(artifactReadable.isArtifactExist(testPlanDirPath)).thenReturn(true);
+        ArtifactReadable otherArtifactReadable = Mockito.mock(ArtifactReadable.class);
+        Mockito.when(otherArtifactReadable.getBucketName()).thenReturn("bucket-2");
+
+        Assert.assertEquals(S3StorageUtil.deriveS3TestPlanDirPath(testPlan, artifactReadable), testPlanDirPath);
+        Assert.assertEquals(S3StorageUtil.deriveS3TestPlanDirPath(testPlan, otherArtifactReadable),
+                testPlanDirPath);
+        verify(otherArtifactReadable, times(2)).isArtifactExist(anyString());
+    }
+
+    private static void mockArtifactsDir() {
+        PowerMockito.mockStatic(ConfigurationContext.class);
+        PowerMockito.when(ConfigurationContext.getProperty(
+                ConfigurationContext.ConfigurationProperties.AWS_S3_ARTIFACTS_DIR)).thenReturn("artifacts");
+    }
+
+    private static TestPlan createTestPlan(String testPlanId) {
+        Product product = new Product();
+        product.setName("wso2is");
+        DeploymentPattern deploymentPattern = new DeploymentPattern();
+        deploymentPattern.setName("default");
+        deploymentPattern.setProduct(product);
+        TestPlan testPlan = new TestPlan();
+        testPlan.setId(testPlanId);
+        testPlan.setTestRunNumber(1);
+        testPlan.setInfraParameters("{\"OS\":\"Ubuntu\"}");
+        testPlan.setDeploymentPattern(deploymentPattern);
+        return testPlan;
+    }
+
+    /**
+     * Creates a S3 client which lists and deletes the given keys, paginating listings like S3 does.
+     */
+    private static AmazonS3 createS3StandIn(NavigableSet<String> keys) {
+        AmazonS3 s3Client = Mockito.mock(AmazonS3.class);
+        Mockito.when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenAnswer(invocation -> {
+            ListObjectsV2Request request = (ListObjectsV2Request) invocation.getArguments()[0];
+            String startAfter = request.getContinuationToken() == null ? "" : request.getContinuationToken();
+            ListObjectsV2Result result = new ListObjectsV2Result();
+            for (String key : keys.tailSet(startAfter, false)) {
+                if (!key.startsWith(request.getPrefix())) {
+                    continue;
+                }
+                if (result.getObjectSummaries().size() == request.getMaxKeys()) {
+                    result.setTruncated(true);
+                    break;
+                }
+                S3ObjectSummary objectSummary = new S3ObjectSummary();
+                objectSummary.setBucketName(request.getBucketName());
+                objectSummary.setKey(key);
+                result.getObjectSummaries().add(objectSummary);
+            }
+            if (result.isTruncated()) {
+                int lastIndex = result.getObjectSummaries().size() - 1;
+                result.setNextContinuationToken(result.getObjectSummaries().get(lastIndex).getKey());
+            }
+            result.setKeyCount(result.getObjectSummaries().size());
+            return result;
+        });
+        Mockito.when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+            DeleteObjectsRequest request = (DeleteObjectsRequest) invocation.getArguments()[0];
+            Assert.assertTrue(request.getKeys().size() <= 1000, "Too many keys in a delete request");
+            request.getKeys().forEach(keyVersion -> keys.remove(keyVersion.getKey()));
+            return new DeleteObjectsResult(new ArrayList<>());
+        });
+        return s3Client;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * This class will test the archives written by {@link ZipArchiver}.
+ *
+ * @since 1.0.0
+ */
+public class ZipArchiverTest {
+
+    private Path sourceDir;
+    private Path archive;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        sourceDir = Files.createTempDirectory("archive-source");
+        archive = Files.createTempFile("archive", ".zip");
+        Random random = new Random(1);
+        StringBuilder log = new StringBuilder();
+        while (log.length() < ZipArchiver.BLOCK_SIZE * 3 + 1000) {
+            log.append("INFO Deployed artifact ").append(random.nextInt(1000)).append('\n');
+        }
+        Files.createDirectories(sourceDir.resolve("logs"));
+        Files.write(sourceDir.resolve("logs/wso2carbon.log"), log.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] compressed = new byte[ZipArchiver.BLOCK_SIZE - 10];
+        random.nextBytes(compressed);
+        Files.write(sourceDir.resolve("heap-dump.gz"), compressed);
+        byte[] largeCompressed = new byte[ZipArchiver.BLOCK_SIZE * 2 + 10];
+        random.nextBytes(largeCompressed);
+        Files.write(sourceDir.resolve("thread-dumps.zip"), largeCompressed);
+        Files.write(sourceDir.resolve("empty.txt"), new byte[0]);
+        Files.write(sourceDir.resolve("testng-results.xml"), "<testsuite/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(sourceDir.toFile());
+        Files.deleteIfExists(archive);
+    }
+
+    @Test(description = "Archives a directory with multi-block, stored and empty entries readable by java.util.zip")
+    public void testAddDirectory() throws IOException {
+        try (ZipArchiver archiver = new ZipArchiver(Files.newOutputStream(archive))) {
+            archiver.addDirectory(sourceDir, "outputs/", path -> true);
+        }
+
+        List<String> entryNames = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                entryNames.add(entry.getName());
+                Path file = sourceDir.resolve(entry.getName().substring("outputs/".length()));
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    Assert.assertEquals(IOUtils.toByteArray(inputStream), Files.readAllBytes(file),
+                            "Content mismatch in " + entry.getName());
+                }
+                if (entry.getName().endsWith(".gz") || entry.getName().endsWith("empty.txt")) {
+                    Assert.assertEquals(entry.getMethod(), ZipEntry.STORED);
+                } else {
+                    Assert.assertEquals(entry.getMethod(), ZipEntry.DEFLATED);
+                }
+            }
+            ZipEntry log = zipFile.getEntry("outputs/logs/wso2carbon.log");
+            Assert.assertTrue(log.getCompressedSize() < log.getSize() / 2);
+            ZipEntry threadDumps = zipFile.getEntry("outputs/thread-dumps.zip");
+            Assert.assertTrue(threadDumps.getCompressedSize() < threadDumps.getSize() + 1024);
+        }
+        Collections.sort(entryNames);
+        Assert.assertEquals(entryNames, Arrays.asList("outputs/empty.txt", "outputs/heap-dump.gz",
+                "outputs/logs/wso2carbon.log", "outputs/testng-results.xml", "outputs/thread-dumps.zip"));
+
+        int streamedEntries = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                Path file = sourceDir.resolve(entry.getName().substring("outputs/".length()));
+                Assert.assertEquals(IOUtils.toByteArray(zipInputStream), Files.readAllBytes(file));
+                streamedEntries++;
+            }
+        }
+        Assert.assertEquals(streamedEntries, 5);
+    }
+
+    @Test(description = "Archives the readable part of files which are truncated after they are listed")
+    public void testTruncatedFiles() throws IOException {
+        Path log = sourceDir.resolve("logs/wso2carbon.log");
+        Path heapDump = sourceDir.resolve("heap-dump.gz");
+        Path results = sourceDir.resolve("testng-results.xml");
+        try (ZipArchiver archiver = new ZipArchiver(Files.newOutputStream(archive))) {
+            archiver.addFile(log, "wso2carbon.log", Files.size(log) + ZipArchiver.BLOCK_SIZE * 2);
+            archiver.addFile(heapDump, "heap-dump.gz", Files.size(heapDump) + 10);
+            archiver.addFile(results, "testng-results.xml", Files.size(results));
+        }
+
+        byte[] readableLog = Arrays.copyOf(Files.readAllBytes(log), ZipArchiver.BLOCK_SIZE * 3);
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            Assert.assertEquals(zipFile.size(), 2);
+            Assert.assertNull(zipFile.getEntry("heap-dump.gz"));
+            try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry("wso2carbon.log"))) {
+                Assert.assertEquals(IOUtils.toByteArray(inputStream), readableLog);
+            }
+            try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry("testng-results.xml"))) {
+                Assert.assertEquals(IOUtils.toByteArray(inputStream), Files.readAllBytes(results));
+            }
+        }
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(archive))) {
+            Assert.assertEquals(zipInputStream.getNextEntry().getName(), "wso2carbon.log");
+            Assert.assertEquals(IOUtils.toByteArray(zipInputStream), readableLog);
+            Assert.assertEquals(zipInputStream.getNextEntry().getName(), "testng-results.xml");
+            Assert.assertNull(zipInputStream.getNextEntry());
+        }
+    }
+
+    @Test(description = "Writes zip64 records for archives of more than 65535 entries")
+    public void testZip64EntryCount() throws IOException {
+        Path manyFilesDir = sourceDir.resolve("many");
+        int fileCount = 0xFFFF + 10;
+        for (int i = 0; i < fileCount; i++) {
+            Path dir = Files.createDirectories(manyFilesDir.resolve(String.valueOf(i / 1000)));
+            Files.write(dir.resolve(i + ".txt"), String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+        }
+        try (ZipArchiver archiver = new ZipArchiver(Files.newOutputStream(archive))) {
+            archiver.addDirectory(manyFilesDir, "", path -> true);
+        }
+
+        byte[] archiveBytes = Files.readAllBytes(archive);
+        ByteBuffer end = ByteBuffer.wrap(archiveBytes, archiveBytes.length - 22, 22).slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(end.getShort(10) & 0xFFFF, 0xFFFF, "The entry count must refer to the zip64 record.");
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            Assert.assertEquals(zipFile.size(), fileCount);
+            try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry("65/65544.txt"))) {
+                Assert.assertEquals(IOUtils.toString(inputStream, StandardCharsets.UTF_8), "65544");
+            }
+        }
+        int streamedEntries = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(archive))) {
+            while (zipInputStream.getNextEntry() != null) {
+                streamedEntries++;
+            }
+        }
+        Assert.assertEquals(streamedEntries, fileCount);
+    }
+
+    @Test(description = "Skips the archive itself when it is written inside the archived directory")
+    public void testCompressIntoSourceDirectory() throws IOException {
+        Path destination = sourceDir.resolve("outputs.zip");
+        FileUtil.compress(sourceDir.toString(), destination.toString());
+
+        try (ZipFile zipFile = new ZipFile(destination.toFile())) {
+            Assert.assertEquals(zipFile.size(), 5);
+            Assert.assertNull(zipFile.getEntry("outputs.zip"));
+        }
+    }
+
+    @Test(description = "Deletes the partially written archive when the archiving fails")
+    public void testCompressFailure() throws IOException {
+        Path destination = archive.resolveSibling("missing-source.zip");
+        try {
+            FileUtil.compress(sourceDir.resolve("missing").toString(), destination.toString());
+            Assert.fail("Archiving a missing directory must fail.");
+        } catch (NoSuchFileException e) {
+            Assert.assertFalse(Files.exists(destination), "The partially written archive must be deleted.");
+        } finally {
+            Files.deleteIfExists(destination);
+        }
+    }
+}
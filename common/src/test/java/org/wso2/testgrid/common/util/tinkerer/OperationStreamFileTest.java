@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.common.util.tinkerer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * This class will test the functionality of {@link OperationStreamFile} class
+ *
+ * @since 1.0.0
+ */
+public class OperationStreamFileTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationStreamFileTest.class);
+    // Run with -Dtestgrid.streamBenchmarkBytes=1073741824 to measure the throughput of a 1 GB stream
+    private static final long BENCHMARK_BYTES = Long.getLong("testgrid.streamBenchmarkBytes", 32 * 1024 * 1024);
+
+    private Path file;
+    private OperationStreamFile streamFile;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = Files.createTempFile("operation", ".stream");
+        streamFile = new OperationStreamFile(file);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        streamFile.delete();
+    }
+
+    @Test(description = "Appends segments to a single file and reads them back by index")
+    public void testReadSegments() throws Exception {
+        streamFile.append("first line\n");
+        streamFile.append("");
+        streamFile.append("d\u00e9ploiement r\u00e9ussi\n");
+
+        Assert.assertEquals(streamFile.getSegmentCount(), 3);
+        Assert.assertEquals(streamFile.readSegment(0), "first line\n");
+        Assert.assertEquals(streamFile.readSegment(1), "");
+        Assert.assertEquals(streamFile.readSegment(2), "d\u00e9ploiement r\u00e9ussi\n");
+        Assert.assertEquals(streamFile.getSegmentOffset(2), "first line\n".length());
+        Assert.assertEquals(streamFile.size(),
+                "first line\nd\u00e9ploiement r\u00e9ussi\n".getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test(description = "Reads a segment larger than the write buffer and resumes reading from an offset")
+    public void testResumeFromOffset() throws Exception {
+        char[] chars = new char[1024 * 1024];
+        Arrays.fill(chars, 'a');
+        String largeSegment = new String(chars);
+        streamFile.append("header\n");
+        streamFile.append(largeSegment);
+        streamFile.append("footer\n");
+
+        Assert.assertEquals(streamFile.readSegment(1), largeSegment);
+
+        long offset = streamFile.getSegmentOffset(2);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int read = streamFile.read(offset, buffer);
+        Assert.assertEquals(new String(buffer.array(), 0, read, StandardCharsets.UTF_8), "footer\n");
+        Assert.assertEquals(streamFile.read(offset + read, buffer), 0);
+
+        streamFile.complete();
+        Assert.assertEquals(streamFile.read(offset + read, buffer), -1);
+        Assert.assertFalse(streamFile.awaitSegment(3));
+    }
+
+    @Test(description = "Closes the file when the stream completes and still serves reads of the stream")
+    public void testReadAfterComplete() throws Exception {
+        streamFile.append("first line\n");
+        streamFile.append("second line\n");
+        streamFile.complete();
+
+        Assert.assertFalse(isOpen(file), "Expected the stream file to be closed once completed.");
+        Assert.assertEquals(streamFile.readSegment(1), "second line\n");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int read = streamFile.read(0, buffer);
+        Assert.assertEquals(new String(buffer.array(), 0, read, StandardCharsets.UTF_8), "first line\nsecond line\n");
+        Assert.assertFalse(isOpen(file), "Expected the stream file to be closed after reading it.");
+    }
+
+    @Test(description = "Measures the throughput of appending a stream and reading it back")
+    public void testThroughput() throws Exception {
+        char[] chars = new char[8 * 1024];
+        Arrays.fill(chars, 'x');
+        String segment = new String(chars);
+        long segments = BENCHMARK_BYTES / segment.length();
+
+        long startTime = System.nanoTime();
+        for (long i = 0; i < segments; i++) {
+            streamFile.append(segment);
+        }
+        streamFile.complete();
+        long writeTime = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+        long offset = 0;
+        int read;
+        while ((read = streamFile.read(offset, buffer)) > 0) {
+            offset += read;
+            buffer.clear();
+        }
+        long readTime = System.nanoTime() - startTime;
+
+        Assert.assertEquals(offset, segments * segment.length());
+        Assert.assertEquals(Files.size(file), offset);
+        logger.info(String.format("Stream of %d MB: write %.1f MB/s, read %.1f MB/s", offset >> 20,
+                toMBPerSecond(offset, writeTime), toMBPerSecond(offset, readTime)));
+    }
+
+    /**
+     * Returns whether this process holds a file descriptor of the given file. Always {@code false} where the open
+     * file descriptors cannot be listed.
+     */
+    private static boolean isOpen(Path file) throws IOException {
+        Path descriptors = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(descriptors)) {
+            return false;
+        }
+        Path realFile = file.toRealPath();
+        try (Stream<Path> links = Files.list(descriptors)) {
+            return links.anyMatch(link -> {
+                try {
+                    return Files.readSymbolicLink(link).equals(realFile);
+                } catch (IOException e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    private static double toMBPerSecond(long bytes, long nanos) {
+        return (bytes / (1024.0 * 1024.0)) / (Math.max(nanos, 1) / 1_000_000_000.0);
+    }
+}
@@ -31,6 +31,7 @@ import org.wso2.testgrid.common.config.ConfigurationContext;
 import org.wso2.testgrid.common.exception.CommandExecutionException;
 import org.wso2.testgrid.common.util.S3StorageUtil;
 import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.uow.TestPlanUOW;
 
@@ -44,8 +45,14 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
@@ -65,6 +72,7 @@ import static org.apache.http.protocol.HTTP.USER_AGENT;
 public class CleanUpCommand implements Command {
 
     private static final Logger logger = LoggerFactory.getLogger(CleanUpCommand.class);
+    private static final int DEFAULT_S3_DELETE_THREAD_COUNT = 8;
     private int status;
     private List<String> datasource;
     private String grafanaUrl = ConfigurationContext.getProperty
@@ -79,6 +87,13 @@ public class CleanUpCommand implements Command {
             required = true)
     private int remainingBuildCount = 100;
 
+    @Option(name = "--dry-run",
+            usage = "Report the artifacts and test plans to delete without deleting them")
+    private boolean dryRun = false;
+
+    @Option(name = "--s3-threads",
+            usage = "Number of test plans of which the S3 artifacts are deleted concurrently")
+    private int s3DeleteThreadCount = DEFAULT_S3_DELETE_THREAD_COUNT;
 
 
     private TestPlanUOW testPlanUOW;
@@ -129,8 +144,12 @@ public class CleanUpCommand implements Command {
 
             logger.info(StringUtil.concatStrings("Clearing S3 files except for the last ",
                     remainingBuildCount, " builds"));
-            for (String deletingTestPlan : allTestPlans) {
-                deleteS3(deletingTestPlan);
+            deleteS3(allTestPlans);
+
+            if (dryRun) {
+                logger.info(StringUtil.concatStrings("Dry run: ", allTestPlans.size(),
+                        " test plans and their Grafana data sources would be deleted: ", allTestPlans));
+                return;
             }
 
             logger.info(StringUtil.concatStrings("Deleting test plans from DB except for the last ",
@@ -255,24 +274,59 @@ public class CleanUpCommand implements Command {
     }
 
     /**
-     * This method delete the files in s3 for a given test plan
-     * @param testPlanId tes plan id of which the files need to be deleted
-     * @throws TestGridDAOException
+     * This method deletes the files in s3 for the given test plans, concurrently on a bounded pool of threads.
+     * On a dry run, it only reports the number of files to delete.
+     *
+     * @param testPlanIds ids of the test plans of which the files need to be deleted
+     * @throws TestGridDAOException thrown when error on reading the test plans
      */
-    public void deleteS3(String testPlanId) throws TestGridDAOException {
-
-        Optional<TestPlan> testPlanEntity = testPlanUOW.getTestPlanById(testPlanId);
-        if (testPlanEntity.isPresent()) {
-            TestPlan testPlan = testPlanEntity.get();
-            boolean s3Deleted = S3StorageUtil.deleteTestPlan(testPlan);
-            if (s3Deleted) {
-                logger.info("S3 files deleted for test plan " + testPlanId);
+    private void deleteS3(List<String> testPlanIds) throws TestGridDAOException {
+        // Test plans are read on this thread since the entity manager is not thread safe
+        List<TestPlan> testPlans = new ArrayList<>();
+        for (String testPlanId : testPlanIds) {
+            Optional<TestPlan> testPlanEntity = testPlanUOW.getTestPlanById(testPlanId);
+            if (testPlanEntity.isPresent()) {
+                testPlans.add(testPlanEntity.get());
+            } else {
+                logger.error("Test Plan " + testPlanId + " is deleted from DB. ");
             }
-        } else {
-            logger.error("Test Plan is deleted from DB. ");
         }
 
-
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, s3DeleteThreadCount));
+        try {
+            Map<String, Future<Long>> deletions = new LinkedHashMap<>();
+            for (TestPlan testPlan : testPlans) {
+                deletions.put(testPlan.getId(), executorService.submit(() -> {
+                    try {
+                        return S3StorageUtil.deleteTestPlan(testPlan, dryRun);
+                    } finally {
+                        // Release the entity manager of this pooled thread, if loading the test plan used one
+                        EntityManagerHelper.closeEntityManager();
+                    }
+                }));
+            }
+            long fileCount = 0;
+            int failedCount = 0;
+            for (Map.Entry<String, Future<Long>> deletion : deletions.entrySet()) {
+                try {
+                    long deletedCount = deletion.getValue().get();
+                    fileCount += deletedCount;
+                    logger.info(StringUtil.concatStrings(deletedCount, dryRun ? " S3 files would be" : " S3 files",
+                            " deleted for test plan ", deletion.getKey()));
+                } catch (ExecutionException e) {
+                    failedCount++;
+                    logger.error("Error while deleting S3 files of test plan " + deletion.getKey(), e.getCause());
+                }
+            }
+            logger.info(StringUtil.concatStrings(fileCount, dryRun ? " S3 files would be" : " S3 files",
+                    " deleted for ", deletions.size() - failedCount, " test plans. Failed to delete S3 files of ",
+                    failedCount, " test plans."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while deleting S3 files of test plans", e);
+        } finally {
+            executorService.shutdownNow();
+        }
     }
 
     /**
@@ -62,6 +62,7 @@ import org.wso2.testgrid.common.util.tinkerer.SyncCommandResponse;
 import org.wso2.testgrid.common.util.tinkerer.TinkererSDK;
 import org.wso2.testgrid.core.exception.TestPlanExecutorException;
 import org.wso2.testgrid.core.util.JsonPropFileUtil;
+import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.uow.TestPlanUOW;
 import org.wso2.testgrid.infrastructure.InfrastructureProviderFactory;
@@ -427,7 +428,7 @@ public class TestPhase extends Phase {
                 }
             }
 
-            getTestScenarioUOW().persistTestScenario(testScenario);
+            getTestScenarioUOW().persistTestScenarioWithTestCases(testScenario);
             if (logger.isDebugEnabled()) {
                 logger.debug(StringUtil.concatStrings(
                         "Persisted test scenario ", testScenario.getName(), " with test cases"));
@@ -747,12 +748,18 @@ class TinkererCommand implements Runnable {
     @Override
     public void run() {
 
-        SyncCommandResponse syncResponse = tinkererSDK.executeCommandSync(agentId, testPlanId, instanceName, command);
-        if (syncResponse.getExitValue() == 0) {
-            logger.info("Successfully executed tinkerer command for instance: " + instanceName);
-        } else {
-            logger.error("Error received for tinkerer command for instance: " + instanceName +
-                    ". Received error response: " + syncResponse.getResponse());
+        try {
+            SyncCommandResponse syncResponse = tinkererSDK.executeCommandSync(agentId, testPlanId, instanceName,
+                    command);
+            if (syncResponse.getExitValue() == 0) {
+                logger.info("Successfully executed tinkerer command for instance: " + instanceName);
+            } else {
+                logger.error("Error received for tinkerer command for instance: " + instanceName +
+                        ". Received error response: " + syncResponse.getResponse());
+            }
+        } finally {
+            // Release the entity manager of this pooled thread, if the command used one
+            EntityManagerHelper.closeEntityManager();
         }
     }
 }
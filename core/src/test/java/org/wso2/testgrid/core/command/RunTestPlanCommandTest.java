@@ -148,6 +148,8 @@ public class RunTestPlanCommandTest extends PowerMockTestCase {
 
         when(testScenarioUOW.persistTestScenario(any(TestScenario.class))).thenAnswer(invocation -> invocation
                 .getArguments()[0]);
+        when(testScenarioUOW.persistTestScenarioWithTestCases(any(TestScenario.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
 
         scenarioExecutor = new ScenarioExecutor(testScenarioUOW, testCaseUOW);
         testPlanExecutor = new TestPlanExecutor(scenarioExecutor, testPlanUOW, testScenarioUOW);
@@ -139,6 +139,8 @@ class TestBase extends PowerMockTestCase {
 
         when(testScenarioUOW.persistTestScenario(any(TestScenario.class))).thenAnswer(invocation -> invocation
                 .getArguments()[0]);
+        when(testScenarioUOW.persistTestScenarioWithTestCases(any(TestScenario.class)))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
 
         doMock();
     }
@@ -17,34 +17,71 @@
  */
 package org.wso2.testgrid.dao;
 
+import org.eclipse.persistence.config.BatchWriting;
+import org.eclipse.persistence.config.CascadePolicy;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.server.ConnectionPool;
+import org.eclipse.persistence.sessions.server.ServerSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.DeploymentPattern;
+import org.wso2.testgrid.common.Product;
 import org.wso2.testgrid.common.TestGridConstants;
 import org.wso2.testgrid.common.config.ConfigurationContext;
 import org.wso2.testgrid.common.config.ConfigurationContext.ConfigurationProperties;
+import org.wso2.testgrid.common.infrastructure.InfrastructureParameter;
 import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.dao.cache.SharedCacheCustomizer;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.FlushModeType;
 import javax.persistence.Persistence;
+import javax.persistence.Query;
 
 /**
  * This class is responsible of handling operations related to entity manager.
+ * <p>
+ * Each thread gets its own {@link EntityManager} (and hence its own persistence context and transaction). The
+ * instance returned by {@link #getEntityManager()} is a thread-bound handle: every call made through it is routed
+ * to the entity manager of the calling thread, which is created lazily and released by
+ * {@link #closeEntityManager()}. An entity manager left open by a thread which has terminated is closed the next
+ * time an entity manager is created. JDBC connections are taken from the bounded connection pool of the underlying
+ * {@link EntityManagerFactory}, which is shared by all threads.
  *
  * @since 1.0.0
  */
 public class EntityManagerHelper {
     private static final Logger logger = LoggerFactory.getLogger(EntityManagerHelper.class);
-    private static final Map<String, EntityManager> entityManagerMap = new HashMap<>();
-    private static final Map<String, EntityManagerFactory> entityManagerFactoryMap = new HashMap<>();
+    private static final ThreadLocal<Map<String, EntityManager>> entityManagerMap =
+            ThreadLocal.withInitial(HashMap::new);
+    private static final Map<String, EntityManager> threadBoundEntityManagerMap = new ConcurrentHashMap<>();
+    private static final Map<String, EntityManagerFactory> entityManagerFactoryMap = new ConcurrentHashMap<>();
+    private static final Map<EntityManager, Thread> openEntityManagers = new ConcurrentHashMap<>();
+    private static final AtomicLong createdEntityManagerCount = new AtomicLong();
     private static final String TESTGRID_PU_MYSQL = "testgrid_mysql";
+    private static final Class<?>[] CACHEABLE_ENTITIES = {Product.class, DeploymentPattern.class,
+            InfrastructureParameter.class};
+    private static final String DEFAULT_POOL_MIN_CONNECTIONS = "2";
+    private static final String DEFAULT_POOL_MAX_CONNECTIONS = "20";
+    private static final int DEFAULT_BATCH_SIZE = 500;
 
     /**
      * Returns a thread safe {@link EntityManager}.
+     * <p>
+     * The returned instance can be shared across threads; each thread transparently works on its own
+     * underlying entity manager.
      *
      * @return thread safe {@link EntityManager}
      */
@@ -58,16 +95,127 @@ public class EntityManagerHelper {
      * @return thread safe {@link EntityManager}
      */
     private static EntityManager getEntityManager(String persistenceUnitName) {
-        EntityManager entityManager = entityManagerMap.get(persistenceUnitName);
+        return threadBoundEntityManagerMap.computeIfAbsent(persistenceUnitName,
+                EntityManagerHelper::createThreadBoundEntityManager);
+    }
+
+    /**
+     * Returns the entity manager of the current thread, creating one if the thread does not own an open
+     * entity manager yet.
+     *
+     * @param persistenceUnitName persistence unit name of the entity manager
+     * @return entity manager bound to the current thread
+     */
+    private static EntityManager getThreadEntityManager(String persistenceUnitName) {
+        Map<String, EntityManager> threadEntityManagers = entityManagerMap.get();
+        EntityManager entityManager = threadEntityManagers.get(persistenceUnitName);
         if (entityManager == null || !entityManager.isOpen()) {
+            if (entityManager != null) {
+                // Closed along with its entity manager factory
+                openEntityManagers.remove(entityManager);
+            }
+            closeAbandonedEntityManagers();
             EntityManagerFactory entityManagerFactory = getEntityManagerFactory(persistenceUnitName);
             entityManager = entityManagerFactory.createEntityManager();
             entityManager.setFlushMode(FlushModeType.COMMIT); // Flushing will happen on committing the transaction.
-            entityManagerMap.put(persistenceUnitName, entityManager);
+            threadEntityManagers.put(persistenceUnitName, entityManager);
+            openEntityManagers.put(entityManager, Thread.currentThread());
+            createdEntityManagerCount.incrementAndGet();
         }
         return entityManager;
     }
 
+    /**
+     * Creates a proxy {@link EntityManager} which delegates every call to the entity manager of the calling thread.
+     *
+     * @param persistenceUnitName persistence unit name of the entity manager
+     * @return thread-bound {@link EntityManager} proxy
+     */
+    private static EntityManager createThreadBoundEntityManager(String persistenceUnitName) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> {
+                    String methodName = method.getName();
+                    if ("close".equals(methodName)) {
+                        closeThreadEntityManager(persistenceUnitName);
+                        return null;
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invokeObjectMethod(proxy, method, args, persistenceUnitName);
+                    }
+                    try {
+                        return method.invoke(getThreadEntityManager(persistenceUnitName), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Object invokeObjectMethod(Object proxy, Method method, Object[] args, String persistenceUnitName) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return StringUtil.concatStrings("ThreadBoundEntityManager[", persistenceUnitName, "]");
+        }
+    }
+
+    /**
+     * Closes the entity manager bound to the current thread, if any.
+     * <p>
+     * This should be called at the end of a unit of work executed on a pooled thread (ex: at the end of an HTTP
+     * request) so that the persistence context is discarded and the thread does not retain stale entities. Any
+     * transaction left active is rolled back. The entity manager factory and its connection pool are kept open.
+     */
+    public static void closeEntityManager() {
+        closeThreadEntityManager(TESTGRID_PU_MYSQL);
+    }
+
+    private static void closeThreadEntityManager(String persistenceUnitName) {
+        Map<String, EntityManager> threadEntityManagers = entityManagerMap.get();
+        EntityManager entityManager = threadEntityManagers.remove(persistenceUnitName);
+        if (threadEntityManagers.isEmpty()) {
+            entityManagerMap.remove();
+        }
+        if (entityManager == null) {
+            return;
+        }
+        openEntityManagers.remove(entityManager);
+        close(entityManager, Thread.currentThread());
+    }
+
+    /**
+     * Closes the entity managers left open by threads which have terminated, and forgets the entity managers
+     * closed along with their entity manager factory.
+     */
+    private static void closeAbandonedEntityManagers() {
+        for (Map.Entry<EntityManager, Thread> entry : openEntityManagers.entrySet()) {
+            EntityManager entityManager = entry.getKey();
+            Thread owner = entry.getValue();
+            if (!entityManager.isOpen()) {
+                openEntityManagers.remove(entityManager, owner);
+            } else if (!owner.isAlive() && openEntityManagers.remove(entityManager, owner)) {
+                logger.warn("Closing the entity manager left open by terminated thread " + owner.getName());
+                close(entityManager, owner);
+            }
+        }
+    }
+
+    private static void close(EntityManager entityManager, Thread owner) {
+        if (!entityManager.isOpen()) {
+            return;
+        }
+        try {
+            if (entityManager.getTransaction().isActive()) {
+                logger.warn("Rolling back a transaction left active on thread " + owner.getName());
+                entityManager.getTransaction().rollback();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
     /**
      * Closes the entity manager.
      * <p>
@@ -77,17 +225,49 @@ public class EntityManagerHelper {
      */
     public static void closeEntityManager(String persistenceUnitName) {
         // Remove entity manager from thread local
-        EntityManager entityManager = entityManagerMap.get(persistenceUnitName);
-        if (entityManager != null) {
-            entityManagerMap.remove(persistenceUnitName);
-        }
+        closeThreadEntityManager(persistenceUnitName);
 
-        // Close and remove entity manager factory. This closes the entity manager automatically
-        EntityManagerFactory entityManagerFactory = entityManagerFactoryMap.get(persistenceUnitName);
-        if (entityManagerFactory != null) {
+        // Close and remove entity manager factory. This closes the entity managers of other threads automatically
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryMap.remove(persistenceUnitName);
+        if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
             entityManagerFactory.close();
-            entityManagerFactoryMap.remove(persistenceUnitName);
         }
+        closeAbandonedEntityManagers();
+    }
+
+    /**
+     * Returns the statistics of the JDBC connection pools and entity managers of the default persistence unit.
+     * <p>
+     * Returns an empty map if the entity manager factory has not been initialized yet.
+     *
+     * @return map of statistic name to value
+     */
+    public static Map<String, Object> getConnectionPoolStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        closeAbandonedEntityManagers();
+        statistics.put("entityManagers.open", openEntityManagers.size());
+        statistics.put("entityManagers.created", createdEntityManagerCount.get());
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryMap.get(TESTGRID_PU_MYSQL);
+        if (entityManagerFactory == null || !entityManagerFactory.isOpen()) {
+            return statistics;
+        }
+        ServerSession serverSession = JpaHelper.getServerSession(entityManagerFactory);
+        for (ConnectionPool pool : serverSession.getConnectionPools().values()) {
+            addConnectionPoolStatistics(statistics, pool);
+        }
+        addConnectionPoolStatistics(statistics, serverSession.getReadConnectionPool());
+        return statistics;
+    }
+
+    private static void addConnectionPoolStatistics(Map<String, Object> statistics, ConnectionPool pool) {
+        String prefix = StringUtil.concatStrings("pool.", pool.getName(), ".");
+        int total = pool.getTotalNumberOfConnections();
+        int available = pool.getConnectionsAvailable().size();
+        statistics.put(prefix + "max", pool.getMaxNumberOfConnections());
+        statistics.put(prefix + "min", pool.getMinNumberOfConnections());
+        statistics.put(prefix + "total", total);
+        statistics.put(prefix + "available", available);
+        statistics.put(prefix + "inUse", total - available);
     }
 
     /**
@@ -98,66 +278,131 @@ public class EntityManagerHelper {
      */
     private static EntityManagerFactory getEntityManagerFactory(String persistenceUnitName) {
 
-        Map<String, String> persistenceMap = new HashMap<String, String>();
         EntityManagerFactory entityManagerFactory = entityManagerFactoryMap.get(persistenceUnitName);
-        if (entityManagerFactory == null) {
-
-            String dbUrl = ConfigurationContext.getProperty(ConfigurationProperties.DB_URL);
-            String dbUser = ConfigurationContext.getProperty(ConfigurationProperties.DB_USER);
-            String dbUserPass = ConfigurationContext.getProperty(ConfigurationProperties.DB_USER_PASS);
-            String tgEnvironment = ConfigurationContext.getProperty(ConfigurationProperties.TESTGRID_ENVIRONMENT);
-
-            if (dbUrl != null && dbUser != null && dbUserPass != null) {
-                //Override properties taken from persistence.xml
-                persistenceMap.put("javax.persistence.jdbc.url", dbUrl);
-                persistenceMap.put("javax.persistence.jdbc.user", dbUser);
-                persistenceMap.put("javax.persistence.jdbc.password", dbUserPass);
-
-                if (tgEnvironment.equals("local")) {
-                    persistenceMap.put("javax.persistence.jdbc.driver", "org.h2.Driver");
-                }
-
-                entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName, persistenceMap);
-            } else {
-                logger.warn(StringUtil.concatStrings(
-                        "One or more database properties {",
-                        ConfigurationProperties.DB_URL.toString(), ", ",
-                        ConfigurationProperties.DB_USER.toString(), ", ",
-                        ConfigurationProperties.DB_USER_PASS.toString(),
-                        "} are not set in ", TestGridConstants.TESTGRID_CONFIG_FILE,
-                        ". Using default properties in persistence.xml"));
-                entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName);
-            }
-            entityManagerFactoryMap.put(persistenceUnitName, entityManagerFactory);
+        if (entityManagerFactory != null) {
+            return entityManagerFactory;
         }
-        return entityManagerFactory;
+        return entityManagerFactoryMap.computeIfAbsent(persistenceUnitName,
+                EntityManagerHelper::createEntityManagerFactory);
     }
 
     /**
-     * Returns the refreshed result list.
+     * Creates the entity manager factory for the given persistence unit name.
      *
-     * @param entityManager Entity Manager object
-     * @param resultList    Result List of query execution
-     * @return List of refreshed results
+     * @param persistenceUnitName persistence unit name of the entity manager factory
+     * @return entity manager factory with the given persistence unit name
      */
-    public static <T> List<T> refreshResultList(EntityManager entityManager, List<T> resultList) {
-        if (!resultList.isEmpty()) {
-            for (T entity : resultList) {
-                entityManager.refresh(entity);
+    private static EntityManagerFactory createEntityManagerFactory(String persistenceUnitName) {
+        Map<String, String> persistenceMap = new HashMap<String, String>();
+        String dbUrl = ConfigurationContext.getProperty(ConfigurationProperties.DB_URL);
+        String dbUser = ConfigurationContext.getProperty(ConfigurationProperties.DB_USER);
+        String dbUserPass = ConfigurationContext.getProperty(ConfigurationProperties.DB_USER_PASS);
+        String tgEnvironment = ConfigurationContext.getProperty(ConfigurationProperties.TESTGRID_ENVIRONMENT);
+        addConnectionPoolProperties(persistenceMap);
+        addSharedCacheProperties(persistenceMap);
+        addBatchWritingProperties(persistenceMap);
+
+        if (dbUrl != null && dbUser != null && dbUserPass != null) {
+            //Override properties taken from persistence.xml
+            persistenceMap.put("javax.persistence.jdbc.url", dbUrl);
+            persistenceMap.put("javax.persistence.jdbc.user", dbUser);
+            persistenceMap.put("javax.persistence.jdbc.password", dbUserPass);
+
+            if ("local".equals(tgEnvironment)) {
+                persistenceMap.put("javax.persistence.jdbc.driver", "org.h2.Driver");
             }
+        } else {
+            logger.warn(StringUtil.concatStrings(
+                    "One or more database properties {",
+                    ConfigurationProperties.DB_URL.toString(), ", ",
+                    ConfigurationProperties.DB_USER.toString(), ", ",
+                    ConfigurationProperties.DB_USER_PASS.toString(),
+                    "} are not set in ", TestGridConstants.TESTGRID_CONFIG_FILE,
+                    ". Using default properties in persistence.xml"));
+        }
+        return Persistence.createEntityManagerFactory(persistenceUnitName, persistenceMap);
+    }
+
+    /**
+     * Adds the bounds of the internal JDBC connection pool to the given persistence properties.
+     * <p>
+     * All entity managers share this pool; a connection is held only for the duration of a query or a
+     * transaction, so the pool size bounds the number of concurrent database operations of this JVM.
+     *
+     * @param persistenceMap persistence properties to add the pool properties to
+     */
+    private static void addConnectionPoolProperties(Map<String, String> persistenceMap) {
+        String minConnections = ConfigurationContext.getProperty(ConfigurationProperties.DB_POOL_MIN_CONNECTIONS);
+        String maxConnections = ConfigurationContext.getProperty(ConfigurationProperties.DB_POOL_MAX_CONNECTIONS);
+        minConnections = StringUtil.isStringNullOrEmpty(minConnections) ? DEFAULT_POOL_MIN_CONNECTIONS : minConnections;
+        maxConnections = StringUtil.isStringNullOrEmpty(maxConnections) ? DEFAULT_POOL_MAX_CONNECTIONS : maxConnections;
+
+        persistenceMap.put(PersistenceUnitProperties.JDBC_CONNECTIONS_INITIAL, minConnections);
+        persistenceMap.put(PersistenceUnitProperties.JDBC_CONNECTIONS_MIN, minConnections);
+        persistenceMap.put(PersistenceUnitProperties.JDBC_CONNECTIONS_MAX, maxConnections);
+        persistenceMap.put(PersistenceUnitProperties.JDBC_READ_CONNECTIONS_MIN, minConnections);
+        persistenceMap.put(PersistenceUnitProperties.JDBC_READ_CONNECTIONS_MAX, maxConnections);
+    }
+
+    /**
+     * Enables JDBC batch writing so that inserts of the same table are sent to the database in batches of
+     * {@link #getBatchSize()} statements.
+     *
+     * @param persistenceMap persistence properties to add the batch writing properties to
+     */
+    private static void addBatchWritingProperties(Map<String, String> persistenceMap) {
+        persistenceMap.put(PersistenceUnitProperties.BATCH_WRITING, BatchWriting.JDBC);
+        persistenceMap.put(PersistenceUnitProperties.BATCH_WRITING_SIZE, String.valueOf(getBatchSize()));
+    }
+
+    /**
+     * Returns the number of rows to write to the database per JDBC batch.
+     *
+     * @return configured batch size, or the default batch size if not configured or invalid
+     */
+    public static int getBatchSize() {
+        String batchSize = ConfigurationContext.getProperty(ConfigurationProperties.DB_BATCH_SIZE);
+        if (StringUtil.isStringNullOrEmpty(batchSize)) {
+            return DEFAULT_BATCH_SIZE;
+        }
+        try {
+            int size = Integer.parseInt(batchSize.trim());
+            return size > 0 ? size : DEFAULT_BATCH_SIZE;
+        } catch (NumberFormatException e) {
+            logger.warn(StringUtil.concatStrings("Invalid value '", batchSize, "' for ",
+                    ConfigurationProperties.DB_BATCH_SIZE.toString(), ". Using default batch size ",
+                    DEFAULT_BATCH_SIZE));
+            return DEFAULT_BATCH_SIZE;
+        }
+    }
+
+    /**
+     * Registers the customizer which bounds the shared cache of the cacheable reference entities.
+     *
+     * @param persistenceMap persistence properties to add the cache properties to
+     */
+    private static void addSharedCacheProperties(Map<String, String> persistenceMap) {
+        for (Class<?> entityClass : CACHEABLE_ENTITIES) {
+            persistenceMap.put(PersistenceUnitProperties.DESCRIPTOR_CUSTOMIZER_ + entityClass.getSimpleName(),
+                    SharedCacheCustomizer.class.getName());
         }
-        return resultList;
     }
 
     /**
-     * Returns the refreshed result.
+     * Marks the given entity query to refresh the entities it returns with the data read by the query itself.
+     * <p>
+     * Entities already present in the persistence context of the current thread are overwritten with the
+     * selected rows, so callers see the latest committed state without issuing a refresh (an additional
+     * SELECT) per returned entity. The refresh is not cascaded to relationships already loaded in the
+     * persistence context.
      *
-     * @param entityManager Entity Manager object
-     * @param result        Result of query execution
-     * @return Refreshed result
+     * @param query entity query to mark
+     * @param <Q>   type of the query
+     * @return the given query
      */
-    public static <T> T refreshResult(EntityManager entityManager, T result) {
-        entityManager.refresh(result);
-        return result;
+    public static <Q extends Query> Q refreshOnRead(Q query) {
+        query.setHint(QueryHints.REFRESH, HintValues.TRUE);
+        query.setHint(QueryHints.REFRESH_CASCADE, CascadePolicy.NoCascading);
+        return query;
     }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.wso2.testgrid.common.config.ConfigurationContext;
+import org.wso2.testgrid.common.config.ConfigurationContext.ConfigurationProperties;
+import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.dao.TestGridDAOException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A process-wide, bounded and time limited cache for slow-changing reference data such as products, deployment
+ * patterns and infrastructure parameters.
+ * <p>
+ * Entries expire after {@link ConfigurationProperties#REFERENCE_DATA_CACHE_TTL_SECONDS} so that changes made by
+ * other TestGrid processes become visible, and are invalidated explicitly when the data is written through a
+ * unit of work of this process. Values that are not found are not cached.
+ *
+ * @param <K> type of the cache key
+ * @param <V> type of the cached value
+ * @since 1.0.8
+ */
+public class ReferenceDataCache<K, V> {
+
+    private static final long DEFAULT_TTL_SECONDS = 60;
+    private static final long DEFAULT_MAX_SIZE = 1000;
+    private static final Map<String, ReferenceDataCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    private final Cache<K, V> cache;
+
+    private ReferenceDataCache() {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(getTimeToLiveSeconds(), TimeUnit.SECONDS)
+                .maximumSize(getMaxSize())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache registered under the given name, creating it if it does not exist.
+     *
+     * @param name name of the cache
+     * @param <K>  type of the cache key
+     * @param <V>  type of the cached value
+     * @return cache registered under the given name
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ReferenceDataCache<K, V> getCache(String name) {
+        return (ReferenceDataCache<K, V>) caches.computeIfAbsent(name, cacheName -> new ReferenceDataCache<>());
+    }
+
+    /**
+     * Returns the cached value for the given key. If the value is not cached, it is loaded using the given loader
+     * and cached unless the loader returns {@code null}.
+     *
+     * @param key    cache key
+     * @param loader loader used to load the value on a cache miss
+     * @return cached or loaded value, {@code null} if the loader returns {@code null}
+     * @throws TestGridDAOException thrown when error on loading the value
+     */
+    public V get(K key, Loader<V> loader) throws TestGridDAOException {
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            value = loader.load();
+            if (value != null) {
+                cache.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes all the entries of this cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the hit, miss and size statistics of all the reference data caches.
+     *
+     * @return map of statistic name to value
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        caches.forEach((name, referenceDataCache) -> {
+            CacheStats stats = referenceDataCache.cache.stats();
+            String prefix = StringUtil.concatStrings(name, ".");
+            statistics.put(prefix + "hits", stats.hitCount());
+            statistics.put(prefix + "misses", stats.missCount());
+            statistics.put(prefix + "evictions", stats.evictionCount());
+            statistics.put(prefix + "size", referenceDataCache.cache.size());
+        });
+        return statistics;
+    }
+
+    /**
+     * Returns the time to live of the cached reference data in seconds.
+     *
+     * @return time to live in seconds
+     */
+    static long getTimeToLiveSeconds() {
+        return getLongProperty(ConfigurationProperties.REFERENCE_DATA_CACHE_TTL_SECONDS, DEFAULT_TTL_SECONDS);
+    }
+
+    /**
+     * Returns the maximum number of entries cached per cache.
+     *
+     * @return maximum number of entries
+     */
+    static int getMaxSize() {
+        return (int) getLongProperty(ConfigurationProperties.REFERENCE_DATA_CACHE_MAX_SIZE, DEFAULT_MAX_SIZE);
+    }
+
+    private static long getLongProperty(ConfigurationProperties property, long defaultValue) {
+        String value = ConfigurationContext.getProperty(property);
+        if (StringUtil.isStringNullOrEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Loads a value from the database on a cache miss.
+     *
+     * @param <V> type of the loaded value
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        /**
+         * Loads the value.
+         *
+         * @return loaded value, {@code null} if there is no value
+         * @throws TestGridDAOException thrown when error on loading the value
+         */
+        V load() throws TestGridDAOException;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.cache;
+
+import org.eclipse.persistence.config.DescriptorCustomizer;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the time to live and size bounds of the reference data cache to the shared (second-level) entity cache
+ * of a cacheable entity.
+ *
+ * @since 1.0.8
+ */
+public class SharedCacheCustomizer implements DescriptorCustomizer {
+
+    @Override
+    public void customize(ClassDescriptor descriptor) {
+        long timeToLiveMillis = TimeUnit.SECONDS.toMillis(ReferenceDataCache.getTimeToLiveSeconds());
+        descriptor.setCacheInvalidationPolicy(new TimeToLiveCacheInvalidationPolicy(timeToLiveMillis));
+        descriptor.setIdentityMapSize(ReferenceDataCache.getMaxSize());
+    }
+}
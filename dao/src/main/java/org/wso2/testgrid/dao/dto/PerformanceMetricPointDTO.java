@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.dto;
+
+import java.sql.Timestamp;
+
+/**
+ * Defines a model object of the value of a performance metric in one build, which is a point of the time series
+ * of the metric across builds.
+ *
+ * @since 1.0.0
+ */
+public class PerformanceMetricPointDTO {
+
+    private String testPlanId;
+    private int testRunNumber;
+    private Timestamp timestamp;
+    private double value;
+
+    /**
+     * Returns the id of the test plan (build) the value was measured in.
+     *
+     * @return test plan id
+     */
+    public String getTestPlanId() {
+        return testPlanId;
+    }
+
+    public void setTestPlanId(String testPlanId) {
+        this.testPlanId = testPlanId;
+    }
+
+    /**
+     * Returns the test run number of the build.
+     *
+     * @return test run number
+     */
+    public int getTestRunNumber() {
+        return testRunNumber;
+    }
+
+    public void setTestRunNumber(int testRunNumber) {
+        this.testRunNumber = testRunNumber;
+    }
+
+    /**
+     * Returns the time the build was created.
+     *
+     * @return created time of the build
+     */
+    public Timestamp getTimestamp() {
+        return timestamp == null ? null : new Timestamp(timestamp.getTime());
+    }
+
+    public void setTimestamp(Timestamp timestamp) {
+        this.timestamp = timestamp == null ? null : new Timestamp(timestamp.getTime());
+    }
+
+    /**
+     * Returns the value of the metric in the build.
+     *
+     * @return metric value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+}
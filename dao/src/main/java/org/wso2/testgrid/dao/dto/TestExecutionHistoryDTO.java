@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.dto;
+
+/**
+ * Defines a model object of the number of passed, failed and skipped test plans of a product in one day.
+ *
+ * @since 1.0.0
+ */
+public class TestExecutionHistoryDTO {
+
+    private String date;
+    private int passedTestPlans;
+    private int failedTestPlans;
+    private int skippedTestPlans;
+
+    /**
+     * Returns the day the test plans were executed in.
+     *
+     * @return date in yyyy-MM-dd format
+     */
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    /**
+     * Returns the number of test plans that passed in the day.
+     *
+     * @return number of passed test plans
+     */
+    public int getPassedTestPlans() {
+        return passedTestPlans;
+    }
+
+    public void setPassedTestPlans(int passedTestPlans) {
+        this.passedTestPlans = passedTestPlans;
+    }
+
+    /**
+     * Returns the number of test plans that failed in the day.
+     *
+     * @return number of failed test plans
+     */
+    public int getFailedTestPlans() {
+        return failedTestPlans;
+    }
+
+    public void setFailedTestPlans(int failedTestPlans) {
+        this.failedTestPlans = failedTestPlans;
+    }
+
+    /**
+     * Returns the number of test plans of the day that neither passed nor failed.
+     *
+     * @return number of skipped test plans
+     */
+    public int getSkippedTestPlans() {
+        return skippedTestPlans;
+    }
+
+    public void setSkippedTestPlans(int skippedTestPlans) {
+        this.skippedTestPlans = skippedTestPlans;
+    }
+}
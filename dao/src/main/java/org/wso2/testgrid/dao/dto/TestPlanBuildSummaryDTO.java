@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.dto;
+
+import org.wso2.testgrid.common.TestPlan;
+
+/**
+ * Defines a model object of the latest builds of a distinct infrastructure combination and deployment pattern.
+ *
+ * @since 1.0.0
+ */
+public class TestPlanBuildSummaryDTO {
+
+    private TestPlan lastBuild;
+    private TestPlan lastFailure;
+    private TestPlan lastSuccess;
+
+    /**
+     * Returns the build with the highest test run number.
+     *
+     * @return last build
+     */
+    public TestPlan getLastBuild() {
+        return lastBuild;
+    }
+
+    public void setLastBuild(TestPlan lastBuild) {
+        this.lastBuild = lastBuild;
+    }
+
+    /**
+     * Returns the most recently modified failed build.
+     *
+     * @return last failed build, or {@code null} if no build has failed
+     */
+    public TestPlan getLastFailure() {
+        return lastFailure;
+    }
+
+    public void setLastFailure(TestPlan lastFailure) {
+        this.lastFailure = lastFailure;
+    }
+
+    /**
+     * Returns the most recently modified successful build.
+     *
+     * @return last successful build, or {@code null} if no build has succeeded
+     */
+    public TestPlan getLastSuccess() {
+        return lastSuccess;
+    }
+
+    public void setLastSuccess(TestPlan lastSuccess) {
+        this.lastSuccess = lastSuccess;
+    }
+}
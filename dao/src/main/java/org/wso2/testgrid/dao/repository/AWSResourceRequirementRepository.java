@@ -69,11 +69,12 @@ public class AWSResourceRequirementRepository extends
         try {
             EntityTransaction transaction = entityManager.getTransaction();
             transaction.begin();
-            resultList = entityManager.createNativeQuery(selectQuery, AWSResourceRequirement.class)
+            resultList = EntityManagerHelper.refreshOnRead(
+                    entityManager.createNativeQuery(selectQuery, AWSResourceRequirement.class))
                     .setParameter(1, resourceRequirementList.get(0).getCfnMD5Hash())
                     .getResultList();
             if (!resultList.isEmpty()) {
-                resourceRequirementList = EntityManagerHelper.refreshResultList(entityManager, resultList);
+                resourceRequirementList = resultList;
             }
             for (AWSResourceRequirement resourceRequirement : resourceRequirementList) {
                 entityManager.persist(resourceRequirement);
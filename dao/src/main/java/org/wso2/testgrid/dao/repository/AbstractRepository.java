@@ -72,6 +72,7 @@ abstract class AbstractRepository<T> {
             entityManager.getTransaction().commit();
             return merge;
         } catch (Exception e) {
+            rollbackActiveTransaction();
             throw new TestGridDAOException("Error occurred when persisting entity in database.", e);
         }
     }
@@ -92,10 +93,21 @@ abstract class AbstractRepository<T> {
             // Commit transaction
             entityManager.getTransaction().commit();
         } catch (Exception e) {
+            rollbackActiveTransaction();
             throw new TestGridDAOException("Error occurred when deleting entry from database.", e);
         }
     }
 
+    /**
+     * Rolls back the transaction of the entity manager if it is still active, so that the entity manager of the
+     * current thread can be used for the next unit of work.
+     */
+    void rollbackActiveTransaction() {
+        if (entityManager.getTransaction().isActive()) {
+            entityManager.getTransaction().rollback();
+        }
+    }
+
     /**
      * Find a specific entity from database of the given class type for the given primary key.
      *
@@ -133,8 +145,8 @@ abstract class AbstractRepository<T> {
             params.forEach((key, value) -> predicates.add(criteriaBuilder.equal(root.get(key), value)));
             //Where criteria
             criteriaQuery.where(criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()])));
-            TypedQuery<T> query = entityManager.createQuery(criteriaQuery);
-            return EntityManagerHelper.refreshResultList(entityManager, query.getResultList());
+            TypedQuery<T> query = EntityManagerHelper.refreshOnRead(entityManager.createQuery(criteriaQuery));
+            return query.getResultList();
         } catch (Exception e) {
             throw new TestGridDAOException(StringUtil
                     .concatStrings("Error when searching for entities with the params: ", params), e);
@@ -159,8 +171,8 @@ abstract class AbstractRepository<T> {
             // Select all criteria
             Root<T> rootEntry = criteriaQuery.from(entityType);
             CriteriaQuery<T> criteriaQueryAll = criteriaQuery.select(rootEntry);
-            TypedQuery<T> allQuery = entityManager.createQuery(criteriaQueryAll);
-            return EntityManagerHelper.refreshResultList(entityManager, allQuery.getResultList());
+            TypedQuery<T> allQuery = EntityManagerHelper.refreshOnRead(entityManager.createQuery(criteriaQueryAll));
+            return allQuery.getResultList();
         } catch (Exception e) {
             throw new TestGridDAOException("Error occurred when searching for entity.", e);
         }
@@ -204,7 +216,7 @@ abstract class AbstractRepository<T> {
             query = entityManager.createQuery(criteriaQuery);
             query.setParameter(parameterExpression, entry.getValue());
         }
-        return EntityManagerHelper.refreshResultList(entityManager, query.getResultList());
+        return EntityManagerHelper.refreshOnRead(query).getResultList();
     }
 
     /**
@@ -217,7 +229,7 @@ abstract class AbstractRepository<T> {
     List<Object> executeTypedQuery(String nativeQuery) throws TestGridDAOException {
         try {
             Query query = entityManager.createNativeQuery(nativeQuery);
-            return EntityManagerHelper.refreshResultList(entityManager, query.getResultList());
+            return query.getResultList();
         } catch (Exception e) {
             throw new TestGridDAOException(StringUtil.concatStrings("Error on executing the native SQL query [",
                     nativeQuery, "]"), e);
@@ -130,10 +130,11 @@ public class DeploymentPatternRepository extends AbstractRepository<DeploymentPa
                 "AS tp ON dp.id = tp.DEPLOYMENTPATTERN_id where tp.created_timestamp <= '" + date + "' AND " +
                 "dp.PRODUCT_id = '" + productId + "' GROUP BY dp.id;";
         try {
-            Query query = entityManager.createNativeQuery(queryStr, DeploymentPattern.class);
+            Query query = EntityManagerHelper.refreshOnRead(
+                    entityManager.createNativeQuery(queryStr, DeploymentPattern.class));
             @SuppressWarnings("unchecked")
             List<DeploymentPattern> resultList = (List<DeploymentPattern>) query.getResultList();
-            return EntityManagerHelper.refreshResultList(entityManager, resultList);
+            return resultList;
         } catch (Exception e) {
             throw new TestGridDAOException(StringUtil.concatStrings("Error on executing the native SQL" +
                     " query [", queryStr, "]"), e);
@@ -157,7 +158,7 @@ public class DeploymentPatternRepository extends AbstractRepository<DeploymentPa
         try {
             Query query = entityManager.createNativeQuery(queryStr);
             @SuppressWarnings("unchecked")
-            List resultList = EntityManagerHelper.refreshResultList(entityManager, query.getResultList());
+            List resultList = query.getResultList();
             return this.getDeploymentPatternTestFailureStats(resultList);
         } catch (Exception e) {
             throw new TestGridDAOException(StringUtil.concatStrings("Error on executing the native SQL " +
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import org.wso2.testgrid.common.PerformanceMetric;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.dao.EntityManagerHelper;
+import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.dto.PerformanceMetricPointDTO;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+
+/**
+ * Repository class for {@link PerformanceMetric} table.
+ *
+ * @since 1.0.0
+ */
+public class PerformanceMetricRepository extends AbstractRepository<PerformanceMetric> {
+
+    /**
+     * Constructs an instance of the repository class.
+     *
+     * @param entityManager {@link EntityManager} instance
+     */
+    public PerformanceMetricRepository(EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    /**
+     * Replaces the performance metrics of the given scenario of the given test plan with the given metrics, in a
+     * single transaction.
+     * <p>
+     * The metrics are inserted with JDBC batch writing through a short-lived {@link EntityManager}, which is flushed
+     * and cleared after every {@code batchSize} metrics so that the memory used does not grow with the number of
+     * metrics. The persistence context of this repository, and the given test plan, are left as they are.
+     *
+     * @param testPlan     test plan (build) the metrics were measured in
+     * @param scenarioName name of the test scenario the metrics belong to
+     * @param metrics      metrics to persist
+     * @param batchSize    number of metrics to insert per flush
+     * @throws TestGridDAOException thrown when error on persisting the metrics
+     */
+    public void persistInBatches(TestPlan testPlan, String scenarioName, List<PerformanceMetric> metrics,
+                                 int batchSize) throws TestGridDAOException {
+        EntityManager batchEntityManager = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            batchEntityManager.getTransaction().begin();
+
+            // Remove the metrics of an earlier attempt to persist the same results
+            batchEntityManager.createQuery("DELETE FROM PerformanceMetric m "
+                    + "WHERE m.testPlan.id = :testPlanId AND m.scenarioName = :scenarioName")
+                    .setParameter("testPlanId", testPlan.getId())
+                    .setParameter("scenarioName", scenarioName)
+                    .executeUpdate();
+
+            TestPlan testPlanReference = batchEntityManager.getReference(TestPlan.class, testPlan.getId());
+            int count = 0;
+            for (PerformanceMetric metric : metrics) {
+                metric.setTestPlan(testPlanReference);
+                batchEntityManager.persist(metric);
+                if (++count % batchSize == 0) {
+                    batchEntityManager.flush();
+                    batchEntityManager.clear();
+                    testPlanReference = batchEntityManager.getReference(TestPlan.class, testPlan.getId());
+                }
+            }
+
+            // Commit transaction
+            batchEntityManager.getTransaction().commit();
+        } catch (Exception e) {
+            if (batchEntityManager.getTransaction().isActive()) {
+                batchEntityManager.getTransaction().rollback();
+            }
+            for (PerformanceMetric metric : metrics) {
+                metric.setId(null);
+            }
+            throw new TestGridDAOException(StringUtil.concatStrings("Error occurred when persisting performance "
+                    + "metrics of test scenario ", scenarioName), e);
+        } finally {
+            batchEntityManager.close();
+            for (PerformanceMetric metric : metrics) {
+                metric.setTestPlan(testPlan);
+            }
+        }
+    }
+
+    /**
+     * Returns the performance metrics measured in the given test plan, ordered by scenario, dimensions and metric.
+     *
+     * @param testPlanId id of the test plan
+     * @return performance metrics of the test plan
+     */
+    public List<PerformanceMetric> findByTestPlan(String testPlanId) {
+        String sql = "SELECT * FROM performance_metric WHERE TESTPLAN_id=? "
+                + "ORDER BY scenario_name, dimensions, metric_name";
+        @SuppressWarnings("unchecked")
+        List<PerformanceMetric> metrics = (List<PerformanceMetric>) EntityManagerHelper
+                .refreshOnRead(entityManager.createNativeQuery(sql, PerformanceMetric.class))
+                .setParameter(1, testPlanId)
+                .getResultList();
+        return metrics;
+    }
+
+    /**
+     * Returns the values of a performance metric in the builds of the infrastructure combination and deployment
+     * pattern of the given test plan, up to and including the given test plan.
+     * <p>
+     * The series is read from the index on the scenario, metric and hash of the dimensions, so it does not depend
+     * on the number of other metrics stored. The dimensions themselves are compared as well, so that metrics whose
+     * dimensions share a hash are not mixed. Builds without a test run number are taken as run zero.
+     *
+     * @param testPlan     test plan whose builds are queried
+     * @param scenarioName name of the test scenario
+     * @param metricName   name of the metric
+     * @param dimensions   dimensions of the metric
+     * @param limit        maximum number of the most recent builds to return
+     * @return values of the metric ordered by the test run number, oldest first
+     */
+    public List<PerformanceMetricPointDTO> getMetricHistory(TestPlan testPlan, String scenarioName,
+                                                            String metricName, String dimensions, int limit) {
+        String sql = "SELECT tp.id, COALESCE(tp.test_run_number, 0) AS run_number, tp.created_timestamp, "
+                + "pm.metric_value "
+                + "FROM performance_metric pm INNER JOIN test_plan tp ON pm.TESTPLAN_id=tp.id "
+                + "WHERE pm.scenario_name=? AND pm.metric_name=? AND pm.dimensions_hash=? AND pm.dimensions=? "
+                + "AND tp.DEPLOYMENTPATTERN_id=? AND tp.infra_parameters=? AND COALESCE(tp.test_run_number, 0)<=? "
+                + "ORDER BY run_number DESC LIMIT ?";
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = (List<Object[]>) entityManager.createNativeQuery(sql)
+                .setParameter(1, scenarioName)
+                .setParameter(2, metricName)
+                .setParameter(3, PerformanceMetric.hashDimensions(dimensions))
+                .setParameter(4, dimensions)
+                .setParameter(5, testPlan.getDeploymentPattern().getId())
+                .setParameter(6, testPlan.getInfraParameters())
+                .setParameter(7, testPlan.getTestRunNumber())
+                .setParameter(8, limit)
+                .getResultList();
+
+        List<PerformanceMetricPointDTO> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            PerformanceMetricPointDTO point = new PerformanceMetricPointDTO();
+            point.setTestPlanId((String) row[0]);
+            point.setTestRunNumber(((Number) row[1]).intValue());
+            point.setTimestamp((Timestamp) row[2]);
+            point.setValue(((Number) row[3]).doubleValue());
+            points.add(point);
+        }
+        Collections.reverse(points);
+        return points;
+    }
+}
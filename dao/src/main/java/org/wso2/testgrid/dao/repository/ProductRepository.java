@@ -22,7 +22,6 @@ import org.wso2.testgrid.common.Product;
 import org.wso2.testgrid.common.ProductTestStatus;
 import org.wso2.testgrid.common.Status;
 import org.wso2.testgrid.common.util.StringUtil;
-import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.SortOrder;
 import org.wso2.testgrid.dao.TestGridDAOException;
 
@@ -132,7 +131,7 @@ public class ProductRepository extends AbstractRepository<Product> {
         try {
             Query query = entityManager.createNativeQuery(queryStr);
             @SuppressWarnings("unchecked")
-            List resultList = EntityManagerHelper.refreshResultList(entityManager, query.getResultList());
+            List resultList = query.getResultList();
             return this.getProductTestStatuses(resultList);
         } catch (Exception e) {
             throw new TestGridDAOException(StringUtil.concatStrings("Error on executing the native SQL" +
@@ -173,5 +172,11 @@ public class ProductRepository extends AbstractRepository<Product> {
                 StringUtil.concatStrings(queryStr, "'", timestamp, "' where id = '", productId, "';")).executeUpdate();
         // Commit transaction
         entityManager.getTransaction().commit();
+
+        // Native updates bypass the persistence context and the shared entity cache, hence reload the product
+        Product product = entityManager.find(Product.class, productId);
+        if (product != null) {
+            entityManager.refresh(product);
+        }
     }
 }
@@ -19,9 +19,13 @@ package org.wso2.testgrid.dao.repository;
 
 import com.google.common.collect.LinkedListMultimap;
 import org.wso2.testgrid.common.TestCase;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.dao.SortOrder;
 import org.wso2.testgrid.dao.TestGridDAOException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import javax.persistence.EntityManager;
@@ -53,6 +57,87 @@ public class TestCaseRepository extends AbstractRepository<TestCase> {
         return super.persist(entity);
     }
 
+    /**
+     * Persists the given {@link TestScenario} and the given test cases of it in a single transaction.
+     * <p>
+     * The rows are written through a short lived entity manager of the same factory, so that the persistence
+     * context of the caller is left as it is. The scenario row is inserted if the scenario has no id yet, with its
+     * test plan referenced by id so that the test plan is not merged. Otherwise only the status of the existing
+     * scenario row is updated, and the test cases already stored for it are kept. The test cases are inserted with
+     * JDBC batch writing against a reference to the scenario, and the entity manager is flushed and cleared after
+     * every {@code batchSize} test cases so that the memory used does not grow with the number of test cases.
+     * <p>
+     * The given test case instances themselves are persisted, and the generated id of the test scenario is set on
+     * the given test scenario, so that merging the test plan of the scenario later on updates these rows instead
+     * of inserting them again.
+     *
+     * @param testScenario test scenario the test cases belong to
+     * @param testCases    test cases to persist
+     * @param batchSize    number of test cases to insert per flush
+     * @return the given {@link TestScenario} instance, with its id set
+     * @throws TestGridDAOException thrown when error on persisting the test scenario or the test cases
+     */
+    public TestScenario persistInBatches(TestScenario testScenario, List<TestCase> testCases, int batchSize)
+            throws TestGridDAOException {
+        List<TestCase> scenarioTestCases = testScenario.getTestCases();
+        TestPlan testPlan = testScenario.getTestPlan();
+        boolean newScenario = testScenario.getId() == null;
+        EntityManager batchEntityManager = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            batchEntityManager.getTransaction().begin();
+
+            if (newScenario) {
+                // Insert the scenario row only; test cases are inserted in batches below
+                testScenario.setTestCases(new ArrayList<>());
+                testScenario.setTestPlan(batchEntityManager.getReference(TestPlan.class, testPlan.getId()));
+                batchEntityManager.persist(testScenario);
+                batchEntityManager.flush();
+            } else {
+                batchEntityManager.createQuery("UPDATE TestScenario s SET s.status = :status WHERE s.id = :id")
+                        .setParameter("status", testScenario.getStatus())
+                        .setParameter("id", testScenario.getId())
+                        .executeUpdate();
+            }
+            String testScenarioId = testScenario.getId();
+            batchEntityManager.clear();
+
+            TestScenario scenarioReference = batchEntityManager.getReference(TestScenario.class, testScenarioId);
+            int count = 0;
+            for (TestCase testCase : testCases) {
+                testCase.setTestScenario(scenarioReference);
+                batchEntityManager.persist(testCase);
+                if (++count % batchSize == 0) {
+                    batchEntityManager.flush();
+                    batchEntityManager.clear();
+                    scenarioReference = batchEntityManager.getReference(TestScenario.class, testScenarioId);
+                }
+            }
+
+            // Commit transaction
+            batchEntityManager.getTransaction().commit();
+            return testScenario;
+        } catch (Exception e) {
+            if (batchEntityManager.getTransaction().isActive()) {
+                batchEntityManager.getTransaction().rollback();
+            }
+            if (newScenario) {
+                testScenario.setId(null);
+            }
+            for (TestCase testCase : testCases) {
+                testCase.setId(null);
+            }
+            throw new TestGridDAOException(StringUtil.concatStrings("Error occurred when persisting test cases of "
+                    + "test scenario ", testScenario.getName()), e);
+        } finally {
+            batchEntityManager.close();
+            testScenario.setTestPlan(testPlan);
+            testScenario.setTestCases(scenarioTestCases);
+            for (TestCase testCase : testCases) {
+                testCase.setTestScenario(testScenario);
+            }
+        }
+    }
+
     /**
      * Removes an {@link TestCase} instance from database.
      *
@@ -22,17 +22,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.Product;
 import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestPlanStatus;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.SortOrder;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.dto.TestCaseFailureResultDTO;
+import org.wso2.testgrid.dao.dto.TestExecutionHistoryDTO;
+import org.wso2.testgrid.dao.dto.TestPlanBuildSummaryDTO;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -138,10 +142,10 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
                 "infra_parameters) AS r INNER JOIN test_plan AS tp on tp.infra_parameters = r.infra_parameters AND " +
                 "tp.created_timestamp = r.maxtime AND tp.DEPLOYMENTPATTERN_id = r.DEPLOYMENTPATTERN_id;";
         try {
-            Query query = entityManager.createNativeQuery(queryStr, TestPlan.class);
+            Query query = EntityManagerHelper.refreshOnRead(entityManager.createNativeQuery(queryStr, TestPlan.class));
             @SuppressWarnings("unchecked")
             List<TestPlan> resultList = (List<TestPlan>) query.getResultList();
-            return EntityManagerHelper.refreshResultList(entityManager, resultList);
+            return resultList;
         } catch (Exception e) {
             throw new TestGridDAOException(StringUtil.concatStrings("Error on executing the native SQL" +
                     " query [", queryStr, "]"), e);
@@ -162,11 +166,11 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
                 "PRODUCT_id = ?) GROUP BY tp.infra_parameters,dp.name) as x ON " +
                 "t.infra_parameters=x.infra_parameters AND t.modified_timestamp=x.time ORDER BY time DESC LIMIT 1";
 
-        List resultList = entityManager.createNativeQuery(sql, TestPlan.class)
+        List resultList = EntityManagerHelper.refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
                 .setParameter(1, product.getId())
                 .getResultList();
         if (!resultList.isEmpty()) {
-            return (TestPlan) EntityManagerHelper.refreshResult(entityManager, resultList.get(0));
+            return (TestPlan) resultList.get(0);
         } else {
             return null;
         }
@@ -183,13 +187,13 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
         String sql = "select * from test_plan where infra_parameters= ?  AND DEPLOYMENTPATTERN_id=? " +
                 " AND status!='RUNNING' order by modified_timestamp desc limit 1";
 
-        List resultList = entityManager.createNativeQuery(sql, TestPlan.class)
+        List resultList = EntityManagerHelper.refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
                 .setParameter(1, testPlan.getInfraParameters())
                 .setParameter(2, testPlan.getDeploymentPattern().getId())
                 .getResultList();
 
         if (!resultList.isEmpty()) {
-            return (TestPlan) EntityManagerHelper.refreshResult(entityManager, resultList.get(0));
+            return (TestPlan) resultList.get(0);
         } else {
             return null;
         }
@@ -209,11 +213,11 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
                 "group by tp.infra_parameters,dp.name) AS x on t.infra_parameters=x.infra_parameters " +
                 "AND t.modified_timestamp=x.time order by time desc limit 1";
 
-        List resultList = entityManager.createNativeQuery(sql, TestPlan.class)
+        List resultList = EntityManagerHelper.refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
                 .setParameter(1, product.getId())
                 .getResultList();
         if (!resultList.isEmpty()) {
-            return (TestPlan) EntityManagerHelper.refreshResult(entityManager, resultList.get(0));
+            return (TestPlan) resultList.get(0);
         } else {
             return null;
         }
@@ -249,7 +253,8 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
                 sql.append("?, ");
             }
             sql.append("?);");
-            Query query = entityManager.createNativeQuery(sql.toString(), TestPlan.class);
+            Query query = EntityManagerHelper.refreshOnRead(
+                    entityManager.createNativeQuery(sql.toString(), TestPlan.class));
             int index = 1;
             for (int i = 0; i < 2; i++) {
                 for (String s : deploymentIds) {
@@ -258,7 +263,7 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
             }
             @SuppressWarnings("unchecked")
             List<TestPlan> resultList = (List<TestPlan>) query.getResultList();
-            return EntityManagerHelper.refreshResultList(entityManager, resultList);
+            return resultList;
         }
     }
 
@@ -293,7 +298,8 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
                 sql.append("?, ");
             }
             sql.append("?);");
-            Query query = entityManager.createNativeQuery(sql.toString(), TestPlan.class);
+            Query query = EntityManagerHelper.refreshOnRead(
+                    entityManager.createNativeQuery(sql.toString(), TestPlan.class));
             int index = 1;
             for (int i = 0; i < 2; i++) {
                 for (String s : deploymentIds) {
@@ -302,10 +308,70 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
             }
             @SuppressWarnings("unchecked")
             List<TestPlan> resultList = (List<TestPlan>) query.getResultList();
-            return EntityManagerHelper.refreshResultList(entityManager, resultList);
+            return resultList;
         }
     }
 
+    /**
+     * This method returns the last build, the last failed build and the last successful build of every distinct
+     * infrastructure combination and deployment pattern of a given product, in a single query.
+     * <p>
+     * As in {@link #getLatestTestPlans(Product)}, the last build is the one with the highest test run number; test
+     * plans without a test run number count as run number 0 and the most recently modified of them is taken.
+     *
+     * @param product the product being queried
+     * @return a list of {@link TestPlanBuildSummaryDTO}, one per infrastructure combination and deployment pattern
+     */
+    public List<TestPlanBuildSummaryDTO> getBuildSummaries(Product product) {
+        String sql = "SELECT tp.* FROM test_plan tp INNER JOIN (SELECT t.DEPLOYMENTPATTERN_id, t.infra_parameters, "
+                + "MAX(COALESCE(t.test_run_number, 0)) AS last_build, "
+                + "MAX(CASE WHEN t.status='FAIL' THEN t.modified_timestamp END) AS last_failure, "
+                + "MAX(CASE WHEN t.status='SUCCESS' THEN t.modified_timestamp END) AS last_success "
+                + "FROM test_plan t INNER JOIN deployment_pattern dp ON t.DEPLOYMENTPATTERN_id=dp.id "
+                + "WHERE dp.PRODUCT_id=? GROUP BY t.DEPLOYMENTPATTERN_id, t.infra_parameters) AS x "
+                + "ON tp.DEPLOYMENTPATTERN_id=x.DEPLOYMENTPATTERN_id AND tp.infra_parameters=x.infra_parameters "
+                + "AND (COALESCE(tp.test_run_number, 0)=x.last_build "
+                + "OR (tp.status='FAIL' AND tp.modified_timestamp=x.last_failure) "
+                + "OR (tp.status='SUCCESS' AND tp.modified_timestamp=x.last_success)) "
+                + "ORDER BY tp.DEPLOYMENTPATTERN_id, tp.infra_parameters";
+
+        @SuppressWarnings("unchecked")
+        List<TestPlan> testPlans = (List<TestPlan>) EntityManagerHelper
+                .refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
+                .setParameter(1, product.getId())
+                .getResultList();
+
+        Map<String, TestPlanBuildSummaryDTO> summaries = new LinkedHashMap<>();
+        for (TestPlan testPlan : testPlans) {
+            String key = StringUtil.concatStrings(testPlan.getDeploymentPattern().getId(), "|",
+                    testPlan.getInfraParameters());
+            TestPlanBuildSummaryDTO summary = summaries.computeIfAbsent(key, k -> new TestPlanBuildSummaryDTO());
+            if (isLaterBuild(testPlan, summary.getLastBuild())) {
+                summary.setLastBuild(testPlan);
+            }
+            if (TestPlanStatus.FAIL.equals(testPlan.getStatus())
+                    && isModifiedAfter(testPlan, summary.getLastFailure())) {
+                summary.setLastFailure(testPlan);
+            } else if (TestPlanStatus.SUCCESS.equals(testPlan.getStatus())
+                    && isModifiedAfter(testPlan, summary.getLastSuccess())) {
+                summary.setLastSuccess(testPlan);
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    private static boolean isLaterBuild(TestPlan testPlan, TestPlan other) {
+        if (other == null || testPlan.getTestRunNumber() > other.getTestRunNumber()) {
+            return true;
+        }
+        // Plans without a test run number are ordered by their modified time
+        return testPlan.getTestRunNumber() == other.getTestRunNumber() && isModifiedAfter(testPlan, other);
+    }
+
+    private static boolean isModifiedAfter(TestPlan testPlan, TestPlan other) {
+        return other == null || testPlan.getModifiedTimestamp().after(other.getModifiedTimestamp());
+    }
+
     /**
      * This method finds the last failed build for a given infrastructure combination of a TestPlan.
      *
@@ -316,13 +382,13 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
         String sql = "select * from test_plan where infra_parameters= ?  AND DEPLOYMENTPATTERN_id=? " +
                 " AND status='FAIL' order by modified_timestamp desc limit 1";
 
-        List resultList = entityManager.createNativeQuery(sql, TestPlan.class)
+        List resultList = EntityManagerHelper.refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
                 .setParameter(1, testPlan.getInfraParameters())
                 .setParameter(2, testPlan.getDeploymentPattern().getId())
                 .getResultList();
 
         if (!resultList.isEmpty()) {
-            return (TestPlan) EntityManagerHelper.refreshResult(entityManager, resultList.get(0));
+            return (TestPlan) resultList.get(0);
         } else {
             return null;
         }
@@ -336,17 +402,17 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
      * @return a List of {@link TestPlan} representing the history of that test plan
      */
     public List<TestPlan> getTestPlanHistory(TestPlan testPlan) {
-        String sql = " select t.* from test_plan t inner join deployment_pattern dp inner " +
-                "join product p on p.id=dp.PRODUCT_id and dp.id=t.DEPLOYMENTPATTERN_id " +
-                "where t.infra_parameters=? AND dp.id=? AND p.id=? ORDER BY modified_timestamp DESC";
+        // The deployment pattern determines the product, so no joins are required
+        String sql = "select t.* from test_plan t where t.infra_parameters=? AND t.DEPLOYMENTPATTERN_id=? " +
+                "ORDER BY modified_timestamp DESC";
 
         @SuppressWarnings("unchecked")
-        List<TestPlan> resultList = (List<TestPlan>) entityManager.createNativeQuery(sql, TestPlan.class)
+        List<TestPlan> resultList = (List<TestPlan>) EntityManagerHelper
+                .refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
                 .setParameter(1, testPlan.getInfraParameters())
                 .setParameter(2, testPlan.getDeploymentPattern().getId())
-                .setParameter(3, testPlan.getDeploymentPattern().getProduct().getId())
                 .getResultList();
-        return EntityManagerHelper.refreshResultList(entityManager, resultList);
+        return resultList;
     }
 
     /**
@@ -361,9 +427,10 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
                 "select t.* from test_plan t where t.created_timestamp < (NOW() - INTERVAL ",
                 duration , " ", timeUnit, ") and (t.status = 'PENDING' or t.status = 'RUNNING') ");
         @SuppressWarnings("unchecked")
-        List<TestPlan> resultList = (List<TestPlan>) entityManager.createNativeQuery(sql, TestPlan.class)
+        List<TestPlan> resultList = (List<TestPlan>) EntityManagerHelper
+                .refreshOnRead(entityManager.createNativeQuery(sql, TestPlan.class))
                 .getResultList();
-        return EntityManagerHelper.refreshResultList(entityManager, resultList);
+        return resultList;
     }
 
     /**
@@ -506,28 +573,58 @@ public class TestPlanRepository extends AbstractRepository<TestPlan> {
     }
 
     /**
-     * This method returns the history of test execution summary for given product.
+     * This method returns the number of passed, failed and skipped test plans of a given product for each day of a
+     * given time range, in a single query.
+     * <p>
+     * Only the build with the highest test run number of an infrastructure combination is counted in a day, and of
+     * the builds with the same run number, the one modified last. Days without builds are not returned.
      *
      * @param productId id of the product
-     * @param from starting point of the considering time range
-     * @param to end point of the considering time range
-     * @return a List of {@link TestPlan} representing executed test plans of a given product for a given time range
+     * @param from      starting point of the considering time range (inclusive)
+     * @param to        end point of the considering time range (exclusive)
+     * @param limit     maximum number of the most recent days to return
+     * @return a list of {@link TestExecutionHistoryDTO}, one per day, ordered by the date, most recent first
      */
-    public List<TestPlan> getTestExecutionHistory(String productId, String from, String to) {
-        String sql = "select tp.* from test_plan tp inner join (Select distinct infra_parameters from test_plan where  "
-                + "DEPLOYMENTPATTERN_id in (select id from deployment_pattern where PRODUCT_id=?)) as rn on "
-                + "tp.infra_parameters=rn.infra_parameters and tp.DEPLOYMENTPATTERN_id "
-                + "in (select id from deployment_pattern where PRODUCT_id=?) and modified_timestamp between ? and ?;";
+    public List<TestExecutionHistoryDTO> getTestExecutionHistory(String productId, String from, String to,
+                                                                 int limit) {
+        // The status of the highest test run number is found by comparing the run numbers and the second of the
+        // day the plans were modified, padded to a fixed width and prefixed to the status, so the latest build of a
+        // day is picked without joining the table again. Plans without a run number sort before the numbered runs,
+        // as they do in getBuildSummaries.
+        String sql = "SELECT x.build_date, "
+                + "SUM(CASE WHEN SUBSTRING(x.latest_build, 16)='SUCCESS' THEN 1 ELSE 0 END) AS passed, "
+                + "SUM(CASE WHEN SUBSTRING(x.latest_build, 16)='FAIL' THEN 1 ELSE 0 END) AS failed, "
+                + "COUNT(*) AS total "
+                + "FROM (SELECT CAST(tp.modified_timestamp AS DATE) AS build_date, "
+                + "MAX(CONCAT(LPAD(CAST(COALESCE(tp.test_run_number, 0) AS CHAR(10)), 10, '0'), "
+                + "LPAD(CAST(HOUR(tp.modified_timestamp) * 3600 + MINUTE(tp.modified_timestamp) * 60 "
+                + "+ SECOND(tp.modified_timestamp) AS CHAR(5)), 5, '0'), tp.status)) AS latest_build "
+                + "FROM test_plan tp INNER JOIN deployment_pattern dp ON tp.DEPLOYMENTPATTERN_id=dp.id "
+                + "WHERE dp.PRODUCT_id=? AND tp.modified_timestamp>=? AND tp.modified_timestamp<? "
+                + "GROUP BY CAST(tp.modified_timestamp AS DATE), tp.infra_parameters) AS x "
+                + "GROUP BY x.build_date ORDER BY x.build_date DESC LIMIT ?";
 
         @SuppressWarnings("unchecked")
-        List<TestPlan> resultList = (List<TestPlan>) entityManager.createNativeQuery(sql, TestPlan.class)
+        List<Object[]> rows = (List<Object[]>) entityManager.createNativeQuery(sql)
                 .setParameter(1, productId)
-                .setParameter(2, productId)
-                .setParameter(3, from)
-                .setParameter(4, to)
+                .setParameter(2, from)
+                .setParameter(3, to)
+                .setParameter(4, limit)
                 .getResultList();
-        return EntityManagerHelper.refreshResultList(entityManager, resultList);
+
+        List<TestExecutionHistoryDTO> history = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            int passed = ((Number) row[1]).intValue();
+            int failed = ((Number) row[2]).intValue();
+            TestExecutionHistoryDTO day = new TestExecutionHistoryDTO();
+            day.setDate(String.valueOf(row[0]));
+            day.setPassedTestPlans(passed);
+            day.setFailedTestPlans(failed);
+            day.setSkippedTestPlans(((Number) row[3]).intValue() - passed - failed);
+            history.add(day);
         }
+        return history;
+    }
 
     /**
      * This method is responsible to map list of objects to a given class.
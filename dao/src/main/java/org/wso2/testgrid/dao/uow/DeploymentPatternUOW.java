@@ -20,8 +20,10 @@ package org.wso2.testgrid.dao.uow;
 import org.wso2.testgrid.common.DeploymentPattern;
 import org.wso2.testgrid.common.DeploymentPatternTestFailureStat;
 import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.cache.ReferenceDataCache;
 import org.wso2.testgrid.dao.repository.DeploymentPatternRepository;
 
 import java.sql.Timestamp;
@@ -38,6 +40,9 @@ import javax.persistence.EntityManager;
  */
 public class DeploymentPatternUOW {
 
+    private static final ReferenceDataCache<String, String> deploymentPatternIdCache =
+            ReferenceDataCache.getCache("deploymentPattern.idByProductAndName");
+
     private final DeploymentPatternRepository deploymentPatternRepository;
 
     /**
@@ -57,6 +62,30 @@ public class DeploymentPatternUOW {
      */
     public Optional<DeploymentPattern> getDeploymentPattern(Product product, String name)
             throws TestGridDAOException {
+        String cacheKey = StringUtil.concatStrings(product.getId(), "/", name);
+        String deploymentPatternId = deploymentPatternIdCache.get(cacheKey,
+                () -> findDeploymentPattern(product, name).map(DeploymentPattern::getId).orElse(null));
+        if (deploymentPatternId == null) {
+            return Optional.empty();
+        }
+        DeploymentPattern deploymentPattern = deploymentPatternRepository.findByPrimaryKey(deploymentPatternId);
+        if (deploymentPattern == null) {
+            // Deployment pattern was removed after its id was cached
+            deploymentPatternIdCache.invalidateAll();
+            return findDeploymentPattern(product, name);
+        }
+        return Optional.of(deploymentPattern);
+    }
+
+    /**
+     * Searches the database for the {@link DeploymentPattern} with the given name of the given product.
+     *
+     * @param product product
+     * @param name    deployment pattern name
+     * @return an instance of {@link DeploymentPattern} for the given product and name
+     */
+    private Optional<DeploymentPattern> findDeploymentPattern(Product product, String name)
+            throws TestGridDAOException {
         // Search criteria parameters
         Map<String, Object> params = new HashMap<>();
         params.put(DeploymentPattern.NAME_COLUMN, name);
@@ -87,7 +116,9 @@ public class DeploymentPatternUOW {
         DeploymentPattern deploymentPattern = new DeploymentPattern();
         deploymentPattern.setName(name);
         deploymentPattern.setProduct(product);
-        return deploymentPatternRepository.persist(deploymentPattern);
+        DeploymentPattern persisted = deploymentPatternRepository.persist(deploymentPattern);
+        deploymentPatternIdCache.invalidateAll();
+        return persisted;
     }
 
     /**
@@ -141,6 +172,8 @@ public class DeploymentPatternUOW {
      * @throws TestGridDAOException thrown when error on persisting the object
      */
     public DeploymentPattern updateDeploymentPattern(DeploymentPattern deploymentPattern) throws TestGridDAOException {
-        return deploymentPatternRepository.persist(deploymentPattern);
+        DeploymentPattern persisted = deploymentPatternRepository.persist(deploymentPattern);
+        deploymentPatternIdCache.invalidateAll();
+        return persisted;
     }
 }
@@ -23,8 +23,10 @@ import org.wso2.testgrid.common.infrastructure.InfrastructureParameter;
 import org.wso2.testgrid.common.infrastructure.InfrastructureValueSet;
 import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.cache.ReferenceDataCache;
 import org.wso2.testgrid.dao.repository.InfrastructureParameterRepository;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -47,6 +49,10 @@ import static org.wso2.testgrid.common.infrastructure.InfrastructureParameter
  */
 public class InfrastructureParameterUOW {
 
+    private static final ReferenceDataCache<String, Set<InfrastructureValueSet>> valueSetCache =
+            ReferenceDataCache.getCache("infrastructureParameter.valueSets");
+    private static final String ALL_VALUE_SETS_KEY = "all";
+
     private final InfrastructureParameterRepository infraParamRepository;
 
     /**
@@ -86,11 +92,27 @@ public class InfrastructureParameterUOW {
     }
 
     /**
+     * Returns the value sets of the infrastructure parameters that are ready for TestGrid. The value sets are
+     * cached as detached copies of the parameters; each call returns a copy that can be modified by the caller.
      *
      * @return a set of {@link InfrastructureValueSet} instances. Each set item contains a
      * {@link InfrastructureValueSet} of a given type.
      */
     public Set<InfrastructureValueSet> getValueSet() throws TestGridDAOException {
+        Set<InfrastructureValueSet> valueSets = valueSetCache.get(ALL_VALUE_SETS_KEY, this::findValueSet);
+        Set<InfrastructureValueSet> copy = new HashSet<>();
+        for (InfrastructureValueSet valueSet : valueSets) {
+            copy.add(new InfrastructureValueSet(valueSet.getType(), copyParameters(valueSet.getValues())));
+        }
+        return copy;
+    }
+
+    /**
+     * Reads the value sets of the infrastructure parameters from the database.
+     *
+     * @return a set of {@link InfrastructureValueSet} instances
+     */
+    private Set<InfrastructureValueSet> findValueSet() throws TestGridDAOException {
         List<String> types = infraParamRepository
                 .find(((root, query, cb) -> {
                     query.select(root.get(INFRASTRUCTURE_PARAMETER_TYPE_METAMODEL_NAME)).distinct(true);
@@ -106,12 +128,35 @@ public class InfrastructureParameterUOW {
                             cb.isTrue(root.get(INFRASTRUCTURE_PARAMETER_READY_FOR_TESTGRID_METAMODEL_NAME))),
                             InfrastructureParameter.class);
 
-            InfrastructureValueSet valueSet = new InfrastructureValueSet(type, new TreeSet<>(infrastructureParameters));
+            InfrastructureValueSet valueSet = new InfrastructureValueSet(type,
+                    copyParameters(infrastructureParameters));
             infrastructureParameterSets.add(valueSet);
         }
         return infrastructureParameterSets;
     }
 
+    /**
+     * Copies the given parameters into new instances which are not managed by an entity manager, so that they can
+     * be shared between threads.
+     *
+     * @param infrastructureParameters parameters to copy
+     * @return sorted copies of the parameters
+     */
+    private static Set<InfrastructureParameter> copyParameters(
+            Collection<InfrastructureParameter> infrastructureParameters) {
+        Set<InfrastructureParameter> copies = new TreeSet<>();
+        for (InfrastructureParameter infrastructureParameter : infrastructureParameters) {
+            InfrastructureParameter copy = new InfrastructureParameter(infrastructureParameter.getName(),
+                    infrastructureParameter.getType(), infrastructureParameter.getProperties(),
+                    infrastructureParameter.isReadyForTestGrid());
+            copy.setId(infrastructureParameter.getId());
+            copy.setCreatedTimestamp(infrastructureParameter.getCreatedTimestamp());
+            copy.setModifiedTimestamp(infrastructureParameter.getModifiedTimestamp());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
     /**
      * This method persists a {@link InfrastructureParameter} instance to the database.
      *
@@ -121,7 +166,9 @@ public class InfrastructureParameterUOW {
      */
     public InfrastructureParameter persistInfrastructureParameter(InfrastructureParameter infraParam) throws
             TestGridDAOException {
-        return infraParamRepository.persist(infraParam);
+        InfrastructureParameter persisted = infraParamRepository.persist(infraParam);
+        valueSetCache.invalidateAll();
+        return persisted;
     }
 
 }
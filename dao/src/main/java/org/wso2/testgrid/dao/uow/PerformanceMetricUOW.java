@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.uow;
+
+import org.wso2.testgrid.common.PerformanceMetric;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.dao.EntityManagerHelper;
+import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.dto.PerformanceMetricPointDTO;
+import org.wso2.testgrid.dao.repository.PerformanceMetricRepository;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+
+/**
+ * This class defines the Unit of work related to a {@link PerformanceMetric}.
+ *
+ * @since 1.0.0
+ */
+public class PerformanceMetricUOW {
+
+    private final PerformanceMetricRepository performanceMetricRepository;
+
+    /**
+     * Constructs an instance of {@link PerformanceMetricUOW} to manager use cases related to performance metrics.
+     */
+    public PerformanceMetricUOW() {
+        EntityManager entityManager = EntityManagerHelper.getEntityManager();
+        performanceMetricRepository = new PerformanceMetricRepository(entityManager);
+    }
+
+    /**
+     * Persists the performance metrics of a test scenario, replacing the metrics persisted earlier for the same
+     * test scenario of the test plan.
+     *
+     * @param testPlan     test plan (build) the metrics were measured in
+     * @param scenarioName name of the test scenario
+     * @param metrics      metrics to persist
+     * @throws TestGridDAOException thrown when error on persisting
+     */
+    public void persistPerformanceMetrics(TestPlan testPlan, String scenarioName, List<PerformanceMetric> metrics)
+            throws TestGridDAOException {
+        performanceMetricRepository.persistInBatches(testPlan, scenarioName, metrics,
+                EntityManagerHelper.getBatchSize());
+    }
+
+    /**
+     * Returns the performance metrics measured in the given test plan.
+     *
+     * @param testPlanId id of the test plan
+     * @return performance metrics of the test plan
+     */
+    public List<PerformanceMetric> getPerformanceMetrics(String testPlanId) {
+        return performanceMetricRepository.findByTestPlan(testPlanId);
+    }
+
+    /**
+     * Returns the values of a performance metric across the builds of the infrastructure combination and
+     * deployment pattern of the given test plan, up to and including the given test plan.
+     *
+     * @param testPlan     test plan whose builds are queried
+     * @param scenarioName name of the test scenario
+     * @param metricName   name of the metric
+     * @param dimensions   dimensions of the metric
+     * @param limit        maximum number of the most recent builds to return
+     * @return values of the metric ordered by the test run number, oldest first
+     */
+    public List<PerformanceMetricPointDTO> getMetricHistory(TestPlan testPlan, String scenarioName,
+                                                            String metricName, String dimensions, int limit) {
+        return performanceMetricRepository.getMetricHistory(testPlan, scenarioName, metricName, dimensions, limit);
+    }
+}
@@ -22,6 +22,7 @@ import org.wso2.testgrid.common.ProductTestStatus;
 import org.wso2.testgrid.common.Status;
 import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.cache.ReferenceDataCache;
 import org.wso2.testgrid.dao.repository.ProductRepository;
 
 import java.sql.Timestamp;
@@ -38,6 +39,9 @@ import javax.persistence.EntityManager;
  */
 public class ProductUOW {
 
+    private static final ReferenceDataCache<String, String> productIdCache =
+            ReferenceDataCache.getCache("product.idByName");
+
     private final ProductRepository productRepository;
 
     /**
@@ -62,6 +66,26 @@ public class ProductUOW {
      */
     public Optional<Product> getProduct(String name)
             throws TestGridDAOException {
+        String productId = productIdCache.get(name, () -> findProduct(name).map(Product::getId).orElse(null));
+        if (productId == null) {
+            return Optional.empty();
+        }
+        Product product = productRepository.findByPrimaryKey(productId);
+        if (product == null) {
+            // Product was removed after its id was cached
+            invalidateCache();
+            return findProduct(name);
+        }
+        return Optional.of(product);
+    }
+
+    /**
+     * Searches the database for the {@link Product} with the given name.
+     *
+     * @param name product name
+     * @return an instance of {@link Product} for the given product name
+     */
+    private Optional<Product> findProduct(String name) throws TestGridDAOException {
         // Search criteria parameters
         Map<String, Object> params = new HashMap<>();
         params.put(Product.NAME_COLUMN, name);
@@ -75,6 +99,10 @@ public class ProductUOW {
 
     /**
      * Returns a List of {@link Product} instances.
+     * <p>
+     * The products are read with a single query and refreshed from the database, since their build timestamps are
+     * updated by other processes. The list is not kept in the process wide cache as it holds entities managed by
+     * the entity manager of the calling thread.
      *
      * @return a List of {@link Product} instances
      */
@@ -98,7 +126,9 @@ public class ProductUOW {
         // Create a new product and persist if the product doesn't exist already.
         Product product = new Product();
         product.setName(name);
-        return productRepository.persist(product);
+        Product persisted = productRepository.persist(product);
+        invalidateCache();
+        return persisted;
     }
 
     /**
@@ -121,4 +151,11 @@ public class ProductUOW {
     public void updateProductStatusTimestamp(Status status, String productId) throws TestGridDAOException {
         productRepository.updateProductStatusTimestamp(status, new Timestamp(System.currentTimeMillis()), productId);
     }
+
+    /**
+     * Invalidates the cached product ids of this process.
+     */
+    private static void invalidateCache() {
+        productIdCache.invalidateAll();
+    }
 }
@@ -23,6 +23,8 @@ import org.wso2.testgrid.common.TestPlanStatus;
 import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.dto.TestCaseFailureResultDTO;
+import org.wso2.testgrid.dao.dto.TestExecutionHistoryDTO;
+import org.wso2.testgrid.dao.dto.TestPlanBuildSummaryDTO;
 import org.wso2.testgrid.dao.repository.TestPlanRepository;
 
 import java.sql.Timestamp;
@@ -175,6 +177,17 @@ public class TestPlanUOW {
         return testPlanRepository.getLatestTestPlans(product);
     }
 
+    /**
+     * Returns the last build, last failed build and last successful build of each distinct infrastructure
+     * combination and deployment pattern of a given product.
+     *
+     * @param product the product being queried
+     * @return a list of {@link TestPlanBuildSummaryDTO}s
+     */
+    public List<TestPlanBuildSummaryDTO> getBuildSummaries(Product product) {
+        return testPlanRepository.getBuildSummaries(product);
+    }
+
     /**
      * Returns the latest failed TestPlan for a given infrastructure type.
      *
@@ -240,11 +253,17 @@ public class TestPlanUOW {
     }
 
     /**
-     * Returns the representation of test execution history for q given product in a given time range
+     * Returns the number of passed, failed and skipped test plans of a given product for each day of a given time
+     * range, counting only the latest build of each infrastructure combination in a day.
      *
-     * @return a List of TestPlan which represent executed test plans in the given time range for a given product.
+     * @param productId id of the product
+     * @param from      starting point of the time range (inclusive)
+     * @param to        end point of the time range (exclusive)
+     * @param limit     maximum number of the most recent days to return
+     * @return a List of TestExecutionHistoryDTO, one per day with builds, most recent first.
      */
-    public List<TestPlan> getTestExecutionHistory(String productId, String from, String to) {
-        return testPlanRepository.getTestExecutionHistory(productId, from, to);
+    public List<TestExecutionHistoryDTO> getTestExecutionHistory(String productId, String from, String to,
+                                                                 int limit) {
+        return testPlanRepository.getTestExecutionHistory(productId, from, to, limit);
     }
 }
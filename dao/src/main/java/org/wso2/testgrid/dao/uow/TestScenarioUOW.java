@@ -21,6 +21,7 @@ import org.wso2.testgrid.common.TestPlan;
 import org.wso2.testgrid.common.TestScenario;
 import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.repository.TestCaseRepository;
 import org.wso2.testgrid.dao.repository.TestScenarioRepository;
 
 import java.util.List;
@@ -35,6 +36,7 @@ import javax.persistence.EntityManager;
 public class TestScenarioUOW {
 
     private final TestScenarioRepository testScenarioRepository;
+    private final TestCaseRepository testCaseRepository;
 
     /**
      * Constructs an instance of {@link TestScenarioUOW} to manager use cases related to test scenarios.
@@ -42,6 +44,7 @@ public class TestScenarioUOW {
     public TestScenarioUOW() {
         EntityManager entityManager = EntityManagerHelper.getEntityManager();
         testScenarioRepository = new TestScenarioRepository(entityManager);
+        testCaseRepository = new TestCaseRepository(entityManager);
     }
 
     /**
@@ -55,6 +58,21 @@ public class TestScenarioUOW {
         return testScenarioRepository.persist(testScenario);
     }
 
+    /**
+     * Persists an {@link TestScenario} instance together with its test cases.
+     * <p>
+     * The test cases are inserted in JDBC batches within a single transaction, which is considerably faster than
+     * persisting them one by one for scenarios with a large number of test cases.
+     *
+     * @param testScenario {@link TestScenario} instance to be persisted along with its test cases
+     * @return the persisted {@link TestScenario} instance
+     * @throws TestGridDAOException thrown when error on persisting the {@link TestScenario} instance
+     */
+    public TestScenario persistTestScenarioWithTestCases(TestScenario testScenario) throws TestGridDAOException {
+        return testCaseRepository.persistInBatches(testScenario, testScenario.getTestCases(),
+                EntityManagerHelper.getBatchSize());
+    }
+
     /**
      * Returns the {@link TestScenario} instance for the given id.
      *
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import com.google.common.collect.LinkedListMultimap;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.dao.TestGridDAOException;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Verifies that the query paths of {@link AbstractRepository} cost a constant number of database round trips,
+ * independent of the number of rows returned.
+ */
+public class AbstractRepositoryQueryCountTest extends RepositoryTestBase {
+
+    private ProductRepository productRepository;
+
+    @BeforeClass
+    public void initProductRepository() {
+        productRepository = new ProductRepository(entityManager);
+    }
+
+    @Test(description = "Query count of find methods must not grow with the number of returned rows")
+    public void testConstantQueryCount() throws TestGridDAOException {
+        persistProducts(10);
+        int queriesForTenRows = countQueries();
+
+        persistProducts(990);
+        int queriesForThousandRows = countQueries();
+
+        Assert.assertEquals(queriesForThousandRows, queriesForTenRows);
+        Assert.assertEquals(queriesForThousandRows, 3, "Expected a single query per find call.");
+    }
+
+    /**
+     * Runs the find paths of the repository and returns the number of queries they executed.
+     */
+    private int countQueries() throws TestGridDAOException {
+        executedQueries.set(0);
+        List<Product> all = productRepository.findAll();
+        List<Product> byName = productRepository.findByFields(
+                Collections.singletonMap(Product.NAME_COLUMN, all.get(0).getName()));
+        productRepository.orderByFields(Collections.emptyMap(), LinkedListMultimap.create());
+        Assert.assertEquals(byName.size(), 1);
+        return executedQueries.get();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.DeploymentPattern;
+import org.wso2.testgrid.common.PerformanceMetric;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestPlanStatus;
+import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.dto.PerformanceMetricPointDTO;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies the batch insert and the history query of {@link PerformanceMetricRepository}.
+ */
+public class PerformanceMetricRepositoryTest extends RepositoryTestBase {
+
+    private static final String INFRA = "{\"OS\":\"Ubuntu\"}";
+    private static final String DIMENSIONS = "Heap Size=2G,Concurrent Users=100";
+
+    @Test(description = "Persisting the metrics of a scenario again must replace its earlier metrics only")
+    public void testPersistInBatches() throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        TestPlan testPlan = persistTestPlan(persistDeploymentPattern(), INFRA, 1, TestPlanStatus.SUCCESS, now);
+        PerformanceMetricRepository repository = new PerformanceMetricRepository(entityManager);
+
+        repository.persistInBatches(testPlan, "other", createMetrics("other", 3, 0), 2);
+        List<PerformanceMetric> metrics = createMetrics("scenario", 5, 0);
+        repository.persistInBatches(testPlan, "scenario", metrics, 2);
+
+        for (PerformanceMetric metric : metrics) {
+            Assert.assertNotNull(metric.getId());
+        }
+        Assert.assertEquals(countMetrics(testPlan, "scenario"), 5);
+
+        repository.persistInBatches(testPlan, "scenario", createMetrics("scenario", 3, 10), 2);
+
+        Assert.assertEquals(countMetrics(testPlan, "scenario"), 3);
+        Assert.assertEquals(countMetrics(testPlan, "other"), 3);
+        Assert.assertEquals(countRows("SELECT COUNT(*) FROM performance_metric WHERE TESTPLAN_id=? "
+                + "AND scenario_name='scenario' AND metric_value>=10", testPlan.getId()), 3);
+        Assert.assertTrue(entityManager.contains(testPlan), "The test plan of the caller must stay managed.");
+        Assert.assertSame(metrics.get(0).getTestPlan(), testPlan);
+    }
+
+    @Test(description = "Builds without a test run number are read as the first build of the history")
+    public void testGetMetricHistoryWithoutRunNumber() throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        DeploymentPattern deploymentPattern = persistDeploymentPattern();
+        PerformanceMetricRepository repository = new PerformanceMetricRepository(entityManager);
+
+        TestPlan legacyPlan = persistTestPlan(deploymentPattern, INFRA, 1, TestPlanStatus.SUCCESS, now);
+        repository.persistInBatches(legacyPlan, "scenario", createMetrics("scenario", 1, 7), 2);
+        executeUpdate("UPDATE test_plan SET test_run_number=NULL WHERE id=?", legacyPlan.getId());
+        TestPlan testPlan = persistTestPlan(deploymentPattern, INFRA, 1, TestPlanStatus.SUCCESS, now);
+        repository.persistInBatches(testPlan, "scenario", createMetrics("scenario", 1, 8), 2);
+
+        List<PerformanceMetricPointDTO> history = repository.getMetricHistory(testPlan, "scenario", "metric-0",
+                DIMENSIONS, 5);
+
+        Assert.assertEquals(history.size(), 2);
+        Assert.assertEquals(history.get(0).getTestPlanId(), legacyPlan.getId());
+        Assert.assertEquals(history.get(0).getTestRunNumber(), 0);
+        Assert.assertEquals(history.get(1).getValue(), 8.0);
+    }
+
+    @Test(description = "Reads the most recent values of a series of one infrastructure combination, oldest first")
+    public void testGetMetricHistory() throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        DeploymentPattern deploymentPattern = persistDeploymentPattern();
+        StringBuilder longDimensions = new StringBuilder(DIMENSIONS);
+        while (longDimensions.length() < 300) {
+            longDimensions.append(",Padding=").append(longDimensions.length());
+        }
+        String otherLongDimensions = longDimensions + "1";
+        PerformanceMetricRepository repository = new PerformanceMetricRepository(entityManager);
+
+        List<TestPlan> testPlans = new ArrayList<>();
+        for (int runNumber = 1; runNumber <= 3; runNumber++) {
+            TestPlan testPlan = persistTestPlan(deploymentPattern, INFRA, runNumber, TestPlanStatus.SUCCESS, now);
+            List<PerformanceMetric> metrics = new ArrayList<>();
+            metrics.add(createMetric("scenario", longDimensions.toString(), "Throughput", runNumber));
+            metrics.add(createMetric("scenario", otherLongDimensions, "Throughput", 100 + runNumber));
+            repository.persistInBatches(testPlan, "scenario", metrics, 2);
+            testPlans.add(testPlan);
+        }
+        TestPlan otherInfraPlan = persistTestPlan(deploymentPattern, "{\"OS\":\"Windows\"}", 2,
+                TestPlanStatus.SUCCESS, now);
+        List<PerformanceMetric> otherInfraMetrics = new ArrayList<>();
+        otherInfraMetrics.add(createMetric("scenario", longDimensions.toString(), "Throughput", 50));
+        repository.persistInBatches(otherInfraPlan, "scenario", otherInfraMetrics, 2);
+
+        List<PerformanceMetricPointDTO> history = repository.getMetricHistory(testPlans.get(2), "scenario",
+                "Throughput", longDimensions.toString(), 2);
+
+        Assert.assertEquals(history.size(), 2);
+        Assert.assertEquals(history.get(0).getTestPlanId(), testPlans.get(1).getId());
+        Assert.assertEquals(history.get(0).getTestRunNumber(), 2);
+        Assert.assertEquals(history.get(0).getValue(), 2.0);
+        Assert.assertEquals(history.get(1).getTestPlanId(), testPlans.get(2).getId());
+        Assert.assertEquals(history.get(1).getValue(), 3.0);
+
+        history = repository.getMetricHistory(testPlans.get(1), "scenario", "Throughput", otherLongDimensions, 5);
+
+        Assert.assertEquals(history.size(), 2);
+        Assert.assertEquals(history.get(0).getValue(), 101.0);
+        Assert.assertEquals(history.get(1).getValue(), 102.0);
+    }
+
+    private List<PerformanceMetric> createMetrics(String scenarioName, int count, int firstValue) {
+        List<PerformanceMetric> metrics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            metrics.add(createMetric(scenarioName, DIMENSIONS, "metric-" + i, firstValue + i));
+        }
+        return metrics;
+    }
+
+    private static PerformanceMetric createMetric(String scenarioName, String dimensions, String metricName,
+                                                  double value) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        PerformanceMetric metric = new PerformanceMetric();
+        metric.setScenarioName(scenarioName);
+        metric.setDimensions(dimensions);
+        metric.setMetricName(metricName);
+        metric.setValue(value);
+        metric.setCreatedTimestamp(now);
+        metric.setModifiedTimestamp(now);
+        return metric;
+    }
+
+    private long countMetrics(TestPlan testPlan, String scenarioName) {
+        return countRows("SELECT COUNT(*) FROM performance_metric WHERE TESTPLAN_id=? AND scenario_name=?",
+                testPlan.getId(), scenarioName);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.wso2.testgrid.common.DeploymentPattern;
+import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestPlanStatus;
+
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.Query;
+
+/**
+ * Base class of the repository tests which run against the in-memory H2 database of the test persistence unit.
+ * <p>
+ * The number of queries executed by the entity manager is counted so that tests can assert the number of
+ * database round trips of a repository method.
+ */
+public abstract class RepositoryTestBase {
+
+    private static final String TESTGRID_PU_H2 = "testgrid_h2";
+
+    protected final AtomicInteger executedQueries = new AtomicInteger();
+    protected EntityManagerFactory entityManagerFactory;
+    protected EntityManager entityManager;
+
+    @BeforeClass
+    public void initEntityManager() {
+        entityManagerFactory = Persistence.createEntityManagerFactory(TESTGRID_PU_H2);
+        JpaHelper.getServerSession(entityManagerFactory).getEventManager().addListener(new SessionEventAdapter() {
+            @Override
+            public void postExecuteQuery(SessionEvent event) {
+                executedQueries.incrementAndGet();
+            }
+        });
+        entityManager = entityManagerFactory.createEntityManager();
+    }
+
+    @AfterClass
+    public void closeEntityManager() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    /**
+     * Persists the given number of new products in a single transaction.
+     *
+     * @param count number of products to persist
+     * @return the last persisted product
+     */
+    protected Product persistProducts(int count) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Product product = null;
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < count; i++) {
+            product = new Product();
+            product.setName("product-" + System.nanoTime() + "-" + i);
+            product.setCreatedTimestamp(now);
+            product.setModifiedTimestamp(now);
+            entityManager.persist(product);
+        }
+        entityManager.getTransaction().commit();
+        return product;
+    }
+
+    /**
+     * Persists a new product with a deployment pattern.
+     *
+     * @return persisted deployment pattern
+     */
+    protected DeploymentPattern persistDeploymentPattern() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Product product = new Product();
+        product.setName("product-" + System.nanoTime());
+        product.setCreatedTimestamp(now);
+        product.setModifiedTimestamp(now);
+
+        DeploymentPattern deploymentPattern = new DeploymentPattern();
+        deploymentPattern.setName("pattern-" + System.nanoTime());
+        deploymentPattern.setProduct(product);
+        deploymentPattern.setCreatedTimestamp(now);
+        deploymentPattern.setModifiedTimestamp(now);
+
+        entityManager.getTransaction().begin();
+        entityManager.persist(deploymentPattern);
+        entityManager.getTransaction().commit();
+        return deploymentPattern;
+    }
+
+    /**
+     * Persists a new test plan of the given deployment pattern.
+     *
+     * @param deploymentPattern deployment pattern of the test plan
+     * @param infraParameters   infrastructure combination of the test plan
+     * @param testRunNumber     test run number of the test plan
+     * @param status            status of the test plan
+     * @param modifiedTimestamp modified time of the test plan
+     * @return persisted test plan
+     */
+    protected TestPlan persistTestPlan(DeploymentPattern deploymentPattern, String infraParameters,
+                                       int testRunNumber, TestPlanStatus status, Timestamp modifiedTimestamp) {
+        TestPlan testPlan = new TestPlan();
+        testPlan.setDeploymentPattern(deploymentPattern);
+        testPlan.setInfraParameters(infraParameters);
+        testPlan.setTestRunNumber(testRunNumber);
+        testPlan.setStatus(status);
+        testPlan.setCreatedTimestamp(modifiedTimestamp);
+        testPlan.setModifiedTimestamp(modifiedTimestamp);
+
+        entityManager.getTransaction().begin();
+        entityManager.persist(testPlan);
+        entityManager.getTransaction().commit();
+        return testPlan;
+    }
+
+    /**
+     * Executes the given native update in a transaction.
+     *
+     * @param sql        native SQL update
+     * @param parameters positional parameters of the update
+     */
+    protected void executeUpdate(String sql, Object... parameters) {
+        entityManager.getTransaction().begin();
+        Query query = entityManager.createNativeQuery(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        query.executeUpdate();
+        entityManager.getTransaction().commit();
+    }
+
+    /**
+     * Returns the number of rows counted by the given native query.
+     *
+     * @param sql        native SQL query selecting a single count
+     * @param parameters positional parameters of the query
+     * @return number of rows
+     */
+    protected long countRows(String sql, Object... parameters) {
+        Query query = entityManager.createNativeQuery(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        return ((Number) query.getSingleResult()).longValue();
+    }
+}
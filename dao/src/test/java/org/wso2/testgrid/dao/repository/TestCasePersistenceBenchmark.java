@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Status;
+import org.wso2.testgrid.common.TestCase;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestPlanStatus;
+import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.dao.TestGridDAOException;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the rows per second of persisting the test cases of a scenario by merging the scenario, which inserts
+ * one test case at a time, against {@link TestCaseRepository#persistInBatches}.
+ * <p>
+ * This benchmark is not part of the default test suite. Run it with {@code mvn test -Pbenchmark}; the number of
+ * test cases is set with the {@code benchmark.testCases} system property.
+ */
+public class TestCasePersistenceBenchmark extends RepositoryTestBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCasePersistenceBenchmark.class);
+    private static final int TEST_CASE_COUNT = Integer.getInteger("benchmark.testCases", 20000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batchSize", 500);
+
+    @Test(description = "Batched inserts must persist test cases faster than merging the test scenario")
+    public void benchmarkPersistTestCases() throws TestGridDAOException {
+        double mergeRate = measure("merge", scenario -> new TestScenarioRepository(entityManager).persist(scenario));
+        double batchRate = measure("batch", scenario -> new TestCaseRepository(entityManager)
+                .persistInBatches(scenario, scenario.getTestCases(), BATCH_SIZE));
+
+        logger.info(String.format("Persisted %d test cases: merge %.0f rows/s, batch of %d %.0f rows/s (%.1fx)",
+                TEST_CASE_COUNT, mergeRate, BATCH_SIZE, batchRate, batchRate / mergeRate));
+        Assert.assertTrue(batchRate > mergeRate, "Expected the batched inserts to be faster than the merge.");
+    }
+
+    private double measure(String name, ScenarioWriter writer) throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        TestPlan testPlan = persistTestPlan(persistDeploymentPattern(), "{" + name + "}", 1,
+                TestPlanStatus.RUNNING, now);
+        TestScenario testScenario = new TestScenario();
+        testScenario.setName(name);
+        testScenario.setDescription(name);
+        testScenario.setStatus(Status.SUCCESS);
+        testScenario.setTestPlan(testPlan);
+        testScenario.setCreatedTimestamp(now);
+        testScenario.setModifiedTimestamp(now);
+        List<TestCase> testCases = new ArrayList<>(TEST_CASE_COUNT);
+        for (int i = 0; i < TEST_CASE_COUNT; i++) {
+            TestCase testCase = new TestCase();
+            testCase.setName("test-case-" + i);
+            testCase.setSuccess(Status.SUCCESS);
+            testCase.setTestScenario(testScenario);
+            testCase.setCreatedTimestamp(now);
+            testCase.setModifiedTimestamp(now);
+            testCases.add(testCase);
+        }
+        testScenario.setTestCases(testCases);
+        entityManager.clear();
+
+        long start = System.nanoTime();
+        TestScenario persisted = writer.write(testScenario);
+        long elapsed = System.nanoTime() - start;
+        entityManager.clear();
+
+        Assert.assertEquals(countRows("SELECT COUNT(*) FROM test_case WHERE TESTSCENARIO_id=?", persisted.getId()),
+                TEST_CASE_COUNT);
+        return TEST_CASE_COUNT * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Writes a test scenario together with its test cases.
+     */
+    private interface ScenarioWriter {
+
+        TestScenario write(TestScenario testScenario) throws TestGridDAOException;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Status;
+import org.wso2.testgrid.common.TestCase;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestPlanStatus;
+import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.dao.TestGridDAOException;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies the test cases inserted in batches by {@link TestCaseRepository}.
+ */
+public class TestCaseRepositoryTest extends RepositoryTestBase {
+
+    private static final int TEST_CASE_COUNT = 7;
+
+    @Test(description = "Merging the test plan after the batch insert must not duplicate the test cases")
+    public void testPersistInBatchesThenPersistTestPlan() throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        TestPlan testPlan = persistTestPlan(persistDeploymentPattern(), "{}", 1, TestPlanStatus.RUNNING, now);
+        entityManager.clear();
+
+        TestScenario testScenario = createTestScenario(testPlan, now);
+        List<TestCase> testCases = createTestCases(testScenario, TEST_CASE_COUNT, now);
+        testScenario.setTestCases(testCases);
+        testPlan.getTestScenarios().add(testScenario);
+
+        new TestCaseRepository(entityManager).persistInBatches(testScenario, testCases, 3);
+
+        Assert.assertNotNull(testScenario.getId());
+        Assert.assertSame(testScenario.getTestPlan(), testPlan);
+        for (TestCase testCase : testCases) {
+            Assert.assertNotNull(testCase.getId());
+            Assert.assertSame(testCase.getTestScenario(), testScenario);
+        }
+        Assert.assertEquals(countTestCases(testScenario), TEST_CASE_COUNT);
+
+        testPlan.setStatus(TestPlanStatus.SUCCESS);
+        new TestPlanRepository(entityManager).persist(testPlan);
+
+        Assert.assertEquals(countRows("SELECT COUNT(*) FROM test_scenario WHERE TESTPLAN_id=?", testPlan.getId()),
+                1);
+        Assert.assertEquals(countTestCases(testScenario), TEST_CASE_COUNT);
+    }
+
+    @Test(description = "The batch insert must leave the persistence context of the caller as it is")
+    public void testPersistInBatchesKeepsCallerEntities() throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        TestPlan testPlan = persistTestPlan(persistDeploymentPattern(), "{}", 1, TestPlanStatus.RUNNING, now);
+        Assert.assertTrue(entityManager.contains(testPlan));
+
+        TestScenario testScenario = createTestScenario(testPlan, now);
+        List<TestCase> testCases = createTestCases(testScenario, TEST_CASE_COUNT, now);
+        testScenario.setTestCases(testCases);
+
+        new TestCaseRepository(entityManager).persistInBatches(testScenario, testCases, 2);
+
+        Assert.assertTrue(entityManager.contains(testPlan), "The test plan of the caller must stay managed.");
+        Assert.assertTrue(entityManager.contains(testPlan.getDeploymentPattern()));
+        Assert.assertEquals(countTestCases(testScenario), TEST_CASE_COUNT);
+    }
+
+    @Test(description = "Test cases added to a stored scenario must not remove the test cases already stored")
+    public void testPersistInBatchesForStoredScenario() throws TestGridDAOException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        TestPlan testPlan = persistTestPlan(persistDeploymentPattern(), "{}", 1, TestPlanStatus.RUNNING, now);
+        TestCaseRepository testCaseRepository = new TestCaseRepository(entityManager);
+
+        TestScenario testScenario = createTestScenario(testPlan, now);
+        List<TestCase> storedTestCases = createTestCases(testScenario, TEST_CASE_COUNT, now);
+        testScenario.setTestCases(storedTestCases);
+        testCaseRepository.persistInBatches(testScenario, storedTestCases, 3);
+        String testScenarioId = testScenario.getId();
+
+        testScenario.setStatus(Status.FAIL);
+        List<TestCase> newTestCases = createTestCases(testScenario, 4, now);
+        testCaseRepository.persistInBatches(testScenario, newTestCases, 3);
+
+        Assert.assertEquals(testScenario.getId(), testScenarioId);
+        Assert.assertEquals(countTestCases(testScenario), TEST_CASE_COUNT + 4);
+        Assert.assertEquals(countRows("SELECT COUNT(*) FROM test_scenario WHERE id=? AND status='FAIL'",
+                testScenarioId), 1);
+    }
+
+    private static TestScenario createTestScenario(TestPlan testPlan, Timestamp now) {
+        TestScenario testScenario = new TestScenario();
+        testScenario.setName("scenario");
+        testScenario.setDescription("scenario");
+        testScenario.setStatus(Status.SUCCESS);
+        testScenario.setTestPlan(testPlan);
+        testScenario.setCreatedTimestamp(now);
+        testScenario.setModifiedTimestamp(now);
+        return testScenario;
+    }
+
+    private static List<TestCase> createTestCases(TestScenario testScenario, int count, Timestamp now) {
+        List<TestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestCase testCase = new TestCase();
+            testCase.setName("test-case-" + i);
+            testCase.setSuccess(i % 2 == 0 ? Status.SUCCESS : Status.FAIL);
+            testCase.setTestScenario(testScenario);
+            testCase.setCreatedTimestamp(now);
+            testCase.setModifiedTimestamp(now);
+            testCases.add(testCase);
+        }
+        return testCases;
+    }
+
+    private long countTestCases(TestScenario testScenario) {
+        return countRows("SELECT COUNT(*) FROM test_case WHERE TESTSCENARIO_id=?", testScenario.getId());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.repository;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.DeploymentPattern;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.common.TestPlanStatus;
+import org.wso2.testgrid.dao.dto.TestExecutionHistoryDTO;
+import org.wso2.testgrid.dao.dto.TestPlanBuildSummaryDTO;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Verifies the grouped native queries of {@link TestPlanRepository} against the in-memory H2 database.
+ */
+public class TestPlanRepositoryTest extends RepositoryTestBase {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Test(description = "The last build is the highest test run number, or the latest plan without a run number")
+    public void testGetBuildSummaries() {
+        DeploymentPattern deploymentPattern = persistDeploymentPattern();
+        long start = System.currentTimeMillis() - 24 * HOUR;
+        persistTestPlan(deploymentPattern, "{a}", 1, TestPlanStatus.FAIL, new Timestamp(start));
+        TestPlan lastSuccess = persistTestPlan(deploymentPattern, "{a}", 2, TestPlanStatus.SUCCESS,
+                new Timestamp(start + HOUR));
+        TestPlan lastBuild = persistTestPlan(deploymentPattern, "{a}", 3, TestPlanStatus.FAIL,
+                new Timestamp(start + 2 * HOUR));
+        TestPlan noRunNumberFailure = persistTestPlan(deploymentPattern, "{b}", 0, TestPlanStatus.FAIL,
+                new Timestamp(start));
+        TestPlan noRunNumberSuccess = persistTestPlan(deploymentPattern, "{b}", 0, TestPlanStatus.SUCCESS,
+                new Timestamp(start + HOUR));
+        executeUpdate("UPDATE test_plan SET test_run_number=NULL WHERE infra_parameters=?", "{b}");
+        entityManager.clear();
+
+        List<TestPlanBuildSummaryDTO> summaries = new TestPlanRepository(entityManager)
+                .getBuildSummaries(deploymentPattern.getProduct());
+
+        Assert.assertEquals(summaries.size(), 2);
+        for (TestPlanBuildSummaryDTO summary : summaries) {
+            if ("{a}".equals(summary.getLastBuild().getInfraParameters())) {
+                Assert.assertEquals(summary.getLastBuild().getId(), lastBuild.getId());
+                Assert.assertEquals(summary.getLastFailure().getId(), lastBuild.getId());
+                Assert.assertEquals(summary.getLastSuccess().getId(), lastSuccess.getId());
+            } else {
+                Assert.assertEquals(summary.getLastBuild().getId(), noRunNumberSuccess.getId());
+                Assert.assertEquals(summary.getLastFailure().getId(), noRunNumberFailure.getId());
+                Assert.assertEquals(summary.getLastSuccess().getId(), noRunNumberSuccess.getId());
+            }
+        }
+    }
+
+    @Test(description = "Counts the status of the last build of each infrastructure combination of each day")
+    public void testGetTestExecutionHistory() {
+        DeploymentPattern deploymentPattern = persistDeploymentPattern();
+        // A failed build rerun successfully in the same day
+        persistTestPlan(deploymentPattern, "{a}", 1, TestPlanStatus.FAIL, Timestamp.valueOf("2019-03-12 08:00:00"));
+        persistTestPlan(deploymentPattern, "{a}", 2, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-03-12 10:00:00"));
+        // A successful build followed by a failed build in the same day
+        persistTestPlan(deploymentPattern, "{b}", 1, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-03-12 08:00:00"));
+        persistTestPlan(deploymentPattern, "{b}", 2, TestPlanStatus.FAIL, Timestamp.valueOf("2019-03-12 10:00:00"));
+        // Plans without a run number
+        persistTestPlan(deploymentPattern, "{c}", 0, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-03-12 09:00:00"));
+        persistTestPlan(deploymentPattern, "{d}", 0, TestPlanStatus.FAIL, Timestamp.valueOf("2019-03-12 11:00:00"));
+        persistTestPlan(deploymentPattern, "{d}", 1, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-03-12 09:00:00"));
+        persistTestPlan(deploymentPattern, "{e}", 3, TestPlanStatus.RUNNING,
+                Timestamp.valueOf("2019-03-12 12:00:00"));
+        persistTestPlan(deploymentPattern, "{a}", 0, TestPlanStatus.FAIL, Timestamp.valueOf("2019-03-11 10:00:00"));
+        executeUpdate("UPDATE test_plan SET test_run_number=NULL WHERE DEPLOYMENTPATTERN_id=? AND "
+                + "test_run_number=0", deploymentPattern.getId());
+        entityManager.clear();
+
+        List<TestExecutionHistoryDTO> history = new TestPlanRepository(entityManager).getTestExecutionHistory(
+                deploymentPattern.getProduct().getId(), "2019-03-11 00:00:00", "2019-03-13 00:00:00", 7);
+
+        Assert.assertEquals(history.size(), 2);
+        TestExecutionHistoryDTO day = history.get(0);
+        Assert.assertEquals(day.getDate(), "2019-03-12");
+        Assert.assertEquals(day.getPassedTestPlans(), 3);
+        Assert.assertEquals(day.getFailedTestPlans(), 1);
+        Assert.assertEquals(day.getSkippedTestPlans(), 1);
+        day = history.get(1);
+        Assert.assertEquals(day.getDate(), "2019-03-11");
+        Assert.assertEquals(day.getPassedTestPlans(), 0);
+        Assert.assertEquals(day.getFailedTestPlans(), 1);
+        Assert.assertEquals(day.getSkippedTestPlans(), 0);
+    }
+
+    @Test(description = "Of the builds with the same run number in a day, the one modified last is counted")
+    public void testGetTestExecutionHistoryWithSameRunNumber() {
+        DeploymentPattern deploymentPattern = persistDeploymentPattern();
+        // A successful build rerun with the same run number, which failed
+        persistTestPlan(deploymentPattern, "{a}", 4, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-04-01 08:00:00"));
+        persistTestPlan(deploymentPattern, "{a}", 4, TestPlanStatus.FAIL, Timestamp.valueOf("2019-04-01 10:00:00"));
+        // A failed build rerun with the same run number, which passed
+        persistTestPlan(deploymentPattern, "{b}", 4, TestPlanStatus.FAIL, Timestamp.valueOf("2019-04-01 08:00:00"));
+        persistTestPlan(deploymentPattern, "{b}", 4, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-04-01 10:00:00"));
+        // Plans without a run number
+        persistTestPlan(deploymentPattern, "{c}", 0, TestPlanStatus.SUCCESS,
+                Timestamp.valueOf("2019-04-01 08:00:00"));
+        persistTestPlan(deploymentPattern, "{c}", 0, TestPlanStatus.FAIL, Timestamp.valueOf("2019-04-01 09:00:00"));
+        executeUpdate("UPDATE test_plan SET test_run_number=NULL WHERE DEPLOYMENTPATTERN_id=? AND "
+                + "test_run_number=0", deploymentPattern.getId());
+        entityManager.clear();
+
+        List<TestExecutionHistoryDTO> history = new TestPlanRepository(entityManager).getTestExecutionHistory(
+                deploymentPattern.getProduct().getId(), "2019-04-01 00:00:00", "2019-04-02 00:00:00", 7);
+
+        Assert.assertEquals(history.size(), 1);
+        Assert.assertEquals(history.get(0).getPassedTestPlans(), 1);
+        Assert.assertEquals(history.get(0).getFailedTestPlans(), 2);
+        Assert.assertEquals(history.get(0).getSkippedTestPlans(), 0);
+    }
+}
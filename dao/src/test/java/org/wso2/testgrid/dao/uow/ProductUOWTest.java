@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.dao.uow;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.repository.RepositoryTestBase;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * Verifies that {@link ProductUOW} reads the product list with a single query and sees the changes made by other
+ * processes, and that the product ids looked up by name are cached.
+ */
+public class ProductUOWTest extends RepositoryTestBase {
+
+    private ProductUOW productUOW;
+
+    @BeforeClass
+    public void initProductUOW() {
+        productUOW = new ProductUOW(entityManager);
+    }
+
+    @Test(description = "The product list must be loaded with one query and reflect the latest build timestamps")
+    public void testGetProductsQueryCount() throws TestGridDAOException {
+        Product product = persistProducts(10);
+
+        executedQueries.set(0);
+        int productCount = productUOW.getProducts().size();
+        Assert.assertEquals(executedQueries.get(), 1, "Expected a single query to load the product list.");
+        Assert.assertTrue(productCount >= 10);
+
+        // A build finished by another process updates the product without going through this unit of work
+        Timestamp lastSuccess = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
+        executeUpdate("UPDATE product SET last_success_timestamp=? WHERE id=?", lastSuccess, product.getId());
+        persistProducts(5);
+
+        executedQueries.set(0);
+        Product reloaded = null;
+        for (Product candidate : productUOW.getProducts()) {
+            if (candidate.getId().equals(product.getId())) {
+                reloaded = candidate;
+            }
+        }
+        Assert.assertEquals(executedQueries.get(), 1, "Expected a single query to load the product list.");
+        Assert.assertEquals(productUOW.getProducts().size(), productCount + 5);
+        Assert.assertNotNull(reloaded);
+        Assert.assertEquals(reloaded.getLastSuccessTimestamp(), lastSuccess);
+    }
+
+    @Test(description = "The id of a product looked up by name must be served from the cache")
+    public void testGetProductCachesId() throws TestGridDAOException {
+        Product product = persistProducts(1);
+        Assert.assertEquals(productUOW.getProduct(product.getName()).map(Product::getId),
+                Optional.of(product.getId()));
+
+        executedQueries.set(0);
+        Assert.assertEquals(productUOW.getProduct(product.getName()).map(Product::getId),
+                Optional.of(product.getId()));
+        Assert.assertEquals(executedQueries.get(), 0, "Expected the product to be found by its cached id.");
+    }
+}
@@ -30,6 +30,9 @@ import org.wso2.testgrid.deployment.tinkerer.exception.AgentHandleException;
 import java.io.IOException;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.websocket.Session;
 
 /**
@@ -38,7 +41,9 @@ import javax.websocket.Session;
 public class AgentStreamHandler implements Observer {
     private static final Logger logger = LoggerFactory.getLogger(AgentStreamHandler.class);
     private static final String CHUNK_SECTION_SEPARATOR = "\r\n";
-    
+    private static final ExecutorService drainExecutor = createDrainExecutor();
+
+    private final AtomicInteger pendingNotifications = new AtomicInteger();
     private ChunkedOutput<String> streamingBuffer;
     private OperationRequest operationRequest;
     private String agentId;
@@ -89,7 +94,8 @@ public class AgentStreamHandler implements Observer {
     /**
      * This is the observer to check if new messages are available.
      * If new messages available for this object with given operation id then, send result data back to the test plan
-     * executor.
+     * executor. The messages are drained on a separate thread so that the notifying thread is not held while large
+     * outputs are sent.
      *
      * @param o     Observable notifier object
      * @param arg   Updated message queue operation id
@@ -97,22 +103,45 @@ public class AgentStreamHandler implements Observer {
     @Override
     public void update(Observable o, Object arg) {
         String foundOperationId = (String) arg;
-        if (foundOperationId.equals(this.operationRequest.getOperationId())) {
-            SessionManager sessionManager = SessionManager.getInstance();
-            OperationSegment resultOperation = new OperationSegment();
-            resultOperation.setResponse("");
-            try {
-                // Dequeue all messages with relevant operation id
-                OperationSegment operationSegment = sessionManager.
+        if (foundOperationId.equals(this.operationRequest.getOperationId())
+                && pendingNotifications.getAndIncrement() == 0) {
+            drainExecutor.execute(this::drainOperationQueue);
+        }
+    }
+
+    /**
+     * Drain the messages of the operation until no notification is left unhandled. Only one drain of an operation
+     * runs at a time, so that its segments are sent in order.
+     */
+    private void drainOperationQueue() {
+        int notifications;
+        do {
+            notifications = pendingNotifications.get();
+            if (sendOperationQueueMessages()) {
+                return;
+            }
+        } while (!pendingNotifications.compareAndSet(notifications, 0));
+    }
+
+    /**
+     * Send the messages of the operation to the test runner chunk by chunk, until no more are left.
+     *
+     * @return true if the operation is completed or its output is closed, else false
+     */
+    private boolean sendOperationQueueMessages() {
+        SessionManager sessionManager = SessionManager.getInstance();
+        try {
+            OperationSegment operationSegment;
+            do {
+                operationSegment = sessionManager.
                         dequeueOperationQueueMessages(this.operationRequest.getOperationId());
-                // Append dequeue result to the result
                 if (operationSegment == null) {
                     logger.info("No operation found for operation id " + this.operationRequest.getOperationId()
                             + " on " + this.agentId);
-                    return;
+                    return false;
                 }
-                resultOperation.setResponse(
-                        resultOperation.getResponse().concat(operationSegment.getResponse()));
+                OperationSegment resultOperation = new OperationSegment();
+                resultOperation.setResponse(operationSegment.getResponse());
                 resultOperation.setOperationId(this.operationRequest.getOperationId());
                 resultOperation.setCode(operationSegment.getCode());
                 resultOperation.setMetaData(operationSegment.getMetaData());
@@ -126,25 +155,26 @@ public class AgentStreamHandler implements Observer {
                     sessionManager.getAgentObservable().deleteObserver(this);
                     this.streamingBuffer.write(resultOperation.toJSON() + CHUNK_SECTION_SEPARATOR);
                     this.streamingBuffer.close();
-                    return;
+                    return true;
                 }
                 // Send response only if it contain response
                 if (!resultOperation.getResponse().equals("")) {
                     logger.debug("Sending result segment to test runner " + this.agentId);
                     this.streamingBuffer.write(resultOperation.toJSON() + CHUNK_SECTION_SEPARATOR);
-                    resultOperation.setResponse("");
-                }
-            } catch (IOException e) {
-                logger.warn("Error while writing result to the output. " + operationRequest.getRequest() +
-                        " on agent " + this.agentId, e);
-                abortOperation(this.operationRequest.getOperationId(), this.agentId);
-                try {
-                    this.streamingBuffer.close();
-                } catch (IOException errorOutput) {
-                    logger.error("Error while close output connection " + operationRequest.getRequest() +
-                            " on agent " + this.agentId, errorOutput);
                 }
+            } while (!operationSegment.getResponse().isEmpty());
+            return false;
+        } catch (IOException e) {
+            logger.warn("Error while writing result to the output. " + operationRequest.getRequest() +
+                    " on agent " + this.agentId, e);
+            abortOperation(this.operationRequest.getOperationId(), this.agentId);
+            try {
+                this.streamingBuffer.close();
+            } catch (IOException errorOutput) {
+                logger.error("Error while close output connection " + operationRequest.getRequest() +
+                        " on agent " + this.agentId, errorOutput);
             }
+            return true;
         }
     }
 
@@ -184,4 +214,19 @@ public class AgentStreamHandler implements Observer {
             return false;
         }
     }
+
+    /**
+     * Create the pool of daemon threads which send operation outputs to the test runners. At most one thread is
+     * used by an operation at a time, and idle threads expire after a minute.
+     *
+     * @return executor of the output drains
+     */
+    private static ExecutorService createDrainExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "operation-output-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
@@ -27,7 +27,6 @@ import org.wso2.testgrid.deployment.tinkerer.utils.Constants;
 
 import java.io.IOException;
 import java.util.Calendar;
-import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ExecutorService;
@@ -88,6 +87,7 @@ public class AppServletContextListener implements ServletContextListener {
     @Override
     public void contextDestroyed(ServletContextEvent contextEvent) {
         heartBeatTimer.cancel();
+        messageQueueTimer.cancel();
         executorService.shutdown();
     }
 
@@ -162,33 +162,28 @@ public class AppServletContextListener implements ServletContextListener {
          */
         @Override
         public void run() {
-            for (Map.Entry<String, OperationMessage> operationQueueEntry : SessionManager.getOperationQueueMap()
-                    .entrySet()) {
-                long currentTime = Calendar.getInstance().getTimeInMillis();
-                OperationMessage operationMessage = operationQueueEntry.getValue();
-                final SessionManager sessionManager = SessionManager.getInstance();
-                String deleteOperationId = operationMessage.getOperationId();
-                // If message exist for more longer without consume after the abort operation then remove it from
-                // the message queue
-                long consumeTimeout = Constants.MAX_LAST_CONSUME_TIMEOUT + Constants.MESSAGE_QUEUE_INTERVAL;
-                long updateTimeout = Constants.MAX_LAST_UPDATED_TIMEOUT + Constants.MESSAGE_QUEUE_INTERVAL;
-                if ((operationMessage.getLastConsumedTime() + consumeTimeout < currentTime ||
-                        operationMessage.getLastUpdatedTime() + updateTimeout < currentTime)) {
-                    logger.warn("Operation time out for operation " + deleteOperationId + " " +
-                            operationMessage.getCode() + " deleting message queue");
-                    sessionManager.removeOperationQueueMessages(deleteOperationId);
-                    break;
-                }
+            final SessionManager sessionManager = SessionManager.getInstance();
+            // If message exist for more longer without consume after the abort operation then remove it from
+            // the message queue
+            long consumeTimeout = Constants.MAX_LAST_CONSUME_TIMEOUT + Constants.MESSAGE_QUEUE_INTERVAL;
+            long updateTimeout = Constants.MAX_LAST_UPDATED_TIMEOUT + Constants.MESSAGE_QUEUE_INTERVAL;
+            for (OperationMessage operationMessage : sessionManager.evictStaleOperations(consumeTimeout,
+                    updateTimeout)) {
+                logger.warn("Operation time out for operation " + operationMessage.getOperationId() + " " +
+                        operationMessage.getCode() + " deleting message queue");
+            }
+            long currentTime = System.currentTimeMillis();
+            for (OperationMessage operationMessage : SessionManager.getOperationQueueMap().values()) {
                 // Abort operation execution if agent idle or test executor not retrieving back for a given timeout
                 long lastConsumedTime = operationMessage.getLastConsumedTime() + Constants.MAX_LAST_CONSUME_TIMEOUT;
                 long lastUpdatedTime = operationMessage.getLastUpdatedTime() + Constants.MAX_LAST_UPDATED_TIMEOUT;
                 if ((lastConsumedTime < currentTime || lastUpdatedTime < currentTime) &&
                         OperationRequest.OperationCode.SHELL.equals(operationMessage.getCode())) {
-                    logger.warn("Operation time out for operation " + deleteOperationId + " " +
+                    logger.warn("Operation time out for operation " + operationMessage.getOperationId() + " " +
                             operationMessage.getCode() + " Aborting execution operation");
                     AgentStreamHandler agentStreamHandler = new AgentStreamHandler();
-                    agentStreamHandler.abortOperation(deleteOperationId, operationMessage.getAgentId());
-                    break;
+                    agentStreamHandler.abortOperation(operationMessage.getOperationId(),
+                            operationMessage.getAgentId());
                 }
             }
         }
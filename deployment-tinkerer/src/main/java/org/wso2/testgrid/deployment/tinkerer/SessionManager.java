@@ -28,20 +28,26 @@ import org.wso2.testgrid.common.agentoperation.OperationSegment;
 import org.wso2.testgrid.deployment.tinkerer.beans.OperationMessage;
 import org.wso2.testgrid.deployment.tinkerer.providers.InfraProviderFactory;
 import org.wso2.testgrid.deployment.tinkerer.providers.Provider;
+import org.wso2.testgrid.deployment.tinkerer.utils.Constants;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.websocket.Session;
 
 /**
  * This class manage sessions of agents corresponding to agent ids.
+ * <p>
+ * Agents, sessions and operations are kept in concurrent maps keyed by their ids, so that lookups do not need to
+ * lock. Agents are also indexed by test plan id, and by test plan id and instance name. Updates of the agent
+ * indexes are serialized.
  *
  * @since 1.0.0
  */
@@ -50,10 +56,13 @@ public class SessionManager {
     private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
 
     private static final SessionManager sessionManager = new SessionManager();
-    private static volatile Map<String, Session> agentSessions = new HashMap<>();
-    private static volatile Map<String, Agent> agents = new HashMap<>();
-    private static volatile Map<String, OperationMessage> operationMessageMap = new HashMap<>();
-    private static volatile AgentObservable agentObservable = new AgentObservable();
+    private static final Map<String, Session> agentSessions = new ConcurrentHashMap<>();
+    private static final Map<String, Agent> agents = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Agent>> testPlanAgents = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Agent>> instanceAgents = new ConcurrentHashMap<>();
+    private static final Map<String, OperationMessage> operationMessageMap = new ConcurrentHashMap<>();
+    private static final AgentObservable agentObservable = new AgentObservable();
+    private final Object agentIndexLock = new Object();
 
     @SuppressFBWarnings("DMI_HARDCODED_ABSOLUTE_FILENAME")
     private SessionManager() {
@@ -82,7 +91,7 @@ public class SessionManager {
      * @param agentId      - Id of the agent.
      * @param agentSession - {@link Session} belongs to the agent.
      */
-    public synchronized void createAgentSession(String agentId, Session agentSession) {
+    public void createAgentSession(String agentId, Session agentSession) {
         Agent agent = new Agent(agentId);
         String provider = agent.getProvider();
         String region = agent.getRegion();
@@ -96,8 +105,15 @@ public class SessionManager {
             infrastructureProvider
                     .ifPresent(infraProvider -> infraProvider.getInstanceName(region, instanceId)
                             .ifPresent(agent::setInstanceName));
-            agentSessions.put(agentId, agentSession);
-            agents.put(agentId, agent);
+            synchronized (agentIndexLock) {
+                Agent previousAgent = agents.put(agentId, agent);
+                if (previousAgent != null) {
+                    removeFromIndexes(previousAgent);
+                }
+                addToIndex(testPlanAgents, agent.getTestPlanId(), agent);
+                addToIndex(instanceAgents, getInstanceKey(agent.getTestPlanId(), agent.getInstanceName()), agent);
+                agentSessions.put(agentId, agentSession);
+            }
         }
     }
 
@@ -106,27 +122,24 @@ public class SessionManager {
      *
      * @param agentId - Id of the agent.
      */
-    public synchronized void removeAgentSession(String agentId) {
-        agentSessions.remove(agentId);
-        agents.remove(agentId);
+    public void removeAgentSession(String agentId) {
+        synchronized (agentIndexLock) {
+            agentSessions.remove(agentId);
+            Agent agent = agents.remove(agentId);
+            if (agent != null) {
+                removeFromIndexes(agent);
+            }
+        }
     }
 
     /**
-     * Get the agent by specifying the test plan id and instance name.
+     * Get the agent by specifying the agent id.
      *
      * @param agentId   The agent id
      * @return the unique agent if exists, null otherwise.
      */
     public Agent getAgent(String agentId) {
-        Optional<Map.Entry<String, Agent>> agentOptional = agents.entrySet().stream()
-                .filter(entry -> {
-                    Agent agent = entry.getValue();
-                    if (agent != null && agentId != null) {
-                        return agentId.equals(agent.getAgentId());
-                    }
-                    return false;
-                }).findFirst();
-        return agentOptional.map(Map.Entry::getValue).orElse(null);
+        return agentId == null ? null : agents.get(agentId);
     }
 
     /**
@@ -137,15 +150,37 @@ public class SessionManager {
      * @return the unique agent if exists, null otherwise.
      */
     public Agent getAgent(String testPlanId, String instanceName) {
-        Optional<Map.Entry<String, Agent>> agentOptional = agents.entrySet().stream()
-                .filter(entry -> {
-                    Agent agent = entry.getValue();
-                    if (agent != null && testPlanId != null && instanceName != null) {
-                        return testPlanId.equals(agent.getTestPlanId()) && instanceName.equals(agent.getInstanceName());
-                    }
-                    return false;
-                }).findFirst();
-        return agentOptional.map(Map.Entry::getValue).orElse(null);
+        if (testPlanId == null || instanceName == null) {
+            return null;
+        }
+        Map<String, Agent> instanceAgentMap = instanceAgents.get(getInstanceKey(testPlanId, instanceName));
+        if (instanceAgentMap == null) {
+            return null;
+        }
+        return instanceAgentMap.values().stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Get all agents registered with under a given test plan.
+     *
+     * @param testPlanId - Test plan id which spawned the agents.
+     * @return A {@link List<Agent>} of agents of the test plan.
+     */
+    public List<Agent> getAgents(String testPlanId) {
+        Map<String, Agent> testPlanAgentMap = testPlanId == null ? null : testPlanAgents.get(testPlanId);
+        if (testPlanAgentMap == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(testPlanAgentMap.values());
+    }
+
+    /**
+     * Get ids of all test plans which have agents registered with.
+     *
+     * @return A {@link List} of test plan ids.
+     */
+    public List<String> getTestPlanIds() {
+        return new ArrayList<>(testPlanAgents.keySet());
     }
 
     /**
@@ -192,16 +227,8 @@ public class SessionManager {
      * @param operationId   operation id of relevant OperationQueue
      * @return  OparationQueue for the relevant operation id
      */
-    public synchronized OperationMessage getOperationRequest(String operationId) {
-        Optional<Map.Entry<String, OperationMessage>> operationOptional = operationMessageMap.entrySet().stream()
-                .filter(entry -> {
-                    OperationMessage operationMessage = entry.getValue();
-                    if (operationMessage != null && operationId != null) {
-                        return operationId.equals(operationMessage.getOperationId());
-                        }
-                        return false;
-                    }).findFirst();
-        return operationOptional.map(Map.Entry::getValue).orElse(null);
+    public OperationMessage getOperationRequest(String operationId) {
+        return operationId == null ? null : operationMessageMap.get(operationId);
     }
 
     /**
@@ -209,7 +236,7 @@ public class SessionManager {
      *
      * @return      operationMessageMap
      */
-    public static synchronized Map<String, OperationMessage> getOperationQueueMap() {
+    public static Map<String, OperationMessage> getOperationQueueMap() {
         return operationMessageMap;
     }
 
@@ -220,51 +247,56 @@ public class SessionManager {
      * @param code          Type of the operation
      * @param agentId       The agent id
      */
-    public synchronized void addNewOperationQueue(String operationId, OperationRequest.OperationCode code,
-                                                  String agentId) {
+    public void addNewOperationQueue(String operationId, OperationRequest.OperationCode code, String agentId) {
         OperationMessage operationMessage = new OperationMessage(operationId, code, agentId);
         operationMessageMap.put(operationId, operationMessage);
     }
 
     /**
-     * Get list of messages as single OperationSegment object for given operation id
+     * Get list of messages as single OperationSegment object for given operation id, without consuming them
      *
      * @param operationId       operation id of the message
      * @return
      */
     public OperationSegment getOperationQueueMessages(String operationId) {
-        String returnMessage = "";
+        StringBuilder returnMessage = new StringBuilder();
         OperationSegment tempOperationSegment = new OperationSegment();
         OperationMessage operationMessage = getOperationRequest(operationId);
         if (operationMessage != null) {
             for (String operationSegment : operationMessage.getMessageQueue()) {
-                returnMessage = returnMessage.concat(operationSegment);
+                returnMessage.append(operationSegment);
             }
             tempOperationSegment.setCompleted(operationMessage.isCompleted());
             tempOperationSegment.setExitValue(operationMessage.getExitValue());
             tempOperationSegment.setCode(operationMessage.getCode());
             tempOperationSegment.setOperationId(operationId);
         }
-        tempOperationSegment.setResponse(returnMessage);
+        tempOperationSegment.setResponse(returnMessage.toString());
         return tempOperationSegment;
     }
 
     /**
-     * Dequeue all new messages from operationMessageMap if any new messages are available
+     * Dequeue the oldest messages from operationMessageMap, up to {@link Constants#MAX_DEQUEUE_CONTENT_LENGTH} bytes.
+     * The operation is reported as completed only when all of its messages are dequeued.
      *
      * @param operationId   operation id to select message queue
      * @return
      */
-    public synchronized OperationSegment dequeueOperationQueueMessages(String operationId) {
-        OperationSegment operationSegment = getOperationQueueMessages(operationId);
-        OperationMessage operationMessage = operationMessageMap.get(operationId);
-        if (operationMessage != null) {
-            operationMessageMap.get(operationId).resetMessageQueue();
-            operationMessageMap.get(operationId).updateLastConsumedTime();
-            return operationSegment;
-        } else {
+    public OperationSegment dequeueOperationQueueMessages(String operationId) {
+        OperationMessage operationMessage = getOperationRequest(operationId);
+        if (operationMessage == null) {
             return null;
         }
+        // Hold the operation while its messages are drained, so that the completion state matches the messages
+        synchronized (operationMessage) {
+            OperationSegment operationSegment = new OperationSegment();
+            operationSegment.setResponse(operationMessage.drainMessages(Constants.MAX_DEQUEUE_CONTENT_LENGTH));
+            operationSegment.setCompleted(operationMessage.isCompleted() && operationMessage.getPendingLength() == 0);
+            operationSegment.setExitValue(operationMessage.getExitValue());
+            operationSegment.setCode(operationMessage.getCode());
+            operationSegment.setOperationId(operationId);
+            return operationSegment;
+        }
     }
 
     /**
@@ -273,17 +305,9 @@ public class SessionManager {
      * @param operationId   The operation id
      * @return      has new messages
      */
-    public synchronized boolean hasMessageQueueResponse(String operationId) {
-        OperationMessage operationMessage = operationMessageMap.get(operationId);
-        if (operationMessage != null) {
-            if (operationMessage.getMessageQueue().size() > 0) {
-                return true;
-            } else {
-                return false;
-            }
-        } else {
-            return false;
-        }
+    public boolean hasMessageQueueResponse(String operationId) {
+        OperationMessage operationMessage = getOperationRequest(operationId);
+        return operationMessage != null && operationMessage.hasMessages();
     }
 
     /**
@@ -291,14 +315,35 @@ public class SessionManager {
      *
      * @param operationId   operation id for relevant message queue
      */
-    public synchronized void removeOperationQueueMessages(String operationId) {
-        OperationMessage operationMessage = operationMessageMap.get(operationId);
+    public void removeOperationQueueMessages(String operationId) {
+        OperationMessage operationMessage = operationId == null ? null : operationMessageMap.remove(operationId);
         if (operationMessage != null) {
             operationMessage.removePersistedFile();
-            operationMessageMap.remove(operationId);
         }
     }
 
+    /**
+     * Remove the operations which have not been updated or consumed for the given time-outs.
+     *
+     * @param consumeTimeout    maximum time in milliseconds since the operation was last consumed
+     * @param updateTimeout     maximum time in milliseconds since the operation was last updated
+     * @return  the removed operations
+     */
+    public List<OperationMessage> evictStaleOperations(long consumeTimeout, long updateTimeout) {
+        List<OperationMessage> evictedOperations = new ArrayList<>();
+        long currentTime = System.currentTimeMillis();
+        for (OperationMessage operationMessage : operationMessageMap.values()) {
+            if (operationMessage.getLastConsumedTime() + consumeTimeout < currentTime ||
+                    operationMessage.getLastUpdatedTime() + updateTimeout < currentTime) {
+                if (operationMessageMap.remove(operationMessage.getOperationId(), operationMessage)) {
+                    operationMessage.removePersistedFile();
+                    evictedOperations.add(operationMessage);
+                }
+            }
+        }
+        return evictedOperations;
+    }
+
     /**
      * Get agent observer
      *
@@ -307,5 +352,28 @@ public class SessionManager {
     public static AgentObservable getAgentObservable() {
         return agentObservable;
     }
-}
 
+    private static void addToIndex(Map<String, Map<String, Agent>> index, String key, Agent agent) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(agent.getAgentId(), agent);
+        }
+    }
+
+    private static void removeFromIndex(Map<String, Map<String, Agent>> index, String key, Agent agent) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, indexedAgents) -> {
+                indexedAgents.remove(agent.getAgentId(), agent);
+                return indexedAgents.isEmpty() ? null : indexedAgents;
+            });
+        }
+    }
+
+    private static void removeFromIndexes(Agent agent) {
+        removeFromIndex(testPlanAgents, agent.getTestPlanId(), agent);
+        removeFromIndex(instanceAgents, getInstanceKey(agent.getTestPlanId(), agent.getInstanceName()), agent);
+    }
+
+    private static String getInstanceKey(String testPlanId, String instanceName) {
+        return testPlanId == null || instanceName == null ? null : testPlanId + "/" + instanceName;
+    }
+}
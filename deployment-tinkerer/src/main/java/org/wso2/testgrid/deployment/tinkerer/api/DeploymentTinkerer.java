@@ -40,8 +40,6 @@ import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 import javax.websocket.Session;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -86,10 +84,7 @@ public class DeploymentTinkerer {
     @Path("test-plans")
     public Response listAllTestPlans() {
         SessionManager sessionManager = SessionManager.getInstance();
-        ConcurrentHashMap<String, String> testPlans = new ConcurrentHashMap<>();
-        sessionManager.getAgents()
-                .forEach(agent -> testPlans.putIfAbsent(agent.getTestPlanId(), agent.getTestPlanId()));
-        return Response.status(Response.Status.OK).entity(testPlans.values()).build();
+        return Response.status(Response.Status.OK).entity(sessionManager.getTestPlanIds()).build();
     }
 
     /**
@@ -101,8 +96,7 @@ public class DeploymentTinkerer {
     @Path("test-plan/{testPlanId}/agents")
     public Response listAllRegisteredTestPlanAgents(@PathParam("testPlanId") String testPlanId) {
         SessionManager sessionManager = SessionManager.getInstance();
-        List<Agent> agents = sessionManager.getAgents().stream()
-                .filter(agent -> testPlanId.equals(agent.getTestPlanId())).collect(Collectors.toList());
+        List<Agent> agents = sessionManager.getAgents(testPlanId);
         return Response.status(Response.Status.OK).entity(agents).build();
     }
 
@@ -206,14 +200,14 @@ public class DeploymentTinkerer {
                 // Send command to agent through the socket
                 wsSession.getBasicRemote().sendText(operationRequest.toJSON());
                 operationSegment.setOperationId(operationRequest.getOperationId());
+                StringBuilder response = new StringBuilder();
                 long initTime = Calendar.getInstance().getTimeInMillis();
                 while (true) {
                     long currentTime = Calendar.getInstance().getTimeInMillis();
                     OperationSegment tempOperationSegment = sessionManager.dequeueOperationQueueMessages(
                             operationRequest.getOperationId());
                     if (tempOperationSegment != null) {
-                        operationSegment.setResponse(operationSegment.getResponse().
-                                concat(tempOperationSegment.getResponse()));
+                        response.append(tempOperationSegment.getResponse());
                         if (tempOperationSegment.getCompleted()) {
                             operationSegment.setCompleted(true);
                             operationSegment.setExitValue(tempOperationSegment.getExitValue());
@@ -232,11 +226,15 @@ public class DeploymentTinkerer {
                         errorResponse.setMessage(message);
                         return Response.status(Response.Status.REQUEST_TIMEOUT).entity(errorResponse).build();
                     }
-                    try {
-                        Thread.sleep(Constants.AGENT_WAIT_TIMEOUT);
-                    } catch (InterruptedException ignore) {
+                    // Keep dequeuing without waiting while the agent has responded more than a single dequeue
+                    if (tempOperationSegment.getResponse().isEmpty()) {
+                        try {
+                            Thread.sleep(Constants.AGENT_WAIT_TIMEOUT);
+                        } catch (InterruptedException ignore) {
+                        }
                     }
                 }
+                operationSegment.setResponse(response.toString());
             } catch (IOException e) {
                 String message = "Error occurred while sending operation to agent: " + agent.getAgentId();
                 logger.error(message, e);
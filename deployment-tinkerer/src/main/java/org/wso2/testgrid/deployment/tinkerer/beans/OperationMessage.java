@@ -21,15 +21,13 @@ package org.wso2.testgrid.deployment.tinkerer.beans;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.agentoperation.OperationFrame;
 import org.wso2.testgrid.common.agentoperation.OperationRequest;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
-import org.wso2.testgrid.common.exception.TestGridException;
-import org.wso2.testgrid.common.util.FileUtil;
 import org.wso2.testgrid.deployment.tinkerer.utils.Constants;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Calendar;
 import java.util.LinkedList;
@@ -37,6 +35,9 @@ import java.util.Queue;
 
 /**
  * Hold list of operation result which were executed on agent.
+ * <p>
+ * The result is buffered as bytes, with at most {@link Constants#MAX_QUEUE_CONTENT_LENGTH} bytes kept in memory.
+ * The rest is spilled into a file and consumers drain the result incrementally.
  */
 public class OperationMessage {
 
@@ -46,14 +47,14 @@ public class OperationMessage {
     private String operationId;
     private String agentId;
     private OperationRequest.OperationCode code;
-    private volatile Queue<String> messageQueue;
+    private final OperationOutputBuffer outputBuffer;
     private volatile boolean completed;
     private volatile int exitValue;
-    private volatile double contentLength;
+    private int pendingSegments;
+    private long nextSequence;
     private volatile long createdTime;
     private volatile long lastUpdatedTime;
     private volatile long lastConsumedTime;
-    private volatile boolean persisted;
 
     /**
      * Create new operation queue and initialize with operation id and code.
@@ -63,21 +64,33 @@ public class OperationMessage {
      * @param agentId       The id of the agent operation executing on
      */
     public OperationMessage(String operationId, OperationRequest.OperationCode code, String agentId) {
+        this(operationId, code, agentId, (int) Constants.MAX_QUEUE_CONTENT_LENGTH);
+    }
+
+    /**
+     * Create new operation queue which keeps at most the given number of bytes in memory.
+     *
+     * @param operationId       The operation id
+     * @param code              Type of the operation
+     * @param agentId           The id of the agent operation executing on
+     * @param memoryCapacity    Maximum number of bytes of the result kept in memory
+     */
+    @SuppressFBWarnings("DMI_HARDCODED_ABSOLUTE_FILENAME")
+    OperationMessage(String operationId, OperationRequest.OperationCode code, String agentId, int memoryCapacity) {
         this.operationId = operationId;
         this.agentId = agentId;
-        this.messageQueue = new LinkedList<>();
+        this.outputBuffer = new OperationOutputBuffer(memoryCapacity,
+                Paths.get(PERSISTED_FILE_PATH, operationId.concat(".txt")));
         this.code = code;
         this.createdTime = Calendar.getInstance().getTimeInMillis();
         this.lastUpdatedTime = Calendar.getInstance().getTimeInMillis();
         this.lastConsumedTime = Calendar.getInstance().getTimeInMillis();
-        this.contentLength = 0;
-        this.persisted = false;
         this.completed = false;
         this.exitValue = 0;
     }
 
     /**
-     * Add new message to the message queue.
+     * Add new message to the message queue. The result is spilled into a file if it overflows the memory.
      *
      * @param operationSegment  operation segment to add
      */
@@ -85,19 +98,44 @@ public class OperationMessage {
         if (operationSegment.getCompleted()) {
             setOperationAsCompleted(operationSegment.getExitValue());
         }
-        if (this.persisted) {
-            persistMessage(operationSegment.getResponse());
-        } else {
-            this.messageQueue.add(operationSegment.getResponse());
-            this.contentLength += operationSegment.getResponse().length();
+        String response = operationSegment.getResponse();
+        writeOutput(response == null ? null : response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Add a binary frame of the result received from the agent. A warning is logged if frames are missing
+     * in between, since their output is lost.
+     *
+     * @param operationFrame    operation frame to add
+     */
+    public synchronized void addFrame(OperationFrame operationFrame) {
+        if (operationFrame.getSequence() != this.nextSequence) {
+            logger.warn("Expected frame " + this.nextSequence + " but received frame " +
+                    operationFrame.getSequence() + " for operation " + this.operationId +
+                    ". Output of the operation may be incomplete.");
         }
-        // Persist message queue into a file if it overflow
-        if (this.contentLength > Constants.MAX_QUEUE_CONTENT_LENGTH) {
-            logger.info("Message overflow for operation " + this.operationId +
-                    " Start persist message queue into a file");
-            persistOperationQueue();
+        this.nextSequence = operationFrame.getSequence() + 1;
+        if (operationFrame.isCompleted()) {
+            setOperationAsCompleted(operationFrame.getExitValue());
         }
-        this.lastUpdatedTime = Calendar.getInstance().getTimeInMillis();;
+        writeOutput(operationFrame.getPayload());
+    }
+
+    private void writeOutput(byte[] output) {
+        try {
+            boolean spilled = outputBuffer.isSpilled();
+            if (output != null) {
+                outputBuffer.write(output);
+            }
+            if (!spilled && outputBuffer.isSpilled()) {
+                logger.info("Message overflow for operation " + this.operationId +
+                        " Start persist message queue into a file");
+            }
+        } catch (IOException e) {
+            logger.error("Unable persist data into a file for operation id " + this.operationId, e);
+        }
+        this.pendingSegments++;
+        this.lastUpdatedTime = Calendar.getInstance().getTimeInMillis();
     }
 
     /**
@@ -119,13 +157,20 @@ public class OperationMessage {
     }
 
     /**
-     * Get message queue as queue
+     * Get message queue as queue. The whole result is read into a single message; use
+     * {@link #drainMessages(int)} to consume the result incrementally.
      *
      * @return  The message queue
      */
     public synchronized Queue<String> getMessageQueue() {
-        if (this.persisted) {
-            recoverOperationQueue();
+        Queue<String> messageQueue = new LinkedList<>();
+        try {
+            outputBuffer.recover();
+            if (this.pendingSegments > 0 || outputBuffer.size() > 0) {
+                messageQueue.add(outputBuffer.peekAll());
+            }
+        } catch (IOException e) {
+            logger.error("Unable read data from a file for operation id " + this.operationId, e);
         }
         return messageQueue;
     }
@@ -136,11 +181,16 @@ public class OperationMessage {
      * @param messageQueue  The message queue
      */
     public synchronized void setMessageQueue(Queue<String> messageQueue) {
-        if (this.persisted) {
-            removePersistedFile();
+        removePersistedFile();
+        this.pendingSegments = 0;
+        for (String message : messageQueue) {
+            try {
+                outputBuffer.write(message.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.error("Unable persist data into a file for operation id " + this.operationId, e);
+            }
+            this.pendingSegments++;
         }
-        this.messageQueue = messageQueue;
-        this.contentLength = calculateContentLength();
         this.lastUpdatedTime = Calendar.getInstance().getTimeInMillis();
     }
 
@@ -149,12 +199,39 @@ public class OperationMessage {
      *
      */
     public synchronized void resetMessageQueue() {
-        if (this.persisted) {
-            removePersistedFile();
+        removePersistedFile();
+        this.pendingSegments = 0;
+        this.lastConsumedTime = Calendar.getInstance().getTimeInMillis();
+    }
+
+    /**
+     * Drain up to the given number of bytes of the result, from the oldest. A character split at the end of the
+     * range is left for the next drain.
+     *
+     * @param maxBytes      Maximum number of bytes to drain
+     * @return              The drained result
+     */
+    public synchronized String drainMessages(int maxBytes) {
+        String result = "";
+        try {
+            result = outputBuffer.drain(maxBytes);
+        } catch (IOException e) {
+            logger.error("Unable read data from a file for operation id " + this.operationId, e);
+        }
+        if (outputBuffer.size() == 0) {
+            this.pendingSegments = 0;
         }
-        this.messageQueue = new LinkedList<>();
-        this.contentLength = 0;
         this.lastConsumedTime = Calendar.getInstance().getTimeInMillis();
+        return result;
+    }
+
+    /**
+     * Check if any result was received from the agent and not consumed yet.
+     *
+     * @return      true if there is a result to consume, else false
+     */
+    public synchronized boolean hasMessages() {
+        return this.pendingSegments > 0 || outputBuffer.size() > 0;
     }
 
     /**
@@ -209,26 +286,21 @@ public class OperationMessage {
     }
 
     /**
-     * Get the length of the all messages in message queue
+     * Get the length of the messages kept in memory
      *
-     * @return      Length of the message queue
+     * @return      Length of the message queue in memory
      */
     public synchronized double getContentLength() {
-        return contentLength;
+        return outputBuffer.getMemorySize();
     }
 
     /**
-     * Get the length of the shell execution result string
+     * Get the length of all the messages which are not consumed yet, including the ones persisted into a file
      *
-     * @return      Content length
+     * @return      Length of the result in bytes
      */
-    private synchronized double calculateContentLength() {
-        double sizeOfContent = 0;
-        for (String operationSegment : this.messageQueue) {
-            sizeOfContent += operationSegment.length();
-        }
-
-        return sizeOfContent;
+    public synchronized long getPendingLength() {
+        return outputBuffer.size();
     }
 
     /**
@@ -237,66 +309,26 @@ public class OperationMessage {
      * @return      true if success, else false
      */
     public synchronized boolean persistOperationQueue() {
-        String dataToWrite = "";
-        for (String dataSegment : messageQueue) {
-            dataToWrite = dataToWrite.concat(dataSegment);
-        }
-        return persistMessage(dataToWrite);
-    }
-
-    /**
-     * Print string into a file
-     *
-     * @param message       The message to write into a file
-     * @return              true if success, else false
-     */
-    @SuppressFBWarnings("DMI_HARDCODED_ABSOLUTE_FILENAME")
-    private synchronized boolean persistMessage(String message) {
         try {
-            FileUtil.saveFile(message, PERSISTED_FILE_PATH, this.operationId.concat(".txt"), true);
-            this.messageQueue = new LinkedList<>();
-            this.lastUpdatedTime = Calendar.getInstance().getTimeInMillis();;
-            this.contentLength = 0;
-            this.persisted = true;
+            outputBuffer.spillMemory();
         } catch (IOException e) {
             logger.error("Unable persist data into a file for operation id " + this.operationId, e);
             return false;
         }
+        this.lastUpdatedTime = Calendar.getInstance().getTimeInMillis();
         return true;
     }
 
     /**
-     * Read back persisted data from a file into the message queue
-     *
-     * @return      true if success, else false
-     */
-    @SuppressFBWarnings("DMI_HARDCODED_ABSOLUTE_FILENAME")
-    private synchronized boolean recoverOperationQueue() {
-        try {
-            String persistedResult = FileUtil.readFile(PERSISTED_FILE_PATH, this.operationId.concat(".txt"));
-            double contentLength = persistedResult.length();
-            this.messageQueue.add(persistedResult);
-            this.persisted = false;
-            this.contentLength = contentLength;
-        } catch (TestGridException e) {
-            logger.error("Unable read data from a file for operation id " + this.operationId, e);
-            return false;
-        }
-        return removePersistedFile();
-    }
-
-    /**
-     * Remove persisted in file.
+     * Remove the result of the operation, including the one persisted in file.
      *
      * @return      true if success, else false
      */
-    @SuppressFBWarnings("DMI_HARDCODED_ABSOLUTE_FILENAME")
     public synchronized boolean removePersistedFile() {
-        Path filePath = Paths.get(PERSISTED_FILE_PATH, this.operationId.concat(".txt"));
         try {
-            Files.delete(filePath);
+            outputBuffer.clear();
         } catch (IOException e) {
-            logger.warn("Error while removing file " + filePath.toString());
+            logger.warn("Error while removing persisted file of operation " + this.operationId);
             return false;
         }
         return true;
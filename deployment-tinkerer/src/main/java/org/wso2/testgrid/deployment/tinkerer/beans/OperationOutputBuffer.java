@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.deployment.tinkerer.beans;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Byte buffer of the output of an operation, with a fixed memory cap and a spill file.
+ * <p>
+ * Output is kept in a ring buffer which grows up to the memory cap. When a write does not fit, the buffered bytes
+ * are appended to the spill file, so that the file holds the oldest bytes and memory the newest. Consumers drain
+ * the output incrementally from the head, reading the spill file first. The spill file is truncated once it is
+ * fully drained.
+ * <p>
+ * This class is not thread safe; {@link OperationMessage} guards it.
+ */
+final class OperationOutputBuffer {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int memoryCapacity;
+    private final Path spillFile;
+    private byte[] ring = EMPTY;
+    private int head;
+    private int memorySize;
+    private FileChannel spillChannel;
+    private long spillReadPosition;
+    private long spillWritePosition;
+
+    /**
+     * Creates an output buffer.
+     *
+     * @param memoryCapacity maximum number of bytes kept in memory
+     * @param spillFile      file to spill the bytes which do not fit in memory
+     */
+    OperationOutputBuffer(int memoryCapacity, Path spillFile) {
+        this.memoryCapacity = memoryCapacity;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Appends the given bytes to the output.
+     *
+     * @param bytes bytes to append
+     * @throws IOException thrown when error on spilling to the file
+     */
+    void write(byte[] bytes) throws IOException {
+        if (bytes.length == 0) {
+            return;
+        }
+        if (memorySize + bytes.length > memoryCapacity) {
+            spillMemory();
+            if (bytes.length > memoryCapacity) {
+                writeToSpill(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        writeToMemory(bytes);
+    }
+
+    /**
+     * Moves all the bytes kept in memory to the spill file.
+     *
+     * @throws IOException thrown when error on writing to the spill file
+     */
+    void spillMemory() throws IOException {
+        if (memorySize == 0) {
+            return;
+        }
+        int first = Math.min(memorySize, ring.length - head);
+        writeToSpill(ByteBuffer.wrap(ring, head, first));
+        writeToSpill(ByteBuffer.wrap(ring, 0, memorySize - first));
+        head = 0;
+        memorySize = 0;
+    }
+
+    /**
+     * Moves the spilled bytes back into memory, if all the output fits in memory.
+     *
+     * @return {@code true} if no bytes are spilled anymore, {@code false} otherwise
+     * @throws IOException thrown when error on reading the spill file
+     */
+    boolean recover() throws IOException {
+        long spillSize = getSpillSize();
+        if (spillSize == 0) {
+            return true;
+        }
+        if (spillSize + memorySize > memoryCapacity) {
+            return false;
+        }
+        byte[] output = new byte[(int) (spillSize + memorySize)];
+        peek(output, output.length);
+        ring = new byte[Math.max(INITIAL_CAPACITY, output.length)];
+        System.arraycopy(output, 0, ring, 0, output.length);
+        head = 0;
+        memorySize = output.length;
+        resetSpill();
+        return true;
+    }
+
+    /**
+     * Drains up to the given number of bytes from the head of the output, decoded as UTF-8. A multi-byte character
+     * split at the end of the range is left in the buffer.
+     *
+     * @param maxBytes maximum number of bytes to drain
+     * @return drained output
+     * @throws IOException thrown when error on reading the spill file
+     */
+    String drain(int maxBytes) throws IOException {
+        long size = size();
+        int length = (int) Math.min(maxBytes, size);
+        byte[] bytes = new byte[length];
+        peek(bytes, length);
+        int end = length < size ? getCharacterBoundary(bytes, length) : length;
+        if (end == 0) {
+            // The range is shorter than a character; drain it anyway to make progress
+            end = length;
+        }
+        skip(end);
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the whole output without draining it, decoded as UTF-8.
+     *
+     * @return the whole output
+     * @throws IOException thrown when error on reading the spill file
+     */
+    String peekAll() throws IOException {
+        long size = size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Output of size " + size + " bytes is too large to be read at once");
+        }
+        byte[] bytes = new byte[(int) size];
+        peek(bytes, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of bytes in the output.
+     *
+     * @return size of the output
+     */
+    long size() {
+        return getSpillSize() + memorySize;
+    }
+
+    /**
+     * Returns the number of bytes kept in memory.
+     *
+     * @return size of the output in memory
+     */
+    int getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Returns whether any bytes are spilled to the file.
+     *
+     * @return {@code true} if bytes are spilled, {@code false} otherwise
+     */
+    boolean isSpilled() {
+        return getSpillSize() > 0;
+    }
+
+    /**
+     * Discards the output, releasing the memory and deleting the spill file.
+     *
+     * @throws IOException thrown when error on deleting the spill file
+     */
+    void clear() throws IOException {
+        ring = EMPTY;
+        head = 0;
+        memorySize = 0;
+        spillReadPosition = 0;
+        spillWritePosition = 0;
+        if (spillChannel != null) {
+            spillChannel.close();
+            spillChannel = null;
+        }
+        Files.deleteIfExists(spillFile);
+    }
+
+    private long getSpillSize() {
+        return spillWritePosition - spillReadPosition;
+    }
+
+    private void writeToMemory(byte[] bytes) {
+        ensureCapacity(memorySize + bytes.length);
+        int tail = (head + memorySize) % ring.length;
+        int first = Math.min(bytes.length, ring.length - tail);
+        System.arraycopy(bytes, 0, ring, tail, first);
+        System.arraycopy(bytes, first, ring, 0, bytes.length - first);
+        memorySize += bytes.length;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ring.length) {
+            return;
+        }
+        int capacity = Math.max(INITIAL_CAPACITY, ring.length);
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        byte[] newRing = new byte[Math.max(required, Math.min(capacity, memoryCapacity))];
+        copyFromMemory(newRing, 0, memorySize);
+        ring = newRing;
+        head = 0;
+    }
+
+    private void copyFromMemory(byte[] destination, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        int first = Math.min(length, ring.length - head);
+        System.arraycopy(ring, head, destination, offset, first);
+        System.arraycopy(ring, 0, destination, offset + first, length - first);
+    }
+
+    private void writeToSpill(ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) {
+            return;
+        }
+        if (spillChannel == null) {
+            spillChannel = FileChannel.open(spillFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        while (buffer.hasRemaining()) {
+            spillWritePosition += spillChannel.write(buffer, spillWritePosition);
+        }
+    }
+
+    private void peek(byte[] destination, int length) throws IOException {
+        int fromSpill = (int) Math.min(length, getSpillSize());
+        ByteBuffer buffer = ByteBuffer.wrap(destination, 0, fromSpill);
+        long position = spillReadPosition;
+        while (buffer.hasRemaining()) {
+            int read = spillChannel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of spill file " + spillFile);
+            }
+            position += read;
+        }
+        copyFromMemory(destination, fromSpill, Math.min(length - fromSpill, memorySize));
+    }
+
+    private void skip(int length) throws IOException {
+        int fromSpill = (int) Math.min(length, getSpillSize());
+        spillReadPosition += fromSpill;
+        if (fromSpill > 0 && getSpillSize() == 0) {
+            resetSpill();
+        }
+        int fromMemory = length - fromSpill;
+        if (fromMemory > 0) {
+            head = (head + fromMemory) % ring.length;
+            memorySize -= fromMemory;
+        }
+        if (memorySize == 0) {
+            head = 0;
+        }
+    }
+
+    private void resetSpill() throws IOException {
+        spillReadPosition = 0;
+        spillWritePosition = 0;
+        if (spillChannel != null) {
+            spillChannel.truncate(0);
+        }
+    }
+
+    /**
+     * Returns the largest length, not exceeding the given length, at which the given UTF-8 bytes do not end in the
+     * middle of a character.
+     */
+    private static int getCharacterBoundary(byte[] bytes, int length) {
+        int start = length;
+        while (start > 0 && (bytes[start - 1] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start == 0) {
+            return length;
+        }
+        int lead = bytes[start - 1] & 0xFF;
+        int characterLength = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        return length - (start - 1) >= characterLength ? length : start - 1;
+    }
+}
@@ -31,6 +31,7 @@ public final class Constants {
     public static final int MESSAGE_QUEUE_INTERVAL = 2000; // Message queue refresh interval in milliseconds
     public static final int AGENT_WAIT_TIMEOUT = 500; // Timeout wait to execute operation on agent without streaming
     public static final double MAX_QUEUE_CONTENT_LENGTH = 5e6; // Maximum size of the each of the message queue
+    public static final int MAX_DEQUEUE_CONTENT_LENGTH = 1024 * 1024; // Maximum size of a dequeued message in bytes
     public static final int MAX_LAST_CONSUME_TIMEOUT = 900000;  // Maximum waiting time to dequeue message queue
     public static final int MAX_LAST_UPDATED_TIMEOUT = 900000;  // Maximum waiting time to update message queue
 
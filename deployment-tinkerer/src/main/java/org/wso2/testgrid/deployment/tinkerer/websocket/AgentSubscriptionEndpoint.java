@@ -21,11 +21,13 @@ package org.wso2.testgrid.deployment.tinkerer.websocket;
 import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.agentoperation.OperationFrame;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
 import org.wso2.testgrid.deployment.tinkerer.SessionManager;
 import org.wso2.testgrid.deployment.tinkerer.beans.OperationMessage;
 import org.wso2.testgrid.deployment.tinkerer.utils.HttpSessionConfigurator;
 
+import java.nio.ByteBuffer;
 import javax.websocket.CloseReason;
 import javax.websocket.OnClose;
 import javax.websocket.OnError;
@@ -91,6 +93,24 @@ public class AgentSubscriptionEndpoint extends SubscriptionEndpoint {
     @OnMessage
     public void onMessage(Session session, byte[] message, @PathParam("agentId") String agentId) {
         super.onMessage(session, message, agentId);
+        OperationFrame operationFrame;
+        try {
+            operationFrame = OperationFrame.decode(ByteBuffer.wrap(message));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Discarding invalid operation frame from agent: " + agentId, e);
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Frame " + operationFrame.getSequence() + " receive from agent: " + agentId +
+                    " with operation id " + operationFrame.getOperationId() + " size " +
+                    operationFrame.getPayload().length + " completed " + operationFrame.isCompleted());
+        }
+        OperationMessage operationMessage = SessionManager.getOperationQueueMap().
+                get(operationFrame.getOperationId());
+        if (operationMessage != null) {
+            operationMessage.addFrame(operationFrame);
+        }
+        SessionManager.getAgentObservable().notifyObservable(operationFrame.getOperationId());
     }
 
     /**
@@ -29,6 +29,10 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /**
  * Unit test for OperationMessageTest class.
  */
@@ -64,6 +68,36 @@ public class OperationMessageTest extends PowerMockTestCase {
                 "Set message queue with previous and test");
     }
 
+    @Test()
+    public void testSpillAndDrain() throws Exception {
+        String operationId = "1234-5678-91012";
+        OperationMessage operationMessage = new OperationMessage(operationId,
+                OperationSegment.OperationCode.SHELL, "wso2:testgrid:1234-5678:agent:127.0.0.1", 16);
+        Path spillFile = Paths.get(OperationMessage.PERSISTED_FILE_PATH, operationId.concat(".txt"));
+        String[] responses = {"first line\n", "caf\u00e9 cr\u00e8me br\u00fbl\u00e9e\n", "", "last line\n"};
+        StringBuilder expected = new StringBuilder();
+        for (String response : responses) {
+            OperationSegment operationSegment = new OperationSegment();
+            operationSegment.setOperationId(operationId);
+            operationSegment.setResponse(response);
+            operationMessage.addMessage(operationSegment);
+            expected.append(response);
+        }
+        Assert.assertTrue(operationMessage.getContentLength() <= 16, "Memory should be bounded");
+        Assert.assertTrue(Files.exists(spillFile), "Overflowed messages should be spilled into a file");
+        Assert.assertTrue(operationMessage.hasMessages());
+
+        StringBuilder drained = new StringBuilder();
+        while (operationMessage.getPendingLength() > 0) {
+            drained.append(operationMessage.drainMessages(7));
+        }
+        Assert.assertEquals(drained.toString(), expected.toString());
+        Assert.assertFalse(operationMessage.hasMessages(), "No messages should be left after draining");
+
+        operationMessage.removePersistedFile();
+        Assert.assertFalse(Files.exists(spillFile), "Spill file should be removed");
+    }
+
     @AfterMethod
     public void tearDown() throws Exception { }
 
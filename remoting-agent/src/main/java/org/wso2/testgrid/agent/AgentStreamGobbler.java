@@ -22,17 +22,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.agentoperation.AgentObservable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.Arrays;
 
 /**
  * Thread to read stream output of the command execution and update observers.
  */
 class AgentStreamGobbler extends Thread {
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
     private InputStream inputStream;
     private AgentObservable agentObservable;
     private StreamResponse.StreamType streamType;
@@ -52,24 +50,19 @@ class AgentStreamGobbler extends Thread {
     }
 
     /**
-     * Read stream and notify observers with the logs.
+     * Read stream and notify observers with the output, as chunks of raw bytes.
      */
     @Override
     public void run() {
         try {
-            InputStreamReader inputStreamReader = new InputStreamReader(this.inputStream, UTF_8);
-            BufferedReader br = new BufferedReader(inputStreamReader);
-            String line = "";
-            // Small wait to sync two threads
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                logger.error("Error while waiting stream reader thread");
-            }
-            while ((line = br.readLine()) != null) {
-                StreamResponse streamResponse = new StreamResponse(line, false, this.streamType);
-                logger.info("Read line: " + line);
-                this.agentObservable.notifyObservable(streamResponse);
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int read;
+            while ((read = this.inputStream.read(buffer)) != -1) {
+                if (read > 0) {
+                    StreamResponse streamResponse = new StreamResponse(Arrays.copyOf(buffer, read), false,
+                            this.streamType);
+                    this.agentObservable.notifyObservable(streamResponse);
+                }
             }
             StreamResponse streamResponse = new StreamResponse("", true, this.streamType);
             this.agentObservable.notifyObservable(streamResponse);
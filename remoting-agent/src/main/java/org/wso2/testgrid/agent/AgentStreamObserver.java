@@ -22,31 +22,51 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.agent.listeners.OperationResponseListener;
 import org.wso2.testgrid.common.agentoperation.AgentObservable;
-import org.wso2.testgrid.common.agentoperation.Operation;
-import org.wso2.testgrid.common.agentoperation.OperationSegment;
+import org.wso2.testgrid.common.agentoperation.OperationFrame;
 
-import java.util.Calendar;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Observer class to wait till response and send response as segment to the
+ * Observer class to wait till response and send response as frames to the
  * Tinkerer.
+ * <p>
+ * Only the output which is not sent yet is buffered. It is sent as soon as a full frame is buffered, and otherwise
+ * at most {@link #FLUSH_INTERVAL} milliseconds after it was read, so that slow commands still stream their output.
+ * While frames cannot be sent, up to {@link #MAX_PENDING_OUTPUT_SIZE} bytes are kept; further output is dropped and
+ * replaced by a marker stating how much was dropped.
  */
 public class AgentStreamObserver implements Observer {
 
-    private static final int MAX_CONTENT_SIZE = 1024;
-    private static final long MAX_EXECUTION_TIME_OUT = 500;
+    private static final long FLUSH_INTERVAL = 500;
+    private static final long MAX_PENDING_OUTPUT_SIZE = 16L * 1024 * 1024;
     private static final Logger logger = LoggerFactory.getLogger(AgentStreamObserver.class);
+    private static final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "agent-stream-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
 
     private String operationId;
     private OperationResponseListener operationResponseListener;
     private Process process;
-    private long resultSize;
     private AgentObservable agentObservable;
-    private volatile boolean oneProcessCompleted = false;
-    private volatile long initTime;
-    private volatile String shellLog = "";
+    private final Deque<ByteBuffer> pendingOutput = new ArrayDeque<>();
+    private long pendingOutputSize = 0;
+    private long droppedOutputSize = 0;
+    private final ScheduledFuture<?> flushTask;
+    private long nextSequence = 0;
+    private boolean oneProcessCompleted = false;
+    private boolean finished = false;
     private volatile boolean abortExecution = false;
 
     /**
@@ -61,84 +81,45 @@ public class AgentStreamObserver implements Observer {
                                Process process, AgentObservable agentObservable) {
         this.operationResponseListener = operationResponseListener;
         this.operationId = operationId;
-        this.resultSize = 0;
-        this.initTime = Calendar.getInstance().getTimeInMillis();
         this.process = process;
         this.agentObservable = agentObservable;
+        this.flushTask = flushScheduler.scheduleWithFixedDelay(this::flushPendingOutput, FLUSH_INTERVAL,
+                FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Handle response from the command execution thread and send response as segment
-     * To the tinkerer.
+     * Handle response from the command execution thread and send the new output as frames
+     * to the tinkerer.
      *
      * @param o                 Observable object
      * @param arg               Shell execution result
      */
     @Override
     public synchronized void update(Observable o, Object arg) {
+        if (this.finished) {
+            return;
+        }
         StreamResponse streamResponse = (StreamResponse) arg;
-        if (!streamResponse.isCompleted()) {
-            this.resultSize += streamResponse.getResponse().length();
+        appendOutput(streamResponse.getContent());
+        if (this.abortExecution) {
+            if (process.isAlive()) {
+                process.destroy();
+            }
+            finish();
+            return;
         }
         if (streamResponse.isCompleted()) {
-            // Response send back after input stream read complete
+            // Response send back after both output streams are read
             if (this.oneProcessCompleted) {
-                OperationSegment finalOperationSegment = new OperationSegment();
-                finalOperationSegment.setOperationId(this.operationId);
-                finalOperationSegment.setCompleted(true);
-                finalOperationSegment.setResponse(this.shellLog.concat(streamResponse.getResponse()));
-                finalOperationSegment.setCode(OperationSegment.OperationCode.SHELL);
-                this.agentObservable.deleteObserver(this);
-                AgentStreamReader.removeAgentStreamObserverById(this.operationId);
-                try {
-                    process.waitFor();
-                    finalOperationSegment.setExitValue(process.exitValue());
-                    this.operationResponseListener.sendResponse(finalOperationSegment);
-                } catch (InterruptedException e) {
-                    logger.error("Error while waiting for process stop for operation " + this.operationId);
-                    finalOperationSegment.setExitValue(0);
-                    this.operationResponseListener.sendResponse(finalOperationSegment);
-                }
+                finish();
                 return;
             }
             this.oneProcessCompleted = true;
         }
-        if (this.abortExecution) {
-            if (this.abortExecution && process.isAlive()) {
-                process.destroy();
-            }
-            try {
-                process.waitFor();
-            } catch (InterruptedException e) {
-                logger.error("Error while waiting to stop process for operation id " + this.operationId);
-            }
-            OperationSegment finalOperationSegment = new OperationSegment();
-            finalOperationSegment.setOperationId(this.operationId);
-            finalOperationSegment.setCompleted(true);
-            finalOperationSegment.setExitValue(process.exitValue());
-            finalOperationSegment.setResponse(this.shellLog.concat(streamResponse.getResponse()));
-            finalOperationSegment.setCode(OperationSegment.OperationCode.SHELL);
-            this.agentObservable.deleteObserver(this);
-            AgentStreamReader.removeAgentStreamObserverById(this.operationId);
-            this.operationResponseListener.sendResponse(finalOperationSegment);
-            return;
-        }
-        if (this.resultSize >= MAX_CONTENT_SIZE ||
-                initTime + MAX_EXECUTION_TIME_OUT < Calendar.getInstance().getTimeInMillis()) {
-            initTime = Calendar.getInstance().getTimeInMillis();
-            this.shellLog = this.shellLog.concat(streamResponse.getResponse());
-            this.resultSize = 0;
-            OperationSegment operationSegment = new OperationSegment();
-            operationSegment.setOperationId(this.operationId);
-            operationSegment.setCompleted(false);
-            operationSegment.setExitValue(0);
-            operationSegment.setResponse(this.shellLog);
-            operationSegment.setCode(Operation.OperationCode.SHELL);
-            operationResponseListener.sendResponse(operationSegment);
-            this.shellLog = "";
-        } else {
-            if (!streamResponse.getResponse().isEmpty()) {
-                this.shellLog = this.shellLog.concat(streamResponse.getResponse().concat(System.lineSeparator()));
+        while (this.pendingOutputSize >= OperationFrame.MAX_PAYLOAD_SIZE) {
+            if (!sendPendingOutput(false, 0)) {
+                // Kept output is sent again by the next flush
+                return;
             }
         }
     }
@@ -152,4 +133,114 @@ public class AgentStreamObserver implements Observer {
         this.abortExecution = abortExecution;
     }
 
+    /**
+     * Send the output buffered since the last frame, if any. Errors are logged, so that the flush is not cancelled by
+     * the scheduler.
+     */
+    private synchronized void flushPendingOutput() {
+        try {
+            while (!this.finished && this.pendingOutputSize > 0) {
+                if (!sendPendingOutput(false, 0)) {
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            logger.error("Error while flushing the output of operation " + this.operationId, e);
+        }
+    }
+
+    /**
+     * Send the remaining output with the exit value of the process and stop observing.
+     */
+    private void finish() {
+        this.finished = true;
+        this.flushTask.cancel(false);
+        this.agentObservable.deleteObserver(this);
+        AgentStreamReader.removeAgentStreamObserverById(this.operationId);
+        int exitValue = 0;
+        try {
+            exitValue = process.waitFor();
+        } catch (InterruptedException e) {
+            logger.error("Error while waiting for process stop for operation " + this.operationId);
+            Thread.currentThread().interrupt();
+        }
+        appendDroppedOutputMarker();
+        while (this.pendingOutputSize > OperationFrame.MAX_PAYLOAD_SIZE) {
+            if (!sendPendingOutput(false, 0)) {
+                logger.error("Unable to send the output of operation " + this.operationId);
+                return;
+            }
+        }
+        if (!sendPendingOutput(true, exitValue)) {
+            logger.error("Unable to send the completion of operation " + this.operationId);
+        }
+    }
+
+    /**
+     * Buffer the given output, unless the buffer is full since frames cannot be sent.
+     */
+    private void appendOutput(byte[] content) {
+        if (this.pendingOutputSize + content.length > MAX_PENDING_OUTPUT_SIZE) {
+            this.droppedOutputSize += content.length;
+            return;
+        }
+        appendDroppedOutputMarker();
+        if (content.length > 0) {
+            this.pendingOutput.add(ByteBuffer.wrap(content));
+            this.pendingOutputSize += content.length;
+        }
+    }
+
+    /**
+     * Buffer a marker in place of the output dropped since the last buffered output, if any.
+     */
+    private void appendDroppedOutputMarker() {
+        if (this.droppedOutputSize == 0) {
+            return;
+        }
+        logger.warn("Dropped " + this.droppedOutputSize + " bytes of the output of operation " + this.operationId
+                + " which could not be sent");
+        byte[] marker = ("\n[TestGrid agent: " + this.droppedOutputSize + " bytes of output dropped]\n")
+                .getBytes(StandardCharsets.UTF_8);
+        this.droppedOutputSize = 0;
+        this.pendingOutput.add(ByteBuffer.wrap(marker));
+        this.pendingOutputSize += marker.length;
+    }
+
+    /**
+     * Send at most a frame of the buffered output. The sent output is removed from the buffer only if the frame is
+     * sent, so that it is sent again with the same sequence number otherwise.
+     *
+     * @return true if the frame is sent, else false
+     */
+    private boolean sendPendingOutput(boolean completed, int exitValue) {
+        int length = (int) Math.min(this.pendingOutputSize, OperationFrame.MAX_PAYLOAD_SIZE);
+        byte[] payload = new byte[length];
+        int offset = 0;
+        for (ByteBuffer chunk : this.pendingOutput) {
+            if (offset == length) {
+                break;
+            }
+            int chunkLength = Math.min(chunk.remaining(), length - offset);
+            chunk.duplicate().get(payload, offset, chunkLength);
+            offset += chunkLength;
+        }
+        OperationFrame operationFrame = new OperationFrame(this.operationId, this.nextSequence, completed,
+                exitValue, payload);
+        if (!this.operationResponseListener.sendFrame(operationFrame)) {
+            return false;
+        }
+        this.nextSequence++;
+        this.pendingOutputSize -= length;
+        while (length > 0) {
+            ByteBuffer chunk = this.pendingOutput.peek();
+            int chunkLength = Math.min(chunk.remaining(), length);
+            chunk.position(chunk.position() + chunkLength);
+            length -= chunkLength;
+            if (!chunk.hasRemaining()) {
+                this.pendingOutput.poll();
+            }
+        }
+        return true;
+    }
 }
@@ -18,11 +18,17 @@
 
 package org.wso2.testgrid.agent;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.nio.charset.StandardCharsets;
+
 /**
  * Object to communicate between stream reader and listener.
  */
+@SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"},
+        justification = "Content is handed over from the stream reader to the observer without copying.")
 public class StreamResponse {
-    private String response;
+    private byte[] content;
     private boolean completed;
     private StreamType streamType;
 
@@ -34,7 +40,18 @@ public class StreamResponse {
      * @param streamType    Type of stream buffer
      */
     public StreamResponse (String response, boolean completed, StreamType streamType) {
-        this.response = response;
+        this(response.getBytes(StandardCharsets.UTF_8), completed, streamType);
+    }
+
+    /**
+     * Initialize object with raw output bytes
+     *
+     * @param content       Output bytes read from the stream
+     * @param completed     State of execution
+     * @param streamType    Type of stream buffer
+     */
+    public StreamResponse (byte[] content, boolean completed, StreamType streamType) {
+        this.content = content;
         this.completed = completed;
         this.streamType = streamType;
     }
@@ -58,21 +75,21 @@ public class StreamResponse {
     }
 
     /**
-     * Set response to send to observer
+     * Set output bytes to send to observer
      *
-     * @param response      Response to send
+     * @param content       Output bytes to send
      */
-    public void setResponse(String response) {
-        this.response = response;
+    public void setContent(byte[] content) {
+        this.content = content;
     }
 
     /**
-     * Get response sent
+     * Get output bytes sent
      *
-     * @return      The response
+     * @return      The output bytes
      */
-    public String getResponse() {
-        return response;
+    public byte[] getContent() {
+        return content;
     }
 
     /**
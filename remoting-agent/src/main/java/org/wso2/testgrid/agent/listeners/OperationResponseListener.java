@@ -18,6 +18,7 @@
 
 package org.wso2.testgrid.agent.listeners;
 
+import org.wso2.testgrid.common.agentoperation.OperationFrame;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
 
 /**
@@ -33,4 +34,12 @@ public interface OperationResponseListener {
      * @param response - Operation response received.
      */
     void sendResponse(OperationSegment response);
+
+    /**
+     * Listener method for {@link OperationFrame}.
+     *
+     * @param frame - Operation output frame to send.
+     * @return true if the frame is sent, else false.
+     */
+    boolean sendFrame(OperationFrame frame);
 }
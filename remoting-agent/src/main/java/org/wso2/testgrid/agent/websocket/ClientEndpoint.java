@@ -29,12 +29,14 @@ import org.wso2.testgrid.agent.AgentStreamObserver;
 import org.wso2.testgrid.agent.AgentStreamReader;
 import org.wso2.testgrid.agent.StreamResponse;
 import org.wso2.testgrid.agent.listeners.OperationResponseListener;
+import org.wso2.testgrid.common.agentoperation.OperationFrame;
 import org.wso2.testgrid.common.agentoperation.OperationRequest;
 import org.wso2.testgrid.common.agentoperation.OperationSegment;
 import org.wso2.testgrid.common.exception.CommandExecutionException;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ExecutorService;
@@ -56,8 +58,10 @@ public class ClientEndpoint {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientEndpoint.class);
 
+    // Text and binary messages share the basic remote of the session, which sends one message at a time
+    private final Object sendLock = new Object();
     private ExecutorService executorService;
-    private Session userSession = null;
+    private volatile Session userSession = null;
     private Credentials credentials;
     private URI endpointURI;
     private int retryAttempt = 0;
@@ -158,12 +162,24 @@ public class ClientEndpoint {
         OperationSegment operationSegment = new OperationSegment();
         operationSegment.setOperationId(operationRequest.getOperationId());
         operationSegment.setCode(operationRequest.getCode());
-        OperationResponseListener listener = response -> {
-            // send message to web socket
-            if (logger.isDebugEnabled()) {
-                logger.debug("Sending message: " + response.toJSON());
+        OperationResponseListener listener = new OperationResponseListener() {
+            @Override
+            public void sendResponse(OperationSegment response) {
+                // send message to web socket
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Sending message: " + response.toJSON());
+                }
+                sendMessage(response.toJSON());
+            }
+
+            @Override
+            public boolean sendFrame(OperationFrame frame) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Sending frame " + frame.getSequence() + " of operation " +
+                            frame.getOperationId() + " with size " + frame.getPayload().length);
+                }
+                return sendBinaryMessage(frame.encode());
             }
-            sendMessage(response.toJSON());
         };
         AgentStreamReader agentStreamReader = new AgentStreamReader(listener,
                 operationRequest.getOperationId());
@@ -201,12 +217,49 @@ public class ClientEndpoint {
     }
 
     /**
-     * Send a message.
+     * Send a message, blocking until it is sent so that messages are delivered in order.
+     *
+     * @param message the message which is going to send.
+     * @return true if the message is sent, else false.
+     */
+    public boolean sendMessage(String message) {
+        synchronized (sendLock) {
+            Session session = this.userSession;
+            if (session == null) {
+                logger.warn("Unable to send message since the web socket session is closed.");
+                return false;
+            }
+            try {
+                session.getBasicRemote().sendText(message);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error on sending message to web socket session " + session.getId(), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Send a binary message, blocking until it is sent so that messages are delivered in order.
      *
      * @param message the message which is going to send.
+     * @return true if the message is sent, else false.
      */
-    public void sendMessage(String message) {
-        this.userSession.getAsyncRemote().sendText(message);
+    public boolean sendBinaryMessage(ByteBuffer message) {
+        synchronized (sendLock) {
+            Session session = this.userSession;
+            if (session == null) {
+                logger.warn("Unable to send binary message since the web socket session is closed.");
+                return false;
+            }
+            try {
+                session.getBasicRemote().sendBinary(message);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error on sending binary message to web socket session " + session.getId(), e);
+                return false;
+            }
+        }
     }
 
     /**
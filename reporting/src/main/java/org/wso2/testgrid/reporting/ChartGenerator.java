@@ -19,44 +19,60 @@
 
 package org.wso2.testgrid.reporting;
 
-import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.embed.swing.JFXPanel;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.scene.Scene;
-import javafx.scene.chart.CategoryAxis;
-import javafx.scene.chart.Chart;
-import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.PieChart;
-import javafx.scene.chart.StackedBarChart;
-import javafx.scene.chart.XYChart;
-import javafx.scene.image.WritableImage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.reporting.model.email.BuildExecutionSummary;
 
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javax.imageio.ImageIO;
 
 /**
  * This class is responsible for generating the necessary charts for the email report.
+ * <p>
+ * Charts are drawn with Java2D on off-screen images, so no UI toolkit or display is needed, and the charts are
+ * written by the time the generate methods return. Charts share no state, so they can be generated in parallel.
  *
  * @since 1.0.0
  */
 public class ChartGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(ChartGenerator.class);
+
+    private static final int SUMMARY_CHART_SIZE = 600;
+    private static final int HISTORY_CHART_SIZE = 800;
+    private static final int PADDING = 20;
+    private static final Color FAILED_COLOR = new Color(0xf3622d);
+    private static final Color ERROR_COLOR = new Color(0xfba71b);
+    private static final Color PASSED_COLOR = new Color(0x57b757);
+    private static final Color LABEL_COLOR = new Color(0x8b4513);
+    private static final Color LEGEND_BACKGROUND_COLOR = new Color(0xfafad2);
+    private static final Color LEGEND_BORDER_COLOR = new Color(0xdaa520);
+    private static final Color GRID_COLOR = new Color(0xe0e0e0);
+    private static final Font TITLE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 20);
+    private static final Font LEGEND_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 13);
+    private static final Font LABEL_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+
     private String chartGenLocation;
 
     public ChartGenerator(String chartGenLocation) {
-        new JFXPanel();
         this.chartGenLocation = chartGenLocation;
     }
 
@@ -69,20 +85,7 @@ public class ChartGenerator {
      * @param summaryChartFileName file name of the summary chart
      */
     public void generateSummaryChart(int passedCount, int failedCount, int skippedCount, String summaryChartFileName) {
-        List<PieChart.Data> data = new ArrayList<>();
-            data.add(new PieChart.Data(StringUtil.concatStrings("Test Failures (", Integer.toString(failedCount), ")"),
-                    failedCount));
-            data.add(new PieChart.Data(StringUtil.concatStrings("Deployment Errors (", Integer.toString
-                    (skippedCount), ")"), skippedCount));
-            data.add(new PieChart.Data(StringUtil.concatStrings("Passed (", Integer.toString(passedCount), ")"),
-                    passedCount));
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList(data);
-        final PieChart chart = new PieChart(pieChartData);
-        chart.setAnimated(false);
-        chart.setLabelsVisible(true);
-        chart.setTitle("Build Summary of Infrastructure Combinations ("
-                + (failedCount + skippedCount + passedCount) + ")");
-        genChart(chart, 600, 600, summaryChartFileName, "styles/summary.css");
+        writeImage(renderSummaryChart(passedCount, failedCount, skippedCount), summaryChartFileName);
     }
 
     /**
@@ -92,43 +95,7 @@ public class ChartGenerator {
      * @param historyChartFileName file name of the history graph
      */
     public void generateResultHistoryChart(Map<String, BuildExecutionSummary> dataSet, String historyChartFileName) {
-
-        final CategoryAxis xAxis = new CategoryAxis();
-        final NumberAxis yAxis = new NumberAxis();
-        final StackedBarChart<String, Number> stackedBarChart = new StackedBarChart<>(xAxis, yAxis);
-        // This represents the series of values e.g: Failed, skipped, Passed
-        final XYChart.Series<String, Number>[] seriesSet = new XYChart.Series[]{new XYChart.Series<>(),
-                new XYChart.Series<>(), new XYChart.Series<>()};
-
-        xAxis.setCategories(FXCollections.<String>observableArrayList(dataSet.keySet()));
-        // Disabling animation
-        xAxis.setAnimated(false);
-        yAxis.setAnimated(false);
-        stackedBarChart.setAnimated(false);
-        // Set Axis Names
-        xAxis.setLabel("Build date");
-        yAxis.setLabel("Number of infrastructure combinations");
-
-        // Setting series names
-        seriesSet[0].setName("Test failures");
-        seriesSet[1].setName("Deployment errors");
-        seriesSet[2].setName("Test passed");
-        // Setting space between the bars
-        stackedBarChart.setCategoryGap(50);
-        //Setting the title of the bar chart.
-        stackedBarChart.setTitle("Test Run History");
-
-        dataSet.forEach((key, summary) -> {
-            seriesSet[0].getData().add(new XYChart.Data<>(key, summary.getFailedTestPlans()));
-            seriesSet[1].getData().add(new XYChart.Data<>(key, summary.getSkippedTestPlans()));
-            seriesSet[2].getData().add(new XYChart.Data<>(key, summary.getPassedTestPlans()));
-        });
-
-        // Adding the series to the chart
-        for (XYChart.Series series : seriesSet) {
-            stackedBarChart.getData().add(series);
-        }
-        genChart(stackedBarChart, 800, 800, historyChartFileName, "styles/summary.css");
+        writeImage(renderResultHistoryChart(dataSet), historyChartFileName);
     }
 
     /**
@@ -140,47 +107,287 @@ public class ChartGenerator {
         return chartGenLocation;
     }
 
-
     /**
-     * Stops the running Application, guarantees that Application Thread is terminated.
+     * Draws the pie chart of the summary test results.
+     *
+     * @param passedCount  passed test count
+     * @param failedCount  failed test count
+     * @param skippedCount skipped test count
+     * @return image of the chart
      */
-    public void stopApplication() {
-        Platform.exit();
+    static BufferedImage renderSummaryChart(int passedCount, int failedCount, int skippedCount) {
+        BufferedImage image = createImage(SUMMARY_CHART_SIZE, SUMMARY_CHART_SIZE);
+        Graphics2D graphics = createGraphics(image);
+        try {
+            int total = failedCount + skippedCount + passedCount;
+            int top = drawTitle(graphics, "Build Summary of Infrastructure Combinations (" + total + ")",
+                    SUMMARY_CHART_SIZE);
+            List<Series> slices = Arrays.asList(
+                    new Series(StringUtil.concatStrings("Test Failures (", Integer.toString(failedCount), ")"),
+                            FAILED_COLOR),
+                    new Series(StringUtil.concatStrings("Deployment Errors (", Integer.toString(skippedCount), ")"),
+                            ERROR_COLOR),
+                    new Series(StringUtil.concatStrings("Passed (", Integer.toString(passedCount), ")"),
+                            PASSED_COLOR));
+            int bottom = drawLegend(graphics, slices, SUMMARY_CHART_SIZE, SUMMARY_CHART_SIZE);
+            int[] values = {failedCount, skippedCount, passedCount};
+            if (total == 0) {
+                graphics.setFont(LABEL_FONT);
+                String message = "No infrastructure combinations were run";
+                graphics.setColor(Color.DARK_GRAY);
+                graphics.drawString(message,
+                        (SUMMARY_CHART_SIZE - graphics.getFontMetrics().stringWidth(message)) / 2f,
+                        top + (bottom - top) / 2f);
+                return image;
+            }
+
+            // Leave room around the pie for the slice labels
+            double diameter = Math.min(SUMMARY_CHART_SIZE - 2 * 120, bottom - top - 2 * 50);
+            double centerX = SUMMARY_CHART_SIZE / 2.0;
+            double centerY = top + (bottom - top) / 2.0;
+            double radius = diameter / 2;
+            double startAngle = 0;
+            graphics.setFont(LABEL_FONT);
+            FontMetrics metrics = graphics.getFontMetrics();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == 0) {
+                    continue;
+                }
+                // Slices are laid out clockwise from the three o'clock position
+                double extent = -360.0 * values[i] / total;
+                graphics.setColor(slices.get(i).color);
+                graphics.fill(new Arc2D.Double(centerX - radius, centerY - radius, diameter, diameter, startAngle,
+                        extent, Arc2D.PIE));
+                graphics.setColor(Color.WHITE);
+                graphics.draw(new Arc2D.Double(centerX - radius, centerY - radius, diameter, diameter, startAngle,
+                        extent, Arc2D.PIE));
+
+                double middle = Math.toRadians(startAngle + extent / 2);
+                double cos = Math.cos(middle);
+                double sin = -Math.sin(middle);
+                double labelX = centerX + (radius + 25) * cos;
+                double labelY = centerY + (radius + 25) * sin;
+                graphics.setColor(LABEL_COLOR);
+                graphics.draw(new Line2D.Double(centerX + radius * cos, centerY + radius * sin, labelX, labelY));
+                String label = slices.get(i).name;
+                double textX = cos >= 0 ? labelX + 4 : labelX - 4 - metrics.stringWidth(label);
+                graphics.drawString(label, (float) textX, (float) (labelY + metrics.getAscent() / 2.0));
+                startAngle += extent;
+            }
+            return image;
+        } finally {
+            graphics.dispose();
+        }
     }
 
     /**
-     * Generates the chart and writes to an image.
+     * Draws the stacked bar chart of the test execution history.
      *
-     * @param chart to be rendered
-     * @param width with of the chart in pixels
-     * @param height height of the  chart in pixels
-     * @param fileName of the written image
-     * @param styleSheet A custom stylesheet to be applied to the charts
+     * @param dataSet build execution summaries by the build date
+     * @return image of the chart
+     */
+    static BufferedImage renderResultHistoryChart(Map<String, BuildExecutionSummary> dataSet) {
+        BufferedImage image = createImage(HISTORY_CHART_SIZE, HISTORY_CHART_SIZE);
+        Graphics2D graphics = createGraphics(image);
+        try {
+            int top = drawTitle(graphics, "Test Run History", HISTORY_CHART_SIZE);
+            List<Series> series = Arrays.asList(new Series("Test failures", FAILED_COLOR),
+                    new Series("Deployment errors", ERROR_COLOR), new Series("Test passed", PASSED_COLOR));
+            int bottom = drawLegend(graphics, series, HISTORY_CHART_SIZE, HISTORY_CHART_SIZE);
+
+            List<String> categories = new ArrayList<>(dataSet.keySet());
+            int maxTotal = 0;
+            for (BuildExecutionSummary summary : dataSet.values()) {
+                maxTotal = Math.max(maxTotal, summary.getFailedTestPlans() + summary.getSkippedTestPlans()
+                        + summary.getPassedTestPlans());
+            }
+            int tickUnit = getTickUnit(maxTotal);
+            int maxValue = Math.max(tickUnit, (maxTotal + tickUnit - 1) / tickUnit * tickUnit);
+
+            graphics.setFont(LABEL_FONT);
+            FontMetrics metrics = graphics.getFontMetrics();
+            int categoryLabelWidth = categories.stream().mapToInt(metrics::stringWidth).max().orElse(0);
+            int plotLeft = PADDING + metrics.getHeight() + 10 + metrics.stringWidth(Integer.toString(maxValue)) + 8;
+            int plotRight = HISTORY_CHART_SIZE - PADDING;
+            double slotWidth = categories.isEmpty() ? 0 : (double) (plotRight - plotLeft) / categories.size();
+            boolean rotateLabels = categoryLabelWidth > slotWidth - 4;
+            int categoryLabelHeight = rotateLabels ?
+                    (int) Math.ceil((categoryLabelWidth + metrics.getHeight()) * Math.sin(Math.PI / 4)) :
+                    metrics.getHeight();
+            int plotTop = top + 10;
+            int plotBottom = bottom - 10 - metrics.getHeight() - 6 - categoryLabelHeight - 6;
+            double plotHeight = plotBottom - plotTop;
+
+            // Grid lines and value axis
+            for (int value = 0; value <= maxValue; value += tickUnit) {
+                double y = plotBottom - plotHeight * value / maxValue;
+                graphics.setColor(GRID_COLOR);
+                graphics.draw(new Line2D.Double(plotLeft, y, plotRight, y));
+                graphics.setColor(Color.DARK_GRAY);
+                String tick = Integer.toString(value);
+                graphics.drawString(tick, plotLeft - 6 - metrics.stringWidth(tick),
+                        (float) (y + metrics.getAscent() / 2.0 - 1));
+            }
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.drawLine(plotLeft, plotTop, plotLeft, plotBottom);
+            graphics.drawLine(plotLeft, plotBottom, plotRight, plotBottom);
+
+            // Bars, stacked from the bottom in the order of the series
+            // Bars are separated by the default category gap, unless the bars are too narrow to leave it
+            double barWidth = slotWidth - Math.min(50, slotWidth * 0.3);
+            for (int i = 0; i < categories.size(); i++) {
+                BuildExecutionSummary summary = dataSet.get(categories.get(i));
+                int[] values = {summary.getFailedTestPlans(), summary.getSkippedTestPlans(),
+                        summary.getPassedTestPlans()};
+                double x = plotLeft + slotWidth * i + (slotWidth - barWidth) / 2;
+                double y = plotBottom;
+                for (int j = 0; j < values.length; j++) {
+                    double height = plotHeight * values[j] / maxValue;
+                    y -= height;
+                    graphics.setColor(series.get(j).color);
+                    graphics.fill(new Rectangle2D.Double(x, y, barWidth, height));
+                }
+                drawCategoryLabel(graphics, categories.get(i), plotLeft + slotWidth * i + slotWidth / 2,
+                        plotBottom + 6, rotateLabels);
+            }
+
+            // Axis names
+            graphics.setColor(Color.BLACK);
+            String xAxisLabel = "Build date";
+            graphics.drawString(xAxisLabel, (plotLeft + plotRight - metrics.stringWidth(xAxisLabel)) / 2f,
+                    plotBottom + 6 + categoryLabelHeight + 6 + metrics.getAscent());
+            String yAxisLabel = "Number of infrastructure combinations";
+            AffineTransform transform = graphics.getTransform();
+            graphics.translate(PADDING + metrics.getAscent(),
+                    plotTop + (plotHeight + metrics.stringWidth(yAxisLabel)) / 2);
+            graphics.rotate(-Math.PI / 2);
+            graphics.drawString(yAxisLabel, 0, 0);
+            graphics.setTransform(transform);
+            return image;
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    private static void drawCategoryLabel(Graphics2D graphics, String label, double centerX, double top,
+                                          boolean rotate) {
+        FontMetrics metrics = graphics.getFontMetrics();
+        graphics.setColor(Color.DARK_GRAY);
+        if (!rotate) {
+            graphics.drawString(label, (float) (centerX - metrics.stringWidth(label) / 2.0),
+                    (float) (top + metrics.getAscent()));
+            return;
+        }
+        // Labels which do not fit the bars are drawn diagonally, ending at the bar
+        AffineTransform transform = graphics.getTransform();
+        graphics.translate(centerX, top + metrics.getAscent());
+        graphics.rotate(-Math.PI / 4);
+        graphics.drawString(label, -metrics.stringWidth(label), 0);
+        graphics.setTransform(transform);
+    }
+
+    /**
+     * Returns a tick unit of 1, 2 or 5 times a power of ten, which splits the given range into about ten ticks.
      */
-    private void genChart(Chart chart, int width, int height, String fileName, String styleSheet) {
-        Platform.runLater(() -> {
-            Scene scene = new Scene(chart, width, height);
-            if (styleSheet != null && !styleSheet.isEmpty()) {
-                scene.getStylesheets().add(styleSheet);
+    private static int getTickUnit(int maxValue) {
+        int unit = 1;
+        while (maxValue / unit > 10) {
+            if (maxValue / (unit * 2) <= 10) {
+                return unit * 2;
+            } else if (maxValue / (unit * 5) <= 10) {
+                return unit * 5;
             }
-            WritableImage img = new WritableImage(width, height);
-            scene.snapshot(img);
-            writeImage(img, fileName);
-        });
+            unit *= 10;
+        }
+        return unit;
+    }
+
+    /**
+     * Draws the title centered at the top of the chart.
+     *
+     * @return y coordinate below the title
+     */
+    private static int drawTitle(Graphics2D graphics, String title, int width) {
+        graphics.setFont(TITLE_FONT);
+        FontMetrics metrics = graphics.getFontMetrics();
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(title, (width - metrics.stringWidth(title)) / 2f, PADDING + metrics.getAscent());
+        return PADDING + metrics.getHeight() + 10;
+    }
+
+    /**
+     * Draws the legend centered at the bottom of the chart.
+     *
+     * @return y coordinate above the legend
+     */
+    private static int drawLegend(Graphics2D graphics, List<Series> series, int width, int height) {
+        graphics.setFont(LEGEND_FONT);
+        FontMetrics metrics = graphics.getFontMetrics();
+        int symbolSize = metrics.getAscent();
+        int itemGap = 20;
+        int legendWidth = 2 * 10 - itemGap;
+        for (Series item : series) {
+            legendWidth += symbolSize + 6 + metrics.stringWidth(item.name) + itemGap;
+        }
+        int legendHeight = metrics.getHeight() + 2 * 10;
+        int legendX = (width - legendWidth) / 2;
+        int legendY = height - PADDING - legendHeight;
+
+        graphics.setColor(LEGEND_BACKGROUND_COLOR);
+        graphics.fillRect(legendX, legendY, legendWidth, legendHeight);
+        graphics.setColor(LEGEND_BORDER_COLOR);
+        graphics.drawRect(legendX, legendY, legendWidth, legendHeight);
+        int x = legendX + 10;
+        int baseline = legendY + 10 + metrics.getAscent();
+        for (Series item : series) {
+            graphics.setColor(item.color);
+            graphics.fillRect(x, baseline - symbolSize + 1, symbolSize, symbolSize);
+            graphics.setColor(Color.BLACK);
+            graphics.drawString(item.name, x + symbolSize + 6, baseline);
+            x += symbolSize + 6 + metrics.stringWidth(item.name) + itemGap;
+        }
+        return legendY;
+    }
+
+    private static BufferedImage createImage(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static Graphics2D createGraphics(BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setStroke(new BasicStroke(1f));
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        return graphics;
     }
 
     /**
-     * Writes the {@link WritableImage} to a file.
+     * Writes the image to a file.
      *
-     * @param image {@link WritableImage} which is written the given file
+     * @param image image which is written the given file
      * @param fileName file name of the image to be written
      */
-    private void writeImage(WritableImage image, String fileName) {
+    private void writeImage(BufferedImage image, String fileName) {
         File file = new File(Paths.get(chartGenLocation, fileName).toString());
         try {
-            ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", file);
+            ImageIO.write(image, "png", file);
         } catch (IOException e) {
-                logger.error("Error occurred while writing the chart image", e);
+            logger.error("Error occurred while writing the chart image", e);
+        }
+    }
+
+    /**
+     * A named and colored series of chart values.
+     */
+    private static class Series {
+        private final String name;
+        private final Color color;
+
+        private Series(String name, Color color) {
+            this.name = name;
+            this.color = color;
         }
     }
 }
@@ -22,7 +22,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.Product;
 import org.wso2.testgrid.common.config.ConfigurationContext;
-import org.wso2.testgrid.common.exception.TestGridException;
 import org.wso2.testgrid.common.util.S3StorageUtil;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.dao.TestGridDAOException;
@@ -32,6 +31,10 @@ import org.wso2.testgrid.reporting.model.email.EscalationFailureSection;
 import org.wso2.testgrid.reporting.renderer.Renderable;
 import org.wso2.testgrid.reporting.renderer.RenderableFactory;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
@@ -47,8 +50,6 @@ import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
-import static org.wso2.testgrid.common.util.FileUtil.writeToFile;
-
 /**
  * This class is responsible in generating the escalation email.
  */
@@ -164,29 +165,35 @@ public class EscalationEmailGenerator {
             logger.info("Generating Escalation mail at " + reportPath.toString());
 
             results.put("renderResultTables", resultList);
-            String htmlString = renderer.render(ESCALATION_EMAIL_REPORT_MUSTACHE, results);
             // Write to HTML file
-            writeHTMLToFile(reportPath, htmlString);
+            writeHTMLToFile(reportPath, renderer, ESCALATION_EMAIL_REPORT_MUSTACHE, results);
             return Optional.of(reportPath);
         } catch (TestGridDAOException e) {
             throw new ReportingException("Error occurred while retrieving data from the database", e);
-        } finally {
-            chartGenerator.stopApplication();
         }
     }
 
     /**
-     * Write the given HTML string to the given file at test grid home.
+     * Render the given view to the given file, writing the HTML to the file as it is rendered.
      *
      * @param filePath   fully qualified file path
-     * @param htmlString HTML string to be written to the file
-     * @throws ReportingException thrown when error on writing the HTML string to file
+     * @param renderable renderer of the view
+     * @param view       name of the template file in resources/templates directory
+     * @param model      model to be rendered from the template
+     * @throws ReportingException thrown when error on rendering the view or writing the HTML to file
      */
-    private void writeHTMLToFile(Path filePath, String htmlString) throws ReportingException {
+    private void writeHTMLToFile(Path filePath, Renderable renderable, String view, Map<String, Object> model)
+            throws ReportingException {
         logger.info("Writing test results to file: " + filePath.toString());
         try {
-            writeToFile(filePath.toAbsolutePath().toString(), htmlString);
-        } catch (TestGridException e) {
+            Path parent = filePath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8)) {
+                renderable.render(view, model, writer);
+            }
+        } catch (IOException e) {
             throw new ReportingException("Error occurred while writing email report to a html file ", e);
         }
     }
@@ -24,13 +24,12 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.wso2.testgrid.common.Status;
-import org.wso2.testgrid.common.TestPlan;
-import org.wso2.testgrid.common.TestPlanStatus;
 import org.wso2.testgrid.common.exception.TestGridException;
 import org.wso2.testgrid.common.util.FileUtil;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.dto.TestCaseFailureResultDTO;
+import org.wso2.testgrid.dao.dto.TestExecutionHistoryDTO;
 import org.wso2.testgrid.dao.uow.TestPlanUOW;
 import org.wso2.testgrid.reporting.model.email.BuildExecutionSummary;
 import org.wso2.testgrid.reporting.model.email.BuildFailureSummary;
@@ -202,6 +201,9 @@ public class GraphDataProvider {
 
     /**
      * Provide history of the test execution summary for a given build job.
+     * <p>
+     * The summaries of the most recent days with builds within the considered time range are read with a single
+     * query.
      *
      * @param productId product id.
      */
@@ -209,67 +211,20 @@ public class GraphDataProvider {
 
         Map<String, BuildExecutionSummary> buildExecutionSummariesHistory = new TreeMap<>();
 
-        LocalTime midnight = LocalTime.MIDNIGHT;
-        LocalDate timeZone = LocalDate.now(ZoneId.of("UTC"));
-        LocalDateTime todayMidnight = LocalDateTime.of(timeZone, midnight);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        LocalDateTime tomorrowMidnight = LocalDateTime.of(LocalDate.now(ZoneId.of("UTC")), LocalTime.MIDNIGHT)
+                .plusDays(1);
+        String from = tomorrowMidnight.minusDays(MAXIMUM_TIME_RANGE).format(formatter);
+        String to = tomorrowMidnight.format(formatter);
 
-        for (int i = 0; i < MAXIMUM_TIME_RANGE; i++) {
-            if (TEST_EXECUTION_HISTORY_RANGE == buildExecutionSummariesHistory.size()) {
-                break;
-            }
-            String from = todayMidnight.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            String to = todayMidnight.plusDays(1).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        for (TestExecutionHistoryDTO testExecutionHistory : testPlanUOW
+                .getTestExecutionHistory(productId, from, to, TEST_EXECUTION_HISTORY_RANGE)) {
             BuildExecutionSummary buildExecutionSummary = new BuildExecutionSummary();
-            List<TestPlan> filteredTestPlanHistory;
-
-            int passedTestPlans = 0;
-            int failedTestPlans = 0;
-            int skippedTestPlans = 0;
-
-            List<TestPlan> testPlanHistory = testPlanUOW.getTestExecutionHistory(productId, from, to);
-            if (testPlanHistory.isEmpty()) {
-                todayMidnight = todayMidnight.minusDays(1);
-                continue;
-            }
-            filteredTestPlanHistory = filterTestPlanHistory(testPlanHistory);
-
-            for (TestPlan testplan : filteredTestPlanHistory) {
-                if (TestPlanStatus.SUCCESS.equals(testplan.getStatus())) {
-                    passedTestPlans++;
-                } else if (TestPlanStatus.FAIL.equals(testplan.getStatus())) {
-                    failedTestPlans++;
-                } else {
-                    skippedTestPlans++;
-                }
-            }
-            buildExecutionSummary.setPassedTestPlans(passedTestPlans);
-            buildExecutionSummary.setFailedTestPlans(failedTestPlans);
-            buildExecutionSummary.setSkippedTestPlans(skippedTestPlans);
-            buildExecutionSummariesHistory.put(from.replace(" 00:00:00", ""), buildExecutionSummary);
-            todayMidnight = todayMidnight.minusDays(1);
+            buildExecutionSummary.setPassedTestPlans(testExecutionHistory.getPassedTestPlans());
+            buildExecutionSummary.setFailedTestPlans(testExecutionHistory.getFailedTestPlans());
+            buildExecutionSummary.setSkippedTestPlans(testExecutionHistory.getSkippedTestPlans());
+            buildExecutionSummariesHistory.put(testExecutionHistory.getDate(), buildExecutionSummary);
         }
         return buildExecutionSummariesHistory;
     }
-
-    /**
-     * This method is capable to filter retrieved test plans history for given product Id and time range and return
-     * unique list.
-     *
-     * @param testPlanHistory history of the test plans for given product id and time range
-     */
-    private List<TestPlan> filterTestPlanHistory(List<TestPlan> testPlanHistory) {
-
-        TreeMap<String, TestPlan> testExecutionHistory = new TreeMap<>();
-        for (TestPlan testplan : testPlanHistory) {
-            String key = testplan.getInfraParameters();
-            if (testExecutionHistory.containsKey(key)) {
-                if (testplan.getTestRunNumber() > testExecutionHistory.get(key).getTestRunNumber()) {
-                    testExecutionHistory.replace(key, testplan);
-                }
-            } else {
-                testExecutionHistory.put(testplan.getInfraParameters(), testplan);
-            }
-        }
-        return new ArrayList<>(testExecutionHistory.values());
-    }
 }
@@ -18,6 +18,8 @@
 package org.wso2.testgrid.reporting;
 
 import org.wso2.testgrid.common.Column;
+import org.wso2.testgrid.common.PerformanceResultTable;
+import org.wso2.testgrid.common.PerformanceResultTable.EncodedColumn;
 import org.wso2.testgrid.common.ResultFormat;
 import org.wso2.testgrid.common.TestScenario;
 import org.wso2.testgrid.reporting.model.performance.ColumnHeader;
@@ -28,6 +30,7 @@ import org.wso2.testgrid.reporting.model.performance.ScenarioSection;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Stack;
@@ -53,135 +56,165 @@ public class PerformanceResultProcessor {
      * in to several sections as defined in the format, each such section will be added to the scenario
      * as a {@link DividerSection} . These sections in turn can have child Divider sections or
      * {@link DataSection} which contains the {@link PerformanceTable}
+     * <p>
+     * The rows are grouped by all the dividers in a single pass over the results, and the sections are then
+     * created from the groups.
      *
      * @param testScenario TestScenario being processed
      * @param resultFormat ResultFormatter containing the format data
      * @return ScenarioSection object that is included in the report
      */
     public ScenarioSection processScenario(TestScenario testScenario, ResultFormat resultFormat) {
-        List<List<String>> data = testScenario.getPerformanceTestResults();
+        PerformanceResultTable data = testScenario.getPerformanceTestResults();
         ScenarioSection scenarioSection = new ScenarioSection();
-        scenarioSection.setScenarioName(testScenario.getName());
-        scenarioSection.setDescription(testScenario.getDescription());
-        List<String> topics = data.remove(0);
         //Create a new scenario section per test scenario
         scenarioSection.setScenarioName(testScenario.getName());
         scenarioSection.setDescription(testScenario.getDescription());
-        //get the index of the primary divider from topic list
-        int indexOf = topics.indexOf(resultFormat.getPrimaryDivider());
-
-        Stack<String> dividers = new Stack<>();
-        dividers.addAll(resultFormat.getDividers());
-        //divide the data in to groups with primary divider
-        List<String> primarySections = data.stream()
-                .map(strings -> strings.get(indexOf))
-                .distinct()
-                .collect(Collectors.toList());
+
+        //dividers are applied from the last to the first, after the primary divider
+        List<String> dividers = new ArrayList<>(resultFormat.getDividers());
+        Collections.reverse(dividers);
+        List<EncodedColumn> groupColumns = new ArrayList<>();
+        groupColumns.add(data.encode(data.indexOf(resultFormat.getPrimaryDivider())));
+        for (String divider : dividers) {
+            groupColumns.add(data.encode(data.indexOf(divider)));
+        }
+        Group root = groupRows(data, groupColumns);
+        TableLayout tableLayout = createTableLayout(data, resultFormat);
+
         //for each section fill the data
-        primarySections.forEach(primarySection -> {
-            Stack<String> cloneOfDividers = (Stack<String>) dividers.clone();
+        for (Group primaryGroup : root.children) {
             DividerSection primary = new DividerSection();
-            primary.setData(resultFormat.getPrimaryDivider() + " : " + primarySection);
-            List<List<String>> section = data.stream()
-                    .filter(strings -> strings.get(indexOf).equals(primarySection))
-                    .collect(Collectors.toList());
-            DividerSection sectionData = getSectionData(cloneOfDividers, section, topics
-                    , resultFormat);
+            primary.setData(resultFormat.getPrimaryDivider() + " : " + primaryGroup.value);
+            DividerSection sectionData = getSectionData(dividers, 0, primaryGroup, data, tableLayout);
             primary.setChildSections(Collections.singletonList(sectionData));
             scenarioSection.setDividerSection(primary);
-        });
+        }
         scenarioSection.setChartsList(testScenario.getSummaryGraphs()
                 .stream().map(s -> Paths.get(s)).map(path -> path.getFileName().toString())
                 .collect(Collectors.toList()));
         return scenarioSection;
     }
 
+    /**
+     * Groups the rows by the values of the given columns, in the order the values first appear. Each level of
+     * the returned tree groups the rows of its parent by the next column, and the leaves hold the row indexes.
+     *
+     * @param data         performance results
+     * @param groupColumns columns to group by, from the outermost to the innermost
+     * @return root group of all the rows
+     */
+    private static Group groupRows(PerformanceResultTable data, List<EncodedColumn> groupColumns) {
+        Group root = new Group(null, groupColumns.isEmpty() ? 0 : groupColumns.get(0).getValues().size());
+        for (int row = 0; row < data.getRowCount(); row++) {
+            Group group = root;
+            for (int level = 0; level < groupColumns.size(); level++) {
+                EncodedColumn column = groupColumns.get(level);
+                int code = column.getCode(row);
+                Group child = group.childrenByCode[code];
+                if (child == null) {
+                    int childCount = level + 1 < groupColumns.size() ?
+                            groupColumns.get(level + 1).getValues().size() : 0;
+                    child = new Group(column.getValues().get(code), childCount);
+                    group.childrenByCode[code] = child;
+                    group.children.add(child);
+                }
+                group = child;
+            }
+            group.addRow(row);
+        }
+        return root;
+    }
+
     /**
      * This method returns the {@link DividerSection} data model after recursively processing the dividers.
      *
-     * @param dividers        Stack of dividers
-     * @param section         the list of data that needs to be processed into sections
-     * @param topics          the topic list from csv data file
-     * @param resultFormat ResultFormatter file that defines the data table structure
+     * @param dividers     dividers in the order they are applied
+     * @param level        index of the divider to process
+     * @param group        group of rows that needs to be processed into sections
+     * @param data         performance results
+     * @param tableLayout  layout of the data tables
      * @return a DividerSection object populated with data
      */
-    private DividerSection getSectionData(Stack<String> dividers, List<List<String>> section,
-                                          List<String> topics, ResultFormat resultFormat) {
-        //create a copy of divider stack because this method will be called recursively
-        Stack<String> copyOfDividers = (Stack<String>) dividers.clone();
-        if (!copyOfDividers.isEmpty()) {
-            //if this is the last divider in the list it is a data section containing tables
-            boolean isDataSection = (copyOfDividers.size() == 1);
-            String divider = copyOfDividers.pop();
-            //filter distinct sections of data for each divider
-            int index = topics.indexOf(divider);
-            List<String> dividerSubSections = section.stream()
-                    .map(strings -> strings.get(index))
-                    .distinct()
-                    .collect(Collectors.toList());
-
-            if (isDataSection) {
-                DividerSection dividerSection = new DividerSection();
-                dividerSection.setData(divider);
-                //create a new data section
-                DataSection dataSection = new DataSection();
-                List<PerformanceTable> performanceTableList = new ArrayList<>();
-                //create performance data tables for the last divider section
-                dividerSubSections.forEach(s -> {
-                    List<List<String>> collect1 = section.stream()
-                            .filter(strings -> strings.get(index).equals(s))
-                            .collect(Collectors.toList());
-                    PerformanceTable table = createPerformanceTable(topics, collect1, resultFormat);
-                    table.setDescription(s);
-                    performanceTableList.add(table);
-                });
-                dataSection.setPerformanceTableList(performanceTableList);
-                dataSection.setDescription(divider);
-                dividerSection.setChildSections(null);
-                dividerSection.setDataSection(dataSection);
-                return dividerSection;
-            } else {
-                //if there are more divider sections it means data needs to be further divided
-                List<DividerSection> dividerSections = new ArrayList<>();
-                dividerSubSections.forEach(s -> {
-                    List<List<String>> collect1 = section.stream()
-                            .filter(strings -> strings.get(index).equals(s))
-                            .collect(Collectors.toList());
-                    //recursively set divider sections
-                    DividerSection dividerSection = this.getSectionData(copyOfDividers, collect1, topics
-                            , resultFormat);
-                    dividerSection.setData(s);
-                    dividerSections.add(dividerSection);
-                });
-                DividerSection dividerSection = new DividerSection();
-                dividerSection.setData(divider);
-                dividerSection.setChildSections(dividerSections);
-                dividerSection.setDataSection(null);
-                return dividerSection;
+    private DividerSection getSectionData(List<String> dividers, int level, Group group,
+                                          PerformanceResultTable data, TableLayout tableLayout) {
+        if (level == dividers.size()) {
+            return null;
+        }
+        String divider = dividers.get(level);
+        DividerSection dividerSection = new DividerSection();
+        dividerSection.setData(divider);
+        //if this is the last divider in the list it is a data section containing tables
+        if (level == dividers.size() - 1) {
+            //create a new data section
+            DataSection dataSection = new DataSection();
+            List<PerformanceTable> performanceTableList = new ArrayList<>();
+            //create performance data tables for the last divider section
+            for (Group child : group.children) {
+                PerformanceTable table = createPerformanceTable(data, child, tableLayout);
+                table.setDescription(child.value);
+                performanceTableList.add(table);
             }
+            dataSection.setPerformanceTableList(performanceTableList);
+            dataSection.setDescription(divider);
+            dividerSection.setChildSections(null);
+            dividerSection.setDataSection(dataSection);
+        } else {
+            //if there are more divider sections it means data needs to be further divided
+            List<DividerSection> dividerSections = new ArrayList<>();
+            for (Group child : group.children) {
+                //recursively set divider sections
+                DividerSection childSection = getSectionData(dividers, level + 1, child, data, tableLayout);
+                childSection.setData(child.value);
+                dividerSections.add(childSection);
+            }
+            dividerSection.setChildSections(dividerSections);
+            dividerSection.setDataSection(null);
         }
-        return null;
+        return dividerSection;
     }
 
     /**
-     * Creates the performance table given the data and formatter data.This table is needed to model
+     * Creates the performance table of the given rows.
+     *
+     * @param data        performance results
+     * @param group       group of the rows that needs to be applied to the table
+     * @param tableLayout columns and headers of the table
+     * @return PerformanceTable instance with data populated
+     */
+    private PerformanceTable createPerformanceTable(PerformanceResultTable data, Group group,
+                                                    TableLayout tableLayout) {
+        List<List<String>> tableData = new ArrayList<>(group.rowCount);
+        for (int i = 0; i < group.rowCount; i++) {
+            int row = group.rows[i];
+            List<String> rowData = new ArrayList<>(tableLayout.columnIndexes.length);
+            for (int column : tableLayout.columnIndexes) {
+                rowData.add(data.getValue(row, column));
+            }
+            tableData.add(rowData);
+        }
+        PerformanceTable performanceTable = new PerformanceTable();
+        performanceTable.setBodyData(tableData);
+        performanceTable.setHeaderData(tableLayout.headerData);
+        return performanceTable;
+    }
+
+    /**
+     * Creates the layout of the performance tables given the formatter data.The tables are needed to model
      * the performance result table in the mustache template, and the data is divided by the
-     * {@link ResultFormat} definition.
+     * {@link ResultFormat} definition. All the tables of a scenario share the same layout.
      *
-     * @param topics          topic list of csv data
-     * @param data            the data that needs to be applied to the table
+     * @param data         performance results
      * @param resultFormat {@link ResultFormat} defining the structure of table
-     * @return PerformanceTable instance with data populated
+     * @return TableLayout with the data columns and the header data of the tables
      */
-    private PerformanceTable createPerformanceTable(List<String> topics, List<List<String>> data,
-                                                    ResultFormat resultFormat) {
+    private TableLayout createTableLayout(PerformanceResultTable data, ResultFormat resultFormat) {
         int depth = 1;
         int colspan = 1;
         //get table structure from result formatter
         List<Column> table = resultFormat.getTable();
         List<String> effectiveColumnLIst = new ArrayList<>();
 
-        PerformanceTable performanceTable = new PerformanceTable();
         //fill a stack with the table data
         Stack<Column> tableStack = new Stack<>();
         tableStack.addAll(table);
@@ -203,15 +236,9 @@ public class PerformanceResultProcessor {
         //Preserve the original order of columns
         Collections.reverse(effectiveColumnLIst);
         //transform the column list to list with indexes
-        List<Integer> indexList = effectiveColumnLIst.stream()
-                .map(topics::indexOf)
-                .collect(Collectors.toList());
-        //filter the table data
-        List<List<String>> tableData = data.stream()
-                .map(strings -> indexList.stream()
-                        .map(strings::get).collect(Collectors.toList()))
-                .collect(Collectors.toList());
-        performanceTable.setBodyData(tableData);
+        int[] columnIndexes = effectiveColumnLIst.stream()
+                .mapToInt(data::indexOf)
+                .toArray();
         //create header data
         List<List<org.wso2.testgrid.reporting.model.performance.ColumnHeader>> headerData = new ArrayList<>();
         while (depth >= 1) {
@@ -241,9 +268,45 @@ public class PerformanceResultProcessor {
             table.addAll(nextLevel);
             depth--;
         }
-        performanceTable.setHeaderData(headerData);
-        return performanceTable;
+        return new TableLayout(columnIndexes, headerData);
     }
 
+    /**
+     * Rows grouped by a divider value, with the child groups of the next divider in the order they first appear.
+     */
+    private static final class Group {
+
+        private final String value;
+        private final Group[] childrenByCode;
+        private final List<Group> children = new ArrayList<>();
+        private int[] rows = new int[8];
+        private int rowCount;
+
+        private Group(String value, int childCount) {
+            this.value = value;
+            this.childrenByCode = new Group[childCount];
+        }
+
+        private void addRow(int row) {
+            if (rowCount == rows.length) {
+                rows = Arrays.copyOf(rows, rowCount * 2);
+            }
+            rows[rowCount++] = row;
+        }
+    }
+
+    /**
+     * Data columns and header rows of the performance tables.
+     */
+    private static final class TableLayout {
+
+        private final int[] columnIndexes;
+        private final List<List<ColumnHeader>> headerData;
+
+        private TableLayout(int[] columnIndexes, List<List<ColumnHeader>> headerData) {
+            this.columnIndexes = columnIndexes;
+            this.headerData = headerData;
+        }
+    }
 }
 
@@ -26,7 +26,6 @@ import org.wso2.testgrid.common.TestCase;
 import org.wso2.testgrid.common.TestPlan;
 import org.wso2.testgrid.common.TestPlanStatus;
 import org.wso2.testgrid.common.TestScenario;
-import org.wso2.testgrid.common.exception.TestGridException;
 import org.wso2.testgrid.common.util.S3StorageUtil;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.common.util.TestGridUtil;
@@ -47,9 +46,12 @@ import org.wso2.testgrid.reporting.renderer.RenderableFactory;
 import org.wso2.testgrid.reporting.summary.InfrastructureBuildStatus;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -69,7 +71,6 @@ import static org.wso2.testgrid.common.TestPlanPhase.DEPLOY_PHASE_SUCCEEDED;
 import static org.wso2.testgrid.common.TestPlanPhase.TEST_PHASE_STARTED;
 import static org.wso2.testgrid.common.TestPlanPhase.TEST_PHASE_SUCCEEDED;
 import static org.wso2.testgrid.common.TestPlanStatus.ERROR;
-import static org.wso2.testgrid.common.util.FileUtil.writeToFile;
 import static org.wso2.testgrid.reporting.AxisColumn.DEPLOYMENT;
 import static org.wso2.testgrid.reporting.AxisColumn.INFRASTRUCTURE;
 import static org.wso2.testgrid.reporting.AxisColumn.SCENARIO;
@@ -147,18 +148,17 @@ public class TestReportEngine {
         // Create per axis summaries
         List<PerAxisHeader> perAxisHeaders = createPerAxisHeaders(uniqueAxisColumn, reportElements, showSuccess);
 
-        // Generate HTML string
+        // Prepare the report model
         Report report = new Report(showSuccess, product, groupByList, perAxisHeaders);
         Map<String, Object> parsedResultMap = new HashMap<>();
         parsedResultMap.put(REPORT_TEMPLATE_KEY, report);
         Renderable renderable = RenderableFactory.getRenderable(REPORT_MUSTACHE);
-        String htmlString = renderable.render(REPORT_MUSTACHE, parsedResultMap);
 
         // Write to HTML file
         String fileName = StringUtil.concatStrings(product.getName(), "-", uniqueAxisColumn, HTML_EXTENSION);
         String testGridHome = TestGridUtil.getTestGridHomePath();
         Path reportPath = Paths.get(testGridHome).resolve(product.getName()).resolve(fileName);
-        writeHTMLToFile(reportPath, htmlString);
+        writeHTMLToFile(reportPath, renderable, REPORT_MUSTACHE, parsedResultMap);
     }
 
     /**
@@ -173,7 +173,6 @@ public class TestReportEngine {
             Map<String, Object> parsedResultMap = new HashMap<>();
             parsedResultMap.put(REPORT_TEMPLATE_KEY, report);
             Renderable renderable = RenderableFactory.getRenderable(PERFORMANCE_REPORT_MUSTACHE);
-            String htmlString = renderable.render(PERFORMANCE_REPORT_MUSTACHE, parsedResultMap);
 
             String fileName = StringUtil.concatStrings(report.getProductName(), "-"
                     , PERFORMANCE_REPORT, HTML_EXTENSION);
@@ -186,7 +185,7 @@ public class TestReportEngine {
             }
             //copy the image assets required by the report to relevant location
             copyReportAssets(testScenarios, reportDirPath);
-            writeHTMLToFile(reportPath, htmlString);
+            writeHTMLToFile(reportPath, renderable, PERFORMANCE_REPORT_MUSTACHE, parsedResultMap);
         } catch (IOException e) {
             throw new ReportingException(String.format(" Error while creating the output files structure for Product %s"
                     , report.getProductName()), e);
@@ -744,18 +743,32 @@ public class TestReportEngine {
     }
 
     /**
-     * Write the given HTML string to the given file at test grid home.
+     * Render the given view to the given file, writing the HTML to a temporary file as it is rendered. The
+     * temporary file replaces the given file once the view is rendered, so a failed render leaves no partial report.
      *
      * @param filePath   fully qualified file path
-     * @param htmlString HTML string to be written to the file
-     * @throws ReportingException thrown when error on writing the HTML string to file
+     * @param renderable renderer of the view
+     * @param view       name of the template file in resources/templates directory
+     * @param model      model to be rendered from the template
+     * @throws ReportingException thrown when error on rendering the view or writing the HTML to file
      */
-    private void writeHTMLToFile(Path filePath, String htmlString) throws ReportingException {
+    private void writeHTMLToFile(Path filePath, Renderable renderable, String view, Map<String, Object> model)
+            throws ReportingException {
         logger.info("Writing test results to file: " + filePath.toString());
         try {
-            writeToFile(filePath.toAbsolutePath().toString(), htmlString);
-        } catch (TestGridException e) {
-            throw new ReportingException("Error occurred while writing email report to a html file ", e);
+            Path parent = filePath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, filePath.getFileName().toString(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                    renderable.render(view, model, writer);
+                }
+                Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw new ReportingException("Error occurred while writing report to a html file " + filePath, e);
         }
     }
 
@@ -895,11 +908,9 @@ public class TestReportEngine {
             throw new ReportingException("Error occurred while getting failed infrastructures");
         }
 
-        String htmlString = renderer.render(SUMMARIZED_EMAIL_REPORT_MUSTACHE, results);
-
         // Write to HTML file
         Path reportPath = Paths.get(workspace, TESTGRID_SUMMARIZED_EMAIL_REPORT_NAME);
-        writeHTMLToFile(reportPath, htmlString);
+        writeHTMLToFile(reportPath, renderer, SUMMARIZED_EMAIL_REPORT_MUSTACHE, results);
         Path reportParentPath = reportPath.getParent();
 
         // Generating the charts required for the email
@@ -941,9 +952,8 @@ public class TestReportEngine {
                 emailReportProcessor.getErroneousInfrastructuresOf(testPlans, INFRA_ERROR_TP_FILTER).entrySet());
 
         Renderable renderer = RenderableFactory.getRenderable(INFRA_ERROR_EMAIL_REPORT_MUSTACHE);
-        String render = renderer.render(INFRA_ERROR_EMAIL_REPORT_MUSTACHE, results);
         Path reportPath = Paths.get(workspace, "InfraErrorEmail.html");
-        writeHTMLToFile(reportPath, render);
+        writeHTMLToFile(reportPath, renderer, INFRA_ERROR_EMAIL_REPORT_MUSTACHE, results);
         return Optional.of(reportPath);
     }
 
@@ -959,18 +969,12 @@ public class TestReportEngine {
         logger.info(StringUtil.concatStrings("Generating Charts with workspace : ", workspace, " at ",
                 chartGenLocation));
         BuildExecutionSummary summary = graphDataProvider.getTestExecutionSummary(workspace);
-        try {
-            ChartGenerator chartGenerator = new ChartGenerator(chartGenLocation);
-            // Generating the charts
-            chartGenerator.generateSummaryChart(summary.getPassedTestPlans(), summary.getFailedTestPlans(), summary
-                    .getSkippedTestPlans(), summaryChartFileName);
-            // Generate history chart
-            chartGenerator.generateResultHistoryChart(graphDataProvider.getTestExecutionHistory(id),
-                    historyChartFileName);
-            chartGenerator.stopApplication();
-        } catch (UnsupportedOperationException e) {
-            logger.error("Unexpected error occurred during chart generation ", e);
-        }
-
+        ChartGenerator chartGenerator = new ChartGenerator(chartGenLocation);
+        // Generating the charts
+        chartGenerator.generateSummaryChart(summary.getPassedTestPlans(), summary.getFailedTestPlans(), summary
+                .getSkippedTestPlans(), summaryChartFileName);
+        // Generate history chart
+        chartGenerator.generateResultHistoryChart(graphDataProvider.getTestExecutionHistory(id),
+                historyChartFileName);
     }
 }
@@ -18,13 +18,8 @@
 package org.wso2.testgrid.reporting.model;
 
 import org.wso2.testgrid.reporting.AxisColumn;
-import org.wso2.testgrid.reporting.ReportingException;
-import org.wso2.testgrid.reporting.renderer.Renderable;
-import org.wso2.testgrid.reporting.renderer.RenderableFactory;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Bean class to maintain grouped by results to output in the report.
@@ -33,16 +28,12 @@ import java.util.Map;
  */
 public class GroupBy {
 
-    private static final String REPORT_ELEMENT_TEMPLATE_KEY = "parsedReportElements";
-    private static final String REPORT_ELEMENT_MUSTACHE = "report_element.mustache";
-
     private final String groupByColumnKey;
     private final String groupByColumnValue;
     private final List<ReportElement> reportElements;
     private final boolean isGroupByDeployment;
     private final boolean isGroupByInfrastructure;
     private final boolean isGroupByScenario;
-    private final String parsedReportElementsString;
 
     /**
      * Constructs an instance of {@link GroupBy} for the given parameters.
@@ -50,10 +41,8 @@ public class GroupBy {
      * @param groupByColumnValue group by column
      * @param reportElements     report elements of the report
      * @param axisColumn         column in which group by is performed
-     * @throws ReportingException thrown when error on rendering HTML
      */
-    public GroupBy(String groupByColumnValue, List<ReportElement> reportElements, AxisColumn axisColumn)
-            throws ReportingException {
+    public GroupBy(String groupByColumnValue, List<ReportElement> reportElements, AxisColumn axisColumn) {
         this.groupByColumnKey = axisColumn.toString();
         this.groupByColumnValue = groupByColumnValue;
         this.reportElements = reportElements;
@@ -62,12 +51,6 @@ public class GroupBy {
         isGroupByDeployment = axisColumn.equals(AxisColumn.DEPLOYMENT);
         isGroupByInfrastructure = axisColumn.equals(AxisColumn.INFRASTRUCTURE);
         isGroupByScenario = axisColumn.equals(AxisColumn.SCENARIO);
-
-        // Render report elements
-        Map<String, Object> reportElementsMap = new HashMap<>();
-        reportElementsMap.put(REPORT_ELEMENT_TEMPLATE_KEY, reportElements);
-        Renderable renderable = RenderableFactory.getRenderable(REPORT_ELEMENT_MUSTACHE);
-        this.parsedReportElementsString = renderable.render(REPORT_ELEMENT_MUSTACHE, reportElementsMap);
     }
 
     /**
@@ -123,13 +106,4 @@ public class GroupBy {
     public boolean isGroupByScenario() {
         return isGroupByScenario;
     }
-
-    /**
-     * Returns the HTML group by elements string.
-     *
-     * @return HTML group by elements string
-     */
-    public String getParsedReportElementsString() {
-        return parsedReportElementsString;
-    }
 }
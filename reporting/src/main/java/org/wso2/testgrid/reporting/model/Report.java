@@ -33,14 +33,12 @@ import java.util.Map;
  */
 public class Report {
 
-    private static final String GROUP_BY_TEMPLATE_KEY = "groupBy";
-    private static final String GROUP_BY_MUSTACHE = "group_by.mustache";
     private static final String PER_AXIS_HEADER_TEMPLATE_KEY = "perAxis";
     private static final String PER_AXIS_HEADER_MUSTACHE = "per_axis_header.mustache";
 
     private final boolean isShowSuccess;
     private final String productName;
-    private final String parsedGroupByListString;
+    private final List<GroupBy> groupByList;
     private final String perSummaryString;
 
     /**
@@ -54,18 +52,14 @@ public class Report {
                   List<PerAxisHeader> perSummaryList) throws ReportingException {
         this.isShowSuccess = isShowSuccess;
         this.productName = product.getName();
+        // Group by list is rendered along with the report, through the group_by partial
+        this.groupByList = groupByList;
 
         // Render per infra summary
         Map<String, Object> perSummariesMap = new HashMap<>();
         perSummariesMap.put(PER_AXIS_HEADER_TEMPLATE_KEY, perSummaryList);
         Renderable perInfraSummaryRenderer = RenderableFactory.getRenderable(PER_AXIS_HEADER_MUSTACHE);
         this.perSummaryString = perInfraSummaryRenderer.render(PER_AXIS_HEADER_MUSTACHE, perSummariesMap);
-
-        // Render group by list
-        Map<String, Object> parsedGroupByElements = new HashMap<>();
-        parsedGroupByElements.put(GROUP_BY_TEMPLATE_KEY, groupByList);
-        Renderable groupByRenderer = RenderableFactory.getRenderable(GROUP_BY_MUSTACHE);
-        this.parsedGroupByListString = groupByRenderer.render(GROUP_BY_MUSTACHE, parsedGroupByElements);
     }
 
     /**
@@ -87,12 +81,12 @@ public class Report {
     }
 
     /**
-     * Returns the HTML string for group by list.
+     * Returns the group by elements of the report.
      *
-     * @return HTML string for group by list
+     * @return group by elements of the report
      */
-    public String getParsedGroupByListString() {
-        return parsedGroupByListString;
+    public List<GroupBy> getGroupByList() {
+        return groupByList;
     }
 
     /**
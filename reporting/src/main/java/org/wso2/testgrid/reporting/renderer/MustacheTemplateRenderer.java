@@ -19,30 +19,42 @@ package org.wso2.testgrid.reporting.renderer;
 
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
+import com.github.mustachejava.MustacheException;
+import com.github.mustachejava.MustacheFactory;
 import org.wso2.testgrid.reporting.ReportingException;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Map;
 
 /**
  * This class is responsible for handling rendering of mustache templates.
+ * <p>
+ * Templates are compiled once per process; the mustache factory caches the compiled templates, and it is shared by
+ * all the renderers.
  *
  * @since 1.0.0
  */
 public class MustacheTemplateRenderer implements Renderable {
 
     private static final String TEMPLATE_DIR = "templates";
+    private static final MustacheFactory MUSTACHE_FACTORY = new DefaultMustacheFactory(TEMPLATE_DIR);
 
     @Override
     public String render(String view, Map<String, Object> model) throws ReportingException {
-        Mustache mustache = new DefaultMustacheFactory(TEMPLATE_DIR).compile(view);
         StringWriter stringWriter = new StringWriter();
+        render(view, model, stringWriter);
+        return stringWriter.toString();
+    }
+
+    @Override
+    public void render(String view, Map<String, Object> model, Writer writer) throws ReportingException {
         try {
-            mustache.execute(stringWriter, model).close();
-        } catch (IOException e) {
+            Mustache mustache = MUSTACHE_FACTORY.compile(view);
+            mustache.execute(writer, model).flush();
+        } catch (IOException | MustacheException e) {
             throw new ReportingException(e);
         }
-        return stringWriter.toString();
     }
 }
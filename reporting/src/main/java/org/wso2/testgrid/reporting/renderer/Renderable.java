@@ -19,6 +19,7 @@ package org.wso2.testgrid.reporting.renderer;
 
 import org.wso2.testgrid.reporting.ReportingException;
 
+import java.io.Writer;
 import java.util.Map;
 
 /**
@@ -36,4 +37,14 @@ public interface Renderable {
      * @return rendered template
      */
     String render(String view, Map<String, Object> model) throws ReportingException;
+
+    /**
+     * Render a given model from a given template to the given writer, without holding the rendered output in
+     * memory. The writer is flushed, but not closed.
+     *
+     * @param view   name of the template file in resources/templates directory
+     * @param model  model to be rendered from the template
+     * @param writer writer to write the rendered template to
+     */
+    void render(String view, Map<String, Object> model, Writer writer) throws ReportingException;
 }
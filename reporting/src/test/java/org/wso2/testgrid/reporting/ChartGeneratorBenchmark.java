@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.reporting;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.embed.swing.JFXPanel;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.Scene;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.Chart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.StackedBarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.image.WritableImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.reporting.model.email.BuildExecutionSummary;
+
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the charts per second of drawing the email charts with {@link ChartGenerator} in parallel against
+ * drawing the same charts through a JavaFX scene snapshot, as the charts were drawn before.
+ * <p>
+ * This benchmark is not part of the default test suite. Run it with {@code mvn test -Pbenchmark}; the number of
+ * charts of each kind is set with the {@code benchmark.charts} system property. The JavaFX side needs a JavaFX
+ * runtime and a display, and is skipped when the toolkit cannot start.
+ */
+public class ChartGeneratorBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChartGeneratorBenchmark.class);
+    private static final int CHART_COUNT = Integer.getInteger("benchmark.charts", 200);
+    private static final int WARMUP_CHART_COUNT = 20;
+
+    private boolean toolkitStarted;
+
+    @Test(description = "Java2D charts drawn in parallel must be faster than the JavaFX snapshots")
+    public void benchmarkRenderCharts() throws Exception {
+        Map<String, BuildExecutionSummary> history = createHistory(90);
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        double java2dRate;
+        try {
+            renderJava2D(executorService, history, WARMUP_CHART_COUNT);
+            java2dRate = renderJava2D(executorService, history, CHART_COUNT);
+        } finally {
+            executorService.shutdownNow();
+        }
+        logger.info(String.format("Drew %d charts with Java2D on %d threads at %.1f charts/s", 2 * CHART_COUNT,
+                threadCount, java2dRate));
+
+        long start = System.nanoTime();
+        try {
+            new JFXPanel();
+            toolkitStarted = true;
+        } catch (RuntimeException | Error e) {
+            throw new SkipException("Unable to start the JavaFX toolkit to compare against: " + e.getMessage());
+        }
+        long toolkitStartup = System.nanoTime() - start;
+        renderJavaFX(history, WARMUP_CHART_COUNT);
+        double javaFXRate = renderJavaFX(history, CHART_COUNT);
+
+        logger.info(String.format("Drew %d charts with JavaFX at %.1f charts/s after starting the toolkit in %d ms "
+                        + "(Java2D %.1fx)", 2 * CHART_COUNT, javaFXRate,
+                TimeUnit.NANOSECONDS.toMillis(toolkitStartup), java2dRate / javaFXRate));
+        Assert.assertTrue(java2dRate > javaFXRate, "Expected the Java2D charts to be faster than JavaFX.");
+    }
+
+    @AfterClass
+    public void stopToolkit() {
+        if (toolkitStarted) {
+            Platform.exit();
+        }
+    }
+
+    private static double renderJava2D(ExecutorService executorService, Map<String, BuildExecutionSummary> history,
+                                       int count) throws Exception {
+        long start = System.nanoTime();
+        List<Future<BufferedImage>> charts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int passedCount = i;
+            charts.add(executorService.submit(() -> ChartGenerator.renderSummaryChart(passedCount, 5, 2)));
+            charts.add(executorService.submit(() -> ChartGenerator.renderResultHistoryChart(history)));
+        }
+        for (Future<BufferedImage> chart : charts) {
+            Assert.assertNotNull(chart.get());
+        }
+        return charts.size() * (double) TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+    }
+
+    private static double renderJavaFX(Map<String, BuildExecutionSummary> history, int count) throws Exception {
+        long start = System.nanoTime();
+        List<Future<BufferedImage>> charts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int passedCount = i;
+            charts.add(snapshot(() -> createSummaryChart(passedCount, 5, 2), 600, 600));
+            charts.add(snapshot(() -> createResultHistoryChart(history), 800, 800));
+        }
+        for (Future<BufferedImage> chart : charts) {
+            Assert.assertNotNull(chart.get());
+        }
+        return charts.size() * (double) TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+    }
+
+    /**
+     * Draws a chart on the JavaFX application thread and converts it to an AWT image, which is what writing the
+     * chart with {@link javax.imageio.ImageIO} needed.
+     */
+    private static Future<BufferedImage> snapshot(ChartFactory chartFactory, int width, int height) {
+        CompletableFuture<BufferedImage> image = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                Scene scene = new Scene(chartFactory.create(), width, height);
+                WritableImage snapshot = new WritableImage(width, height);
+                scene.snapshot(snapshot);
+                image.complete(SwingFXUtils.fromFXImage(snapshot, null));
+            } catch (RuntimeException e) {
+                image.completeExceptionally(e);
+            }
+        });
+        return image;
+    }
+
+    private static Chart createSummaryChart(int passedCount, int failedCount, int skippedCount) {
+        PieChart chart = new PieChart(FXCollections.observableArrayList(
+                new PieChart.Data("Test Failures (" + failedCount + ")", failedCount),
+                new PieChart.Data("Deployment Errors (" + skippedCount + ")", skippedCount),
+                new PieChart.Data("Passed (" + passedCount + ")", passedCount)));
+        chart.setAnimated(false);
+        chart.setLabelsVisible(true);
+        chart.setTitle("Build Summary of Infrastructure Combinations ("
+                + (failedCount + skippedCount + passedCount) + ")");
+        return chart;
+    }
+
+    private static Chart createResultHistoryChart(Map<String, BuildExecutionSummary> dataSet) {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        StackedBarChart<String, Number> chart = new StackedBarChart<>(xAxis, yAxis);
+        xAxis.setCategories(FXCollections.observableArrayList(dataSet.keySet()));
+        xAxis.setAnimated(false);
+        yAxis.setAnimated(false);
+        chart.setAnimated(false);
+        xAxis.setLabel("Build date");
+        yAxis.setLabel("Number of infrastructure combinations");
+        chart.setCategoryGap(50);
+        chart.setTitle("Test Run History");
+
+        List<XYChart.Series<String, Number>> seriesSet = new ArrayList<>();
+        for (String name : new String[]{"Test failures", "Deployment errors", "Test passed"}) {
+            XYChart.Series<String, Number> series = new XYChart.Series<>();
+            series.setName(name);
+            seriesSet.add(series);
+        }
+        dataSet.forEach((key, summary) -> {
+            seriesSet.get(0).getData().add(new XYChart.Data<>(key, summary.getFailedTestPlans()));
+            seriesSet.get(1).getData().add(new XYChart.Data<>(key, summary.getSkippedTestPlans()));
+            seriesSet.get(2).getData().add(new XYChart.Data<>(key, summary.getPassedTestPlans()));
+        });
+        chart.getData().addAll(seriesSet);
+        return chart;
+    }
+
+    private static Map<String, BuildExecutionSummary> createHistory(int days) {
+        Map<String, BuildExecutionSummary> history = new TreeMap<>();
+        LocalDate date = LocalDate.of(2019, 1, 1);
+        for (int i = 0; i < days; i++) {
+            BuildExecutionSummary summary = new BuildExecutionSummary();
+            summary.setFailedTestPlans(i % 4);
+            summary.setSkippedTestPlans(i % 3);
+            summary.setPassedTestPlans(10 + i % 7);
+            history.put(date.plusDays(i).toString(), summary);
+        }
+        return history;
+    }
+
+    /**
+     * Creates a chart on the JavaFX application thread.
+     */
+    private interface ChartFactory {
+
+        Chart create();
+    }
+}
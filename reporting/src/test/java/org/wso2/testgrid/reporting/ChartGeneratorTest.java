@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.reporting;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.reporting.model.email.BuildExecutionSummary;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.imageio.ImageIO;
+
+/**
+ * This class will test the charts drawn by {@link ChartGenerator}.
+ *
+ * @since 1.0.0
+ */
+public class ChartGeneratorTest {
+
+    private static final int FAILED_COLOR = 0xf3622d;
+    private static final int ERROR_COLOR = 0xfba71b;
+    private static final int PASSED_COLOR = 0x57b757;
+
+    @Test(description = "Writes the summary and history charts as PNG images of the expected size")
+    public void testGenerateCharts() throws Exception {
+        Path chartDir = Files.createTempDirectory("charts");
+        try {
+            ChartGenerator chartGenerator = new ChartGenerator(chartDir.toString());
+            chartGenerator.generateSummaryChart(12, 3, 1, "summary.png");
+            chartGenerator.generateResultHistoryChart(createHistory(30), "history.png");
+
+            BufferedImage summaryChart = ImageIO.read(chartDir.resolve("summary.png").toFile());
+            Assert.assertEquals(summaryChart.getWidth(), 600);
+            Assert.assertEquals(summaryChart.getHeight(), 600);
+            Assert.assertEquals(countPixels(summaryChart, PASSED_COLOR),
+                    countPixels(ChartGenerator.renderSummaryChart(12, 3, 1), PASSED_COLOR));
+            BufferedImage historyChart = ImageIO.read(chartDir.resolve("history.png").toFile());
+            Assert.assertEquals(historyChart.getWidth(), 800);
+            Assert.assertEquals(historyChart.getHeight(), 800);
+            Assert.assertTrue(countPixels(historyChart, FAILED_COLOR) > 0, "The history chart has no bars.");
+        } finally {
+            FileUtils.deleteDirectory(chartDir.toFile());
+        }
+    }
+
+    @Test(description = "Draws each slice of the summary chart in proportion to its count")
+    public void testSummaryChartSlices() {
+        BufferedImage chart = ChartGenerator.renderSummaryChart(12, 3, 1);
+
+        int failedPixels = countPixels(chart, FAILED_COLOR);
+        int errorPixels = countPixels(chart, ERROR_COLOR);
+        int passedPixels = countPixels(chart, PASSED_COLOR);
+        Assert.assertTrue(errorPixels > 1000, "The deployment errors slice is not drawn.");
+        Assert.assertEquals(failedPixels / (double) errorPixels, 3.0, 0.3);
+        Assert.assertEquals(passedPixels / (double) errorPixels, 12.0, 1.2);
+    }
+
+    @Test(description = "Draws one bar per build date, stacked in proportion to the counts of the build")
+    public void testHistoryChartBars() {
+        Map<String, BuildExecutionSummary> history = new TreeMap<>();
+        LocalDate date = LocalDate.of(2019, 1, 1);
+        for (int i = 0; i < 5; i++) {
+            BuildExecutionSummary summary = new BuildExecutionSummary();
+            summary.setFailedTestPlans(1 + i % 3);
+            summary.setSkippedTestPlans(1 + i % 2);
+            summary.setPassedTestPlans(3 + i);
+            history.put(date.plusDays(i).toString(), summary);
+        }
+        BufferedImage chart = ChartGenerator.renderResultHistoryChart(history);
+
+        // The bars are the columns which hold all three colors; the legend holds one color per column
+        List<int[]> bars = new ArrayList<>();
+        int barStart = -1;
+        for (int x = 0; x <= chart.getWidth(); x++) {
+            boolean bar = x < chart.getWidth() && countPixels(chart, x, FAILED_COLOR) > 0
+                    && countPixels(chart, x, ERROR_COLOR) > 0 && countPixels(chart, x, PASSED_COLOR) > 0;
+            if (bar && barStart < 0) {
+                barStart = x;
+            } else if (!bar && barStart >= 0) {
+                bars.add(new int[]{barStart, x - 1});
+                barStart = -1;
+            }
+        }
+        Assert.assertEquals(bars.size(), history.size());
+
+        int i = 0;
+        for (BuildExecutionSummary summary : history.values()) {
+            int x = (bars.get(i)[0] + bars.get(i)[1]) / 2;
+            double unitHeight = countPixels(chart, x, PASSED_COLOR) / (double) summary.getPassedTestPlans();
+            Assert.assertTrue(unitHeight > 10, "The bar of build " + i + " is too short.");
+            Assert.assertEquals(countPixels(chart, x, FAILED_COLOR), summary.getFailedTestPlans() * unitHeight, 2,
+                    "Unexpected test failures in the bar of build " + i);
+            Assert.assertEquals(countPixels(chart, x, ERROR_COLOR), summary.getSkippedTestPlans() * unitHeight, 2,
+                    "Unexpected deployment errors in the bar of build " + i);
+            i++;
+        }
+    }
+
+    @Test(description = "Draws charts without any test plans")
+    public void testEmptyCharts() {
+        Assert.assertEquals(ChartGenerator.renderSummaryChart(0, 0, 0).getWidth(), 600);
+        Assert.assertEquals(ChartGenerator.renderResultHistoryChart(new TreeMap<>()).getWidth(), 800);
+    }
+
+    private static int countPixels(BufferedImage image, int color) {
+        int count = 0;
+        for (int x = 0; x < image.getWidth(); x++) {
+            count += countPixels(image, x, color);
+        }
+        return count;
+    }
+
+    private static int countPixels(BufferedImage image, int x, int color) {
+        int count = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            if ((image.getRGB(x, y) & 0xffffff) == color) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Map<String, BuildExecutionSummary> createHistory(int days) {
+        Map<String, BuildExecutionSummary> history = new TreeMap<>();
+        LocalDate date = LocalDate.of(2019, 1, 1);
+        for (int i = 0; i < days; i++) {
+            BuildExecutionSummary summary = new BuildExecutionSummary();
+            summary.setFailedTestPlans(i % 4);
+            summary.setSkippedTestPlans(i % 3);
+            summary.setPassedTestPlans(10 + i % 7);
+            history.put(date.plusDays(i).toString(), summary);
+        }
+        return history;
+    }
+}
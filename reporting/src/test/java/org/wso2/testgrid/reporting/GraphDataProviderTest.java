@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.reporting;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.dao.dto.TestExecutionHistoryDTO;
+import org.wso2.testgrid.dao.uow.TestPlanUOW;
+import org.wso2.testgrid.reporting.model.email.BuildExecutionSummary;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * This class will test the test execution history provided by {@link GraphDataProvider}.
+ *
+ * @since 1.0.0
+ */
+public class GraphDataProviderTest {
+
+    @Test(description = "Reads the history of the last 30 days with one query and keys it by the date")
+    public void testGetTestExecutionHistory() {
+        LocalDate today = LocalDate.now(ZoneId.of("UTC"));
+        String from = today.minusDays(29) + " 00:00:00";
+        String to = today.plusDays(1) + " 00:00:00";
+
+        TestPlanUOW testPlanUOW = Mockito.mock(TestPlanUOW.class);
+        Mockito.when(testPlanUOW.getTestExecutionHistory("product", from, to, 7)).thenReturn(Arrays.asList(
+                createHistory("2019-03-12", 5, 1, 0), createHistory("2019-03-10", 3, 2, 1)));
+
+        Map<String, BuildExecutionSummary> history = new GraphDataProvider(testPlanUOW)
+                .getTestExecutionHistory("product");
+
+        Mockito.verify(testPlanUOW, Mockito.times(1)).getTestExecutionHistory("product", from, to, 7);
+        Assert.assertEquals(history.keySet().toArray(), new String[] { "2019-03-10", "2019-03-12" });
+        BuildExecutionSummary summary = history.get("2019-03-10");
+        Assert.assertEquals(summary.getPassedTestPlans(), 3);
+        Assert.assertEquals(summary.getFailedTestPlans(), 2);
+        Assert.assertEquals(summary.getSkippedTestPlans(), 1);
+    }
+
+    private static TestExecutionHistoryDTO createHistory(String date, int passed, int failed, int skipped) {
+        TestExecutionHistoryDTO history = new TestExecutionHistoryDTO();
+        history.setDate(date);
+        history.setPassedTestPlans(passed);
+        history.setFailedTestPlans(failed);
+        history.setSkippedTestPlans(skipped);
+        return history;
+    }
+}
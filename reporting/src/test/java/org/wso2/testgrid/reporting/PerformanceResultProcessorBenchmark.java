@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.reporting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.reporting.model.performance.DividerSection;
+import org.wso2.testgrid.reporting.model.performance.PerformanceTable;
+import org.wso2.testgrid.reporting.model.performance.ScenarioSection;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time {@link PerformanceResultProcessor} takes to divide a large result set into report sections,
+ * and checks that it grows about linearly with the number of rows when the number of divider values grows with it.
+ * <p>
+ * This benchmark is not part of the default test suite. Run it with {@code mvn test -Pbenchmark}; the number of
+ * rows is set with the {@code benchmark.performanceRows} system property.
+ */
+public class PerformanceResultProcessorBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceResultProcessorBenchmark.class);
+    private static final int ROW_COUNT = Integer.getInteger("benchmark.performanceRows", 100000);
+    private static final int SCALE = 8;
+    private static final int RUNS = 5;
+
+    @Test(description = "Dividing eight times the rows and divider values must not take the square of the time")
+    public void benchmarkProcessScenario() throws IOException {
+        TestScenario smallScenario = createTestScenario(ROW_COUNT / SCALE);
+        TestScenario largeScenario = createTestScenario(ROW_COUNT);
+        measure(smallScenario, ROW_COUNT / SCALE);
+        measure(largeScenario, ROW_COUNT);
+
+        long smallTime = measure(smallScenario, ROW_COUNT / SCALE);
+        long largeTime = measure(largeScenario, ROW_COUNT);
+
+        logger.info(String.format("Divided %d results into report sections in %.1f ms and %d results in %.1f ms "
+                        + "(%.0f rows/s)", ROW_COUNT / SCALE, smallTime / 1_000_000.0, ROW_COUNT,
+                largeTime / 1_000_000.0, ROW_COUNT * (double) TimeUnit.SECONDS.toNanos(1) / largeTime));
+        // Filtering the rows once per divider value would take SCALE * SCALE times as long
+        Assert.assertTrue(largeTime < SCALE * SCALE / 2 * smallTime,
+                "Expected the processing time to grow linearly with the number of results.");
+    }
+
+    /**
+     * Returns the fastest of a few runs of dividing the results of the scenario.
+     */
+    private static long measure(TestScenario testScenario, int rowCount) {
+        long fastest = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            ScenarioSection scenarioSection = new PerformanceResultProcessor()
+                    .processScenario(testScenario, PerformanceResultProcessorTest.createResultFormat());
+            fastest = Math.min(fastest, System.nanoTime() - start);
+            Assert.assertEquals(countRows(scenarioSection), rowCount);
+        }
+        return fastest;
+    }
+
+    private static int countRows(ScenarioSection scenarioSection) {
+        int rowCount = 0;
+        for (DividerSection heapSection : scenarioSection.getDividerSection().getChildSections().get(0)
+                .getChildSections()) {
+            for (PerformanceTable table : heapSection.getDataSection().getPerformanceTableList()) {
+                rowCount += table.getBodyData().size();
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * Creates the results of four heap sizes, where each message size has 64 rows, so the number of message
+     * sizes grows with the number of rows.
+     */
+    private static TestScenario createTestScenario(int rowCount) throws IOException {
+        StringBuilder csv = new StringBuilder(PerformanceResultProcessorTest.HEADER).append('\n');
+        String[] heapSizes = {"512M", "1G", "2G", "4G"};
+        for (int row = 0; row < rowCount; row++) {
+            csv.append("Passthrough,").append(heapSizes[row % heapSizes.length]).append(',')
+                    .append(row % 16).append(',')
+                    .append(row / 64).append(',')
+                    .append(1000 + row % 997).append(',').append((row % 1000) / 10.0).append(",0\n");
+        }
+        return PerformanceResultProcessorTest.createTestScenario(csv.toString());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Column;
+import org.wso2.testgrid.common.PerformanceResultTable;
+import org.wso2.testgrid.common.ResultFormat;
+import org.wso2.testgrid.common.TestScenario;
+import org.wso2.testgrid.reporting.model.performance.DataSection;
+import org.wso2.testgrid.reporting.model.performance.DividerSection;
+import org.wso2.testgrid.reporting.model.performance.PerformanceTable;
+import org.wso2.testgrid.reporting.model.performance.ScenarioSection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class will test the report sections created by {@link PerformanceResultProcessor}.
+ *
+ * @since 1.0.0
+ */
+public class PerformanceResultProcessorTest {
+
+    static final String HEADER = "Scenario Name,Heap Size,Concurrent Users,Message Size (Bytes),"
+            + "Throughput (Requests/sec),Average Response Time (ms),Error %";
+
+    @Test(description = "Divides the results by each divider in the order the values first appear")
+    public void testProcessScenario() throws IOException {
+        String csv = HEADER + "\n"
+                + "Passthrough,1G,100,50,1203.5,12.50,0\n"
+                + "Passthrough,2G,100,50,1450,10.1,0\n"
+                + "Passthrough,1G,200,50,1800,20.4,0.01\n"
+                + "Passthrough,1G,100,1024,900,15,0\n"
+                + "\n"
+                + "Passthrough,2G,200,1024,1100,19,0\n";
+        ScenarioSection scenarioSection = new PerformanceResultProcessor()
+                .processScenario(createTestScenario(csv), createResultFormat());
+
+        Assert.assertEquals(scenarioSection.getScenarioName(), "Passthrough");
+        DividerSection primary = scenarioSection.getDividerSection();
+        Assert.assertEquals(primary.getData(), "Scenario Name : Passthrough");
+        DividerSection heapSizeSection = primary.getChildSections().get(0);
+        Assert.assertEquals(heapSizeSection.getData(), "Heap Size");
+        Assert.assertEquals(heapSizeSection.getChildSections().size(), 2);
+
+        DividerSection heapSection = heapSizeSection.getChildSections().get(0);
+        Assert.assertEquals(heapSection.getData(), "1G");
+        DataSection dataSection = heapSection.getDataSection();
+        Assert.assertEquals(dataSection.getDescription(), "Message Size (Bytes)");
+        List<PerformanceTable> tables = dataSection.getPerformanceTableList();
+        Assert.assertEquals(tables.size(), 2);
+        Assert.assertEquals(tables.get(0).getDescription(), "50");
+        Assert.assertEquals(tables.get(0).getBodyData(), Arrays.asList(
+                Arrays.asList("100", "1203.5", "12.50"),
+                Arrays.asList("200", "1800", "20.4")));
+        Assert.assertEquals(tables.get(1).getDescription(), "1024");
+        Assert.assertEquals(tables.get(1).getBodyData(),
+                Collections.singletonList(Arrays.asList("100", "900", "15")));
+        Assert.assertEquals(tables.get(0).getHeaderData().size(), 2);
+        Assert.assertEquals(tables.get(0).getHeaderData().get(0).get(1).getColSpan(), 2);
+
+        heapSection = heapSizeSection.getChildSections().get(1);
+        Assert.assertEquals(heapSection.getData(), "2G");
+        tables = heapSection.getDataSection().getPerformanceTableList();
+        Assert.assertEquals(tables.size(), 2);
+        Assert.assertEquals(tables.get(1).getBodyData(),
+                Collections.singletonList(Arrays.asList("200", "1100", "19")));
+    }
+
+    static TestScenario createTestScenario(String csv) throws IOException {
+        TestScenario testScenario = new TestScenario();
+        testScenario.setName("Passthrough");
+        testScenario.setSummaryGraphs(Collections.emptyList());
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            testScenario.setPerformanceTestResults(PerformanceResultTable.read(reader));
+        }
+        return testScenario;
+    }
+
+    static ResultFormat createResultFormat() {
+        Column results = createColumn(Column.COMMON_COLUMN, "Results");
+        results.setColumns(Arrays.asList(createColumn(Column.COLUMN, "Throughput (Requests/sec)"),
+                createColumn(Column.COLUMN, "Average Response Time (ms)")));
+        ResultFormat resultFormat = new ResultFormat();
+        resultFormat.setPrimaryDivider("Scenario Name");
+        // Dividers are applied from the last to the first
+        resultFormat.setDividers(Arrays.asList("Message Size (Bytes)", "Heap Size"));
+        resultFormat.setTable(Arrays.asList(createColumn(Column.COLUMN, "Concurrent Users"), results));
+        return resultFormat;
+    }
+
+    private static Column createColumn(String type, String name) {
+        Column column = new Column();
+        column.setType(type);
+        column.setName(name);
+        return column;
+    }
+}
@@ -102,9 +102,7 @@ public class TestReportEngineTest extends BaseClass {
         when(s3ObjectMock.getObjectContent()).thenReturn(inputStream);
 
         if (testNum.equals("02")) {
-            //We can only handle maximum of one data provider for chart generation code.
-            //TODO: this was done because one JVM can only call JAVAFX Platform.exit() once.
-            // See @ChartGenerator#stopApplication
+            //The summarized email report is generated only for the data provider with the build history.
 
             Optional<Path> path = testReportEngine.generateSummarizedEmailReport(product, productDir.toString());
             Assert.assertTrue(path.isPresent(), "Email report generation has failed. File path is empty.");
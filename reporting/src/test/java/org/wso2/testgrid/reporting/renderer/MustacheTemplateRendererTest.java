@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.reporting.renderer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.testgrid.common.Product;
+import org.wso2.testgrid.common.Status;
+import org.wso2.testgrid.reporting.AxisColumn;
+import org.wso2.testgrid.reporting.ReportingException;
+import org.wso2.testgrid.reporting.model.GroupBy;
+import org.wso2.testgrid.reporting.model.Report;
+import org.wso2.testgrid.reporting.model.ReportElement;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class will test the rendering of the mustache templates by {@link MustacheTemplateRenderer}.
+ *
+ * @since 1.0.0
+ */
+public class MustacheTemplateRendererTest {
+
+    private static final String REPORT_MUSTACHE = "report.mustache";
+
+    @Test(description = "Renders the report to a writer through the group_by and report_element partials")
+    public void testRenderReportToWriter() throws ReportingException {
+        Product product = new Product();
+        product.setName("wso2-product");
+        GroupBy groupBy = new GroupBy("pattern-1", Arrays.asList(
+                createReportElement("testLogin", Status.FAIL, "expected [200] but found [500]"),
+                createReportElement("testLogout", Status.SUCCESS, null)), AxisColumn.DEPLOYMENT);
+        Map<String, Object> model = new HashMap<>();
+        model.put("parsedReport", new Report(false, product, Collections.singletonList(groupBy),
+                Collections.emptyList()));
+
+        MustacheTemplateRenderer renderer = new MustacheTemplateRenderer();
+        StringWriter writer = new StringWriter();
+        renderer.render(REPORT_MUSTACHE, model, writer);
+        String html = writer.toString();
+
+        Assert.assertTrue(html.contains("Test Execution Summary for wso2-product"));
+        // group_by partial
+        Assert.assertTrue(html.contains("DEPLOYMENT - pattern-1"), "The group by title is not rendered.");
+        Assert.assertFalse(html.contains("<span>Deployment</span>"),
+                "The grouped by column must not be rendered as a column of the table.");
+        Assert.assertTrue(html.contains("<span>Infrastructure</span>"));
+        // report_element partial
+        Assert.assertTrue(html.contains("<td>Ubuntu</td>"), "The report elements are not rendered.");
+        Assert.assertTrue(html.contains("testLogin"));
+        Assert.assertTrue(html.contains("testLogout"));
+        Assert.assertTrue(html.contains("expected [200] but found [500]"));
+        Assert.assertEquals(html, renderer.render(REPORT_MUSTACHE, model));
+    }
+
+    @Test(description = "Reports a template which cannot be found as a reporting error",
+          expectedExceptions = ReportingException.class)
+    public void testRenderMissingTemplate() throws ReportingException {
+        new MustacheTemplateRenderer().render("missing.mustache", new HashMap<>(), new StringWriter());
+    }
+
+    private static ReportElement createReportElement(String testCase, Status status, String failureMessage) {
+        ReportElement reportElement = new ReportElement(AxisColumn.DEPLOYMENT);
+        reportElement.setDeployment("pattern-1");
+        reportElement.setInfraParams("Ubuntu");
+        reportElement.setScenarioDescription("Login scenario");
+        reportElement.setTestCase(testCase);
+        reportElement.setTestCaseFailureMessage(failureMessage);
+        reportElement.setTestSuccess(status);
+        return reportElement;
+    }
+}
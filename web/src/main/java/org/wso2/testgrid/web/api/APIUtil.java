@@ -21,7 +21,10 @@ package org.wso2.testgrid.web.api;
 import org.wso2.testgrid.common.DeploymentPatternTestFailureStat;
 import org.wso2.testgrid.common.infrastructure.InfrastructureValueSet;
 import org.wso2.testgrid.common.util.TestGridUtil;
+import org.wso2.testgrid.dao.dto.PerformanceMetricPointDTO;
 import org.wso2.testgrid.web.bean.DeploymentPattern;
+import org.wso2.testgrid.web.bean.PerformanceMetric;
+import org.wso2.testgrid.web.bean.PerformanceMetricPoint;
 import org.wso2.testgrid.web.bean.Product;
 import org.wso2.testgrid.web.bean.TestCase;
 import org.wso2.testgrid.web.bean.TestPlan;
@@ -254,4 +257,47 @@ class APIUtil {
         }
         return testCasesBean;
     }
+
+    /**
+     * Util method to convert list of {@link org.wso2.testgrid.common.PerformanceMetric} instances to a list of
+     * {@link PerformanceMetric} instances.
+     *
+     * @param performanceMetrics list of {@link org.wso2.testgrid.common.PerformanceMetric} instances to be converted
+     * @return List of {@link PerformanceMetric} instances with necessary information
+     */
+    static List<PerformanceMetric> getPerformanceMetricBeans(
+            List<org.wso2.testgrid.common.PerformanceMetric> performanceMetrics) {
+        List<PerformanceMetric> performanceMetricBeans = new ArrayList<>();
+
+        for (org.wso2.testgrid.common.PerformanceMetric performanceMetric : performanceMetrics) {
+            PerformanceMetric performanceMetricBean = new PerformanceMetric();
+            performanceMetricBean.setScenarioName(performanceMetric.getScenarioName());
+            performanceMetricBean.setDimensions(performanceMetric.getDimensions());
+            performanceMetricBean.setMetricName(performanceMetric.getMetricName());
+            performanceMetricBean.setValue(performanceMetric.getValue());
+            performanceMetricBeans.add(performanceMetricBean);
+        }
+        return performanceMetricBeans;
+    }
+
+    /**
+     * Util method to convert list of {@link PerformanceMetricPointDTO} instances to a list of
+     * {@link PerformanceMetricPoint} instances.
+     *
+     * @param metricPoints list of {@link PerformanceMetricPointDTO} instances to be converted
+     * @return List of {@link PerformanceMetricPoint} instances with necessary information
+     */
+    static List<PerformanceMetricPoint> getPerformanceMetricPointBeans(List<PerformanceMetricPointDTO> metricPoints) {
+        List<PerformanceMetricPoint> metricPointBeans = new ArrayList<>();
+
+        for (PerformanceMetricPointDTO metricPoint : metricPoints) {
+            PerformanceMetricPoint metricPointBean = new PerformanceMetricPoint();
+            metricPointBean.setTestPlanId(metricPoint.getTestPlanId());
+            metricPointBean.setTestRunNumber(metricPoint.getTestRunNumber());
+            metricPointBean.setTimestamp(metricPoint.getTimestamp());
+            metricPointBean.setValue(metricPoint.getValue());
+            metricPointBeans.add(metricPointBean);
+        }
+        return metricPointBeans;
+    }
 }
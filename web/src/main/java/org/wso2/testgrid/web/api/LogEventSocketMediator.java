@@ -23,16 +23,18 @@ import org.wso2.testgrid.common.TestPlan;
 import org.wso2.testgrid.common.exception.TestGridException;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.common.util.TestGridUtil;
+import org.wso2.testgrid.dao.EntityManagerHelper;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.uow.TestPlanUOW;
-import org.wso2.testgrid.web.utils.FileWatcher;
 import org.wso2.testgrid.web.utils.FileWatcherException;
+import org.wso2.testgrid.web.utils.LogFileTailer;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Optional;
 import javax.websocket.OnClose;
+import javax.websocket.OnError;
 import javax.websocket.OnMessage;
 import javax.websocket.OnOpen;
 import javax.websocket.Session;
@@ -92,6 +94,8 @@ public class LogEventSocketMediator {
             log.error("Error on calculating the log file path.", e);
         } catch (FileWatcherException e) {
             log.error("Error on reading watched file contents.", e);
+        } finally {
+            EntityManagerHelper.closeEntityManager();
         }
     }
 
@@ -104,6 +108,20 @@ public class LogEventSocketMediator {
     @OnClose
     public void onClose(Session session, @PathParam("test-plan-id") String testPlanId) {
         log.info(StringUtil.concatStrings("Closed web socket channel for test plan id ", testPlanId));
+        LogFileTailer.unsubscribe(session);
+    }
+
+    /**
+     * Method called when an error occurs on the web socket.
+     *
+     * @param session    client session
+     * @param throwable  error occurred
+     * @param testPlanId test plan ID
+     */
+    @OnError
+    public void onError(Session session, Throwable throwable, @PathParam("test-plan-id") String testPlanId) {
+        log.error(StringUtil.concatStrings("Error on web socket channel for test plan id ", testPlanId), throwable);
+        LogFileTailer.unsubscribe(session);
     }
 
     /**
@@ -112,14 +130,11 @@ public class LogEventSocketMediator {
      * @param testPlan test plan required to get the log file path
      * @param session  client session
      * @throws TestGridException    thrown when error on calculating the log file path
-     * @throws IOException          thrown when error on registering watch file service
-     * @throws FileWatcherException thrown when error on reading watched file contents
+     * @throws FileWatcherException thrown when error on watching the log file
      */
-    private void runLogTailer(TestPlan testPlan, Session session)
-            throws TestGridException, IOException, FileWatcherException {
+    private void runLogTailer(TestPlan testPlan, Session session) throws TestGridException, FileWatcherException {
         Path logFilePath = getLogFilePath(testPlan);
-        FileWatcher fileWatcher = new LogFileWatcher(logFilePath, session);
-        new Thread(fileWatcher).start();
+        LogFileTailer.subscribe(logFilePath, session);
     }
 
     /**
@@ -133,63 +148,4 @@ public class LogEventSocketMediator {
         //Create logging directory
         return Paths.get(TestGridUtil.deriveTestRunLogFilePath(testPlan, false));
     }
-
-    /**
-     * This class is responsible for watching changes of the given log file.
-     *
-     * @since 1.0.0
-     */
-    private static class LogFileWatcher extends FileWatcher {
-
-        private final Session session;
-        private String currentFileContents = "";
-
-        /**
-         * Creates an instance of {@link LogFileWatcher} to watch the given file.
-         *
-         * @param watchFile file to be watched
-         * @param session   client session
-         * @throws FileWatcherException thrown when error on creating an instance of {@link LogFileWatcher}
-         */
-        LogFileWatcher(Path watchFile, Session session) throws FileWatcherException {
-            super(watchFile);
-            this.session = session;
-        }
-
-        @Override
-        public void beforeFileWatch(String fileContents) throws FileWatcherException {
-            sendTextDiffToClient(fileContents);
-        }
-
-        @Override
-        public void onCreate(String fileContents) throws FileWatcherException {
-            sendTextDiffToClient(fileContents);
-        }
-
-        @Override
-        public void onModified(String fileContents) throws FileWatcherException {
-            sendTextDiffToClient(fileContents);
-        }
-
-        /**
-         * Sends the file contents diff to client.
-         *
-         * @param fileContents file contents
-         * @throws FileWatcherException thrown when error on sending file contents to the client
-         */
-        private void sendTextDiffToClient(String fileContents) throws FileWatcherException {
-            try {
-                String difference = org.apache.commons.lang3.StringUtils.difference(currentFileContents, fileContents);
-                currentFileContents = fileContents;
-                session.getBasicRemote().sendText(difference);
-            } catch (IOException e) {
-                throw new FileWatcherException("Error on sending file contents to the client.", e);
-            }
-        }
-
-        @Override
-        public void onDelete() {
-            // Do nothing
-        }
-    }
 }
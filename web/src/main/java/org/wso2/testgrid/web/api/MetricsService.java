@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.api;
+
+import org.wso2.testgrid.common.plugins.S3ClientRegistry;
+import org.wso2.testgrid.dao.EntityManagerHelper;
+import org.wso2.testgrid.dao.cache.ReferenceDataCache;
+import org.wso2.testgrid.web.utils.FileWatchDispatcher;
+import org.wso2.testgrid.web.utils.LogFileTailer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * REST service exposing runtime metrics of the web app, used to size the dashboard tier.
+ */
+
+@Path("/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricsService {
+
+    /**
+     * This has the implementation of the REST API for fetching the runtime metrics.
+     *
+     * @return metrics grouped by the subsystem they belong to.
+     */
+    @GET
+    public Response getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("database", EntityManagerHelper.getConnectionPoolStatistics());
+        metrics.put("referenceDataCache", ReferenceDataCache.getStatistics());
+        metrics.put("fileWatch", FileWatchDispatcher.getStatistics());
+        metrics.put("liveLogs", LogFileTailer.getStatistics());
+        metrics.put("artifactStorage", S3ClientRegistry.getInstance().getStatistics());
+        return Response.status(Response.Status.OK).entity(metrics).build();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.TestPlan;
+import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.uow.PerformanceMetricUOW;
+import org.wso2.testgrid.dao.uow.TestPlanUOW;
+import org.wso2.testgrid.web.bean.ErrorResponse;
+
+import java.util.Optional;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * REST service implementation of the performance metrics of test plans.
+ */
+
+@Path("/performance-metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class PerformanceMetricService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMetricService.class);
+    private static final int MAX_HISTORY_LIMIT = 500;
+
+    /**
+     * This has the implementation of the REST API for fetching all the performance metrics of a TestPlan.
+     *
+     * @return A list of performance metrics of the given TestPlan.
+     */
+    @GET
+    public Response getPerformanceMetrics(@QueryParam("test-plan-id") String testPlanId) {
+        if (testPlanId == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorResponse.ErrorResponseBuilder().
+                    setMessage("The test-plan-id query parameter is required").build()).build();
+        }
+        try {
+            PerformanceMetricUOW performanceMetricUOW = new PerformanceMetricUOW();
+            return Response.status(Response.Status.OK).entity(APIUtil.getPerformanceMetricBeans(
+                    performanceMetricUOW.getPerformanceMetrics(testPlanId))).build();
+        } catch (RuntimeException e) {
+            String msg = "Error occurred while fetching the performance metrics for TestPlan id : '" + testPlanId
+                    + "'";
+            logger.error(msg, e);
+            return Response.serverError().entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(msg).build()).build();
+        }
+    }
+
+    /**
+     * This has the implementation of the REST API for fetching the values of a performance metric across the
+     * builds of the infrastructure combination and deployment pattern of a TestPlan, up to and including the
+     * TestPlan. The scenario, metric and dimensions identify the metric as returned by
+     * {@link #getPerformanceMetrics(String)}.
+     *
+     * @return A list of the values of the metric ordered by the test run number, oldest first.
+     */
+    @GET
+    @Path("/history")
+    public Response getMetricHistory(@QueryParam("test-plan-id") String testPlanId,
+                                     @QueryParam("scenario") String scenarioName,
+                                     @QueryParam("metric") String metricName,
+                                     @QueryParam("dimensions") @DefaultValue("") String dimensions,
+                                     @QueryParam("limit") @DefaultValue("50") int limit) {
+        if (testPlanId == null || scenarioName == null || metricName == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorResponse.ErrorResponseBuilder().
+                    setMessage("The test-plan-id, scenario and metric query parameters are required").build())
+                    .build();
+        }
+        try {
+            TestPlanUOW testPlanUOW = new TestPlanUOW();
+            Optional<TestPlan> testPlan = testPlanUOW.getTestPlanById(testPlanId);
+            if (!testPlan.isPresent()) {
+                return Response.status(Response.Status.NOT_FOUND).entity(new ErrorResponse.ErrorResponseBuilder().
+                        setMessage("Unable to find the requested TestPlan by id : '" + testPlanId + "'").build())
+                        .build();
+            }
+            PerformanceMetricUOW performanceMetricUOW = new PerformanceMetricUOW();
+            return Response.status(Response.Status.OK).entity(APIUtil.getPerformanceMetricPointBeans(
+                    performanceMetricUOW.getMetricHistory(testPlan.get(), scenarioName, metricName, dimensions,
+                            Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT))))).build();
+        } catch (TestGridDAOException | RuntimeException e) {
+            String msg = "Error occurred while fetching the history of performance metric '" + metricName
+                    + "' for TestPlan id : '" + testPlanId + "'";
+            logger.error(msg, e);
+            return Response.serverError().entity(
+                    new ErrorResponse.ErrorResponseBuilder().setMessage(msg).build()).build();
+        }
+    }
+}
@@ -23,11 +23,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.Product;
 import org.wso2.testgrid.common.TestPlanStatus;
-import org.wso2.testgrid.common.config.ConfigurationContext;
 import org.wso2.testgrid.common.exception.TestGridRuntimeException;
-import org.wso2.testgrid.common.plugins.AWSArtifactReader;
 import org.wso2.testgrid.common.plugins.ArtifactReadable;
 import org.wso2.testgrid.common.plugins.ArtifactReaderException;
+import org.wso2.testgrid.common.plugins.S3ClientRegistry;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.dao.TestGridDAOException;
 import org.wso2.testgrid.dao.uow.ProductUOW;
@@ -37,7 +36,7 @@ import org.wso2.testgrid.web.bean.ErrorResponse;
 import org.wso2.testgrid.web.bean.ProductStatus;
 import org.wso2.testgrid.web.utils.Constants;
 
-import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Paths;
 import java.util.Locale;
 import java.util.Optional;
@@ -208,9 +207,7 @@ public class ProductService {
                 String fileName = StringUtil
                         .concatStrings(product.getName(), "-", uniqueAxisColumn, Constants.HTML_EXTENSION);
                 String bucketKey = Paths.get(Constants.AWS_BUCKET_ARTIFACT_DIR, productName, fileName).toString();
-                ArtifactReadable artifactReadable = new AWSArtifactReader(ConfigurationContext.
-                        getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME), ConfigurationContext.
-                        getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+                ArtifactReadable artifactReadable = S3ClientRegistry.getInstance().getArtifactReader();
                 if (artifactReadable.isArtifactExist(bucketKey)) {
                     return Response.status(Response.Status.OK).entity("The artifact exists in the remote storage")
                             .build();
@@ -227,10 +224,6 @@ public class ProductService {
             String msg = "Error occurred while creating AWS artifact reader.";
             logger.error(msg, e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(msg).build();
-        } catch (IOException e) {
-            String msg = "Error occurred while accessing configurations.";
-            logger.error(msg, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(msg).build();
         }
     }
 
@@ -258,11 +251,14 @@ public class ProductService {
                 String fileName = StringUtil
                         .concatStrings(product.getName(), "-", uniqueAxisColumn, Constants.HTML_EXTENSION);
                 String bucketKey = Paths.get(Constants.AWS_BUCKET_ARTIFACT_DIR, productName, fileName).toString();
-                ArtifactReadable artifactReadable = new AWSArtifactReader(ConfigurationContext.
-                        getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME), ConfigurationContext.
-                        getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+                ArtifactReadable artifactReadable = S3ClientRegistry.getInstance().getArtifactReader();
+                InputStream reportStream = artifactReadable.findArtifactStream(bucketKey);
+                if (reportStream == null) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Couldn't found the Artifact in the remote location").build();
+                }
                 Response.ResponseBuilder response = Response
-                        .ok(artifactReadable.getArtifactStream(bucketKey), MediaType.APPLICATION_OCTET_STREAM);
+                        .ok(reportStream, MediaType.APPLICATION_OCTET_STREAM);
                 response.status(Response.Status.OK);
                 response.type("application/html");
                 response.header("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
@@ -278,10 +274,6 @@ public class ProductService {
             String msg = "Error occurred while creating AWS artifact reader.";
             logger.error(msg, e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(msg).build();
-        } catch (IOException e) {
-            String msg = "Error occurred while accessing configurations.";
-            logger.error(msg, e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(msg).build();
         } catch (ResourceNotFoundException e) {
             String msg = "Error occurred while getting the report.";
             logger.error(msg, e);
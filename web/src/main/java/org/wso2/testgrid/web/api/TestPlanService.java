@@ -18,11 +18,10 @@
 
 package org.wso2.testgrid.web.api;
 
+import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.amazonaws.services.s3.transfer.TransferManager;
-import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import org.apache.hc.core5.http.HttpStatus;
 import org.json.JSONArray;
 import org.slf4j.Logger;
@@ -35,13 +34,15 @@ import org.wso2.testgrid.common.config.ConfigurationContext;
 import org.wso2.testgrid.common.config.ConfigurationContext.ConfigurationProperties;
 import org.wso2.testgrid.common.exception.TestGridException;
 import org.wso2.testgrid.common.infrastructure.InfrastructureValueSet;
-import org.wso2.testgrid.common.plugins.AWSArtifactReader;
+import org.wso2.testgrid.common.plugins.ArtifactMetadata;
 import org.wso2.testgrid.common.plugins.ArtifactReadable;
 import org.wso2.testgrid.common.plugins.ArtifactReaderException;
+import org.wso2.testgrid.common.plugins.S3ClientRegistry;
 import org.wso2.testgrid.common.util.S3StorageUtil;
 import org.wso2.testgrid.common.util.StringUtil;
 import org.wso2.testgrid.common.util.TestGridUtil;
 import org.wso2.testgrid.dao.TestGridDAOException;
+import org.wso2.testgrid.dao.dto.TestPlanBuildSummaryDTO;
 import org.wso2.testgrid.dao.uow.InfrastructureParameterUOW;
 import org.wso2.testgrid.dao.uow.TestPlanUOW;
 import org.wso2.testgrid.web.bean.ErrorResponse;
@@ -54,13 +55,20 @@ import org.wso2.testgrid.web.bean.TestPlanStatus;
 import org.wso2.testgrid.web.operation.GrafanaTimeLimitGetter;
 import org.wso2.testgrid.web.operation.JenkinsJobConfigurationProvider;
 import org.wso2.testgrid.web.operation.JenkinsPipelineManager;
+import org.wso2.testgrid.web.utils.ByteRange;
+import org.wso2.testgrid.web.utils.LogFileCache;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -76,16 +84,21 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import static org.wso2.testgrid.common.TestGridConstants.TESTGRID_COMPRESSED_FILE_EXT;
 import static org.wso2.testgrid.common.TestGridConstants.TEST_RESULTS_ARCHIVE_DIR;
+import static org.wso2.testgrid.common.TestPlanStatus.RUNNING;
 import static org.wso2.testgrid.web.utils.Constants.RESPONSE_HEADER_CONTENT_DISPOSITION;
 import static org.wso2.testgrid.web.utils.Constants.RESPONSE_HEADER_FILE_NAME;
 import static org.wso2.testgrid.web.utils.Constants.RESPONSE_HEADER_VALUE_APPLICATION_ZIP;
@@ -99,6 +112,9 @@ import static org.wso2.testgrid.web.utils.Constants.RESPONSE_HEADER_VALUE_ATTACH
 public class TestPlanService {
 
     private static final Logger logger = LoggerFactory.getLogger(TestPlanService.class);
+    private static final String RANGE_HEADER = "Range";
+    private static final String CONTENT_RANGE_HEADER = "Content-Range";
+    private static final String ACCEPT_RANGES_HEADER = "Accept-Ranges";
     private JenkinsJobConfigurationProvider jenkinsJobConfigurationProvider = new JenkinsJobConfigurationProvider();
     private JenkinsPipelineManager jenkinsPipelineManager = new JenkinsPipelineManager();
     private final InfrastructureParameterUOW infrastructureParameterUOW = new InfrastructureParameterUOW();
@@ -194,14 +210,20 @@ public class TestPlanService {
 
     /**
      * Returns the log content related to the given test plan.
+     * <p>
+     * A single byte range of the log can be requested through the {@code Range} header. Logs stored compressed are
+     * served as they are, with the matching {@code Content-Encoding}. Logs of finished test plans are served from
+     * a local disk cache.
      *
-     * @param id       test plan id to get the specific log
-     * @param truncate whether the log file should be truncated or not
+     * @param id          test plan id to get the specific log
+     * @param truncate    whether the log file should be truncated or not
+     * @param rangeHeader value of the {@code Range} header, if any
      * @return The requested Test-Plan
      */
     @GET
     @Path("/log/{id}")
-    public Response getLogContent(@PathParam("id") String id, @QueryParam("truncate") boolean truncate) {
+    public Response getLogContent(@PathParam("id") String id, @QueryParam("truncate") boolean truncate,
+                                  @HeaderParam(RANGE_HEADER) String rangeHeader) {
         try {
             // Get test plan
             TestPlanUOW testPlanUOW = new TestPlanUOW();
@@ -215,12 +237,63 @@ public class TestPlanService {
             TestPlan testPlan = optionalTestPlan.get();
             // In future when TestGrid is deployed in multiple regions, builds may run in different regions.
             // Then AWS_REGION_NAME will to be moved to a per-testplan parameter.
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(ConfigurationContext.
-                    getProperty(ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
             String logFileDir = S3StorageUtil.getS3LocationForTestRunLogFile(testPlan, truncate, artifactDownloadable);
-            return Response.status(Response.Status.OK).entity(artifactDownloadable.getArtifactStream(logFileDir))
-                    .build();
+            ArtifactMetadata logFileMetadata = artifactDownloadable.getArtifactMetadata(logFileDir);
+            if (logFileMetadata == null) {
+                String msg = "No log file found for the test plan " + id;
+                logger.error(msg);
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(msg).build()).build();
+            }
+            long logFileLength = logFileMetadata.getContentLength();
+            ByteRange range = ByteRange.parse(rangeHeader, logFileLength);
+            if (range != null && !range.isSatisfiable()) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(CONTENT_RANGE_HEADER, range.toContentRange()).build();
+            }
+
+            Object logContent;
+            LogFileCache.CachedLogFile logFile = null;
+            try {
+                if (RUNNING.equals(testPlan.getStatus())) {
+                    // The log may still change; read it from the remote storage
+                    logContent = range == null ?
+                                 artifactDownloadable.getArtifactStream(logFileDir) :
+                                 artifactDownloadable.getArtifactStream(logFileDir, range.getStart(),
+                                         range.getEnd());
+                } else {
+                    logFile = LogFileCache.getInstance()
+                            .get(id, truncate ? "truncated" : "full", logFileMetadata.getETag(),
+                                    () -> artifactDownloadable.getArtifactStream(logFileDir));
+                    logContent = range == null ?
+                                 readRange(logFile, 0, logFileLength) :
+                                 readRange(logFile, range.getStart(), range.getContentLength());
+                }
+
+                Response.ResponseBuilder responseBuilder = range == null ?
+                        Response.status(Response.Status.OK)
+                                .header(HttpHeaders.CONTENT_LENGTH, logFileLength) :
+                        Response.status(Response.Status.PARTIAL_CONTENT)
+                                .header(CONTENT_RANGE_HEADER, range.toContentRange())
+                                .header(HttpHeaders.CONTENT_LENGTH, range.getContentLength());
+                if (logFileMetadata.getContentEncoding() != null) {
+                    responseBuilder.header(HttpHeaders.CONTENT_ENCODING, logFileMetadata.getContentEncoding());
+                }
+                if (logFileMetadata.getETag() != null) {
+                    responseBuilder.tag(new EntityTag(logFileMetadata.getETag().replace("\"", "")));
+                }
+                Response response = responseBuilder.entity(logContent)
+                        .header(ACCEPT_RANGES_HEADER, "bytes")
+                        .build();
+                // The entity closes the cached log file once it is written
+                logFile = null;
+                return response;
+            } finally {
+                if (logFile != null) {
+                    logFile.close();
+                }
+            }
         } catch (TestGridDAOException e) {
             String msg = "Error occurred while fetching the TestPlan by id : '" + id + "' ";
             logger.error(msg, e);
@@ -241,6 +314,28 @@ public class TestPlanService {
         }
     }
 
+    /**
+     * Returns a streaming entity writing the given byte range of the given cached log file. The cached log file is
+     * closed once the range is written.
+     *
+     * @param logFile cached log file to read from
+     * @param start   position of the first byte to write
+     * @param length  number of bytes to write
+     * @return entity writing the byte range
+     */
+    private StreamingOutput readRange(LogFileCache.CachedLogFile logFile, long start, long length) {
+        return outputStream -> {
+            try (LogFileCache.CachedLogFile cachedLogFile = logFile;
+                 FileChannel channel = FileChannel.open(cachedLogFile.getPath(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(outputStream);
+                long end = Math.min(start + length, channel.size());
+                for (long position = start; position < end; ) {
+                    position += channel.transferTo(position, end - position, target);
+                }
+            }
+        };
+    }
+
     /**
      * Verify if the log content of the given test plan exists.
      *
@@ -264,12 +359,10 @@ public class TestPlanService {
 
             // In future when TestGrid is deployed in multiple regions, builds may run in different regions.
             // Then AWS_REGION_NAME will to be moved to a per-testplan parameter.
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(ConfigurationContext.
-                    getProperty(ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
             String logFileDir = S3StorageUtil
                     .getS3LocationForTestRunLogFile(testPlan, true, artifactDownloadable);
-            if (artifactDownloadable.isArtifactExist(logFileDir)) {
+            if (artifactDownloadable.getArtifactMetadata(logFileDir) != null) {
                 return Response.status(Response.Status.OK).entity("The artifact exists in the remote storage").build();
             }
             return Response.status(Response.Status.NOT_FOUND).
@@ -286,11 +379,6 @@ public class TestPlanService {
             return Response.serverError()
                     .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(msg)
                             .setDescription(e.getMessage()).build()).build();
-        } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-            return Response.serverError()
-                    .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(e.getMessage())
-                            .setDescription(e.getMessage()).build()).build();
         }
     }
 
@@ -360,16 +448,18 @@ public class TestPlanService {
         TestPlanUOW testPlanUOW = new TestPlanUOW();
         org.wso2.testgrid.common.Product product = new org.wso2.testgrid.common.Product();
         product.setId(productId);
-        List<TestPlan> testPlans = testPlanUOW.getLatestTestPlans(product);
+        List<TestPlanBuildSummaryDTO> buildSummaries = testPlanUOW.getBuildSummaries(product);
         List<TestPlanStatus> plans = new ArrayList<>();
         try {
             final Set<InfrastructureValueSet> infraValueSet = infrastructureParameterUOW.getValueSet();
-            for (TestPlan testPlan : testPlans) {
-                TestPlan lastFailure = testPlanUOW.getLastFailure(testPlan);
+            for (TestPlanBuildSummaryDTO buildSummary : buildSummaries) {
                 TestPlanStatus testPlanStatus = new TestPlanStatus();
-                testPlanStatus.setLastBuild(APIUtil.getTestPlanBean(infraValueSet, testPlan, false));
+                testPlanStatus.setLastBuild(APIUtil
+                        .getTestPlanBean(infraValueSet, buildSummary.getLastBuild(), false));
                 testPlanStatus.setLastFailure(APIUtil
-                        .getTestPlanBean(infraValueSet, lastFailure, false));
+                        .getTestPlanBean(infraValueSet, buildSummary.getLastFailure(), false));
+                testPlanStatus.setLastSuccess(APIUtil
+                        .getTestPlanBean(infraValueSet, buildSummary.getLastSuccess(), false));
                 plans.add(testPlanStatus);
             }
             return Response.status(Response.Status.OK).entity(plans).build();
@@ -545,14 +635,13 @@ public class TestPlanService {
                         .entity("Couldn't found a TestPlan for the requested id").build();
             }
             TestPlan testPlan = testPlanOptional.get();
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
 
             archiveFileDir = S3StorageUtil.deriveS3ScenarioArchiveFileDir(testPlan, scenarioDir, artifactDownloadable);
-            if (artifactDownloadable.isArtifactExist(archiveFileDir)) {
+            InputStream archiveStream = artifactDownloadable.findArtifactStream(archiveFileDir);
+            if (archiveStream != null) {
                 return Response
-                        .ok(artifactDownloadable.getArtifactStream(archiveFileDir))
+                        .ok(archiveStream)
                         .type(RESPONSE_HEADER_VALUE_APPLICATION_ZIP)
                         .header(RESPONSE_HEADER_CONTENT_DISPOSITION, RESPONSE_HEADER_VALUE_ATTACHMENT + "; " +
                                 RESPONSE_HEADER_FILE_NAME + "=\" " + scenarioDir +
@@ -578,11 +667,6 @@ public class TestPlanService {
             return Response.serverError()
                     .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(msg)
                             .setDescription(e.getMessage()).build()).build();
-        } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-            return Response.serverError()
-                    .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(e.getMessage())
-                            .setDescription(e.getMessage()).build()).build();
         }
     }
     /**
@@ -603,9 +687,7 @@ public class TestPlanService {
                         .entity("Couldn't find a TestPlan for the requested id").build();
             }
             TestPlan testPlan = testPlanOptional.get();
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
             String zipFileName = StringUtil.concatStrings(testPlanId.replace(".", "_"),
                     "_", TEST_RESULTS_ARCHIVE_DIR);
             if (zipFileName.length() >= 255) {
@@ -613,9 +695,10 @@ public class TestPlanService {
                 zipFileName = TEST_RESULTS_ARCHIVE_DIR;
             }
             archiveFileDir = S3StorageUtil.deriveS3TestsResultsArchivePath(testPlan, artifactDownloadable);
-            if (artifactDownloadable.isArtifactExist(archiveFileDir)) {
+            InputStream archiveStream = artifactDownloadable.findArtifactStream(archiveFileDir);
+            if (archiveStream != null) {
                 return Response
-                        .ok(artifactDownloadable.getArtifactStream(archiveFileDir))
+                        .ok(archiveStream)
                         .type(RESPONSE_HEADER_VALUE_APPLICATION_ZIP)
                         .header(RESPONSE_HEADER_CONTENT_DISPOSITION, RESPONSE_HEADER_VALUE_ATTACHMENT + "; " +
                                 RESPONSE_HEADER_FILE_NAME + "=\" " + zipFileName +
@@ -627,9 +710,10 @@ public class TestPlanService {
                 String scenarioName = testPlan.getTestScenarios().get(0).getName();
                 archiveFileDir = S3StorageUtil
                         .deriveS3ScenarioArchiveFileDir(testPlan, scenarioName, artifactDownloadable);
-                if (artifactDownloadable.isArtifactExist(archiveFileDir)) {
+                archiveStream = artifactDownloadable.findArtifactStream(archiveFileDir);
+                if (archiveStream != null) {
                     return Response
-                            .ok(artifactDownloadable.getArtifactStream(archiveFileDir))
+                            .ok(archiveStream)
                             .type(RESPONSE_HEADER_VALUE_APPLICATION_ZIP)
                             .header(RESPONSE_HEADER_CONTENT_DISPOSITION, RESPONSE_HEADER_VALUE_ATTACHMENT + "; " +
                                     RESPONSE_HEADER_FILE_NAME + "=\" " + scenarioName +
@@ -655,11 +739,6 @@ public class TestPlanService {
             return Response.serverError()
                     .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(msg)
                             .setDescription(e.getMessage()).build()).build();
-        } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-            return Response.serverError()
-                    .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(e.getMessage())
-                            .setDescription(e.getMessage()).build()).build();
         }
     }
 
@@ -679,12 +758,11 @@ public class TestPlanService {
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity("Couldn't find a TestPlan for the requested id").build();
             }
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
             TestPlan testPlan = testPlanOptional.get();
             String archiveFileDir = S3StorageUtil.deriveS3DeploymentOutputsDir(testPlan, artifactDownloadable);
-            TransferManager transferManager = TransferManagerBuilder.standard().build();
+            AmazonS3 amazonS3 = S3ClientRegistry.getInstance().getClient(
+                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME));
             ListObjectsRequest listObjectsRequest = new ListObjectsRequest()
                     .withBucketName(ConfigurationContext
                             .getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME))
@@ -692,7 +770,7 @@ public class TestPlanService {
             ArrayList<String> filesToDownload = new ArrayList<>();
             ObjectListing objects;
             do {
-                objects = transferManager.getAmazonS3Client().listObjects(listObjectsRequest);
+                objects = amazonS3.listObjects(listObjectsRequest);
                 for (S3ObjectSummary objectSummary :
                         objects.getObjectSummaries()) {
                     String fileName = objectSummary.getKey().replace(objects.getPrefix(), "");
@@ -717,11 +795,6 @@ public class TestPlanService {
             return Response.serverError()
                     .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(msg)
                             .setDescription(e.getMessage()).build()).build();
-        } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-            return Response.serverError()
-                    .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(e.getMessage())
-                            .setDescription(e.getMessage()).build()).build();
         }
     }
 
@@ -743,15 +816,14 @@ public class TestPlanService {
                         .entity("Couldn't find a TestPlan for the requested id").build();
             }
             TestPlan testPlan = testPlanOptional.get();
-            ArtifactReadable artifactDownloadable = new AWSArtifactReader(
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_REGION_NAME),
-                    ConfigurationContext.getProperty(ConfigurationContext.ConfigurationProperties.AWS_S3_BUCKET_NAME));
+            ArtifactReadable artifactDownloadable = S3ClientRegistry.getInstance().getArtifactReader();
 
             archiveFileDir = StringUtil.concatStrings(S3StorageUtil
                     .deriveS3DeploymentOutputsDir(testPlan, artifactDownloadable), "/", file);
-            if (artifactDownloadable.isArtifactExist(archiveFileDir)) {
+            InputStream archiveStream = artifactDownloadable.findArtifactStream(archiveFileDir);
+            if (archiveStream != null) {
                 return Response
-                        .ok(artifactDownloadable.getArtifactStream(archiveFileDir))
+                        .ok(archiveStream)
                         .type(RESPONSE_HEADER_VALUE_APPLICATION_ZIP)
                         .header(RESPONSE_HEADER_CONTENT_DISPOSITION, RESPONSE_HEADER_VALUE_ATTACHMENT + "; " +
                                 RESPONSE_HEADER_FILE_NAME + "=\"" + file + "\"")
@@ -774,11 +846,6 @@ public class TestPlanService {
             return Response.serverError()
                     .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(msg)
                             .setDescription(e.getMessage()).build()).build();
-        } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-            return Response.serverError()
-                    .entity(new ErrorResponse.ErrorResponseBuilder().setMessage(e.getMessage())
-                            .setDescription(e.getMessage()).build()).build();
         }
     }
 }
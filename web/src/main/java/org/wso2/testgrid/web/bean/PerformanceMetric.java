@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.bean;
+
+/**
+ * Bean class of PerformanceMetric object used in APIs.
+ */
+public class PerformanceMetric {
+
+    private String scenarioName;
+    private String dimensions;
+    private String metricName;
+    private double value;
+
+    /**
+     * Returns the name of the test-scenario of the metric.
+     *
+     * @return test-scenario name
+     */
+    public String getScenarioName() {
+        return scenarioName;
+    }
+
+    /**
+     * Sets the name of the test-scenario of the metric.
+     *
+     * @param scenarioName test-scenario name
+     */
+    public void setScenarioName(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    /**
+     * Returns the dimensions of the metric.
+     *
+     * @return dimensions of the metric
+     */
+    public String getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Sets the dimensions of the metric.
+     *
+     * @param dimensions dimensions of the metric
+     */
+    public void setDimensions(String dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Returns the name of the metric.
+     *
+     * @return metric name
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+    /**
+     * Sets the name of the metric.
+     *
+     * @param metricName metric name
+     */
+    public void setMetricName(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Returns the value of the metric.
+     *
+     * @return metric value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of the metric.
+     *
+     * @param value metric value
+     */
+    public void setValue(double value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.bean;
+
+import java.sql.Timestamp;
+
+/**
+ * Bean class of a single point in the history of a performance metric used in APIs.
+ */
+public class PerformanceMetricPoint {
+
+    private String testPlanId;
+    private int testRunNumber;
+    private Timestamp timestamp;
+    private double value;
+
+    /**
+     * Returns the id of the test-plan the value was recorded in.
+     *
+     * @return test-plan id
+     */
+    public String getTestPlanId() {
+        return testPlanId;
+    }
+
+    /**
+     * Sets the id of the test-plan the value was recorded in.
+     *
+     * @param testPlanId test-plan id
+     */
+    public void setTestPlanId(String testPlanId) {
+        this.testPlanId = testPlanId;
+    }
+
+    /**
+     * Returns the run number of the test-plan the value was recorded in.
+     *
+     * @return test run number
+     */
+    public int getTestRunNumber() {
+        return testRunNumber;
+    }
+
+    /**
+     * Sets the run number of the test-plan the value was recorded in.
+     *
+     * @param testRunNumber test run number
+     */
+    public void setTestRunNumber(int testRunNumber) {
+        this.testRunNumber = testRunNumber;
+    }
+
+    /**
+     * Returns the time the test-plan of the value was created.
+     *
+     * @return created timestamp of the test-plan
+     */
+    public Timestamp getTimestamp() {
+        return timestamp == null ? null : (Timestamp) timestamp.clone();
+    }
+
+    /**
+     * Sets the time the test-plan of the value was created.
+     *
+     * @param timestamp created timestamp of the test-plan
+     */
+    public void setTimestamp(Timestamp timestamp) {
+        this.timestamp = timestamp == null ? null : (Timestamp) timestamp.clone();
+    }
+
+    /**
+     * Returns the value of the metric.
+     *
+     * @return metric value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of the metric.
+     *
+     * @param value metric value
+     */
+    public void setValue(double value) {
+        this.value = value;
+    }
+}
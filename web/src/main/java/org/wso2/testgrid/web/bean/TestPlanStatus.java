@@ -25,6 +25,7 @@ public class TestPlanStatus {
 
     private TestPlan lastBuild;
     private TestPlan lastFailure;
+    private TestPlan lastSuccess;
 
     /**
      * Returns the last build for the bean.
@@ -62,4 +63,22 @@ public class TestPlanStatus {
     public void setLastFailure(TestPlan lastFailure) {
         this.lastFailure = lastFailure;
     }
+
+    /**
+     * Returns the last successful build for the bean
+     *
+     * @return the last successful build {@link TestPlan}
+     */
+    public TestPlan getLastSuccess() {
+        return lastSuccess;
+    }
+
+    /**
+     * Set the last successful build for the bean
+     *
+     * @param lastSuccess last successful build {@link TestPlan}
+     */
+    public void setLastSuccess(TestPlan lastSuccess) {
+        this.lastSuccess = lastSuccess;
+    }
 }
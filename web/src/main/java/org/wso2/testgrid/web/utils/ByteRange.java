@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.testgrid.web.utils;
+
+import org.wso2.testgrid.common.util.StringUtil;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single byte range requested through the HTTP {@code Range} header.
+ *
+ * @since 1.0.0
+ */
+public class ByteRange {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final long start;
+    private final long end;
+    private final long length;
+
+    private ByteRange(long start, long end, long length) {
+        this.start = start;
+        this.end = end;
+        this.length = length;
+    }
+
+    /**
+     * Parses the given {@code Range} header value against a resource of the given length.
+     * <p>
+     * Only a single range is supported. Multiple ranges and malformed values are ignored, as allowed by RFC 7233,
+     * in which case the whole resource should be served.
+     *
+     * @param rangeHeader value of the {@code Range} header, may be {@code null}
+     * @param length      length of the resource in bytes
+     * @return the requested range, or {@code null} if the whole resource should be served
+     */
+    public static ByteRange parse(String rangeHeader, long length) {
+        if (StringUtil.isStringNullOrEmpty(rangeHeader)) {
+            return null;
+        }
+        Matcher matcher = RANGE_PATTERN.matcher(rangeHeader.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                // Suffix range: the last N bytes
+                long suffixLength = Long.parseLong(last);
+                return new ByteRange(Math.max(0, length - suffixLength), length - 1, length);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (!last.isEmpty() && Long.parseLong(last) < start) {
+                return null;
+            }
+            return new ByteRange(start, end, length);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the range overlaps with the resource.
+     *
+     * @return {@code true} if the range can be served, {@code false} otherwise
+     */
+    public boolean isSatisfiable() {
+        return start < length && start <= end;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the number of bytes in the range.
+     *
+     * @return number of bytes in the range
+     */
+    public long getContentLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * Returns the value of the {@code Content-Range} header for this range.
+     *
+     * @return {@code Content-Range} header value
+     */
+    public String toContentRange() {
+        return isSatisfiable() ?
+               StringUtil.concatStrings("bytes ", start, "-", end, "/", length) :
+               StringUtil.concatStrings("bytes */", length);
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.testgrid.web.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.util.StringUtil;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatches file system events of all the watched files of the JVM from a single {@link WatchService}.
+ * <p>
+ * Each directory is registered with the watch service once, regardless of the number of files watched in it or
+ * the number of watchers of each file, and is unregistered when its last watcher is removed. Events are
+ * delivered to the watchers from a single daemon thread, so watcher callbacks are expected to return quickly.
+ *
+ * @since 1.0.0
+ */
+public class FileWatchDispatcher implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileWatchDispatcher.class);
+    private static volatile FileWatchDispatcher instance;
+
+    private final WatchService watchService;
+    private final Map<Path, WatchedDirectory> watchedDirectories = new HashMap<>();
+    private final Map<WatchKey, WatchedDirectory> watchKeys = new HashMap<>();
+
+    private FileWatchDispatcher(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    /**
+     * Returns the dispatcher of the JVM, starting it on first use.
+     *
+     * @return the file watch dispatcher
+     * @throws FileWatcherException thrown when error on creating the watch service
+     */
+    public static FileWatchDispatcher getInstance() throws FileWatcherException {
+        if (instance == null) {
+            synchronized (FileWatchDispatcher.class) {
+                if (instance == null) {
+                    try {
+                        FileWatchDispatcher dispatcher =
+                                new FileWatchDispatcher(FileSystems.getDefault().newWatchService());
+                        Thread dispatcherThread = new Thread(dispatcher, "file-watch-dispatcher");
+                        dispatcherThread.setDaemon(true);
+                        dispatcherThread.start();
+                        instance = dispatcher;
+                    } catch (IOException e) {
+                        throw new FileWatcherException("Error on creating the file watch service.", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the number of watched directories, files and watchers of the JVM.
+     *
+     * @return watch statistics
+     */
+    public static Map<String, Object> getStatistics() {
+        FileWatchDispatcher dispatcher = instance;
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        int directories = 0;
+        int files = 0;
+        int watchers = 0;
+        if (dispatcher != null) {
+            synchronized (dispatcher) {
+                directories = dispatcher.watchedDirectories.size();
+                for (WatchedDirectory directory : dispatcher.watchedDirectories.values()) {
+                    files += directory.watchers.size();
+                    for (List<FileWatcher> fileWatchers : directory.watchers.values()) {
+                        watchers += fileWatchers.size();
+                    }
+                }
+            }
+        }
+        statistics.put("directories", directories);
+        statistics.put("files", files);
+        statistics.put("watchers", watchers);
+        return statistics;
+    }
+
+    /**
+     * Starts delivering the events of the file of the given watcher to it.
+     *
+     * @param fileWatcher watcher to register
+     * @throws FileWatcherException thrown when error on registering the directory of the file
+     */
+    synchronized void register(FileWatcher fileWatcher) throws FileWatcherException {
+        Path folderPath = fileWatcher.getFolderPath();
+        WatchedDirectory directory = watchedDirectories.get(folderPath);
+        if (directory == null) {
+            try {
+                WatchKey watchKey = folderPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directory = new WatchedDirectory(folderPath, watchKey);
+            } catch (IOException e) {
+                throw new FileWatcherException(StringUtil
+                        .concatStrings("Error on registering file watch service for directory ", folderPath), e);
+            }
+            watchedDirectories.put(folderPath, directory);
+            watchKeys.put(directory.watchKey, directory);
+        }
+        directory.watchers.computeIfAbsent(fileWatcher.getWatchFile(), file -> new ArrayList<>()).add(fileWatcher);
+    }
+
+    /**
+     * Stops delivering events to the given watcher. The directory of the file is unregistered from the watch
+     * service if it has no watchers left.
+     *
+     * @param fileWatcher watcher to unregister
+     */
+    synchronized void unregister(FileWatcher fileWatcher) {
+        WatchedDirectory directory = watchedDirectories.get(fileWatcher.getFolderPath());
+        if (directory == null) {
+            return;
+        }
+        List<FileWatcher> fileWatchers = directory.watchers.get(fileWatcher.getWatchFile());
+        if (fileWatchers != null && fileWatchers.remove(fileWatcher) && fileWatchers.isEmpty()) {
+            directory.watchers.remove(fileWatcher.getWatchFile());
+        }
+        if (directory.watchers.isEmpty()) {
+            directory.watchKey.cancel();
+            watchedDirectories.remove(directory.path);
+            watchKeys.remove(directory.watchKey);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                    dispatch(watchKey, watchEvent);
+                }
+                if (!watchKey.reset()) {
+                    // The directory can no longer be watched (ex. it was deleted)
+                    removeDirectory(watchKey);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.info("File watch service closed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Error on waiting for file changes.", e);
+        }
+    }
+
+    private void dispatch(WatchKey watchKey, WatchEvent<?> watchEvent) {
+        WatchEvent.Kind<?> kind = watchEvent.kind();
+        List<FileWatcher> fileWatchers = new ArrayList<>();
+        synchronized (this) {
+            WatchedDirectory directory = watchKeys.get(watchKey);
+            if (directory == null) {
+                return;
+            }
+            if (kind == StandardWatchEventKinds.OVERFLOW) {
+                // Events may have been lost; let every watcher of the directory check its file
+                directory.watchers.values().forEach(fileWatchers::addAll);
+            } else {
+                List<FileWatcher> watchers = directory.watchers.get(watchEvent.context().toString());
+                if (watchers != null) {
+                    fileWatchers.addAll(watchers);
+                }
+            }
+        }
+        notifyWatchers(fileWatchers, kind);
+    }
+
+    /**
+     * Stops watching the directory of the given invalid watch key, and notifies the watchers of its files that the
+     * files are deleted.
+     *
+     * @param watchKey watch key which is no longer valid
+     */
+    private void removeDirectory(WatchKey watchKey) {
+        List<FileWatcher> fileWatchers = new ArrayList<>();
+        synchronized (this) {
+            WatchedDirectory directory = watchKeys.remove(watchKey);
+            if (directory == null) {
+                return;
+            }
+            watchedDirectories.remove(directory.path);
+            directory.watchers.values().forEach(fileWatchers::addAll);
+            logger.info(StringUtil.concatStrings("Stopped watching directory ", directory.path,
+                    " since it is no longer accessible."));
+        }
+        notifyWatchers(fileWatchers, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    private void notifyWatchers(List<FileWatcher> fileWatchers, WatchEvent.Kind<?> kind) {
+        for (FileWatcher fileWatcher : fileWatchers) {
+            try {
+                if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                    fileWatcher.onCreate();
+                } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                    fileWatcher.onDelete();
+                } else {
+                    fileWatcher.onModified();
+                }
+            } catch (FileWatcherException | RuntimeException e) {
+                logger.error(StringUtil.concatStrings("Error on handling changes of file ",
+                        fileWatcher.getFolderPath().resolve(fileWatcher.getWatchFile())), e);
+            }
+        }
+    }
+
+    /**
+     * A directory registered with the watch service, along with the watchers of each of its files.
+     */
+    private static class WatchedDirectory {
+
+        private final Path path;
+        private final WatchKey watchKey;
+        private final Map<String, List<FileWatcher>> watchers = new HashMap<>();
+
+        WatchedDirectory(Path path, WatchKey watchKey) {
+            this.path = path;
+            this.watchKey = watchKey;
+        }
+    }
+}
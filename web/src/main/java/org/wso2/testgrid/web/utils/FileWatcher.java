@@ -17,27 +17,18 @@
  */
 package org.wso2.testgrid.web.utils;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.wso2.testgrid.common.util.StringUtil;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 
 /**
  * This class is responsible for watching changes of a given file.
  *
  * @since 1.0.0
  */
-public abstract class FileWatcher implements Runnable {
+public abstract class FileWatcher {
 
-    private static final Logger logger = LoggerFactory.getLogger(FileWatcher.class);
     private final Path folderPath;
     private final String watchFile;
 
@@ -69,31 +60,28 @@ public abstract class FileWatcher implements Runnable {
     }
 
     /**
-     * This method will execute before watching the file for changes. The contents of the file will be passed to the
-     * method.
+     * This method will execute before watching the file for changes.
      *
-     * @param fileContents contents of the file to be watched
      * @throws FileWatcherException thrown when error on executing before file watch method
      */
-    public abstract void beforeFileWatch(String fileContents) throws FileWatcherException;
+    public abstract void beforeFileWatch() throws FileWatcherException;
 
     /**
      * This method will be called when the file creation is detected. Implement this method to execute the
-     * necessary logic when the file is created. The contents of the file created is passed to the method.
+     * necessary logic when the file is created.
      *
-     * @param fileContents contents of the file created
      * @throws FileWatcherException thrown when error on executing creation method
      */
-    public abstract void onCreate(String fileContents) throws FileWatcherException;
+    public abstract void onCreate() throws FileWatcherException;
 
     /**
      * This method will be called when the file modification is detected. Implement this method to execute the
-     * necessary logic when the file is modified. The contents of the file created is passed to the method.
+     * necessary logic when the file is modified. Implementations are expected to read only the part of the file
+     * they are interested in, rather than the whole file on every modification.
      *
-     * @param fileContents contents of the file modified
      * @throws FileWatcherException thrown when error on executing modification method
      */
-    public abstract void onModified(String fileContents) throws FileWatcherException;
+    public abstract void onModified() throws FileWatcherException;
 
     /**
      * This method will be called when the file deletion is detected. Implement this method to execute the
@@ -101,70 +89,41 @@ public abstract class FileWatcher implements Runnable {
      */
     public abstract void onDelete();
 
-    @Override
-    public void run() {
-        try (WatchService service = folderPath.getFileSystem().newWatchService()) {
-            Path watchFilePath = folderPath.resolve(watchFile);
-
-            // Execute before file watch
-            beforeFileWatch(readFile(watchFilePath));
-
-            // Watch for modification events
-            folderPath.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
-                    StandardWatchEventKinds.ENTRY_DELETE);
-
-            // Start the infinite polling loop
-            while (true) {
-                // Wait for the next event
-                WatchKey watchKey = service.take();
-
-                for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
-                    WatchEvent.Kind<?> kind = watchEvent.kind();
+    /**
+     * Starts watching the file. {@link #beforeFileWatch()} is called once the file is being watched, after which
+     * the callbacks are called from the thread of the {@link FileWatchDispatcher}.
+     *
+     * @throws FileWatcherException thrown when error on watching the file
+     */
+    public void start() throws FileWatcherException {
+        FileWatchDispatcher.getInstance().register(this);
+        beforeFileWatch();
+    }
 
-                    @SuppressWarnings("unchecked")
-                    Path watchEventPath = ((WatchEvent<Path>) watchEvent).context();
-                    // Call this if the right file is involved
-                    if (watchEventPath.toString().equals(watchFile)) {
-                        if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
-                            onCreate(readFile(watchFilePath));
-                        } else if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
-                            onModified(readFile(watchFilePath));
-                        } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
-                            onDelete();
-                        }
-                    }
-                }
+    /**
+     * Stops watching the file.
+     *
+     * @throws FileWatcherException thrown when error on accessing the file watch service
+     */
+    public void stop() throws FileWatcherException {
+        FileWatchDispatcher.getInstance().unregister(this);
+    }
 
-                // Exit if no longer valid
-                if (!watchKey.reset()) {
-                    break;
-                }
-            }
-        } catch (InterruptedException e) {
-            logger.error(StringUtil
-                    .concatStrings("Error on waiting for changes in file ", watchFile), e);
-        } catch (IOException e) {
-            logger.error(StringUtil
-                    .concatStrings("Error on registering file watch service for file ", watchFile), e);
-        } catch (FileWatcherException e) {
-            logger.error(StringUtil.concatStrings("Error on reading the file contents of file ", watchFile), e);
-        }
+    /**
+     * Returns the folder containing the watched file.
+     *
+     * @return folder of the watched file
+     */
+    Path getFolderPath() {
+        return folderPath;
     }
 
     /**
-     * Returns the contents of the given file.
+     * Returns the name of the watched file, relative to its folder.
      *
-     * @param watchFilePath watch file path
-     * @return content of the watch file
-     * @throws FileWatcherException thrown when error on reading file content
+     * @return name of the watched file
      */
-    private String readFile(Path watchFilePath) throws FileWatcherException {
-        try {
-            byte[] encoded = Files.readAllBytes(watchFilePath);
-            return new String(encoded, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new FileWatcherException(StringUtil
-                    .concatStrings("Error on reading file content of file ", watchFilePath), e);
-        }
+    String getWatchFile() {
+        return watchFile;
     }
 }
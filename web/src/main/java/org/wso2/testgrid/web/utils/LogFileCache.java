@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.testgrid.web.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.config.ConfigurationContext;
+import org.wso2.testgrid.common.config.ConfigurationContext.ConfigurationProperties;
+import org.wso2.testgrid.common.util.StringUtil;
+import org.wso2.testgrid.common.util.TestGridUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local disk cache of test run logs downloaded from the remote storage.
+ * <p>
+ * Only logs of finished test plans should be cached, since their content does not change. Entries are keyed by the
+ * test plan id and the entity tag of the remote artifact, so a re-uploaded log is downloaded again. The least
+ * recently used logs are deleted once the total size of the cache exceeds {@code LOG_CACHE_MAX_SIZE_MB}.
+ * <p>
+ * A log is not deleted while it is being read: readers hold a {@link CachedLogFile} which pins the log until it is
+ * closed, and the cache is trimmed again when the last reader of a log closes it.
+ *
+ * @since 1.0.0
+ */
+public class LogFileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogFileCache.class);
+    private static final String CACHE_DIR = "web-cache";
+    private static final String LOGS_DIR = "logs";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final long DEFAULT_MAX_SIZE_MB = 1024;
+    private static volatile LogFileCache instance;
+
+    private final Path cacheDirectory;
+    private final long maxSizeBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Object> downloadLocks = new ConcurrentHashMap<>();
+    private long sizeBytes;
+
+    LogFileCache(Path cacheDirectory, long maxSizeBytes) throws IOException {
+        this.cacheDirectory = cacheDirectory;
+        this.maxSizeBytes = maxSizeBytes;
+        Files.createDirectories(cacheDirectory);
+        loadEntries();
+    }
+
+    /**
+     * Returns the log file cache of the web app, creating the cache directory on first use.
+     *
+     * @return the log file cache
+     * @throws IOException thrown when error on creating the cache directory
+     */
+    public static LogFileCache getInstance() throws IOException {
+        if (instance == null) {
+            synchronized (LogFileCache.class) {
+                if (instance == null) {
+                    Path cacheDirectory = Paths.get(TestGridUtil.getTestGridHomePath(), CACHE_DIR, LOGS_DIR);
+                    instance = new LogFileCache(cacheDirectory, getMaxSizeMB() * BYTES_PER_MB);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached log file of the given test plan, downloading it with the given loader if it is not
+     * cached yet.
+     * <p>
+     * The log file is not evicted from the cache until the returned {@link CachedLogFile} is closed.
+     *
+     * @param testPlanId test plan id
+     * @param variant    variant of the log (ex. full or truncated)
+     * @param eTag       entity tag of the remote log file
+     * @param loader     opens a stream of the remote log file
+     * @return the cached log file, which must be closed once it has been read
+     * @throws IOException thrown when error on downloading the log file
+     */
+    public CachedLogFile get(String testPlanId, String variant, String eTag, Loader loader) throws IOException {
+        String fileName = StringUtil.concatStrings(testPlanId, "-", variant, "-", eTag)
+                .replaceAll("[^A-Za-z0-9._-]", "");
+        Path cachedFile = cacheDirectory.resolve(fileName);
+        Object downloadLock = downloadLocks.computeIfAbsent(fileName, name -> new Object());
+        try {
+            synchronized (downloadLock) {
+                synchronized (this) {
+                    Entry entry = entries.get(fileName);
+                    if (entry != null && Files.exists(cachedFile)) {
+                        entry.readers++;
+                        return new CachedLogFile(cachedFile, entry);
+                    }
+                }
+                Path tempFile = Files.createTempFile(cacheDirectory, fileName, TEMP_FILE_SUFFIX);
+                try (InputStream inputStream = loader.open()) {
+                    Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(tempFile, cachedFile, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+                return new CachedLogFile(cachedFile, addEntry(fileName, Files.size(cachedFile), 1));
+            }
+        } finally {
+            downloadLocks.remove(fileName, downloadLock);
+        }
+    }
+
+    /**
+     * Returns the total size of the cached log files.
+     *
+     * @return size of the cache in bytes
+     */
+    synchronized long getSize() {
+        return sizeBytes;
+    }
+
+    private synchronized Entry addEntry(String fileName, long size, int readers) {
+        Entry entry = new Entry(size, readers);
+        Entry previous = entries.put(fileName, entry);
+        sizeBytes += size - (previous == null ? 0 : previous.size);
+        trim();
+        return entry;
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.readers--;
+        if (entry.readers == 0) {
+            trim();
+        }
+    }
+
+    /**
+     * Deletes the least recently used log files which are not being read until the cache fits its maximum size.
+     */
+    private synchronized void trim() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (sizeBytes > maxSizeBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (eldest.getValue().readers > 0) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(cacheDirectory.resolve(eldest.getKey()));
+                sizeBytes -= eldest.getValue().size;
+                iterator.remove();
+            } catch (IOException e) {
+                logger.warn(StringUtil.concatStrings("Error on evicting cached log file ", eldest.getKey()), e);
+            }
+        }
+    }
+
+    /**
+     * Loads the log files cached by a previous run of the web app, oldest first.
+     */
+    private void loadEntries() throws IOException {
+        File[] files = cacheDirectory.toFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                Files.deleteIfExists(file.toPath());
+            } else if (file.isFile()) {
+                addEntry(file.getName(), file.length(), 0);
+            }
+        }
+    }
+
+    private static long getMaxSizeMB() {
+        String maxSize = ConfigurationContext.getProperty(ConfigurationProperties.LOG_CACHE_MAX_SIZE_MB);
+        if (StringUtil.isStringNullOrEmpty(maxSize)) {
+            return DEFAULT_MAX_SIZE_MB;
+        }
+        try {
+            return Long.parseLong(maxSize.trim());
+        } catch (NumberFormatException e) {
+            logger.warn(StringUtil.concatStrings("Invalid value '", maxSize, "' for ",
+                    ConfigurationProperties.LOG_CACHE_MAX_SIZE_MB.toString(), ". Using default size ",
+                    DEFAULT_MAX_SIZE_MB, " MB"));
+            return DEFAULT_MAX_SIZE_MB;
+        }
+    }
+
+    /**
+     * Size and number of readers of a cached log file.
+     */
+    private static final class Entry {
+
+        private final long size;
+        private int readers;
+
+        private Entry(long size, int readers) {
+            this.size = size;
+            this.readers = readers;
+        }
+    }
+
+    /**
+     * A log file of the cache which is kept on disk until it is closed.
+     */
+    public final class CachedLogFile implements Closeable {
+
+        private final Path path;
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private CachedLogFile(Path path, Entry entry) {
+            this.path = path;
+            this.entry = entry;
+        }
+
+        /**
+         * Returns the path of the cached log file.
+         *
+         * @return path of the log file
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Releases the log file, allowing the cache to evict it.
+         */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Opens a stream of a remote log file.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Opens a stream of the remote log file.
+         *
+         * @return stream of the remote log file
+         * @throws IOException thrown when error on opening the stream
+         */
+        InputStream open() throws IOException;
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.testgrid.web.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.testgrid.common.util.StringUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.websocket.CloseReason;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+/**
+ * Tails a log file and streams its contents to the web socket sessions subscribed to it.
+ * <p>
+ * A single tailer is shared by all the sessions watching the same file. The tailer keeps the byte offset up to
+ * which the file has been read and, on each modification, reads only the appended bytes and fans them out to the
+ * subscribed sessions. Each session receives the contents written before it subscribed from the file itself, and
+ * is sent messages asynchronously, one at a time. A session which falls too far behind is closed.
+ *
+ * @since 1.0.0
+ */
+public class LogFileTailer extends FileWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogFileTailer.class);
+    private static final String TAILED_FILE_PROPERTY = "testgrid.tailedLogFile";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_CHARS = 4 * 1024 * 1024;
+    private static final Map<Path, LogFileTailer> tailers = new HashMap<>();
+
+    private final Path logFile;
+    private final Map<String, SessionPublisher> publishers = new HashMap<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final CharsetDecoder decoder = newDecoder();
+    private long offset;
+
+    /**
+     * Creates an instance of {@link LogFileTailer} to tail the given file.
+     *
+     * @param logFile file to be tailed
+     * @throws FileWatcherException thrown when error on creating an instance of {@link LogFileTailer}
+     */
+    private LogFileTailer(Path logFile) throws FileWatcherException {
+        super(logFile);
+        this.logFile = logFile;
+    }
+
+    /**
+     * Subscribes the given session to the contents of the given log file. The session first receives the current
+     * contents of the file, followed by the contents appended to it.
+     *
+     * @param logFile log file to tail
+     * @param session client session
+     * @throws FileWatcherException thrown when error on watching the log file
+     */
+    public static void subscribe(Path logFile, Session session) throws FileWatcherException {
+        Path tailedFile = logFile.toAbsolutePath().normalize();
+        synchronized (tailers) {
+            LogFileTailer tailer = tailers.get(tailedFile);
+            if (tailer == null) {
+                tailer = new LogFileTailer(tailedFile);
+                try {
+                    tailer.start();
+                } catch (FileWatcherException e) {
+                    tailer.stop();
+                    throw e;
+                }
+                tailers.put(tailedFile, tailer);
+            }
+            tailer.addSubscriber(session);
+        }
+        session.getUserProperties().put(TAILED_FILE_PROPERTY, tailedFile);
+    }
+
+    /**
+     * Unsubscribes the given session from the log file it is subscribed to, if any. The file stops being tailed
+     * once its last session unsubscribes.
+     *
+     * @param session client session
+     */
+    public static void unsubscribe(Session session) {
+        Object tailedFile = session.getUserProperties().remove(TAILED_FILE_PROPERTY);
+        if (tailedFile == null) {
+            return;
+        }
+        synchronized (tailers) {
+            LogFileTailer tailer = tailers.get(tailedFile);
+            if (tailer != null && tailer.removeSubscriber(session)) {
+                tailers.remove(tailedFile);
+                try {
+                    tailer.stop();
+                } catch (FileWatcherException e) {
+                    logger.error(StringUtil.concatStrings("Error on stopping the tailer of file ", tailedFile), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tailed log files and of the sessions subscribed to them.
+     *
+     * @return tailer statistics
+     */
+    public static Map<String, Object> getStatistics() {
+        int sessions = 0;
+        int files;
+        synchronized (tailers) {
+            files = tailers.size();
+            for (LogFileTailer tailer : tailers.values()) {
+                synchronized (tailer) {
+                    sessions += tailer.publishers.size();
+                }
+            }
+        }
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("files", files);
+        statistics.put("sessions", sessions);
+        return statistics;
+    }
+
+    @Override
+    public void beforeFileWatch() throws FileWatcherException {
+        publishAppendedContent();
+    }
+
+    @Override
+    public void onCreate() throws FileWatcherException {
+        publishAppendedContent();
+    }
+
+    @Override
+    public void onModified() throws FileWatcherException {
+        publishAppendedContent();
+    }
+
+    @Override
+    public void onDelete() {
+        // Do nothing
+    }
+
+    private synchronized void addSubscriber(Session session) {
+        SessionPublisher publisher = new SessionPublisher(session, logFile, offset);
+        publishers.put(session.getId(), publisher);
+        publisher.publish(null);
+    }
+
+    /**
+     * Removes the given session from the subscribers of this tailer.
+     *
+     * @param session client session
+     * @return {@code true} if no sessions are subscribed anymore, {@code false} otherwise
+     */
+    private synchronized boolean removeSubscriber(Session session) {
+        SessionPublisher publisher = publishers.remove(session.getId());
+        if (publisher != null) {
+            publisher.cancel();
+        }
+        return publishers.isEmpty();
+    }
+
+    /**
+     * Reads the bytes appended to the log file since the last read and publishes them to the subscribed sessions.
+     *
+     * @throws FileWatcherException thrown when error on reading the log file
+     */
+    private void publishAppendedContent() throws FileWatcherException {
+        List<SessionPublisher> overflowedPublishers = new ArrayList<>();
+        synchronized (this) {
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < offset) {
+                    // The file has been truncated or replaced; start over, including the unsent backlogs, whose
+                    // contents are no longer in the file
+                    offset = 0;
+                    for (SessionPublisher publisher : publishers.values()) {
+                        publisher.discardBacklog();
+                    }
+                }
+                while (offset < size) {
+                    StringBuilder text = new StringBuilder();
+                    long consumed = readText(channel, offset, size - offset, readBuffer, decoder, text);
+                    if (consumed == 0) {
+                        break;
+                    }
+                    offset += consumed;
+                    for (SessionPublisher publisher : publishers.values()) {
+                        if (!publisher.publish(text.toString())) {
+                            overflowedPublishers.add(publisher);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new FileWatcherException(StringUtil
+                        .concatStrings("Error on reading file content of file ", logFile), e);
+            }
+        }
+        // Close outside the lock since closing a session unsubscribes it
+        for (SessionPublisher publisher : overflowedPublishers) {
+            publisher.close();
+        }
+    }
+
+    /**
+     * Reads and decodes up to {@code maxBytes} bytes of the given channel, starting from the given position.
+     * <p>
+     * A multi-byte character split at the end of the read bytes is not consumed, so that it is read as a whole by
+     * the next read.
+     *
+     * @return number of bytes consumed
+     */
+    private static long readText(FileChannel channel, long position, long maxBytes, ByteBuffer buffer,
+                                 CharsetDecoder decoder, StringBuilder text) throws IOException {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), maxBytes));
+        if (channel.read(buffer, position) <= 0) {
+            return 0;
+        }
+        buffer.flip();
+        CharBuffer chars = CharBuffer.allocate(buffer.remaining());
+        decoder.reset();
+        decoder.decode(buffer, chars, false);
+        chars.flip();
+        text.append(chars);
+        return buffer.position();
+    }
+
+    private static CharsetDecoder newDecoder() {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Sends the contents of the log file to a single session.
+     * <p>
+     * The contents written before the session subscribed are read from the file in chunks, as the session
+     * consumes them. Contents published afterwards are queued. Only one message is in flight at a time.
+     */
+    private static class SessionPublisher implements SendHandler {
+
+        private final Session session;
+        private final Path logFile;
+        private final Deque<String> pending = new ArrayDeque<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final CharsetDecoder decoder = newDecoder();
+        private long backlogEnd;
+        private long backlogPosition;
+        private long pendingChars;
+        private boolean sending;
+        private boolean draining;
+        private boolean closed;
+
+        SessionPublisher(Session session, Path logFile, long backlogEnd) {
+            this.session = session;
+            this.logFile = logFile;
+            this.backlogEnd = backlogEnd;
+        }
+
+        /**
+         * Queues the given text and sends the next message if none is in flight.
+         *
+         * @param text text to queue, or {@code null} to only send the next message
+         * @return {@code false} if the session has fallen too far behind, {@code true} otherwise
+         */
+        synchronized boolean publish(String text) {
+            if (closed) {
+                return true;
+            }
+            if (text != null) {
+                pending.add(text);
+                pendingChars += text.length();
+                if (pendingChars > MAX_PENDING_CHARS) {
+                    cancel();
+                    return false;
+                }
+            }
+            sendNext();
+            return true;
+        }
+
+        /**
+         * Stops sending the contents written before the session subscribed, once the file no longer holds them.
+         * The new contents of the file are published to the session instead.
+         */
+        synchronized void discardBacklog() {
+            backlogPosition = 0;
+            backlogEnd = 0;
+        }
+
+        synchronized void cancel() {
+            closed = true;
+            pending.clear();
+            pendingChars = 0;
+        }
+
+        void close() {
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER,
+                        "Client is not keeping up with the log file"));
+            } catch (IOException e) {
+                logger.warn(StringUtil.concatStrings("Error on closing web socket session ", session.getId()), e);
+            }
+        }
+
+        @Override
+        public synchronized void onResult(SendResult result) {
+            sending = false;
+            if (!result.isOK()) {
+                logger.debug(StringUtil.concatStrings("Error on sending log contents to session ",
+                        session.getId()), result.getException());
+                cancel();
+                return;
+            }
+            // A send completed within sendText is picked up by the loop in sendNext
+            if (!draining) {
+                sendNext();
+            }
+        }
+
+        private void sendNext() {
+            if (draining) {
+                return;
+            }
+            draining = true;
+            try {
+                while (!sending && !closed) {
+                    String message = nextMessage();
+                    if (message == null) {
+                        break;
+                    }
+                    sending = true;
+                    session.getAsyncRemote().sendText(message, this);
+                }
+            } finally {
+                draining = false;
+            }
+        }
+
+        private String nextMessage() {
+            if (backlogPosition < backlogEnd) {
+                try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                    StringBuilder text = new StringBuilder();
+                    long consumed = readText(channel, backlogPosition, backlogEnd - backlogPosition, readBuffer,
+                            decoder, text);
+                    backlogPosition = consumed == 0 ? backlogEnd : backlogPosition + consumed;
+                    if (text.length() > 0) {
+                        return text.toString();
+                    }
+                } catch (IOException e) {
+                    logger.warn(StringUtil.concatStrings("Error on reading file content of file ", logFile), e);
+                    backlogPosition = backlogEnd;
+                }
+            }
+            if (pending.isEmpty()) {
+                return null;
+            }
+            StringBuilder message = new StringBuilder(pending.poll());
+            while (!pending.isEmpty() && message.length() + pending.peek().length() <= READ_BUFFER_SIZE) {
+                message.append(pending.poll());
+            }
+            pendingChars -= message.length();
+            return message.toString();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * This class will test the parsing of the HTTP {@code Range} header by {@link ByteRange}.
+ *
+ * @since 1.0.0
+ */
+public class ByteRangeTest {
+
+    private static final long LENGTH = 1000;
+
+    @Test(description = "A closed range is served as requested and capped at the end of the resource")
+    public void testClosedRange() {
+        ByteRange range = ByteRange.parse("bytes=100-199", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertTrue(range.isSatisfiable());
+        Assert.assertEquals(range.getStart(), 100);
+        Assert.assertEquals(range.getEnd(), 199);
+        Assert.assertEquals(range.getContentLength(), 100);
+        Assert.assertEquals(range.toContentRange(), "bytes 100-199/1000");
+
+        range = ByteRange.parse("bytes=900-5000", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertEquals(range.getEnd(), 999);
+        Assert.assertEquals(range.getContentLength(), 100);
+    }
+
+    @Test(description = "An open-ended range is served up to the end of the resource")
+    public void testOpenEndedRange() {
+        ByteRange range = ByteRange.parse("bytes=990-", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertTrue(range.isSatisfiable());
+        Assert.assertEquals(range.getStart(), 990);
+        Assert.assertEquals(range.getEnd(), 999);
+        Assert.assertEquals(range.toContentRange(), "bytes 990-999/1000");
+    }
+
+    @Test(description = "A suffix range is served as the last bytes of the resource")
+    public void testSuffixRange() {
+        ByteRange range = ByteRange.parse("bytes=-10", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertTrue(range.isSatisfiable());
+        Assert.assertEquals(range.getStart(), 990);
+        Assert.assertEquals(range.getEnd(), 999);
+
+        range = ByteRange.parse("bytes=-5000", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertEquals(range.getStart(), 0);
+        Assert.assertEquals(range.getContentLength(), LENGTH);
+    }
+
+    @Test(description = "Ranges starting after the end of the resource are not satisfiable")
+    public void testUnsatisfiableRange() {
+        ByteRange range = ByteRange.parse("bytes=1000-", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertFalse(range.isSatisfiable());
+        Assert.assertEquals(range.toContentRange(), "bytes */1000");
+
+        range = ByteRange.parse("bytes=-0", LENGTH);
+        Assert.assertNotNull(range);
+        Assert.assertFalse(range.isSatisfiable());
+
+        range = ByteRange.parse("bytes=0-", 0);
+        Assert.assertNotNull(range);
+        Assert.assertFalse(range.isSatisfiable());
+    }
+
+    @Test(description = "Multiple, malformed and missing ranges are ignored so that the whole resource is served")
+    public void testIgnoredRanges() {
+        Assert.assertNull(ByteRange.parse("bytes=0-10,20-30", LENGTH));
+        Assert.assertNull(ByteRange.parse("bytes=20-10", LENGTH));
+        Assert.assertNull(ByteRange.parse("bytes=-", LENGTH));
+        Assert.assertNull(ByteRange.parse("items=0-10", LENGTH));
+        Assert.assertNull(ByteRange.parse("", LENGTH));
+        Assert.assertNull(ByteRange.parse(null, LENGTH));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class will test the delivery of file events by {@link FileWatchDispatcher}.
+ *
+ * @since 1.0.0
+ */
+public class FileWatchDispatcherTest {
+
+    @Test(description = "A deleted directory stops being watched and the watchers of its files are notified")
+    public void testDeletedDirectory() throws Exception {
+        Path directory = Files.createTempDirectory("watched");
+        // Deleted once for the file, and once for its directory
+        CountDownLatch deleted = new CountDownLatch(2);
+        try {
+            FileWatcher fileWatcher = new FileWatcher(Files.createFile(directory.resolve("test-run.log"))) {
+                @Override
+                public void beforeFileWatch() {
+                }
+
+                @Override
+                public void onCreate() {
+                }
+
+                @Override
+                public void onModified() {
+                }
+
+                @Override
+                public void onDelete() {
+                    deleted.countDown();
+                }
+            };
+            int directoryCount = getDirectoryCount();
+            fileWatcher.start();
+            Assert.assertEquals(getDirectoryCount(), directoryCount + 1);
+
+            FileUtils.deleteDirectory(directory.toFile());
+
+            Assert.assertTrue(deleted.await(30, TimeUnit.SECONDS), "The watcher is not notified of the deletion.");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (getDirectoryCount() != directoryCount && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(getDirectoryCount(), directoryCount, "The deleted directory is still watched.");
+            // Stopping the watcher of a directory which is no longer watched is a no-op
+            fileWatcher.stop();
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    private static int getDirectoryCount() {
+        return (Integer) FileWatchDispatcher.getStatistics().get("directories");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.testgrid.web.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class will test the eviction of the log files cached by {@link LogFileCache}.
+ *
+ * @since 1.0.0
+ */
+public class LogFileCacheTest {
+
+    private static final int LOG_SIZE = 100;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private Path cacheDirectory;
+    private LogFileCache logFileCache;
+
+    @BeforeMethod
+    public void init() throws IOException {
+        cacheDirectory = Files.createTempDirectory("log-cache");
+        // Room for two logs
+        logFileCache = new LogFileCache(cacheDirectory, 2 * LOG_SIZE);
+        downloads.set(0);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        FileUtils.deleteQuietly(cacheDirectory.toFile());
+    }
+
+    @Test(description = "A cached log is downloaded once and served from the disk afterwards")
+    public void testCacheHit() throws IOException {
+        try (LogFileCache.CachedLogFile logFile = get("plan-1")) {
+            Assert.assertEquals(Files.size(logFile.getPath()), LOG_SIZE);
+        }
+        try (LogFileCache.CachedLogFile logFile = get("plan-1")) {
+            Assert.assertTrue(Files.exists(logFile.getPath()));
+        }
+        Assert.assertEquals(downloads.get(), 1);
+    }
+
+    @Test(description = "The least recently used log is deleted once the cache exceeds its maximum size")
+    public void testLeastRecentlyUsedEviction() throws IOException {
+        Path first;
+        try (LogFileCache.CachedLogFile logFile = get("plan-1")) {
+            first = logFile.getPath();
+        }
+        Path second;
+        try (LogFileCache.CachedLogFile logFile = get("plan-2")) {
+            second = logFile.getPath();
+        }
+        // Use the first log so that the second one becomes the least recently used
+        get("plan-1").close();
+        get("plan-3").close();
+
+        Assert.assertTrue(Files.exists(first));
+        Assert.assertFalse(Files.exists(second));
+        Assert.assertEquals(logFileCache.getSize(), 2 * LOG_SIZE);
+    }
+
+    @Test(description = "A log being read is not deleted until its last reader closes it")
+    public void testLogInUseIsNotEvicted() throws IOException {
+        LogFileCache.CachedLogFile firstReader = get("plan-1");
+        LogFileCache.CachedLogFile secondReader = get("plan-1");
+        LogFileCache.CachedLogFile otherReader = get("plan-2");
+        LogFileCache.CachedLogFile anotherReader = get("plan-3");
+
+        Path inUse = firstReader.getPath();
+        Assert.assertTrue(Files.exists(inUse), "A log being read must not be evicted.");
+        Assert.assertEquals(logFileCache.getSize(), 3 * LOG_SIZE);
+
+        firstReader.close();
+        // Closing twice must not release the log of the other reader
+        firstReader.close();
+        Assert.assertTrue(Files.exists(inUse), "A log being read must not be evicted.");
+
+        secondReader.close();
+        Assert.assertFalse(Files.exists(inUse), "The log must be evicted once its last reader closes it.");
+        Assert.assertEquals(logFileCache.getSize(), 2 * LOG_SIZE);
+
+        otherReader.close();
+        anotherReader.close();
+        Assert.assertEquals(downloads.get(), 3);
+    }
+
+    private LogFileCache.CachedLogFile get(String testPlanId) throws IOException {
+        return logFileCache.get(testPlanId, "full", "etag", () -> {
+            downloads.incrementAndGet();
+            return new ByteArrayInputStream(new byte[LOG_SIZE]);
+        });
+    }
+}